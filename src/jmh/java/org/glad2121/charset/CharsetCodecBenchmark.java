@@ -0,0 +1,125 @@
+package org.glad2121.charset;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CharsetEncoder;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 文字集合のエンコード・デコードのスループットを計測するベンチマーク。
+ * <p>
+ * このライブラリが提供する4つの文字集合と、JDK の Shift_JIS・Windows-31J・x-SJIS_0213 を、
+ * すべての文字集合で同じ文字に変換できる文字だけのコーパスで比較する。
+ *
+ * @author glad2121
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CharsetCodecBenchmark {
+
+    /**
+     * 比較するすべての文字集合。
+     */
+    static final String[] CHARSETS = {
+            "Shift_JIS", "Windows-31J", "x-SJIS_0213",
+            "x-Shift_JIS-g", "x-Shift_JIS-2004-g", "x-Windows-31J-g", "x-Windows-31J-2004-g"};
+
+    /**
+     * 文字集合名。
+     */
+    @Param({
+            "Shift_JIS", "Windows-31J", "x-SJIS_0213",
+            "x-Shift_JIS-g", "x-Shift_JIS-2004-g", "x-Windows-31J-g", "x-Windows-31J-2004-g"})
+    String charsetName;
+
+    /**
+     * コーパスの種類。
+     */
+    @Param({Corpus.ASCII, Corpus.JAPANESE})
+    String kind;
+
+    /**
+     * 文字列の長さ。
+     */
+    @Param({"4096"})
+    int length;
+
+    /**
+     * エンコーダ。
+     */
+    CharsetEncoder encoder;
+
+    /**
+     * デコーダ。
+     */
+    CharsetDecoder decoder;
+
+    /**
+     * エンコードする文字列。
+     */
+    CharBuffer chars;
+
+    /**
+     * デコードするバイト列。
+     */
+    ByteBuffer bytes;
+
+    /**
+     * 入力を準備します。
+     */
+    @Setup
+    public void setUp() {
+        Charset[] charsets = new Charset[CHARSETS.length];
+        for (int i = 0; i < charsets.length; ++i) {
+            charsets[i] = Charset.forName(CHARSETS[i]);
+        }
+        Charset charset = Charset.forName(charsetName);
+        String text = Corpus.of(kind, length, charsets);
+        this.encoder = charset.newEncoder();
+        this.decoder = charset.newDecoder();
+        this.chars = CharBuffer.wrap(text);
+        this.bytes = ByteBuffer.wrap(text.getBytes(charset));
+    }
+
+    /**
+     * エンコードします。
+     *
+     * @return エンコード結果
+     * @throws CharacterCodingException 変換できない文字がある場合
+     */
+    @Benchmark
+    public ByteBuffer encode() throws CharacterCodingException {
+        return encoder.encode(chars.rewind());
+    }
+
+    /**
+     * デコードします。
+     *
+     * @return デコード結果
+     * @throws CharacterCodingException 不正な入力がある場合
+     */
+    @Benchmark
+    public CharBuffer decode() throws CharacterCodingException {
+        return decoder.decode(bytes.rewind());
+    }
+
+}
@@ -0,0 +1,141 @@
+package org.glad2121.charset;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link CharsetUtils} の文字列の判定の処理時間を計測するベンチマーク。
+ * <p>
+ * 半角・全角の判定は、ストリームによる判定と比較する。
+ *
+ * @author glad2121
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CharsetPredicateBenchmark {
+
+    /**
+     * 文字列の長さ。
+     */
+    @Param({"10", "10000"})
+    int length;
+
+    /**
+     * 半角英数字の文字列。
+     */
+    String alnum;
+
+    /**
+     * 日本語の文字列。
+     */
+    String japanese;
+
+    /**
+     * 入力を準備します。
+     */
+    @Setup
+    public void setUp() {
+        StringBuilder sb = new StringBuilder(length);
+        while (sb.length() < length) {
+            sb.append("Ab3xYz09Qr");
+        }
+        this.alnum = sb.substring(0, length);
+        this.japanese = Corpus.of(Corpus.JAPANESE, length);
+    }
+
+    /**
+     * 半角英数字か、ストリームで判定します。
+     *
+     * @return 判定結果
+     */
+    @Benchmark
+    public boolean halfwidthAlnumStream() {
+        return alnum.chars().allMatch(CharsetUtils::isHalfwidthAlnum);
+    }
+
+    /**
+     * 半角英数字か判定します。
+     *
+     * @return 判定結果
+     */
+    @Benchmark
+    public boolean halfwidthAlnum() {
+        return CharsetUtils.isHalfwidthAlnum(alnum);
+    }
+
+    /**
+     * 半角 ASCII か、ストリームで判定します。
+     *
+     * @return 判定結果
+     */
+    @Benchmark
+    public boolean halfwidthAsciiStream() {
+        return alnum.chars().allMatch(CharsetUtils::isHalfwidthAscii);
+    }
+
+    /**
+     * 半角 ASCII か判定します。
+     *
+     * @return 判定結果
+     */
+    @Benchmark
+    public boolean halfwidthAscii() {
+        return CharsetUtils.isHalfwidthAscii(alnum);
+    }
+
+    /**
+     * 半角カナを含まないか判定します。
+     *
+     * @return 判定結果
+     */
+    @Benchmark
+    public boolean noHalfwidthKana() {
+        return CharsetUtils.noHalfwidthKana(japanese);
+    }
+
+    /**
+     * JIS 1990 か判定します。
+     *
+     * @return 判定結果
+     */
+    @Benchmark
+    public boolean jis1990() {
+        return CharsetUtils.isJis1990(japanese);
+    }
+
+    /**
+     * 通用日本文字集合か判定します。
+     *
+     * @return 判定結果
+     */
+    @Benchmark
+    public boolean commonJ() {
+        return CharsetUtils.isCommonJ(japanese);
+    }
+
+    /**
+     * 文字の分類を要約します。
+     *
+     * @return 要約
+     */
+    @Benchmark
+    public CharClassSummary classify() {
+        return CharsetUtils.classify(japanese);
+    }
+
+}
@@ -0,0 +1,233 @@
+package org.glad2121.charset;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.IntPredicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * ベンチマークの入力文字列 (コーパス)。
+ * <p>
+ * テスト用の設定ファイル (charset.txt) の文字を、日本語の文章に近い割合で並べて生成する。
+ * 乱数の種は固定なので、同じ引数ならば毎回同じ文字列になる。
+ *
+ * @author glad2121
+ */
+final class Corpus {
+
+    /**
+     * 設定ファイル名。
+     */
+    static final String SOURCE_NAME = "charset.txt";
+
+    /**
+     * 設定ファイルの行のパターン (単独のコードポイントの行のみ)。
+     */
+    static final Pattern LINE_PATTERN = Pattern.compile("([0-9A-F]{4})\\s*,(\\d{2}),(\\d{6}),.*");
+
+    /**
+     * 種類: ASCII のみ。
+     */
+    static final String ASCII = "ascii";
+
+    /**
+     * 種類: ひらがな・カタカナ (半角カナを含む) のみ。
+     */
+    static final String KANA = "kana";
+
+    /**
+     * 種類: ASCII、かな、JIS X 0208 の漢字を混ぜた文章。
+     */
+    static final String JAPANESE = "japanese";
+
+    /**
+     * 種類: 日本語の文章に、NEC特殊文字、IBM拡張文字、JIS X 0213 の文字を混ぜたもの。
+     */
+    static final String EXTENDED = "extended";
+
+    /**
+     * 設定ファイルの (コードポイント, 区分値) の一覧。
+     */
+    static final List<int[]> ENTRIES = load();
+
+    /**
+     * 使用しないコンストラクタ。
+     */
+    private Corpus() {
+    }
+
+    /**
+     * 指定された種類の文字列を生成します。
+     *
+     * @param kind 種類
+     * @param length 文字列の長さ
+     * @return 文字列
+     */
+    static String of(String kind, int length) {
+        return of(kind, length, cp -> true);
+    }
+
+    /**
+     * 指定された文字集合でエンコードできる文字だけで、指定された種類の文字列を生成します。
+     *
+     * @param kind 種類
+     * @param length 文字列の長さ
+     * @param charsets 文字集合
+     * @return 文字列
+     */
+    static String of(String kind, int length, Charset... charsets) {
+        List<CharsetEncoder> encoders = new ArrayList<>();
+        for (Charset charset : charsets) {
+            encoders.add(charset.newEncoder());
+        }
+        return of(kind, length, cp -> encoders.stream()
+            .allMatch(e -> e.canEncode((char) cp) && roundTrips(e.charset(), cp)));
+    }
+
+    /**
+     * 指定された条件を満たす文字だけで、指定された種類の文字列を生成します。
+     *
+     * @param kind 種類
+     * @param length 文字列の長さ
+     * @param filter 文字の条件
+     * @return 文字列
+     */
+    static String of(String kind, int length, IntPredicate filter) {
+        // 文字の分類と、文章中の割合 (百分率)。
+        int[][] groups;
+        int[] weights;
+        switch (kind) {
+        case ASCII:
+            groups = new int[][] {select(0x11, filter)};
+            weights = new int[] {100};
+            break;
+        case KANA:
+            groups = new int[][] {hiragana(filter), katakana(filter), select(0x22, filter)};
+            weights = new int[] {60, 30, 10};
+            break;
+        case JAPANESE:
+            groups = new int[][] {select(0x11, filter), hiragana(filter), katakana(filter),
+                    kanji(filter), select(0x22, filter)};
+            weights = new int[] {15, 45, 10, 28, 2};
+            break;
+        case EXTENDED:
+            groups = new int[][] {select(0x11, filter), hiragana(filter), katakana(filter),
+                    kanji(filter), select(0x43, filter), select(0x44, filter),
+                    select(0x45, filter), select(0x55, filter)};
+            weights = new int[] {15, 40, 10, 25, 2, 2, 4, 2};
+            break;
+        default:
+            throw new IllegalArgumentException("Unknown kind: " + kind);
+        }
+        Random random = new Random(0L);
+        StringBuilder sb = new StringBuilder(length);
+        while (sb.length() < length) {
+            int r = random.nextInt(100);
+            int g = 0;
+            while (r >= weights[g]) {
+                r -= weights[g++];
+            }
+            if (groups[g].length == 0) {
+                continue;
+            }
+            sb.append((char) groups[g][random.nextInt(groups[g].length)]);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 指定された区分値の文字を返します。
+     *
+     * @param type 区分値
+     * @param filter 文字の条件
+     * @return コードポイントの配列
+     */
+    static int[] select(int type, IntPredicate filter) {
+        return ENTRIES.stream()
+            .filter(e -> e[1] == type)
+            .mapToInt(e -> e[0])
+            .filter(filter)
+            .toArray();
+    }
+
+    /**
+     * JIS X 0208 のひらがなを返します。
+     *
+     * @param filter 文字の条件
+     * @return コードポイントの配列
+     */
+    static int[] hiragana(IntPredicate filter) {
+        return select(0x31, filter.and(cp -> 0x3041 <= cp && cp <= 0x3093));
+    }
+
+    /**
+     * JIS X 0208 のカタカナを返します。
+     *
+     * @param filter 文字の条件
+     * @return コードポイントの配列
+     */
+    static int[] katakana(IntPredicate filter) {
+        return select(0x31, filter.and(cp -> 0x30A1 <= cp && cp <= 0x30F6));
+    }
+
+    /**
+     * JIS X 0208 の漢字を返します。
+     *
+     * @param filter 文字の条件
+     * @return コードポイントの配列
+     */
+    static int[] kanji(IntPredicate filter) {
+        return select(0x31, filter.and(
+                cp -> Character.UnicodeScript.of(cp) == Character.UnicodeScript.HAN));
+    }
+
+    /**
+     * 文字集合でエンコード・デコードして元の文字に戻るか判定します。
+     *
+     * @param charset 文字集合
+     * @param cp コードポイント
+     * @return 元の文字に戻れば {@code true}
+     */
+    static boolean roundTrips(Charset charset, int cp) {
+        String s = String.valueOf((char) cp);
+        return s.equals(new String(s.getBytes(charset), charset));
+    }
+
+    /**
+     * 設定ファイルを読み込みます。
+     *
+     * @return (コードポイント, 区分値) の一覧
+     */
+    static List<int[]> load() {
+        try (InputStream in = Corpus.class.getResourceAsStream(SOURCE_NAME)) {
+            if (in == null) {
+                throw new IllegalStateException("Resource not found: " + SOURCE_NAME);
+            }
+            List<int[]> entries = new ArrayList<>();
+            BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(in, StandardCharsets.UTF_8));
+            String line;
+            while ((line = reader.readLine()) != null) {
+                Matcher m = LINE_PATTERN.matcher(line);
+                if (m.matches()) {
+                    entries.add(new int[] {
+                            Integer.parseInt(m.group(1), 16), Integer.parseInt(m.group(2), 16)});
+                }
+            }
+            return entries;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+}
@@ -0,0 +1,126 @@
+package org.glad2121.charset;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * かな変換と、コードポイント変換のスループットを計測するベンチマーク。
+ *
+ * @author glad2121
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class KanaConversionBenchmark {
+
+    /**
+     * コーパスの種類。
+     */
+    @Param({Corpus.KANA, Corpus.JAPANESE})
+    String kind;
+
+    /**
+     * 文字列の長さ。
+     */
+    @Param({"4096"})
+    int length;
+
+    /**
+     * 変換する文字列。
+     */
+    String text;
+
+    /**
+     * 半角カナを含まない変換前の文字列 (全角から半角への変換用)。
+     */
+    String fullwidth;
+
+    /**
+     * 入力を準備します。
+     */
+    @Setup
+    public void setUp() {
+        this.text = Corpus.of(kind, length);
+        this.fullwidth = CharsetUtils.toFullwidthKatakana(text);
+    }
+
+    /**
+     * 半角カナに変換します (濁音・半濁音の分解を含む)。
+     *
+     * @return 変換結果
+     */
+    @Benchmark
+    public String toHalfwidthKana() {
+        return CharsetUtils.toHalfwidthKana(fullwidth);
+    }
+
+    /**
+     * 全角カタカナに変換します (濁点・半濁点の合成を含む)。
+     *
+     * @return 変換結果
+     */
+    @Benchmark
+    public String toFullwidthKatakana() {
+        return CharsetUtils.toFullwidthKatakana(text);
+    }
+
+    /**
+     * 全角ひらがなに変換します (濁点・半濁点の合成を含む)。
+     *
+     * @return 変換結果
+     */
+    @Benchmark
+    public String toFullwidthHiragana() {
+        return CharsetUtils.toFullwidthHiragana(text);
+    }
+
+    /**
+     * ひらがなに変換します。
+     *
+     * @return 変換結果
+     */
+    @Benchmark
+    public String toHiragana() {
+        return CharsetUtils.toHiragana(text);
+    }
+
+    /**
+     * カタカナに変換します。
+     *
+     * @return 変換結果
+     */
+    @Benchmark
+    public String toKatakana() {
+        return CharsetUtils.toKatakana(text);
+    }
+
+    /**
+     * コードポイント変換を1文字ずつ呼び出します。
+     *
+     * @return 変換結果の合計 (最適化による除去を防ぐため)
+     */
+    @Benchmark
+    public int convertCodePoints() {
+        CodePointConverter converter = CodePointConverters.TO_KATAKANA;
+        int sum = 0;
+        for (int i = 0; i < text.length(); ++i) {
+            sum += converter.convert(text.charAt(i));
+        }
+        return sum;
+    }
+
+}
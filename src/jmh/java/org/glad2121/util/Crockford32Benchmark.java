@@ -0,0 +1,126 @@
+package org.glad2121.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@code long} の配列と Crockford's Base32 の相互変換の時間を計測するベンチマーク。
+ * <p>
+ * 1件ずつ文字列を経由する従来の方法と、バイト列へ一括で変換する方法を比較する。
+ *
+ * @author glad2121
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class Crockford32Benchmark {
+
+    /**
+     * 値の個数。
+     */
+    @Param({"1000"})
+    int size;
+
+    /**
+     * 変換する値。
+     */
+    long[] values;
+
+    /**
+     * 変換する値の文字列表現。
+     */
+    String[] strings;
+
+    /**
+     * 変換結果のバイト列。
+     */
+    byte[] ascii;
+
+    /**
+     * 変換結果の値。
+     */
+    long[] parsed;
+
+    /**
+     * 値と変換結果の格納先を準備します。
+     */
+    @Setup
+    public void setUp() {
+        values = ThreadLocalRandom.current().longs(size).toArray();
+        strings = new String[size];
+        for (int i = 0; i < size; ++i) {
+            strings[i] = NumberUtils.toCrockford32(values[i], NumberUtils.CROCKFORD32_LONG_LENGTH);
+        }
+        ascii = NumberUtils.toCrockford32(values);
+        parsed = new long[size];
+    }
+
+    /**
+     * 1件ずつ文字列に変換してバイト列へ書き込みます (従来の方法)。
+     *
+     * @return バイト列
+     */
+    @Benchmark
+    public byte[] encodePerValue() {
+        int offset = 0;
+        for (int i = 0; i < size; ++i) {
+            byte[] bytes = NumberUtils.toCrockford32(values[i], NumberUtils.CROCKFORD32_LONG_LENGTH)
+                    .getBytes(StandardCharsets.US_ASCII);
+            System.arraycopy(bytes, 0, ascii, offset, bytes.length);
+            offset += bytes.length;
+        }
+        return ascii;
+    }
+
+    /**
+     * バイト列へ一括で変換します。
+     *
+     * @return バイト列
+     */
+    @Benchmark
+    public byte[] encodeBulk() {
+        NumberUtils.toCrockford32(values, 0, size, ascii, 0);
+        return ascii;
+    }
+
+    /**
+     * 1件ずつ文字列から解析します (従来の方法)。
+     *
+     * @return 値
+     */
+    @Benchmark
+    public long[] decodePerValue() {
+        for (int i = 0; i < size; ++i) {
+            parsed[i] = NumberUtils.parseLong(strings[i], 32);
+        }
+        return parsed;
+    }
+
+    /**
+     * バイト列から一括で解析します。
+     *
+     * @return 値
+     */
+    @Benchmark
+    public long[] decodeBulk() {
+        NumberUtils.parseCrockford32(ascii, 0, parsed, 0, size);
+        return parsed;
+    }
+
+}
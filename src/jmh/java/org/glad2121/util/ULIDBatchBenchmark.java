@@ -0,0 +1,97 @@
+package org.glad2121.util;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * 大量の ULID をまとめて生成する時間を計測するベンチマーク。
+ * <p>
+ * {@link ULID.Generator#nextULID()} を繰り返し呼び出す場合と、
+ * {@link ULID.Generator#nextBatch(int, long[], long[])} でまとめて生成する場合を比較する。
+ *
+ * @author glad2121
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ULIDBatchBenchmark {
+
+    /**
+     * 生成する個数。
+     */
+    @Param({"1000"})
+    int size;
+
+    /**
+     * 単調増加のジェネレータ。
+     */
+    final ULID.Generator generator = new ULID.MonotonicGenerator();
+
+    /**
+     * 最上位ビット列を格納する配列。
+     */
+    long[] msb;
+
+    /**
+     * 最下位ビット列を格納する配列。
+     */
+    long[] lsb;
+
+    /**
+     * 配列を準備します。
+     */
+    @Setup
+    public void setUp() {
+        msb = new long[size];
+        lsb = new long[size];
+    }
+
+    /**
+     * {@code nextULID()} を繰り返し呼び出して生成します。
+     *
+     * @param bh {@code Blackhole}
+     */
+    @Benchmark
+    public void loop(Blackhole bh) {
+        for (int i = 0; i < size; ++i) {
+            bh.consume(generator.nextULID());
+        }
+    }
+
+    /**
+     * {@code nextBatch()} で配列に生成します。
+     *
+     * @return 最下位ビット列の配列
+     */
+    @Benchmark
+    public long[] batchArrays() {
+        generator.nextBatch(size, msb, lsb);
+        return lsb;
+    }
+
+    /**
+     * {@code nextBatch()} で配列のビューとして生成します。
+     *
+     * @return ULID の配列のビュー
+     */
+    @Benchmark
+    public ULIDArray batchView() {
+        return generator.nextBatch(size);
+    }
+
+}
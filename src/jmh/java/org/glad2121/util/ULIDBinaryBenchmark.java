@@ -0,0 +1,126 @@
+package org.glad2121.util;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * ULID のビット列の読み書きの時間を計測するベンチマーク。
+ * <p>
+ * 1バイトずつシフトする従来の方法と、{@code VarHandle} やバッファの {@code putLong} を使う方法を比較する。
+ *
+ * @author glad2121
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ULIDBinaryBenchmark {
+
+    /**
+     * ULID。
+     */
+    final ULID ulid = ULID.nextULID();
+
+    /**
+     * 読み書きするバイト列。
+     */
+    final byte[] bytes = ulid.toBytes();
+
+    /**
+     * 読み書きするヒープ外のバッファ。
+     */
+    final ByteBuffer direct = ByteBuffer.allocateDirect(ULID.BYTES);
+
+    /**
+     * 1バイトずつシフトして書き込みます (従来の方法)。
+     *
+     * @return バイト列
+     */
+    @Benchmark
+    public byte[] writeShift() {
+        long msb = ulid.getMostSignificantBits();
+        for (int i = 7; i >= 0; --i) {
+            bytes[i] = (byte) (msb & 0xFF);
+            msb >>= 8;
+        }
+        long lsb = ulid.getLeastSignificantBits();
+        for (int i = 15; i >= 8; --i) {
+            bytes[i] = (byte) (lsb & 0xFF);
+            lsb >>= 8;
+        }
+        return bytes;
+    }
+
+    /**
+     * {@code VarHandle} でバイト列へ書き込みます。
+     *
+     * @return バイト列
+     */
+    @Benchmark
+    public byte[] writeBytes() {
+        ulid.writeTo(bytes, 0);
+        return bytes;
+    }
+
+    /**
+     * ヒープ外のバッファへ書き込みます。
+     *
+     * @return バッファ
+     */
+    @Benchmark
+    public ByteBuffer writeDirect() {
+        ulid.writeTo(direct, 0);
+        return direct;
+    }
+
+    /**
+     * 1バイトずつシフトして読み取ります (従来の方法)。
+     *
+     * @return ULID
+     */
+    @Benchmark
+    public ULID readShift() {
+        long msb = 0;
+        for (int i = 0; i < 8; ++i) {
+            msb = (msb << 8) | (bytes[i] & 0xFF);
+        }
+        long lsb = 0;
+        for (int i = 8; i < 16; ++i) {
+            lsb = (lsb << 8) | (bytes[i] & 0xFF);
+        }
+        return new ULID(msb, lsb);
+    }
+
+    /**
+     * {@code VarHandle} でバイト列から読み取ります。
+     *
+     * @return ULID
+     */
+    @Benchmark
+    public ULID readBytes() {
+        return ULID.readFrom(bytes, 0);
+    }
+
+    /**
+     * ヒープ外のバッファから読み取ります。
+     *
+     * @return ULID
+     */
+    @Benchmark
+    public ULID readDirect() {
+        return ULID.readFrom(direct, 0);
+    }
+
+}
@@ -0,0 +1,122 @@
+package org.glad2121.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * ULID の文字列表現の読み取り・書き込みの時間を計測するベンチマーク。
+ * <p>
+ * 部分文字列と {@link NumberUtils#parseLong(CharSequence, int)} を使う従来の方法と、
+ * 変換表を使う {@link ULID#parse(CharSequence, int)} などを比較する。
+ *
+ * @author glad2121
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ULIDCodecBenchmark {
+
+    /**
+     * ULID。
+     */
+    final ULID ulid = ULID.nextULID();
+
+    /**
+     * ULID の文字列表現。
+     */
+    final String text = ulid.toString();
+
+    /**
+     * ULID の ASCII 表現。
+     */
+    final byte[] ascii = text.getBytes(StandardCharsets.US_ASCII);
+
+    /**
+     * 書き込み先の文字の配列。
+     */
+    final char[] chars = new char[ULID.LENGTH];
+
+    /**
+     * 書き込み先のバイト列。
+     */
+    final byte[] bytes = new byte[ULID.LENGTH];
+
+    /**
+     * 部分文字列と {@code parseLong} で読み取ります (従来の方法)。
+     *
+     * @return ULID
+     */
+    @Benchmark
+    public ULID parseSubstring() {
+        long timestamp = NumberUtils.parseLong(text.substring(0, 10), 32);
+        long part1 = NumberUtils.parseLong(text.substring(10, 18), 32);
+        long part2 = NumberUtils.parseLong(text.substring(18), 32);
+        return new ULID((timestamp << 16) | (part1 >>> 24), (part1 << 40) | part2);
+    }
+
+    /**
+     * 文字列から読み取ります。
+     *
+     * @return ULID
+     */
+    @Benchmark
+    public ULID parseString() {
+        return ULID.parse(text, 0);
+    }
+
+    /**
+     * ASCII のバイト列から読み取ります。
+     *
+     * @return ULID
+     */
+    @Benchmark
+    public ULID parseAscii() {
+        return ULID.parse(ascii, 0);
+    }
+
+    /**
+     * 文字列に変換します。
+     *
+     * @return 文字列
+     */
+    @Benchmark
+    public String formatString() {
+        return ulid.toString();
+    }
+
+    /**
+     * 文字の配列へ書き込みます。
+     *
+     * @return 文字の配列
+     */
+    @Benchmark
+    public char[] formatChars() {
+        ulid.formatTo(chars, 0);
+        return chars;
+    }
+
+    /**
+     * ASCII のバイト列へ書き込みます。
+     *
+     * @return バイト列
+     */
+    @Benchmark
+    public byte[] formatAscii() {
+        ulid.formatTo(bytes, 0);
+        return bytes;
+    }
+
+}
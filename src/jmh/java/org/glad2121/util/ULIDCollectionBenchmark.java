@@ -0,0 +1,165 @@
+package org.glad2121.util;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * ULID の集合に追加・判定する時間を計測するベンチマーク。
+ * <p>
+ * {@code HashSet<ULID>} と、{@link ULIDHashSet} (ヒープ上・ヒープ外) を比較する。
+ *
+ * @author glad2121
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ULIDCollectionBenchmark {
+
+    /**
+     * ULID の個数。
+     */
+    @Param({"1000000"})
+    int size;
+
+    /**
+     * 追加する ULID。
+     */
+    ULIDArray ulids;
+
+    /**
+     * 判定に使う {@code HashSet<ULID>}。
+     */
+    Set<ULID> hashSet;
+
+    /**
+     * 判定に使う {@code ULIDHashSet}。
+     */
+    ULIDHashSet ulidHashSet;
+
+    /**
+     * 判定に使う、ヒープ外の {@code ULIDHashSet}。
+     */
+    ULIDHashSet offHeapSet;
+
+    /**
+     * ULID と集合を準備します。
+     */
+    @Setup
+    public void setUp() {
+        ULID[] array = new ULID[size];
+        for (int i = 0; i < size; ++i) {
+            array[i] = ULID.nextULID();
+        }
+        ulids = ULIDArray.of(array);
+        hashSet = addHashSet();
+        ulidHashSet = addULIDHashSet();
+        offHeapSet = addOffHeapSet();
+    }
+
+    /**
+     * {@code HashSet<ULID>} に追加します。
+     *
+     * @return 集合
+     */
+    @Benchmark
+    public Set<ULID> addHashSet() {
+        Set<ULID> set = new HashSet<>();
+        for (int i = 0; i < size; ++i) {
+            set.add(ulids.get(i));
+        }
+        return set;
+    }
+
+    /**
+     * {@code ULIDHashSet} に追加します。
+     *
+     * @return 集合
+     */
+    @Benchmark
+    public ULIDHashSet addULIDHashSet() {
+        ULIDHashSet set = new ULIDHashSet();
+        for (int i = 0; i < size; ++i) {
+            set.add(ulids.getMostSignificantBits(i), ulids.getLeastSignificantBits(i));
+        }
+        return set;
+    }
+
+    /**
+     * ヒープ外の {@code ULIDHashSet} に追加します。
+     *
+     * @return 集合
+     */
+    @Benchmark
+    public ULIDHashSet addOffHeapSet() {
+        ULIDHashSet set = ULIDHashSet.offHeap(0);
+        for (int i = 0; i < size; ++i) {
+            set.add(ulids.getMostSignificantBits(i), ulids.getLeastSignificantBits(i));
+        }
+        return set;
+    }
+
+    /**
+     * {@code HashSet<ULID>} で判定します。
+     *
+     * @return 含んでいた件数
+     */
+    @Benchmark
+    public int containsHashSet() {
+        int count = 0;
+        for (int i = 0; i < size; ++i) {
+            if (hashSet.contains(ulids.get(i))) {
+                ++count;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * {@code ULIDHashSet} で判定します。
+     *
+     * @return 含んでいた件数
+     */
+    @Benchmark
+    public int containsULIDHashSet() {
+        int count = 0;
+        for (int i = 0; i < size; ++i) {
+            if (ulidHashSet.contains(ulids.getMostSignificantBits(i), ulids.getLeastSignificantBits(i))) {
+                ++count;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * ヒープ外の {@code ULIDHashSet} で判定します。
+     *
+     * @return 含んでいた件数
+     */
+    @Benchmark
+    public int containsOffHeapSet() {
+        int count = 0;
+        for (int i = 0; i < size; ++i) {
+            if (offHeapSet.contains(ulids.getMostSignificantBits(i), ulids.getLeastSignificantBits(i))) {
+                ++count;
+            }
+        }
+        return count;
+    }
+
+}
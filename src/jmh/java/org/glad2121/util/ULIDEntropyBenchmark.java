@@ -0,0 +1,118 @@
+package org.glad2121.util;
+
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * ULID のエントロピーの供給元ごとに、1件あたりの生成時間を計測するベンチマーク。
+ * <p>
+ * {@code SecureRandom} を直接呼び出す場合と、{@code SecureRandom} で鍵を与えた AES-CTR のバッファ、
+ * {@code ThreadLocalRandom} を、1スレッドと16スレッドで比較する。
+ *
+ * @author glad2121
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ULIDEntropyBenchmark {
+
+    /**
+     * {@code SecureRandom} を直接呼び出すジェネレータ。
+     */
+    final ULID.Generator secureRandom =
+            new ULID.DefaultGenerator(Clock.systemUTC(), new SecureRandom());
+
+    /**
+     * {@code SecureRandom} で鍵を与えた AES-CTR のバッファを使うジェネレータ。
+     */
+    final ULID.Generator bufferedSecure =
+            new ULID.DefaultGenerator(Clock.systemUTC(), ULID.EntropySource.secure());
+
+    /**
+     * {@code ThreadLocalRandom} を使うジェネレータ。
+     */
+    final ULID.Generator fast =
+            new ULID.DefaultGenerator(Clock.systemUTC(), ULID.EntropySource.fast());
+
+    /**
+     * 1スレッドから、{@code SecureRandom} を直接呼び出して生成します。
+     *
+     * @return ULID
+     */
+    @Benchmark
+    @Threads(1)
+    public ULID secureRandom01() {
+        return secureRandom.nextULID();
+    }
+
+    /**
+     * 16スレッドから、{@code SecureRandom} を直接呼び出して生成します。
+     *
+     * @return ULID
+     */
+    @Benchmark
+    @Threads(16)
+    public ULID secureRandom16() {
+        return secureRandom.nextULID();
+    }
+
+    /**
+     * 1スレッドから、{@link ULID.EntropySource#secure()} で生成します。
+     *
+     * @return ULID
+     */
+    @Benchmark
+    @Threads(1)
+    public ULID bufferedSecure01() {
+        return bufferedSecure.nextULID();
+    }
+
+    /**
+     * 16スレッドから、{@link ULID.EntropySource#secure()} で生成します。
+     *
+     * @return ULID
+     */
+    @Benchmark
+    @Threads(16)
+    public ULID bufferedSecure16() {
+        return bufferedSecure.nextULID();
+    }
+
+    /**
+     * 1スレッドから、{@code ThreadLocalRandom} で生成します。
+     *
+     * @return ULID
+     */
+    @Benchmark
+    @Threads(1)
+    public ULID fast01() {
+        return fast.nextULID();
+    }
+
+    /**
+     * 16スレッドから、{@code ThreadLocalRandom} で生成します。
+     *
+     * @return ULID
+     */
+    @Benchmark
+    @Threads(16)
+    public ULID fast16() {
+        return fast.nextULID();
+    }
+
+}
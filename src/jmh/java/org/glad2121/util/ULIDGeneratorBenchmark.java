@@ -0,0 +1,130 @@
+package org.glad2121.util;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 複数のスレッドで1つの ULID ジェネレータを共有した場合のスループットを計測するベンチマーク。
+ * <p>
+ * スレッド数は 1, 4, 16, 64 で、{@link ULID.DefaultGenerator} と
+ * {@link ULID.MonotonicGenerator} を比較する。
+ *
+ * @author glad2121
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ULIDGeneratorBenchmark {
+
+    /**
+     * 共有するデフォルトのジェネレータ。
+     */
+    final ULID.Generator defaultGenerator = new ULID.DefaultGenerator();
+
+    /**
+     * 共有する単調増加のジェネレータ。
+     */
+    final ULID.Generator monotonicGenerator = new ULID.MonotonicGenerator();
+
+    /**
+     * 1スレッドから、デフォルトのジェネレータで生成します。
+     *
+     * @return ULID
+     */
+    @Benchmark
+    @Threads(1)
+    public ULID default01() {
+        return defaultGenerator.nextULID();
+    }
+
+    /**
+     * 4スレッドから、デフォルトのジェネレータで生成します。
+     *
+     * @return ULID
+     */
+    @Benchmark
+    @Threads(4)
+    public ULID default04() {
+        return defaultGenerator.nextULID();
+    }
+
+    /**
+     * 16スレッドから、デフォルトのジェネレータで生成します。
+     *
+     * @return ULID
+     */
+    @Benchmark
+    @Threads(16)
+    public ULID default16() {
+        return defaultGenerator.nextULID();
+    }
+
+    /**
+     * 64スレッドから、デフォルトのジェネレータで生成します。
+     *
+     * @return ULID
+     */
+    @Benchmark
+    @Threads(64)
+    public ULID default64() {
+        return defaultGenerator.nextULID();
+    }
+
+    /**
+     * 1スレッドから、単調増加のジェネレータで生成します。
+     *
+     * @return ULID
+     */
+    @Benchmark
+    @Threads(1)
+    public ULID monotonic01() {
+        return monotonicGenerator.nextULID();
+    }
+
+    /**
+     * 4スレッドから、単調増加のジェネレータで生成します。
+     *
+     * @return ULID
+     */
+    @Benchmark
+    @Threads(4)
+    public ULID monotonic04() {
+        return monotonicGenerator.nextULID();
+    }
+
+    /**
+     * 16スレッドから、単調増加のジェネレータで生成します。
+     *
+     * @return ULID
+     */
+    @Benchmark
+    @Threads(16)
+    public ULID monotonic16() {
+        return monotonicGenerator.nextULID();
+    }
+
+    /**
+     * 64スレッドから、単調増加のジェネレータで生成します。
+     *
+     * @return ULID
+     */
+    @Benchmark
+    @Threads(64)
+    public ULID monotonic64() {
+        return monotonicGenerator.nextULID();
+    }
+
+}
@@ -0,0 +1,171 @@
+package org.glad2121.charset;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 文字集合でエンコードした時のバイト数の表。
+ * <p>
+ * 基本多言語面の文字ごとに、単独でエンコードした時のバイト数を保持する。
+ * サロゲート、合成用文字、変換できない文字は 0 (表を使わずにエンコードする) とする。
+ * ISO-2022-JP などの状態を持つ文字集合や BOM を出力する文字集合は、
+ * 文字ごとのバイト数の和がエンコード結果と一致しないため、表を使用しない。
+ * 文字集合ごとに初めて使用する時に一度だけ生成し、共有する。
+ *
+ * @author glad2121
+ */
+final class ByteLengthTable {
+
+    /**
+     * 表を使わずにエンコードすべき文字であることを示す値。
+     */
+    static final int SLOW = 0;
+
+    /**
+     * 表を使用できるか確認するための文字列。
+     */
+    static final String SAMPLE = "Aあ漢ｱ~\\Aｱあ";
+
+    /**
+     * 文字集合と表のマップ。
+     */
+    static final ConcurrentMap<Charset, ByteLengthTable> map = new ConcurrentHashMap<>();
+
+    /**
+     * 文字ごとのバイト数 (表を使用できなければ {@code null})。
+     */
+    final byte[] widths;
+
+    /**
+     * 文字集合の表を生成します。
+     *
+     * @param charset 文字集合
+     */
+    ByteLengthTable(Charset charset) {
+        if (!charset.canEncode()) {
+            this.widths = null;
+            return;
+        }
+        CharsetEncoder encoder = charset.newEncoder();
+        CharBuffer in = CharBuffer.allocate(1);
+        ByteBuffer out = ByteBuffer.allocate((int) Math.ceil(encoder.maxBytesPerChar()) + 16);
+        byte[] table = new byte[0x10000];
+        for (int c = 0; c < 0x10000; ++c) {
+            if (Character.isSurrogate((char) c) || ConverterEncoder.isCombiningChar(c)) {
+                continue;
+            }
+            in.clear();
+            in.put((char) c).flip();
+            table[c] = (byte) encode(encoder, in, out.clear());
+        }
+        this.widths = isConsistent(charset, table) ? table : null;
+    }
+
+    /**
+     * 文字集合の表を返します。
+     *
+     * @param charset 文字集合
+     * @return 表
+     */
+    static ByteLengthTable of(Charset charset) {
+        return map.computeIfAbsent(charset, ByteLengthTable::new);
+    }
+
+    /**
+     * 1文字をエンコードして、表に格納する値を返します。
+     *
+     * @param encoder エンコーダ
+     * @param in 入力文字バッファ
+     * @param out 出力バイトバッファ
+     * @return 表に格納する値
+     */
+    static int encode(CharsetEncoder encoder, CharBuffer in, ByteBuffer out) {
+        CoderResult result = encoder.reset().encode(in, out, true);
+        if (!result.isUnderflow() || in.hasRemaining() || !encoder.flush(out).isUnderflow()) {
+            return SLOW;
+        }
+        int length = out.position();
+        return (length <= Byte.MAX_VALUE) ? length : SLOW;
+    }
+
+    /**
+     * 文字ごとのバイト数の和が、エンコード結果と一致するか判定します。
+     *
+     * @param charset 文字集合
+     * @param table 文字ごとのバイト数
+     * @return 一致すれば {@code true}
+     */
+    static boolean isConsistent(Charset charset, byte[] table) {
+        StringBuilder sb = new StringBuilder();
+        int sum = 0;
+        for (int i = 0; i < SAMPLE.length(); ++i) {
+            char c = SAMPLE.charAt(i);
+            if (table[c] != SLOW) {
+                sb.append(c);
+                sum += table[c];
+            }
+        }
+        return sb.length() > 0 && sb.toString().getBytes(charset).length == sum;
+    }
+
+    /**
+     * 文字列をエンコードした時のバイト数を返します。
+     *
+     * @param s 文字列
+     * @param charset 文字集合
+     * @return バイト数
+     * @throws CharacterCodingRuntimeException 変換できない文字がある場合
+     */
+    int byteLength(CharSequence s, Charset charset) {
+        long length = count(s, Long.MAX_VALUE);
+        return (length >= 0) ? (int) length : CharsetUtils.encode(s, charset).length;
+    }
+
+    /**
+     * 文字列をエンコードした時のバイト数が、上限以下か判定します。
+     * <p>
+     * 上限を超えた時点で数えるのをやめる。
+     *
+     * @param s 文字列
+     * @param charset 文字集合
+     * @param maxLength バイト数の上限
+     * @return 上限以下ならば {@code true}
+     * @throws CharacterCodingRuntimeException 上限を超える前に変換できない文字がある場合
+     */
+    boolean isWithinByteLength(CharSequence s, Charset charset, int maxLength) {
+        long length = count(s, maxLength);
+        if (length < 0) {
+            length = CharsetUtils.encode(s, charset).length;
+        }
+        return length <= maxLength;
+    }
+
+    /**
+     * 表を参照して、文字列をエンコードした時のバイト数を上限を超えるまで数えます。
+     *
+     * @param s 文字列
+     * @param maxLength バイト数の上限
+     * @return バイト数 (上限を超えた場合は超えた時点までのバイト数、表を使用できなければ -1)
+     */
+    long count(CharSequence s, long maxLength) {
+        if (widths == null) {
+            return -1;
+        }
+        int length = s.length();
+        long sum = 0;
+        for (int i = 0; i < length && sum <= maxLength; ++i) {
+            int width = widths[s.charAt(i)];
+            if (width == SLOW) {
+                return -1;
+            }
+            sum += width;
+        }
+        return sum;
+    }
+
+}
@@ -0,0 +1,333 @@
+package org.glad2121.charset;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+
+import org.glad2121.util.StringUtils;
+
+/**
+ * チャネルのバイト列を、別の文字集合に変換しながら転送するトランスコーダ。
+ * <p>
+ * 入力・文字・出力の固定長のバッファを使い回すため、
+ * 入力の長さにかかわらず使用するメモリは一定になる。
+ * バッファは上限付きのキューで保持して呼び出しをまたいで再利用し、
+ * ヒープ外のメモリを {@code Cleaner} による解放に頼って確保し直さないようにする。
+ * 入力・出力のチャネルはブロッキング・モードであること。
+ * インスタンスは1回の {@link #transcode} だけに使用する。
+ *
+ * @author glad2121
+ */
+final class ChannelTranscoder {
+
+    /**
+     * バッファのサイズ。
+     */
+    static final int BUFFER_SIZE = 32 * 1024;
+
+    /**
+     * 保持する文字バッファの最大数 (バイトバッファはこの2倍)。
+     */
+    static final int POOL_CAPACITY = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+
+    /**
+     * 再利用するヒープ外のバイトバッファ。
+     */
+    static final Queue<ByteBuffer> BYTE_BUFFERS = new ArrayBlockingQueue<>(POOL_CAPACITY * 2);
+
+    /**
+     * 再利用する文字バッファ。
+     */
+    static final Queue<CharBuffer> CHAR_BUFFERS = new ArrayBlockingQueue<>(POOL_CAPACITY);
+
+    /**
+     * 入力の文字集合のデコーダ ({@code null} ならばそのまま転送する)。
+     */
+    final CharsetDecoder decoder;
+
+    /**
+     * 出力の文字集合のエンコーダ ({@code null} ならばそのまま転送する)。
+     */
+    final CharsetEncoder encoder;
+
+    /**
+     * 入力バイトバッファ。
+     */
+    final ByteBuffer in;
+
+    /**
+     * 文字バッファ。
+     */
+    final CharBuffer chars;
+
+    /**
+     * 出力バイトバッファ。
+     */
+    final ByteBuffer out;
+
+    /**
+     * 入力バイトバッファの先頭の、入力全体での位置。
+     */
+    long inOffset;
+
+    /**
+     * 文字バッファの先頭の、デコードした文字全体での位置。
+     */
+    long charOffset;
+
+    /**
+     * 出力したバイト数。
+     */
+    long written;
+
+    /**
+     * コンストラクタ。
+     * <p>
+     * 入力と出力の文字集合が同じ場合は、検証・置換を行わずにそのまま転送する。
+     *
+     * @param inCharset 入力の文字集合
+     * @param outCharset 出力の文字集合
+     * @param action 不正な入力・変換できない文字の扱い
+     * @param replace 変換できない文字を置き換える文字列 (空ならば文字集合の既定値)
+     */
+    ChannelTranscoder(Charset inCharset, Charset outCharset, CodingErrorAction action, String replace) {
+        if (inCharset.equals(outCharset)) {
+            this.decoder = null;
+            this.encoder = null;
+            this.in = byteBuffer();
+            this.chars = null;
+            this.out = null;
+            return;
+        }
+        this.decoder = inCharset.newDecoder()
+            .onMalformedInput(action)
+            .onUnmappableCharacter(action);
+        this.encoder = outCharset.newEncoder()
+            .onMalformedInput(action)
+            .onUnmappableCharacter(action);
+        if (StringUtils.isNotEmpty(replace)) {
+            decoder.replaceWith(replace);
+            encoder.replaceWith(replace.getBytes(outCharset));
+        }
+        // 出力バイトバッファがいっぱいになれば書き出すので、文字バッファと同じ容量でよい。
+        this.in = byteBuffer();
+        this.chars = charBuffer();
+        this.out = byteBuffer();
+    }
+
+    /**
+     * 再利用するヒープ外のバイトバッファを取り出します。
+     *
+     * @return 空のバイトバッファ
+     */
+    static ByteBuffer byteBuffer() {
+        ByteBuffer buffer = BYTE_BUFFERS.poll();
+        return (buffer != null) ? buffer : ByteBuffer.allocateDirect(BUFFER_SIZE);
+    }
+
+    /**
+     * 再利用する文字バッファを取り出します。
+     *
+     * @return 空の文字バッファ
+     */
+    static CharBuffer charBuffer() {
+        CharBuffer buffer = CHAR_BUFFERS.poll();
+        return (buffer != null) ? buffer : CharBuffer.allocate(BUFFER_SIZE);
+    }
+
+    /**
+     * バッファを空にして返却します。
+     * <p>
+     * キューがいっぱいならば破棄する。
+     */
+    void release() {
+        BYTE_BUFFERS.offer(in.clear());
+        if (chars != null) {
+            CHAR_BUFFERS.offer(chars.clear());
+        }
+        if (out != null) {
+            BYTE_BUFFERS.offer(out.clear());
+        }
+    }
+
+    /**
+     * 入力チャネルの終わりまで変換し、出力チャネルに書き込みます。
+     *
+     * @param src 入力チャネル
+     * @param dst 出力チャネル
+     * @return 出力したバイト数
+     * @throws IOException 入出力エラーが発生した場合
+     * @throws CharacterCodingRuntimeException 不正な入力・変換できない文字がある場合
+     */
+    long transcode(ReadableByteChannel src, WritableByteChannel dst) throws IOException {
+        try {
+            return (decoder == null) ? transfer(src, dst) : convert(src, dst);
+        } finally {
+            release();
+        }
+    }
+
+    /**
+     * 入力チャネルの終わりまで変換し、出力チャネルに書き込みます。
+     *
+     * @param src 入力チャネル
+     * @param dst 出力チャネル
+     * @return 出力したバイト数
+     * @throws IOException 入出力エラーが発生した場合
+     * @throws CharacterCodingRuntimeException 不正な入力・変換できない文字がある場合
+     */
+    long convert(ReadableByteChannel src, WritableByteChannel dst) throws IOException {
+        while (true) {
+            boolean endOfInput = (src.read(in) < 0);
+            in.flip();
+            decode(dst, endOfInput);
+            inOffset += in.position();
+            in.compact();
+            if (endOfInput) {
+                break;
+            }
+        }
+        while (decoder.flush(chars).isOverflow()) {
+            encode(dst, false);
+        }
+        encode(dst, true);
+        while (encoder.flush(out).isOverflow()) {
+            drain(dst);
+        }
+        drain(dst);
+        return written;
+    }
+
+    /**
+     * 入力バイトバッファをデコードします。
+     * <p>
+     * 文字バッファがいっぱいになるたびに、エンコードして出力チャネルに書き込む。
+     *
+     * @param dst 出力チャネル
+     * @param endOfInput 入力の終わりならば {@code true}
+     * @throws IOException 入出力エラーが発生した場合
+     */
+    void decode(WritableByteChannel dst, boolean endOfInput) throws IOException {
+        while (true) {
+            CoderResult result = decoder.decode(in, chars, endOfInput);
+            if (result.isError()) {
+                byte[] rejected = new byte[result.length()];
+                for (int i = 0; i < rejected.length; ++i) {
+                    rejected[i] = in.get(in.position() + i);
+                }
+                throw new CharacterCodingRuntimeException(
+                        inOffset + in.position(), rejected, exception(result));
+            }
+            if (result.isUnderflow()) {
+                return;
+            }
+            encode(dst, false);
+        }
+    }
+
+    /**
+     * 文字バッファをエンコードし、出力バイトバッファがいっぱいになるたびに出力チャネルに書き込みます。
+     * <p>
+     * 文字バッファの末尾に残った上位サロゲートは、次の呼び出しに持ち越す。
+     *
+     * @param dst 出力チャネル
+     * @param endOfInput 入力の終わりならば {@code true}
+     * @throws IOException 入出力エラーが発生した場合
+     */
+    void encode(WritableByteChannel dst, boolean endOfInput) throws IOException {
+        chars.flip();
+        while (true) {
+            CoderResult result = encoder.encode(chars, out, endOfInput);
+            if (result.isError()) {
+                CharSequence rejected = chars.subSequence(0, result.length()).toString();
+                throw new CharacterCodingRuntimeException(
+                        charOffset + chars.position(), rejected, exception(result));
+            }
+            if (result.isUnderflow()) {
+                break;
+            }
+            drain(dst);
+        }
+        charOffset += chars.position();
+        chars.compact();
+    }
+
+    /**
+     * 出力バイトバッファの内容を出力チャネルに書き込みます。
+     *
+     * @param dst 出力チャネル
+     * @throws IOException 入出力エラーが発生した場合
+     */
+    void drain(WritableByteChannel dst) throws IOException {
+        out.flip();
+        while (out.hasRemaining()) {
+            written += dst.write(out);
+        }
+        out.clear();
+    }
+
+    /**
+     * 入力チャネルの終わりまで、そのまま出力チャネルに書き込みます。
+     * <p>
+     * 入力がファイル・チャネルの場合は {@link FileChannel#transferTo} を使用する。
+     *
+     * @param src 入力チャネル
+     * @param dst 出力チャネル
+     * @return 出力したバイト数
+     * @throws IOException 入出力エラーが発生した場合
+     */
+    long transfer(ReadableByteChannel src, WritableByteChannel dst) throws IOException {
+        if (src instanceof FileChannel) {
+            FileChannel file = (FileChannel) src;
+            long position = file.position();
+            long size = file.size();
+            while (position < size) {
+                long count = file.transferTo(position, size - position, dst);
+                if (count <= 0) {
+                    break;
+                }
+                position += count;
+                written += count;
+            }
+            file.position(position);
+            if (position >= size) {
+                return written;
+            }
+        }
+        while (src.read(in) >= 0) {
+            in.flip();
+            while (in.hasRemaining()) {
+                written += dst.write(in);
+            }
+            in.clear();
+        }
+        return written;
+    }
+
+    /**
+     * 変換結果に対応する例外を返します。
+     *
+     * @param result 変換結果
+     * @return 例外
+     */
+    static CharacterCodingException exception(CoderResult result) {
+        try {
+            result.throwException();
+        } catch (CharacterCodingException e) {
+            return e;
+        }
+        throw new IllegalStateException(result.toString());
+    }
+
+}
@@ -0,0 +1,433 @@
+package org.glad2121.charset;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.IntPredicate;
+
+/**
+ * 文字列に含まれる文字の分類の要約。
+ * <p>
+ * {@link CharsetUtils#classify(CharSequence)} で文字列を1回だけ走査して生成し、
+ * 半角・全角の分類と文字区分の条件 ({@link CharClass}) ごとに、
+ * 該当する最初の位置と該当しない最初の位置を保持する。
+ * 同じ文字列に複数の判定を行う場合 (入力項目の検証など) は、
+ * {@code CharsetUtils} の判定を順に呼び出す代わりに、この要約から答えを得られる。
+ * <pre>
+ * CharClassSummary summary = CharsetUtils.classify(s);
+ * if (!summary.matchesAll(CharClass.COMMON_J)) {
+ *     int index = summary.indexOfMismatch(CharClass.COMMON_J);
+ *     ...
+ * }
+ * </pre>
+ * 位置は文字列の {@code char} 単位の位置で、サロゲートペアは上位サロゲートの位置になる。
+ * このクラスのインスタンスは不変で、複数のスレッドから同時に使用できる。
+ *
+ * @author glad2121
+ */
+public final class CharClassSummary {
+
+    /**
+     * 文字の分類。
+     */
+    public enum CharClass {
+
+        /**
+         * 半角数字。
+         */
+        HALFWIDTH_NUMERIC(CharsetUtils::isHalfwidthNumeric),
+
+        /**
+         * 半角英大文字。
+         */
+        HALFWIDTH_UPPER(CharsetUtils::isHalfwidthUpper),
+
+        /**
+         * 半角英小文字。
+         */
+        HALFWIDTH_LOWER(CharsetUtils::isHalfwidthLower),
+
+        /**
+         * 半角英字。
+         */
+        HALFWIDTH_ALPHA(CharsetUtils::isHalfwidthAlpha),
+
+        /**
+         * 半角英数字。
+         */
+        HALFWIDTH_ALNUM(CharsetUtils::isHalfwidthAlnum),
+
+        /**
+         * 半角 ASCII (制御文字を除く)。
+         */
+        HALFWIDTH_ASCII(CharsetUtils::isHalfwidthAscii),
+
+        /**
+         * 半角カタカナ。
+         */
+        HALFWIDTH_KATAKANA(CharsetUtils::isHalfwidthKatakana),
+
+        /**
+         * 半角カナ。
+         */
+        HALFWIDTH_KANA(CharsetUtils::isHalfwidthKana),
+
+        /**
+         * 全角数字。
+         */
+        FULLWIDTH_NUMERIC(CharsetUtils::isFullwidthNumeric),
+
+        /**
+         * 全角英大文字。
+         */
+        FULLWIDTH_UPPER(CharsetUtils::isFullwidthUpper),
+
+        /**
+         * 全角英小文字。
+         */
+        FULLWIDTH_LOWER(CharsetUtils::isFullwidthLower),
+
+        /**
+         * 全角英字。
+         */
+        FULLWIDTH_ALPHA(CharsetUtils::isFullwidthAlpha),
+
+        /**
+         * 全角英数字。
+         */
+        FULLWIDTH_ALNUM(CharsetUtils::isFullwidthAlnum),
+
+        /**
+         * 全角ひらがな。
+         */
+        FULLWIDTH_HIRAGANA(CharsetUtils::isFullwidthHiragana),
+
+        /**
+         * 全角カタカナ。
+         */
+        FULLWIDTH_KATAKANA(CharsetUtils::isFullwidthKatakana),
+
+        /**
+         * JIS X 0201 (ASCII を含む)。
+         */
+        JIS_X_0201(CharType.MASK_JIS_X_0201),
+
+        /**
+         * JIS 1990 (ASCII、JIS X 0201 を含む)。
+         */
+        JIS_1990(CharType.MASK_JIS_1990),
+
+        /**
+         * JIS 2004 (ASCII、JIS X 0201 を含む)。
+         */
+        JIS_2004(CharType.MASK_JIS_2004),
+
+        /**
+         * 基本日本文字集合。
+         */
+        BASIC_J(CharType.MASK_BASIC_J),
+
+        /**
+         * 通用日本文字集合。
+         */
+        COMMON_J(CharType.MASK_COMMON_J),
+
+        /**
+         * 利用可能な文字。
+         */
+        AVAILABLE(CharType.MASK_DEFINED);
+
+        /**
+         * 半角・全角の分類の条件 (文字区分の条件ならば {@code null})。
+         */
+        final IntPredicate predicate;
+
+        /**
+         * 文字区分の条件のビットマスク (半角・全角の分類ならば 0)。
+         */
+        final int mask;
+
+        /**
+         * 半角・全角の分類のコンストラクタ。
+         *
+         * @param predicate 条件
+         */
+        CharClass(IntPredicate predicate) {
+            this.predicate = predicate;
+            this.mask = 0;
+        }
+
+        /**
+         * 文字区分の条件のコンストラクタ。
+         *
+         * @param mask 条件のビットマスク
+         */
+        CharClass(int mask) {
+            this.predicate = null;
+            this.mask = mask;
+        }
+
+        /**
+         * 半角・全角の分類のビットを返します。
+         *
+         * @return 分類のビット
+         */
+        int bit() {
+            return 1 << ordinal();
+        }
+
+    }
+
+    /**
+     * 半角・全角の分類。
+     */
+    static final CharClass[] WIDTH_CLASSES = Arrays.stream(CharClass.values())
+        .filter(c -> c.predicate != null)
+        .toArray(CharClass[]::new);
+
+    /**
+     * 半角・全角の分類のビットの表 (コードポイントの上位8ビットごと、該当しなければ {@code null})。
+     */
+    static final int[][] WIDTH_BITS = new int[256][];
+
+    static {
+        for (int cp = 0; cp <= 0xFFFF; ++cp) {
+            int bits = 0;
+            for (CharClass c : WIDTH_CLASSES) {
+                if (c.predicate.test(cp)) {
+                    bits |= c.bit();
+                }
+            }
+            if (bits != 0) {
+                if (WIDTH_BITS[cp >>> 8] == null) {
+                    WIDTH_BITS[cp >>> 8] = new int[256];
+                }
+                WIDTH_BITS[cp >>> 8][cp & 0xFF] = bits;
+            }
+        }
+    }
+
+    /**
+     * 空文字列の要約。
+     */
+    static final CharClassSummary EMPTY = new CharClassSummary("");
+
+    /**
+     * 文字列の長さ。
+     */
+    final int length;
+
+    /**
+     * 半角・全角の分類ごとの、該当する最初の位置 (該当しなければ -1)。
+     */
+    final int[] firstMatches = new int[WIDTH_CLASSES.length];
+
+    /**
+     * 半角・全角の分類ごとの、該当しない最初の位置 (すべて該当すれば -1)。
+     */
+    final int[] firstMismatches = new int[WIDTH_CLASSES.length];
+
+    /**
+     * 出現順の区分値 (未定義は -1)。
+     */
+    final int[] typeValues;
+
+    /**
+     * 区分値ごとの最初の位置。
+     */
+    final int[] typeIndexes;
+
+    /**
+     * コンストラクタ。
+     *
+     * @param s 文字列
+     */
+    CharClassSummary(CharSequence s) {
+        Arrays.fill(firstMatches, -1);
+        Arrays.fill(firstMismatches, -1);
+        int length = s.length();
+        long[] seen = new long[4];
+        boolean undefinedSeen = false;
+        int[] typeValues = new int[8];
+        int[] typeIndexes = new int[8];
+        int typeCount = 0;
+        int present = 0;
+        int all = (1 << WIDTH_CLASSES.length) - 1;
+        for (int i = 0; i < length; ) {
+            char c = s.charAt(i);
+            int cp = c;
+            int next = i + 1;
+            if (Character.isHighSurrogate(c) && next < length) {
+                char c2 = s.charAt(next);
+                if (Character.isLowSurrogate(c2)) {
+                    cp = Character.toCodePoint(c, c2);
+                    ++next;
+                }
+            }
+
+            // 半角・全角の分類は、初めて該当した・該当しなかった分類だけ位置を記録する。
+            int[] block = (cp <= 0xFFFF) ? WIDTH_BITS[cp >>> 8] : null;
+            int bits = (block != null) ? block[cp & 0xFF] : 0;
+            for (int found = bits & ~present; found != 0; found &= found - 1) {
+                firstMatches[Integer.numberOfTrailingZeros(found)] = i;
+            }
+            for (int missing = all & ~bits; missing != 0; missing &= missing - 1) {
+                firstMismatches[Integer.numberOfTrailingZeros(missing)] = i;
+            }
+            present |= bits;
+            all &= bits;
+
+            // 文字区分は、初めて出現した区分値だけ位置を記録する。
+            int value = CodePointSet.INSTANCE.typeValue(cp);
+            boolean added;
+            if (value < 0) {
+                added = !undefinedSeen;
+                undefinedSeen = true;
+            } else {
+                added = (seen[value >>> 6] & (1L << value)) == 0;
+                seen[value >>> 6] |= 1L << value;
+            }
+            if (added) {
+                if (typeCount == typeValues.length) {
+                    typeValues = Arrays.copyOf(typeValues, typeCount * 2);
+                    typeIndexes = Arrays.copyOf(typeIndexes, typeCount * 2);
+                }
+                typeValues[typeCount] = value;
+                typeIndexes[typeCount++] = i;
+            }
+            i = next;
+        }
+        this.length = length;
+        this.typeValues = Arrays.copyOf(typeValues, typeCount);
+        this.typeIndexes = Arrays.copyOf(typeIndexes, typeCount);
+    }
+
+    /**
+     * 文字列の長さを返します。
+     *
+     * @return 文字列の長さ
+     */
+    public int getLength() {
+        return length;
+    }
+
+    /**
+     * 文字列に含まれる文字の分類を返します。
+     *
+     * @return 文字の分類の集合
+     */
+    public Set<CharClass> getCharClasses() {
+        Set<CharClass> classes = EnumSet.noneOf(CharClass.class);
+        for (CharClass c : CharClass.values()) {
+            if (matchesAny(c)) {
+                classes.add(c);
+            }
+        }
+        return classes;
+    }
+
+    /**
+     * 文字列に含まれる文字区分と、その最初の位置を返します。
+     *
+     * @return 出現順の文字区分と最初の位置の対応表
+     */
+    Map<CharType, Integer> getCharTypes() {
+        Map<CharType, Integer> map = new LinkedHashMap<>();
+        for (int i = 0; i < typeValues.length; ++i) {
+            int value = typeValues[i];
+            CharType type = (value < 0) ? CharType.UNDEFINED : CodePointSet.INSTANCE.types[value];
+            map.put(type, typeIndexes[i]);
+        }
+        return map;
+    }
+
+    /**
+     * 文字列を構成する文字がすべて指定された分類に該当するか判定します。
+     * <p>
+     * 空文字列は {@code true} になる。
+     *
+     * @param charClass 文字の分類
+     * @return すべて該当すれば {@code true}
+     */
+    public boolean matchesAll(CharClass charClass) {
+        return indexOfMismatch(charClass) < 0;
+    }
+
+    /**
+     * 文字列が指定された分類に該当する文字を含むか判定します。
+     *
+     * @param charClass 文字の分類
+     * @return 該当する文字を含めば {@code true}
+     */
+    public boolean matchesAny(CharClass charClass) {
+        return indexOfMatch(charClass) >= 0;
+    }
+
+    /**
+     * 文字列が指定された分類に該当する文字を含まないことを判定します。
+     *
+     * @param charClass 文字の分類
+     * @return 該当する文字を含まなければ {@code true}
+     */
+    public boolean matchesNone(CharClass charClass) {
+        return indexOfMatch(charClass) < 0;
+    }
+
+    /**
+     * 指定された分類に該当する最初の位置を返します。
+     *
+     * @param charClass 文字の分類
+     * @return 該当する最初の位置 (該当しなければ -1)
+     */
+    public int indexOfMatch(CharClass charClass) {
+        if (charClass.predicate != null) {
+            return firstMatches[charClass.ordinal()];
+        }
+        for (int i = 0; i < typeValues.length; ++i) {
+            if (CharType.matches(typeValues[i], charClass.mask)) {
+                return typeIndexes[i];
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 指定された分類に該当しない最初の位置を返します。
+     *
+     * @param charClass 文字の分類
+     * @return 該当しない最初の位置 (すべて該当すれば -1)
+     */
+    public int indexOfMismatch(CharClass charClass) {
+        if (charClass.predicate != null) {
+            return firstMismatches[charClass.ordinal()];
+        }
+        return indexOfMismatch(charClass.mask);
+    }
+
+    /**
+     * 文字区分がビットマスクの条件を満たさない最初の位置を返します。
+     *
+     * @param mask 条件のビットマスク
+     * @return 条件を満たさない最初の位置 (すべて満たせば -1)
+     */
+    int indexOfMismatch(int mask) {
+        for (int i = 0; i < typeValues.length; ++i) {
+            if (!CharType.matches(typeValues[i], mask)) {
+                return typeIndexes[i];
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * このオブジェクトの文字列表現を返します。
+     */
+    @Override
+    public String toString() {
+        return "CharClassSummary[length=" + length + ", classes=" + getCharClasses()
+                + ", types=" + getCharTypes() + "]";
+    }
+
+}
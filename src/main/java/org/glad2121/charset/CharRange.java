@@ -0,0 +1,271 @@
+package org.glad2121.charset;
+
+/**
+ * 最大3つの文字の範囲の和集合。
+ * <p>
+ * 文字列の判定は、ストリームを使わずに、4文字を1つの {@code long} の16ビットずつの
+ * 区画に詰めて同時に行う (SWAR: SIMD within a register)。
+ * 各区画の最上位ビットを範囲外の印とするため、範囲は 0x0000-0x7FFF か 0x8000-0xFFFF の
+ * どちらか一方に収まること (後者は最上位ビットを反転して判定する)。
+ *
+ * @author glad2121
+ */
+final class CharRange {
+
+    /**
+     * 半角数字。
+     */
+    static final CharRange HALFWIDTH_NUMERIC = new CharRange('0', '9');
+
+    /**
+     * 半角英大文字。
+     */
+    static final CharRange HALFWIDTH_UPPER = new CharRange('A', 'Z');
+
+    /**
+     * 半角英小文字。
+     */
+    static final CharRange HALFWIDTH_LOWER = new CharRange('a', 'z');
+
+    /**
+     * 半角英字。
+     */
+    static final CharRange HALFWIDTH_ALPHA = new CharRange('A', 'Z', 'a', 'z');
+
+    /**
+     * 半角英数字。
+     */
+    static final CharRange HALFWIDTH_ALNUM = new CharRange('0', '9', 'A', 'Z', 'a', 'z');
+
+    /**
+     * 半角 ASCII (制御文字を除く)。
+     */
+    static final CharRange HALFWIDTH_ASCII = new CharRange(' ', '~');
+
+    /**
+     * 半角カタカナ。
+     */
+    static final CharRange HALFWIDTH_KATAKANA = new CharRange('･', 'ﾟ');
+
+    /**
+     * 半角カナ。
+     */
+    static final CharRange HALFWIDTH_KANA = new CharRange('｡', 'ﾟ');
+
+    /**
+     * 全角数字。
+     */
+    static final CharRange FULLWIDTH_NUMERIC = new CharRange('０', '９');
+
+    /**
+     * 全角英大文字。
+     */
+    static final CharRange FULLWIDTH_UPPER = new CharRange('Ａ', 'Ｚ');
+
+    /**
+     * 全角英小文字。
+     */
+    static final CharRange FULLWIDTH_LOWER = new CharRange('ａ', 'ｚ');
+
+    /**
+     * 全角英字。
+     */
+    static final CharRange FULLWIDTH_ALPHA = new CharRange('Ａ', 'Ｚ', 'ａ', 'ｚ');
+
+    /**
+     * 全角英数字。
+     */
+    static final CharRange FULLWIDTH_ALNUM = new CharRange('０', '９', 'Ａ', 'Ｚ', 'ａ', 'ｚ');
+
+    /**
+     * 各区画の最上位ビット。
+     */
+    static final long HIGH_BITS = 0x8000_8000_8000_8000L;
+
+    /**
+     * 各区画の最下位ビット。
+     */
+    static final long LOW_BITS = 0x0001_0001_0001_0001L;
+
+    /**
+     * 範囲の下限。
+     */
+    final int min1, min2, min3;
+
+    /**
+     * 範囲の上限。
+     */
+    final int max1, max2, max3;
+
+    /**
+     * 判定前に各区画に排他的論理和をとる値 (範囲が 0x8000 以上ならば最上位ビット)。
+     */
+    final long flip;
+
+    /**
+     * 上限を超えると最上位ビットが立つように各区画に加える値。
+     */
+    final long add1, add2, add3;
+
+    /**
+     * 下限未満ならば最上位ビットが消えるように各区画から引く値。
+     */
+    final long sub1, sub2, sub3;
+
+    /**
+     * コンストラクタ。
+     * <p>
+     * 範囲が3つ未満の場合は、1つ目の範囲を繰り返して3つにする。
+     *
+     * @param ranges 範囲の下限と上限の組 (最大3組)
+     */
+    CharRange(char... ranges) {
+        if (ranges.length == 0 || ranges.length > 6 || ranges.length % 2 != 0) {
+            throw new IllegalArgumentException("ranges: " + ranges.length);
+        }
+        boolean high = (ranges[0] >= 0x8000);
+        for (int i = 0; i < ranges.length; i += 2) {
+            if (ranges[i] > ranges[i + 1]
+                    || (ranges[i] >= 0x8000) != high || (ranges[i + 1] >= 0x8000) != high) {
+                throw new IllegalArgumentException(
+                        String.format("range: %04X-%04X", (int) ranges[i], (int) ranges[i + 1]));
+            }
+        }
+        this.min1 = ranges[0];
+        this.max1 = ranges[1];
+        this.min2 = (ranges.length > 2) ? ranges[2] : min1;
+        this.max2 = (ranges.length > 2) ? ranges[3] : max1;
+        this.min3 = (ranges.length > 4) ? ranges[4] : min1;
+        this.max3 = (ranges.length > 4) ? ranges[5] : max1;
+        this.flip = high ? HIGH_BITS : 0L;
+        this.add1 = adder(max1);
+        this.add2 = adder(max2);
+        this.add3 = adder(max3);
+        this.sub1 = subtrahend(min1);
+        this.sub2 = subtrahend(min2);
+        this.sub3 = subtrahend(min3);
+    }
+
+    /**
+     * 上限を超えると最上位ビットが立つように各区画に加える値を返します。
+     *
+     * @param max 上限
+     * @return 各区画に加える値
+     */
+    static long adder(int max) {
+        return (0x7FFF - (max & 0x7FFF)) * LOW_BITS;
+    }
+
+    /**
+     * 下限未満ならば最上位ビットが消えるように各区画から引く値を返します。
+     *
+     * @param min 下限
+     * @return 各区画から引く値
+     */
+    static long subtrahend(int min) {
+        return (min & 0x7FFF) * LOW_BITS;
+    }
+
+    /**
+     * 指定されたコードポイントが範囲内か判定します。
+     *
+     * @param codePoint コードポイント
+     * @return 範囲内ならば {@code true}
+     */
+    boolean contains(int codePoint) {
+        // 範囲外ならば、下限・上限との差のどちらかが負になる。
+        return (((codePoint - min1) | (max1 - codePoint))
+                & ((codePoint - min2) | (max2 - codePoint))
+                & ((codePoint - min3) | (max3 - codePoint))) >= 0;
+    }
+
+    /**
+     * 4文字を詰めた値のうち、範囲外の文字の区画の最上位ビットを立てた値を返します。
+     *
+     * @param chars 4文字を16ビットずつ詰めた値
+     * @return 範囲外の文字の区画の最上位ビットを立てた値
+     */
+    long outside(long chars) {
+        long x = chars ^ flip;
+        // 最上位ビットを除いて加えるので、区画をまたぐ桁上がりは起きない。
+        long low = x & ~HIGH_BITS;
+        long high = x | HIGH_BITS;
+        long bits = ((low + add1) | ~(high - sub1))
+                & ((low + add2) | ~(high - sub2))
+                & ((low + add3) | ~(high - sub3));
+        return (x | bits) & HIGH_BITS;
+    }
+
+    /**
+     * 文字列の指定された位置から4文字を、16ビットずつ詰めた値を返します。
+     *
+     * @param s 文字列
+     * @param i 位置
+     * @return 4文字を詰めた値
+     */
+    static long pack(CharSequence s, int i) {
+        return s.charAt(i)
+                | ((long) s.charAt(i + 1) << 16)
+                | ((long) s.charAt(i + 2) << 32)
+                | ((long) s.charAt(i + 3) << 48);
+    }
+
+    /**
+     * 文字列を構成する文字がすべて範囲内か判定します。
+     *
+     * @param s 文字列
+     * @return すべて範囲内ならば {@code true}
+     */
+    boolean containsAll(CharSequence s) {
+        int length = s.length();
+        int i = 0;
+        // 16文字ずつ、範囲外の区画のビットを論理和でまとめて1回だけ分岐する。
+        for (int limit = length - 16; i <= limit; i += 16) {
+            if ((outside(pack(s, i)) | outside(pack(s, i + 4))
+                    | outside(pack(s, i + 8)) | outside(pack(s, i + 12))) != 0) {
+                return false;
+            }
+        }
+        for (int limit = length - 4; i <= limit; i += 4) {
+            if (outside(pack(s, i)) != 0) {
+                return false;
+            }
+        }
+        for (; i < length; ++i) {
+            if (!contains(s.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 文字列が範囲内の文字を含むか判定します。
+     *
+     * @param s 文字列
+     * @return 範囲内の文字を含めば {@code true}
+     */
+    boolean containsAny(CharSequence s) {
+        int length = s.length();
+        int i = 0;
+        // 16文字ずつ、範囲外の区画のビットを論理積でまとめて1回だけ分岐する。
+        for (int limit = length - 16; i <= limit; i += 16) {
+            if ((outside(pack(s, i)) & outside(pack(s, i + 4))
+                    & outside(pack(s, i + 8)) & outside(pack(s, i + 12))) != HIGH_BITS) {
+                return true;
+            }
+        }
+        for (int limit = length - 4; i <= limit; i += 4) {
+            if (outside(pack(s, i)) != HIGH_BITS) {
+                return true;
+            }
+        }
+        for (; i < length; ++i) {
+            if (contains(s.charAt(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+}
@@ -21,13 +21,48 @@ import java.util.concurrent.ConcurrentSkipListMap;
  *
  * @author glad2121
  */
-final class CharType implements Comparable<CharType> {
+public final class CharType implements Comparable<CharType> {
 
     /**
      * 未定義。
      */
     public static final CharType UNDEFINED = new CharType(-1);
 
+    /**
+     * 条件のビットマスク: ASCII (制御文字を除く)。
+     */
+    public static final int MASK_ASCII = mask(0x1, 0x1, 0x1, 0x1);
+
+    /**
+     * 条件のビットマスク: JIS X 0201 (ASCII を含む)。
+     */
+    public static final int MASK_JIS_X_0201 = mask(0x1, 0x2, 0x0, 0xF);
+
+    /**
+     * 条件のビットマスク: JIS1990 (ASCII、JIS X 0201 を含む)。
+     */
+    public static final int MASK_JIS_1990 = mask(0x1, 0x3, 0x0, 0xF);
+
+    /**
+     * 条件のビットマスク: JIS2004 (ASCII、JIS X 0201 を含む)。
+     */
+    public static final int MASK_JIS_2004 = mask(0x1, 0x5, 0x0, 0xF);
+
+    /**
+     * 条件のビットマスク: BasicJ。
+     */
+    public static final int MASK_BASIC_J = mask(0x0, 0xF, 0x1, 0x1);
+
+    /**
+     * 条件のビットマスク: CommonJ。
+     */
+    public static final int MASK_COMMON_J = mask(0x0, 0xF, 0x1, 0x4);
+
+    /**
+     * 条件のビットマスク: 定義済みのすべての文字区分。
+     */
+    public static final int MASK_DEFINED = mask(0x0, 0xF, 0x0, 0xF);
+
     /**
      * 区分値と区分オブジェクトのマップ。
      */
@@ -200,6 +235,58 @@ final class CharType implements Comparable<CharType> {
         return between(value & 0x0F, 0x01, 0x04);
     }
 
+    /**
+     * この文字区分がビットマスクの条件を満たすか判定します。
+     *
+     * @param mask 条件のビットマスク
+     * @return 条件を満たせば {@code true}
+     */
+    public boolean matches(int mask) {
+        return matches(value, mask);
+    }
+
+    /**
+     * 区分値がビットマスクの条件を満たすか判定します。
+     * <p>
+     * ビットマスクの上位16ビットは規格 (区分値の上位4ビット)、
+     * 下位16ビットは補足情報 (区分値の下位4ビット) の集合で、両方に含まれれば条件を満たす。
+     * 未定義 (負の区分値) は条件を満たさない。
+     *
+     * @param value 区分値
+     * @param mask 条件のビットマスク
+     * @return 条件を満たせば {@code true}
+     */
+    static boolean matches(int value, int mask) {
+        if (value < 0) {
+            return false;
+        }
+        return ((mask >>> (16 + (value >>> 4))) & (mask >>> (value & 0x0F)) & 1) != 0;
+    }
+
+    /**
+     * 条件のビットマスクを生成します。
+     *
+     * @param standardMin 規格の最小値
+     * @param standardMax 規格の最大値
+     * @param supplementMin 補足情報の最小値
+     * @param supplementMax 補足情報の最大値
+     * @return 条件のビットマスク
+     */
+    static int mask(int standardMin, int standardMax, int supplementMin, int supplementMax) {
+        return (bits(standardMin, standardMax) << 16) | bits(supplementMin, supplementMax);
+    }
+
+    /**
+     * 範囲内のビットを立てた値を返します。
+     *
+     * @param min 最小のビット位置
+     * @param max 最大のビット位置
+     * @return 範囲内のビットを立てた値
+     */
+    static int bits(int min, int max) {
+        return (0xFFFF >>> (15 - max)) & (0xFFFF << min) & 0xFFFF;
+    }
+
     /**
      * 指定された値が範囲内か判定します。
      *
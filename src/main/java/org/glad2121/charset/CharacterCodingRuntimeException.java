@@ -18,7 +18,7 @@ public class CharacterCodingRuntimeException extends RuntimeException {
     /**
      * エラーの発生位置。
      */
-    private final int position;
+    private final long position;
 
     /**
      * エラーの発生した文字
@@ -45,6 +45,32 @@ public class CharacterCodingRuntimeException extends RuntimeException {
      */
     public CharacterCodingRuntimeException(
             int position, CharSequence rejected, CharacterCodingException cause) {
+        this((long) position, rejected, cause);
+    }
+
+    /**
+     * コンストラクタ。
+     *
+     * @param position エラーの発生位置
+     * @param rejected エラーの発生したバイト列
+     * @param cause 原因となった例外
+     */
+    public CharacterCodingRuntimeException(
+            int position, byte[] rejected, CharacterCodingException cause) {
+        this((long) position, rejected, cause);
+    }
+
+    /**
+     * コンストラクタ。
+     * <p>
+     * ストリームの変換など、エラーの発生位置が {@code int} の範囲を超える場合に使用する。
+     *
+     * @param position エラーの発生位置
+     * @param rejected エラーの発生した文字列
+     * @param cause 原因となった例外
+     */
+    public CharacterCodingRuntimeException(
+            long position, CharSequence rejected, CharacterCodingException cause) {
         super(message(position, rejected), cause);
         this.position = position;
         this.rejected = rejected;
@@ -52,13 +78,15 @@ public class CharacterCodingRuntimeException extends RuntimeException {
 
     /**
      * コンストラクタ。
+     * <p>
+     * ストリームの変換など、エラーの発生位置が {@code int} の範囲を超える場合に使用する。
      *
      * @param position エラーの発生位置
      * @param rejected エラーの発生したバイト列
      * @param cause 原因となった例外
      */
     public CharacterCodingRuntimeException(
-            int position, byte[] rejected, CharacterCodingException cause) {
+            long position, byte[] rejected, CharacterCodingException cause) {
         super(message(position, rejected), cause);
         this.position = position;
         this.rejected = rejected;
@@ -71,7 +99,7 @@ public class CharacterCodingRuntimeException extends RuntimeException {
      * @param rejected エラーの発生した文字列
      * @return メッセージ
      */
-    static String message(int position, CharSequence rejected) {
+    static String message(long position, CharSequence rejected) {
         if (StringUtils.isEmpty(rejected)) {
             return "position: " + position;
         } else if (rejected.chars().anyMatch(c ->
@@ -91,7 +119,7 @@ public class CharacterCodingRuntimeException extends RuntimeException {
      * @param rejected エラーの発生したバイト列
      * @return メッセージ
      */
-    static String message(int position, byte[] rejected) {
+    static String message(long position, byte[] rejected) {
         if (rejected == null || rejected.length == 0) {
             return "position: " + position;
         } else {
@@ -110,10 +138,22 @@ public class CharacterCodingRuntimeException extends RuntimeException {
 
     /**
      * エラーの発生位置を返します。
+     * <p>
+     * {@code int} の範囲を超える場合は {@link Integer#MAX_VALUE} を返す。
      *
      * @return エラーの発生位置
+     * @see #getLongPosition()
      */
     public int getPosition() {
+        return (int) Math.min(position, Integer.MAX_VALUE);
+    }
+
+    /**
+     * エラーの発生位置を {@code long} で返します。
+     *
+     * @return エラーの発生位置
+     */
+    public long getLongPosition() {
         return position;
     }
 
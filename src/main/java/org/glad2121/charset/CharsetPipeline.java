@@ -0,0 +1,573 @@
+package org.glad2121.charset;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 複数の文字変換と文字の検証を1回の走査で行うパイプライン。
+ * <p>
+ * {@link CharsetUtils#pipeline()} で得られるビルダーで変換・検証を順に指定して生成する。
+ * 連続するコードポイント変換は1つの変換表に融合し、濁点・半濁点の合成・分解とあわせて
+ * 入力を1回だけ走査して、中間の文字列を生成せずに結果を出力する。
+ * 検証は変換後の文字に対して行い、条件を満たさない最初の位置を結果に記録する。
+ * <pre>
+ * CharsetPipeline pipeline = CharsetUtils.pipeline()
+ *     .toHalfwidthAscii()
+ *     .toFullwidthKatakana()
+ *     .toJis1990()
+ *     .requireAvailable()
+ *     .build();
+ * CharsetPipeline.Result result = pipeline.apply(s);
+ * </pre>
+ * このクラスのインスタンスは不変で、複数のスレッドから同時に使用できる。
+ *
+ * @author glad2121
+ */
+public final class CharsetPipeline {
+
+    /**
+     * 変換段階。
+     */
+    final Stage[] stages;
+
+    /**
+     * 検証条件のビットマスク。
+     */
+    final int mask;
+
+    /**
+     * 検証を行うか。
+     */
+    final boolean validating;
+
+    /**
+     * コンストラクタ。
+     *
+     * @param stages 変換段階
+     * @param mask 検証条件のビットマスク
+     * @param validating 検証を行うか
+     */
+    CharsetPipeline(Stage[] stages, int mask, boolean validating) {
+        this.stages = stages;
+        this.mask = mask;
+        this.validating = validating;
+    }
+
+    /**
+     * 文字列を変換・検証します。
+     *
+     * @param s 変換前の文字列
+     * @return 変換・検証の結果 ({@code s} が {@code null} ならば {@code null})
+     */
+    public Result apply(CharSequence s) {
+        if (s == null) {
+            return null;
+        }
+        Run run = new Run(this, s.length());
+        int length = s.length();
+        for (int i = 0; i < length; ) {
+            int cp = Character.codePointAt(s, i);
+            run.accept(0, cp);
+            i += Character.charCount(cp);
+        }
+        run.flush(0);
+        return new Result(run.out.toString(), run.invalidIndex);
+    }
+
+    /**
+     * 文字列を変換します。
+     *
+     * @param s 変換前の文字列
+     * @return 変換後の文字列
+     */
+    public String convert(CharSequence s) {
+        Result result = apply(s);
+        return (result == null) ? null : result.text;
+    }
+
+    /**
+     * 変換段階の種類。
+     */
+    enum StageType {
+
+        /**
+         * コードポイント変換。
+         */
+        CONVERT,
+
+        /**
+         * 濁点・半濁点の合成。
+         */
+        COMPOSE,
+
+        /**
+         * 濁点・半濁点の分解。
+         */
+        DECOMPOSE
+
+    }
+
+    /**
+     * 変換段階。
+     */
+    static final class Stage {
+
+        /**
+         * 変換段階の種類。
+         */
+        final StageType type;
+
+        /**
+         * コードポイント変換のコンバータ。
+         */
+        final CodePointConverter converter;
+
+        /**
+         * コンストラクタ。
+         *
+         * @param type 変換段階の種類
+         * @param converter コードポイント変換のコンバータ
+         */
+        Stage(StageType type, CodePointConverter converter) {
+            this.type = type;
+            this.converter = converter;
+        }
+
+    }
+
+    /**
+     * 1回の変換の状態。
+     */
+    static final class Run {
+
+        /**
+         * パイプライン。
+         */
+        final CharsetPipeline pipeline;
+
+        /**
+         * 変換段階ごとの保留中のコードポイント (なければ -1)。
+         */
+        final int[] pending;
+
+        /**
+         * 出力先。
+         */
+        final StringBuilder out;
+
+        /**
+         * 検証条件を満たさない最初の位置 (なければ -1)。
+         */
+        int invalidIndex = -1;
+
+        /**
+         * コンストラクタ。
+         *
+         * @param pipeline パイプライン
+         * @param capacity 出力先の初期容量
+         */
+        Run(CharsetPipeline pipeline, int capacity) {
+            this.pipeline = pipeline;
+            this.pending = new int[pipeline.stages.length];
+            Arrays.fill(pending, -1);
+            this.out = new StringBuilder(capacity);
+        }
+
+        /**
+         * 指定された変換段階にコードポイントを渡します。
+         *
+         * @param index 変換段階の位置
+         * @param cp コードポイント
+         */
+        void accept(int index, int cp) {
+            Stage[] stages = pipeline.stages;
+            while (index < stages.length) {
+                Stage stage = stages[index];
+                switch (stage.type) {
+                case CONVERT:
+                    cp = stage.converter.convert(cp);
+                    break;
+                case COMPOSE:
+                    int prev = pending[index];
+                    if (prev >= 0) {
+                        int composed = VoicedSoundMarks.compose(prev, cp);
+                        if (composed >= 0) {
+                            pending[index] = composed;
+                            return;
+                        }
+                        pending[index] = -1;
+                        accept(index + 1, prev);
+                    }
+                    if (VoicedSoundMarks.isComposable(cp)) {
+                        // 次の文字と合成できる可能性があるため保留する。
+                        pending[index] = cp;
+                        return;
+                    }
+                    break;
+                case DECOMPOSE:
+                    int base = VoicedSoundMarks.decomposeBase(cp);
+                    if (base >= 0) {
+                        accept(index + 1, base);
+                        cp = VoicedSoundMarks.decomposeMark(cp);
+                    }
+                    break;
+                default:
+                    throw new IllegalStateException(stage.type.name());
+                }
+                ++index;
+            }
+            emit(cp);
+        }
+
+        /**
+         * 指定された変換段階以降の保留中のコードポイントを出力します。
+         *
+         * @param index 変換段階の位置
+         */
+        void flush(int index) {
+            for (int i = index; i < pending.length; ++i) {
+                int cp = pending[i];
+                if (cp >= 0) {
+                    pending[i] = -1;
+                    accept(i + 1, cp);
+                }
+            }
+        }
+
+        /**
+         * 変換後のコードポイントを検証して出力します。
+         *
+         * @param cp コードポイント
+         */
+        void emit(int cp) {
+            if (pipeline.validating && invalidIndex < 0
+                    && !CodePointSet.INSTANCE.matches(cp, pipeline.mask)) {
+                invalidIndex = out.length();
+            }
+            out.appendCodePoint(cp);
+        }
+
+    }
+
+    /**
+     * 変換・検証の結果。
+     */
+    public static final class Result {
+
+        /**
+         * 変換後の文字列。
+         */
+        final String text;
+
+        /**
+         * 変換後の文字列で、検証条件を満たさない最初の位置 (なければ -1)。
+         */
+        final int invalidIndex;
+
+        /**
+         * コンストラクタ。
+         *
+         * @param text 変換後の文字列
+         * @param invalidIndex 検証条件を満たさない最初の位置
+         */
+        Result(String text, int invalidIndex) {
+            this.text = text;
+            this.invalidIndex = invalidIndex;
+        }
+
+        /**
+         * 変換後の文字列を返します。
+         *
+         * @return 変換後の文字列
+         */
+        public String getText() {
+            return text;
+        }
+
+        /**
+         * 変換後の文字列で、検証条件を満たさない最初の位置を返します。
+         *
+         * @return 検証条件を満たさない最初の位置 (なければ -1)
+         */
+        public int getInvalidIndex() {
+            return invalidIndex;
+        }
+
+        /**
+         * 変換後の文字列がすべて検証条件を満たすか判定します。
+         *
+         * @return すべて検証条件を満たせば {@code true}
+         */
+        public boolean isValid() {
+            return invalidIndex < 0;
+        }
+
+        /**
+         * このオブジェクトの文字列表現を返します。
+         */
+        @Override
+        public String toString() {
+            return String.format("Result[text=%s, invalidIndex=%d]", text, invalidIndex);
+        }
+
+    }
+
+    /**
+     * パイプラインのビルダー。
+     */
+    public static final class Builder {
+
+        /**
+         * 変換段階。
+         */
+        final List<Stage> stages = new ArrayList<>();
+
+        /**
+         * 検証条件のビットマスク。
+         */
+        int mask = CharType.MASK_DEFINED;
+
+        /**
+         * 検証を行うか。
+         */
+        boolean validating;
+
+        /**
+         * コンストラクタ。
+         */
+        Builder() {
+        }
+
+        /**
+         * 全角英数字を半角英数字に変換します。
+         *
+         * @return このビルダー
+         * @see CharsetUtils#toHalfwidthAlnum(CharSequence)
+         */
+        public Builder toHalfwidthAlnum() {
+            return convert(CodePointConverters.TO_HALFWIDTH_ALNUM);
+        }
+
+        /**
+         * 全角 ASCII を半角 ASCII に変換します。
+         *
+         * @return このビルダー
+         * @see CharsetUtils#toHalfwidthAscii(CharSequence)
+         */
+        public Builder toHalfwidthAscii() {
+            return convert(CodePointConverters.TO_HALFWIDTH_ASCII);
+        }
+
+        /**
+         * 全角カタカナ・ひらがなを半角カナに変換します。
+         *
+         * @return このビルダー
+         * @see CharsetUtils#toHalfwidthKana(CharSequence)
+         */
+        public Builder toHalfwidthKana() {
+            return add(new Stage(StageType.DECOMPOSE, null))
+                    .convert(CodePointConverters.TO_HALFWIDTH_KANA);
+        }
+
+        /**
+         * 半角英数字を全角英数字に変換します。
+         *
+         * @return このビルダー
+         * @see CharsetUtils#toFullwidthAlnum(CharSequence)
+         */
+        public Builder toFullwidthAlnum() {
+            return convert(CodePointConverters.TO_FULLWIDTH_ALNUM);
+        }
+
+        /**
+         * 半角カナを全角ひらがなに変換します。
+         *
+         * @return このビルダー
+         * @see CharsetUtils#toFullwidthHiragana(CharSequence)
+         */
+        public Builder toFullwidthHiragana() {
+            return convert(CodePointConverters.TO_FULLWIDTH_HIRAGANA)
+                    .composeVoicedSoundMark();
+        }
+
+        /**
+         * 半角カナを全角カタカナに変換します。
+         *
+         * @return このビルダー
+         * @see CharsetUtils#toFullwidthKatakana(CharSequence)
+         */
+        public Builder toFullwidthKatakana() {
+            return convert(CodePointConverters.TO_FULLWIDTH_KATAKANA)
+                    .composeVoicedSoundMark();
+        }
+
+        /**
+         * 全角カタカナを全角ひらがなに変換します。
+         *
+         * @return このビルダー
+         * @see CharsetUtils#toHiragana(CharSequence)
+         */
+        public Builder toHiragana() {
+            return convert(CodePointConverters.TO_HIRAGANA);
+        }
+
+        /**
+         * 全角ひらがなを全角カタカナに変換します。
+         *
+         * @return このビルダー
+         * @see CharsetUtils#toKatakana(CharSequence)
+         */
+        public Builder toKatakana() {
+            return convert(CodePointConverters.TO_KATAKANA);
+        }
+
+        /**
+         * 合成可能な濁点・半濁点を合成します。
+         *
+         * @return このビルダー
+         * @see CharsetUtils#composeVoicedSoundMark(CharSequence)
+         */
+        public Builder composeVoicedSoundMark() {
+            if (!stages.isEmpty() && stages.get(stages.size() - 1).type == StageType.COMPOSE) {
+                // 連続する合成は1つにまとめる。
+                return this;
+            }
+            return add(new Stage(StageType.COMPOSE, null));
+        }
+
+        /**
+         * 可能な範囲で JIS 1990 に変換します。
+         *
+         * @return このビルダー
+         * @see CharsetUtils#toJis1990(CharSequence)
+         */
+        public Builder toJis1990() {
+            return convert(CodePointConverters.TO_JIS_1990);
+        }
+
+        /**
+         * 可能な範囲で JIS 2004 に変換します。
+         *
+         * @return このビルダー
+         * @see CharsetUtils#toJis2004(CharSequence)
+         */
+        public Builder toJis2004() {
+            return convert(CodePointConverters.TO_JIS_2004);
+        }
+
+        /**
+         * 可能な範囲で Windows-31J に変換します。
+         *
+         * @return このビルダー
+         * @see CharsetUtils#toWindows31j(CharSequence)
+         */
+        public Builder toWindows31j() {
+            return convert(CodePointConverters.TO_WINDOWS_31J);
+        }
+
+        /**
+         * 変換後の文字がすべて利用可能な文字か検証します。
+         *
+         * @return このビルダー
+         * @see CharsetUtils#isAvailable(CharSequence)
+         */
+        public Builder requireAvailable() {
+            return require(CharType.MASK_DEFINED);
+        }
+
+        /**
+         * 変換後の文字がすべて JIS 1990 か検証します。
+         *
+         * @return このビルダー
+         * @see CharsetUtils#isJis1990(CharSequence)
+         */
+        public Builder requireJis1990() {
+            return require(CharType.MASK_JIS_1990);
+        }
+
+        /**
+         * 変換後の文字がすべて JIS 2004 か検証します。
+         *
+         * @return このビルダー
+         * @see CharsetUtils#isJis2004(CharSequence)
+         */
+        public Builder requireJis2004() {
+            return require(CharType.MASK_JIS_2004);
+        }
+
+        /**
+         * 変換後の文字がすべて基本日本文字集合か検証します。
+         *
+         * @return このビルダー
+         * @see CharsetUtils#isBasicJ(CharSequence)
+         */
+        public Builder requireBasicJ() {
+            return require(CharType.MASK_BASIC_J);
+        }
+
+        /**
+         * 変換後の文字がすべて通用日本文字集合か検証します。
+         *
+         * @return このビルダー
+         * @see CharsetUtils#isCommonJ(CharSequence)
+         */
+        public Builder requireCommonJ() {
+            return require(CharType.MASK_COMMON_J);
+        }
+
+        /**
+         * パイプラインを生成します。
+         *
+         * @return パイプライン
+         */
+        public CharsetPipeline build() {
+            return new CharsetPipeline(stages.toArray(new Stage[0]), mask, validating);
+        }
+
+        /**
+         * コードポイント変換を追加します。
+         * <p>
+         * 直前もコードポイント変換ならば、1つの変換表に融合する。
+         *
+         * @param converter コンバータ
+         * @return このビルダー
+         */
+        Builder convert(CodePointConverter converter) {
+            int last = stages.size() - 1;
+            if (last >= 0 && stages.get(last).type == StageType.CONVERT) {
+                CodePointConverter fused = stages.get(last).converter.andThen(converter);
+                stages.set(last, new Stage(StageType.CONVERT, fused));
+                return this;
+            }
+            return add(new Stage(StageType.CONVERT, converter));
+        }
+
+        /**
+         * 変換段階を追加します。
+         *
+         * @param stage 変換段階
+         * @return このビルダー
+         */
+        Builder add(Stage stage) {
+            stages.add(stage);
+            return this;
+        }
+
+        /**
+         * 検証条件を追加します。
+         * <p>
+         * 複数指定した場合は、すべての条件を満たすことを検証する。
+         *
+         * @param mask 検証条件のビットマスク
+         * @return このビルダー
+         */
+        Builder require(int mask) {
+            this.mask &= mask;
+            this.validating = true;
+            return this;
+        }
+
+    }
+
+}
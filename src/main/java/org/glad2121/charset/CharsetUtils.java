@@ -1,14 +1,17 @@
 package org.glad2121.charset;
 
+import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.CharBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.CharacterCodingException;
 import java.nio.charset.Charset;
 import java.nio.charset.CharsetDecoder;
 import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
 import java.nio.charset.CodingErrorAction;
 import java.nio.charset.StandardCharsets;
-import java.text.Normalizer;
 import java.util.regex.Pattern;
 
 import org.glad2121.util.StringUtils;
@@ -102,20 +105,6 @@ public final class CharsetUtils {
     static final Pattern FULLWIDTH_KATAKANA_PATTERN =
             Pattern.compile("[\u30A0-\u30FE\u3099-\u309C]+");
 
-    /**
-     * 全角ひらがな・カタカナのパターン。
-     */
-    static final Pattern FULLWIDTH_KANA_PATTERN =
-            Pattern.compile("[　、。「」\u3041-\u3096\u3099-\u309E\u30A0-\u30FE]+");
-
-    /**
-     * 半角カナと互換性のある、全角ひらがな・カタカナのパターン。
-     * <p>
-     * 全角ひらがな・カタカナから変換に問題がある文字（ゝ、ゞ、ヸ、ヹ、ヽ、ヾ）を除いたもの。
-     */
-    static final Pattern FULLWIDTH_COMPATIBLE_KANA_PATTERN =
-            Pattern.compile("[　、。「」\u3041-\u3096\u3099-\u309A\u30A0-\u30F7\u30FA-\u30FC]+");
-
     /**
      * 利用可能な文字のうち、JIS X 0213:2004 に含まれない文字。
      */
@@ -146,7 +135,7 @@ public final class CharsetUtils {
         if (StringUtils.isEmpty(s)) {
             return true;
         }
-        return s.chars().allMatch(CharsetUtils::isHalfwidthNumeric);
+        return CharRange.HALFWIDTH_NUMERIC.containsAll(s);
     }
 
     /**
@@ -169,7 +158,7 @@ public final class CharsetUtils {
         if (StringUtils.isEmpty(s)) {
             return true;
         }
-        return s.chars().allMatch(CharsetUtils::isHalfwidthUpper);
+        return CharRange.HALFWIDTH_UPPER.containsAll(s);
     }
 
     /**
@@ -192,7 +181,7 @@ public final class CharsetUtils {
         if (StringUtils.isEmpty(s)) {
             return true;
         }
-        return s.chars().allMatch(CharsetUtils::isHalfwidthLower);
+        return CharRange.HALFWIDTH_LOWER.containsAll(s);
     }
 
     /**
@@ -215,7 +204,7 @@ public final class CharsetUtils {
         if (StringUtils.isEmpty(s)) {
             return true;
         }
-        return s.chars().allMatch(CharsetUtils::isHalfwidthAlpha);
+        return CharRange.HALFWIDTH_ALPHA.containsAll(s);
     }
 
     /**
@@ -238,7 +227,7 @@ public final class CharsetUtils {
         if (StringUtils.isEmpty(s)) {
             return true;
         }
-        return s.chars().allMatch(CharsetUtils::isHalfwidthAlnum);
+        return CharRange.HALFWIDTH_ALNUM.containsAll(s);
     }
 
     /**
@@ -261,7 +250,7 @@ public final class CharsetUtils {
         if (StringUtils.isEmpty(s)) {
             return true;
         }
-        return s.chars().allMatch(CharsetUtils::isHalfwidthAscii);
+        return CharRange.HALFWIDTH_ASCII.containsAll(s);
     }
 
     /**
@@ -284,8 +273,7 @@ public final class CharsetUtils {
         if (StringUtils.isEmpty(s)) {
             return true;
         }
-        //return HALFWIDTH_KATAKANA_PATTERN.matcher(s).matches();
-        return s.chars().allMatch(CharsetUtils::isHalfwidthKatakana);
+        return CharRange.HALFWIDTH_KATAKANA.containsAll(s);
     }
 
     static boolean isHalfwidthKatakana(int codePoint) {
@@ -302,8 +290,7 @@ public final class CharsetUtils {
         if (StringUtils.isEmpty(s)) {
             return true;
         }
-        return s.chars().allMatch(CharsetUtils::isHalfwidthKana);
-        //return HALFWIDTH_KANA_PATTERN.matcher(s).matches();
+        return CharRange.HALFWIDTH_KANA.containsAll(s);
     }
 
     /**
@@ -326,7 +313,7 @@ public final class CharsetUtils {
         if (StringUtils.isEmpty(s)) {
             return true;
         }
-        return !(s.chars().anyMatch(CharsetUtils::isHalfwidthKana));
+        return !CharRange.HALFWIDTH_KANA.containsAny(s);
     }
 
     /**
@@ -342,10 +329,7 @@ public final class CharsetUtils {
      * @return すべて JIS X 0201 ならば {@code true}
      */
     static boolean isJisX0201(CharSequence s) {
-        if (StringUtils.isEmpty(s)) {
-            return true;
-        }
-        return s.chars().allMatch(CharsetUtils::isJisX0201);
+        return CodePointSet.INSTANCE.matchesAll(s, CharType.MASK_JIS_X_0201);
     }
 
     /**
@@ -355,7 +339,7 @@ public final class CharsetUtils {
      * @return JIS X 0201 ならば {@code true}
      */
     static boolean isJisX0201(int codePoint) {
-        return CodePointSet.INSTANCE.matches(codePoint, CharType::isJisX0201);
+        return CodePointSet.INSTANCE.matches(codePoint, CharType.MASK_JIS_X_0201);
     }
 
     /**
@@ -368,7 +352,7 @@ public final class CharsetUtils {
         if (StringUtils.isEmpty(s)) {
             return true;
         }
-        return s.chars().allMatch(CharsetUtils::isFullwidthNumeric);
+        return CharRange.FULLWIDTH_NUMERIC.containsAll(s);
     }
 
     /**
@@ -391,7 +375,7 @@ public final class CharsetUtils {
         if (StringUtils.isEmpty(s)) {
             return true;
         }
-        return s.chars().allMatch(CharsetUtils::isFullwidthUpper);
+        return CharRange.FULLWIDTH_UPPER.containsAll(s);
     }
 
     /**
@@ -414,7 +398,7 @@ public final class CharsetUtils {
         if (StringUtils.isEmpty(s)) {
             return true;
         }
-        return s.chars().allMatch(CharsetUtils::isFullwidthLower);
+        return CharRange.FULLWIDTH_LOWER.containsAll(s);
     }
 
     /**
@@ -437,7 +421,7 @@ public final class CharsetUtils {
         if (StringUtils.isEmpty(s)) {
             return true;
         }
-        return s.chars().allMatch(CharsetUtils::isFullwidthAlpha);
+        return CharRange.FULLWIDTH_ALPHA.containsAll(s);
     }
 
     /**
@@ -460,7 +444,7 @@ public final class CharsetUtils {
         if (StringUtils.isEmpty(s)) {
             return true;
         }
-        return s.chars().allMatch(CharsetUtils::isFullwidthAlnum);
+        return CharRange.FULLWIDTH_ALNUM.containsAll(s);
     }
 
     /**
@@ -483,7 +467,7 @@ public final class CharsetUtils {
         if (StringUtils.isEmpty(s)) {
             return true;
         }
-        return !(s.chars().anyMatch(CharsetUtils::isFullwidthAlnum));
+        return !CharRange.FULLWIDTH_ALNUM.containsAny(s);
     }
 
     /**
@@ -509,6 +493,18 @@ public final class CharsetUtils {
         return FULLWIDTH_HIRAGANA_PATTERN.matcher(s).matches();
     }
 
+    /**
+     * 指定されたコードポイントが全角ひらがなか判定します。
+     *
+     * @param codePoint コードポイント
+     * @return 全角ひらがなならば {@code true}
+     */
+    static boolean isFullwidthHiragana(int codePoint) {
+        return ('\u3041' <= codePoint && codePoint <= '\u3096')
+                || ('\u3099' <= codePoint && codePoint <= '\u309E')
+                || codePoint == '\u30A0' || codePoint == '\u30FB' || codePoint == '\u30FC';
+    }
+
     /**
      * 文字列を構成する文字がすべて全角カタカナか判定します。
      *
@@ -522,6 +518,17 @@ public final class CharsetUtils {
         return FULLWIDTH_KATAKANA_PATTERN.matcher(s).matches();
     }
 
+    /**
+     * 指定されたコードポイントが全角カタカナか判定します。
+     *
+     * @param codePoint コードポイント
+     * @return 全角カタカナならば {@code true}
+     */
+    static boolean isFullwidthKatakana(int codePoint) {
+        return ('\u30A0' <= codePoint && codePoint <= '\u30FE')
+                || ('\u3099' <= codePoint && codePoint <= '\u309C');
+    }
+
     /**
      * 文字列を構成する文字がすべて JIS 1990 か判定します。
      * <p>
@@ -536,10 +543,7 @@ public final class CharsetUtils {
      * @return すべて JIS 1990 ならば {@code true}
      */
     public static boolean isJis1990(CharSequence s) {
-        if (StringUtils.isEmpty(s)) {
-            return true;
-        }
-        return s.chars().allMatch(CharsetUtils::isJis1990);
+        return CodePointSet.INSTANCE.matchesAll(s, CharType.MASK_JIS_1990);
     }
 
     /**
@@ -549,7 +553,7 @@ public final class CharsetUtils {
      * @return JIS 1990 ならば {@code true}
      */
     static boolean isJis1990(int codePoint) {
-        return CodePointSet.INSTANCE.matches(codePoint, CharType::isJis1990);
+        return CodePointSet.INSTANCE.matches(codePoint, CharType.MASK_JIS_1990);
     }
 
     /**
@@ -567,10 +571,7 @@ public final class CharsetUtils {
      * @return すべて JIS 2004 ならば {@code true}
      */
     public static boolean isJis2004(CharSequence s) {
-        if (StringUtils.isEmpty(s)) {
-            return true;
-        }
-        return s.codePoints().allMatch(CharsetUtils::isJis2004);
+        return CodePointSet.INSTANCE.matchesAll(s, CharType.MASK_JIS_2004);
     }
 
     /**
@@ -580,7 +581,7 @@ public final class CharsetUtils {
      * @return JIS 2004 ならば {@code true}
      */
     static boolean isJis2004(int codePoint) {
-        return CodePointSet.INSTANCE.matches(codePoint, CharType::isJis2004);
+        return CodePointSet.INSTANCE.matches(codePoint, CharType.MASK_JIS_2004);
     }
 
     /**
@@ -596,10 +597,7 @@ public final class CharsetUtils {
      * @return すべて基本日本文字集合ならば {@code true}
      */
     public static boolean isBasicJ(CharSequence s) {
-        if (StringUtils.isEmpty(s)) {
-            return true;
-        }
-        return s.chars().allMatch(CharsetUtils::isBasicJ);
+        return CodePointSet.INSTANCE.matchesAll(s, CharType.MASK_BASIC_J);
     }
 
     /**
@@ -609,7 +607,7 @@ public final class CharsetUtils {
      * @return 基本日本文字集合ならば {@code true}
      */
     static boolean isBasicJ(int codePoint) {
-        return CodePointSet.INSTANCE.matches(codePoint, CharType::isBasicJ);
+        return CodePointSet.INSTANCE.matches(codePoint, CharType.MASK_BASIC_J);
     }
 
     /**
@@ -628,10 +626,7 @@ public final class CharsetUtils {
      * @return すべて通用日本文字集合ならば {@code true}
      */
     public static boolean isCommonJ(CharSequence s) {
-        if (StringUtils.isEmpty(s)) {
-            return true;
-        }
-        return s.chars().allMatch(CharsetUtils::isCommonJ);
+        return CodePointSet.INSTANCE.matchesAll(s, CharType.MASK_COMMON_J);
     }
 
     /**
@@ -641,7 +636,7 @@ public final class CharsetUtils {
      * @return 通用日本文字集合ならば {@code true}
      */
     static boolean isCommonJ(int codePoint) {
-        return CodePointSet.INSTANCE.matches(codePoint, CharType::isCommonJ);
+        return CodePointSet.INSTANCE.matches(codePoint, CharType.MASK_COMMON_J);
     }
 
     /**
@@ -664,6 +659,21 @@ public final class CharsetUtils {
         return CodePointSet.INSTANCE.containsAll(s);
     }
 
+    /**
+     * 文字列を1回だけ走査して、含まれる文字の分類を要約します。
+     * <p>
+     * 同じ文字列に対する複数の判定 ({@code isXxx}・{@code noXxx}) に、要約から答えられる。
+     *
+     * @param s 文字列
+     * @return 文字の分類の要約 ({@code null} ならば空文字列の要約)
+     */
+    public static CharClassSummary classify(CharSequence s) {
+        if (StringUtils.isEmpty(s)) {
+            return CharClassSummary.EMPTY;
+        }
+        return new CharClassSummary(s);
+    }
+
     /**
      * 文字列中の全角英数字を半角英数字に変換します。
      *
@@ -694,11 +704,8 @@ public final class CharsetUtils {
         if (s == null || "".equals(s)) {
             return (String) s;
         }
-        // 濁点・半濁点を分解する。
-        String decomposed = StringUtils.replaceAll(s, FULLWIDTH_COMPATIBLE_KANA_PATTERN,
-                g -> Normalizer.normalize(g, Normalizer.Form.NFD));
-        // 半角カナに変換する。
-        return CodePointConverters.TO_HALFWIDTH_KANA.convert(decomposed);
+        // 濁点・半濁点を分解し、半角カナに変換する。
+        return VoicedSoundMarks.decomposeAndConvert(s, CodePointConverters.TO_HALFWIDTH_KANA);
     }
 
     /**
@@ -721,11 +728,8 @@ public final class CharsetUtils {
         if (s == null || "".equals(s)) {
             return (String) s;
         }
-        // 全角カタカナに変換する。
-        String converted = CodePointConverters.TO_FULLWIDTH_HIRAGANA.convert(s);
-        // 濁点・半濁点を合成する。
-        return StringUtils.replaceAll(converted, FULLWIDTH_KANA_PATTERN,
-                g -> Normalizer.normalize(converted, Normalizer.Form.NFC));
+        // 全角ひらがなに変換し、濁点・半濁点を合成する。
+        return VoicedSoundMarks.convertAndCompose(s, CodePointConverters.TO_FULLWIDTH_HIRAGANA);
     }
 
     /**
@@ -738,11 +742,8 @@ public final class CharsetUtils {
         if (s == null || "".equals(s)) {
             return (String) s;
         }
-        // 全角カタカナに変換する。
-        String converted = CodePointConverters.TO_FULLWIDTH_KATAKANA.convert(s);
-        // 濁点・半濁点を合成する。
-        return StringUtils.replaceAll(converted, FULLWIDTH_KANA_PATTERN,
-                g -> Normalizer.normalize(converted, Normalizer.Form.NFC));
+        // 全角カタカナに変換し、濁点・半濁点を合成する。
+        return VoicedSoundMarks.convertAndCompose(s, CodePointConverters.TO_FULLWIDTH_KATAKANA);
     }
 
     /**
@@ -781,8 +782,7 @@ public final class CharsetUtils {
         if (s == null || "".equals(s)) {
             return (String) s;
         }
-        return StringUtils.replaceAll(s, FULLWIDTH_KANA_PATTERN,
-                g -> Normalizer.normalize(g, Normalizer.Form.NFC));
+        return VoicedSoundMarks.compose(s);
     }
 
     /**
@@ -815,6 +815,15 @@ public final class CharsetUtils {
         return CodePointConverters.TO_WINDOWS_31J.convert(s);
     }
 
+    /**
+     * 複数の変換・検証を1回の走査で行うパイプラインのビルダーを返します。
+     *
+     * @return パイプラインのビルダー
+     */
+    public static CharsetPipeline.Builder pipeline() {
+        return new CharsetPipeline.Builder();
+    }
+
     /**
      * 文字列をバイト配列にエンコードします。
      *
@@ -827,8 +836,10 @@ public final class CharsetUtils {
             return null;
         }
         CharBuffer in = CharBuffer.wrap(s);
+        CoderPool.Key key = CoderPool.Key.report(charset);
+        CharsetEncoder encoder = CoderPool.INSTANCE.encoder(key);
         try {
-            ByteBuffer out = charset.newEncoder().encode(in);
+            ByteBuffer out = encoder.encode(in);
             byte[] bytes = new byte[out.remaining()];
             out.get(bytes);
             return bytes;
@@ -840,6 +851,8 @@ public final class CharsetUtils {
             } else {
                 throw new CharacterCodingRuntimeException(position, (String) null, e);
             }
+        } finally {
+            CoderPool.INSTANCE.release(key, encoder);
         }
     }
 
@@ -855,22 +868,174 @@ public final class CharsetUtils {
         if (s == null) {
             return null;
         }
+        CoderPool.Key key = CoderPool.Key.replace(charset, replace);
+        CharsetEncoder encoder = CoderPool.INSTANCE.encoder(key);
         try {
-            CharsetEncoder encoder = charset.newEncoder()
-                .onMalformedInput(CodingErrorAction.REPLACE)
-                .onUnmappableCharacter(CodingErrorAction.REPLACE);
-            if (StringUtils.isNotEmpty(replace)) {
-                encoder.replaceWith(replace.getBytes(charset));
-            }
             ByteBuffer buf = encoder.encode(CharBuffer.wrap(s));
             byte[] bytes = new byte[buf.remaining()];
             buf.get(bytes);
             return bytes;
         } catch (CharacterCodingException e) {
             throw new CharacterCodingRuntimeException(e);
+        } finally {
+            CoderPool.INSTANCE.release(key, encoder);
         }
     }
 
+    /**
+     * 文字列を、指定されたバイト配列の範囲に直接エンコードします。
+     * <p>
+     * 範囲に収まらない場合は、2バイト文字を分割しないように文字の境界で切り詰める。
+     * ISO-2022-JP などの終了シーケンスは範囲内に収める。
+     *
+     * @param s 文字列
+     * @param charset 文字コード
+     * @param dst 出力先のバイト配列
+     * @param offset 出力先の開始位置
+     * @param maxLen 出力する最大バイト数
+     * @return 出力したバイト数
+     */
+    public static int encodeInto(CharSequence s, Charset charset, byte[] dst, int offset, int maxLen) {
+        return encodeInto(s, charset, ByteBuffer.wrap(dst, offset, maxLen));
+    }
+
+    /**
+     * 文字列を、指定されたバイト配列の範囲に直接エンコードします。
+     * <p>
+     * 範囲に収まらない場合は、2バイト文字を分割しないように文字の境界で切り詰める。
+     * ISO-2022-JP などの終了シーケンスは範囲内に収める。
+     *
+     * @param s 文字列
+     * @param charset 文字コード
+     * @param dst 出力先のバイト配列
+     * @param offset 出力先の開始位置
+     * @param maxLen 出力する最大バイト数
+     * @param replace 変換できない文字を置き換える文字
+     * @return 出力したバイト数
+     */
+    public static int encodeInto(CharSequence s, Charset charset, byte[] dst, int offset, int maxLen,
+            String replace) {
+        return encodeInto(s, charset, ByteBuffer.wrap(dst, offset, maxLen), replace);
+    }
+
+    /**
+     * 文字列を、バイトバッファの現在位置から上限まで直接エンコードします。
+     * <p>
+     * 範囲に収まらない場合は、2バイト文字を分割しないように文字の境界で切り詰める。
+     * ISO-2022-JP などの終了シーケンスは範囲内に収める。
+     * バッファの位置は出力したバイト数だけ進む。
+     *
+     * @param s 文字列
+     * @param charset 文字コード
+     * @param dst 出力先のバイトバッファ
+     * @return 出力したバイト数
+     */
+    public static int encodeInto(CharSequence s, Charset charset, ByteBuffer dst) {
+        if (StringUtils.isEmpty(s)) {
+            return 0;
+        }
+        CoderPool.Key key = CoderPool.Key.report(charset);
+        CharsetEncoder encoder = CoderPool.INSTANCE.encoder(key);
+        try {
+            return encodeInto(CharBuffer.wrap(s), encoder, dst);
+        } finally {
+            CoderPool.INSTANCE.release(key, encoder);
+        }
+    }
+
+    /**
+     * 文字列を、バイトバッファの現在位置から上限まで直接エンコードします。
+     * <p>
+     * 範囲に収まらない場合は、2バイト文字を分割しないように文字の境界で切り詰める。
+     * ISO-2022-JP などの終了シーケンスは範囲内に収める。
+     * バッファの位置は出力したバイト数だけ進む。
+     *
+     * @param s 文字列
+     * @param charset 文字コード
+     * @param dst 出力先のバイトバッファ
+     * @param replace 変換できない文字を置き換える文字
+     * @return 出力したバイト数
+     */
+    public static int encodeInto(CharSequence s, Charset charset, ByteBuffer dst, String replace) {
+        if (StringUtils.isEmpty(s)) {
+            return 0;
+        }
+        CoderPool.Key key = CoderPool.Key.replace(charset, replace);
+        CharsetEncoder encoder = CoderPool.INSTANCE.encoder(key);
+        try {
+            return encodeInto(CharBuffer.wrap(s), encoder, dst);
+        } finally {
+            CoderPool.INSTANCE.release(key, encoder);
+        }
+    }
+
+    /**
+     * 文字バッファを、バイトバッファの現在位置から上限まで直接エンコードします。
+     *
+     * @param in 入力文字バッファ
+     * @param encoder エンコーダ
+     * @param out 出力バイトバッファ
+     * @return 出力したバイト数
+     */
+    static int encodeInto(CharBuffer in, CharsetEncoder encoder, ByteBuffer out) {
+        int start = out.position();
+        int limit = out.limit();
+        for (int contentLimit = limit; ; --contentLimit) {
+            out.limit(contentLimit);
+            CoderResult result = encoder.reset().encode(in, out, true);
+            out.limit(limit);
+            if (result.isError()) {
+                int position = in.position();
+                String rejected = in.subSequence(0, result.length()).toString();
+                throw new CharacterCodingRuntimeException(
+                        position, rejected, ChannelTranscoder.exception(result));
+            }
+            if (!encoder.flush(out).isOverflow()) {
+                return out.position() - start;
+            }
+            // 終了シーケンスが収まらない場合は、文字の上限を減らしてやり直す。
+            in.rewind();
+            out.position(start);
+        }
+    }
+
+    /**
+     * 文字列をエンコードした時のバイト数を、エンコードせずに返します。
+     * <p>
+     * 文字コードごとに一度だけ生成する、文字ごとのバイト数の表を参照する。
+     * 表を使用できない文字 (サロゲート、合成用文字など) や文字コード (ISO-2022-JP など) の場合は、
+     * エンコードしてバイト数を求める。
+     *
+     * @param s 文字列
+     * @param charset 文字コード
+     * @return バイト数 ({@code s} が {@code null} ならば 0)
+     * @throws CharacterCodingRuntimeException 変換できない文字がある場合
+     */
+    public static int byteLength(CharSequence s, Charset charset) {
+        if (StringUtils.isEmpty(s)) {
+            return 0;
+        }
+        return ByteLengthTable.of(charset).byteLength(s, charset);
+    }
+
+    /**
+     * 文字列をエンコードした時のバイト数が、上限以下か判定します。
+     * <p>
+     * {@link #byteLength(CharSequence, Charset)} と同様に数え、上限を超えた時点でやめる。
+     *
+     * @param s 文字列
+     * @param charset 文字コード
+     * @param maxLength バイト数の上限
+     * @return 上限以下ならば {@code true}
+     * @throws CharacterCodingRuntimeException 上限を超える前に変換できない文字がある場合
+     */
+    public static boolean isWithinByteLength(CharSequence s, Charset charset, int maxLength) {
+        if (StringUtils.isEmpty(s)) {
+            return maxLength >= 0;
+        }
+        return ByteLengthTable.of(charset).isWithinByteLength(s, charset, maxLength);
+    }
+
     /**
      * バイト配列を文字列にデコードします。
      *
@@ -883,8 +1048,10 @@ public final class CharsetUtils {
             return null;
         }
         ByteBuffer in = ByteBuffer.wrap(bytes);
+        CoderPool.Key key = CoderPool.Key.report(charset);
+        CharsetDecoder decoder = CoderPool.INSTANCE.decoder(key);
         try {
-            return charset.newDecoder().decode(in).toString();
+            return decoder.decode(in).toString();
         } catch (CharacterCodingException e) {
             int position = in.position();
             if (in.hasRemaining()) {
@@ -894,6 +1061,8 @@ public final class CharsetUtils {
             } else {
                 throw new CharacterCodingRuntimeException(position, (byte[]) null, e);
             }
+        } finally {
+            CoderPool.INSTANCE.release(key, decoder);
         }
     }
 
@@ -909,19 +1078,79 @@ public final class CharsetUtils {
         if (bytes == null) {
             return null;
         }
+        CoderPool.Key key = CoderPool.Key.replace(charset, replace);
+        CharsetDecoder decoder = CoderPool.INSTANCE.decoder(key);
         try {
-            CharsetDecoder decoder = charset.newDecoder()
-                .onMalformedInput(CodingErrorAction.REPLACE)
-                .onUnmappableCharacter(CodingErrorAction.REPLACE);
-            if (StringUtils.isNotEmpty(replace)) {
-                decoder.replaceWith(replace);
-            }
             return decoder
                 .decode(ByteBuffer.wrap(bytes))
                 .toString();
         } catch (CharacterCodingException e) {
             throw new CharacterCodingRuntimeException(e);
+        } finally {
+            CoderPool.INSTANCE.release(key, decoder);
         }
     }
 
+    /**
+     * エンコード・デコードで、プールのエンコーダ・デコーダを再利用できた回数を返します。
+     *
+     * @return 再利用できた回数
+     */
+    public static long getCoderPoolHitCount() {
+        return CoderPool.INSTANCE.hitCount();
+    }
+
+    /**
+     * エンコード・デコードで、エンコーダ・デコーダを新たに生成した回数を返します。
+     *
+     * @return 新たに生成した回数
+     */
+    public static long getCoderPoolMissCount() {
+        return CoderPool.INSTANCE.missCount();
+    }
+
+    /**
+     * 入力チャネルのバイト列を別の文字コードに変換しながら、出力チャネルに書き込みます。
+     * <p>
+     * 固定長のバッファを使い回すため、入力の長さにかかわらず使用するメモリは一定になる。
+     * 文字コードが同じ場合は、検証を行わずにそのまま転送する
+     * (入力がファイル・チャネルならば {@link java.nio.channels.FileChannel#transferTo} を使用する)。
+     * チャネルはブロッキング・モードであること。チャネルは閉じない。
+     *
+     * @param in 入力チャネル
+     * @param inCharset 入力の文字コード
+     * @param out 出力チャネル
+     * @param outCharset 出力の文字コード
+     * @return 出力したバイト数
+     * @throws IOException 入出力エラーが発生した場合
+     * @throws CharacterCodingRuntimeException 不正な入力・変換できない文字がある場合
+     */
+    public static long transcode(ReadableByteChannel in, Charset inCharset,
+            WritableByteChannel out, Charset outCharset) throws IOException {
+        return new ChannelTranscoder(inCharset, outCharset, CodingErrorAction.REPORT, null)
+            .transcode(in, out);
+    }
+
+    /**
+     * 入力チャネルのバイト列を別の文字コードに変換しながら、出力チャネルに書き込みます。
+     * <p>
+     * 固定長のバッファを使い回すため、入力の長さにかかわらず使用するメモリは一定になる。
+     * 文字コードが同じ場合は、置換を行わずにそのまま転送する
+     * (入力がファイル・チャネルならば {@link java.nio.channels.FileChannel#transferTo} を使用する)。
+     * チャネルはブロッキング・モードであること。チャネルは閉じない。
+     *
+     * @param in 入力チャネル
+     * @param inCharset 入力の文字コード
+     * @param out 出力チャネル
+     * @param outCharset 出力の文字コード
+     * @param replace 変換できない文字を置き換える文字列
+     * @return 出力したバイト数
+     * @throws IOException 入出力エラーが発生した場合
+     */
+    public static long transcode(ReadableByteChannel in, Charset inCharset,
+            WritableByteChannel out, Charset outCharset, String replace) throws IOException {
+        return new ChannelTranscoder(inCharset, outCharset, CodingErrorAction.REPLACE, replace)
+            .transcode(in, out);
+    }
+
 }
@@ -1,13 +1,16 @@
 package org.glad2121.charset;
 
-import java.util.Collections;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.IntConsumer;
 import java.util.function.IntUnaryOperator;
 
 import org.glad2121.util.NumberUtils;
-import org.glad2121.util.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -23,15 +26,33 @@ class CodePointConverter implements IntUnaryOperator {
      */
     static final Logger logger = LoggerFactory.getLogger(CodePointConverter.class);
 
+    /**
+     * 変換表のページの値で、{@link #keys} を参照すべきことを示す値。
+     */
+    static final char OTHERS = '\uFFFF';
+
     /**
      * コンバータの名前。
      */
     final String name;
 
     /**
-     * 変換表。
+     * 基本多言語面 (BMP) から BMP への変換表。
+     * <p>
+     * コードポイントの上位8ビットでページを、下位8ビットで変換先を引く。
+     * 変換対象のないページは {@code null}。
      */
-    final Map<Integer, Integer> map;
+    final char[][] pages = new char[256][];
+
+    /**
+     * 上記以外の変換元のコードポイントの昇順の配列。
+     */
+    final int[] keys;
+
+    /**
+     * 上記以外の変換先のコードポイント。
+     */
+    final int[] values;
 
     /**
      * 基本多言語面（BMP）のみか。
@@ -46,10 +67,39 @@ class CodePointConverter implements IntUnaryOperator {
      */
     CodePointConverter(String name, Map<Integer, Integer> map) {
         this.name = name;
-        this.map = Collections.unmodifiableMap(map);
-        this.bmpOnly = map.entrySet().stream().allMatch(entry ->
-            Character.isBmpCodePoint(entry.getKey())
-                    && Character.isBmpCodePoint(entry.getValue()));
+        Map<Integer, Integer> others = new TreeMap<>();
+        for (Map.Entry<Integer, Integer> entry : map.entrySet()) {
+            int key = entry.getKey();
+            int value = entry.getValue();
+            boolean bmp = Character.isBmpCodePoint(key)
+                    && Character.isBmpCodePoint(value) && value != OTHERS;
+            if (Character.isBmpCodePoint(key)) {
+                if (pages[key >>> 8] == null) {
+                    pages[key >>> 8] = newPage(key >>> 8);
+                }
+                pages[key >>> 8][key & 0xFF] = bmp ? (char) value : OTHERS;
+            }
+            if (!bmp) {
+                others.put(key, value);
+            }
+        }
+        this.keys = others.keySet().stream().mapToInt(Integer::intValue).toArray();
+        this.values = others.values().stream().mapToInt(Integer::intValue).toArray();
+        this.bmpOnly = others.isEmpty();
+    }
+
+    /**
+     * 変換しない (自分自身に変換する) ページを生成します。
+     *
+     * @param high コードポイントの上位8ビット
+     * @return ページ
+     */
+    static char[] newPage(int high) {
+        char[] page = new char[256];
+        for (int i = 0; i < 256; ++i) {
+            page[i] = (char) ((high << 8) | i);
+        }
+        return page;
     }
 
     /**
@@ -96,6 +146,49 @@ class CodePointConverter implements IntUnaryOperator {
         return create(name, from.codePoints().toArray(), to.codePoints().toArray());
     }
 
+    /**
+     * このコンバータの後に指定されたコンバータを適用する、1つに融合したコンバータを返します。
+     *
+     * @param after 後に適用するコンバータ
+     * @return 融合したコンバータ
+     */
+    CodePointConverter andThen(CodePointConverter after) {
+        Set<Integer> keys = new TreeSet<>();
+        forEachKey(keys::add);
+        after.forEachKey(keys::add);
+        Map<Integer, Integer> map = new HashMap<>(keys.size());
+        for (int key : keys) {
+            int value = after.convert(convert(key));
+            if (value != key) {
+                map.put(key, value);
+            }
+        }
+        return new CodePointConverter(name + "+" + after.name, map);
+    }
+
+    /**
+     * 変換対象のコードポイントごとに処理を行います。
+     *
+     * @param action 処理
+     */
+    void forEachKey(IntConsumer action) {
+        for (int high = 0; high < pages.length; ++high) {
+            char[] page = pages[high];
+            if (page == null) {
+                continue;
+            }
+            for (int low = 0; low < 256; ++low) {
+                int c = (high << 8) | low;
+                if (page[low] != c && page[low] != OTHERS) {
+                    action.accept(c);
+                }
+            }
+        }
+        for (int key : keys) {
+            action.accept(key);
+        }
+    }
+
     /**
      * 指定されたオペランドに演算子を適用します。
      */
@@ -111,11 +204,24 @@ class CodePointConverter implements IntUnaryOperator {
      * @return   変換後のコードポイント
      */
     public int convert(int c) {
-        return map.getOrDefault(c, c);
+        if ((c >>> 16) == 0) {
+            char[] page = pages[c >>> 8];
+            if (page == null) {
+                return c;
+            }
+            char value = page[c & 0xFF];
+            if (value != OTHERS) {
+                return value;
+            }
+        }
+        int i = Arrays.binarySearch(keys, c);
+        return (i >= 0) ? values[i] : c;
     }
 
     /**
      * 文字列を変換します。
+     * <p>
+     * 変換対象の文字がなければ、元の文字列をそのまま返す。
      *
      * @param s 変換元の文字列
      * @return   変換後の文字列
@@ -124,18 +230,49 @@ class CodePointConverter implements IntUnaryOperator {
         if (s == null || "".equals(s)) {
             return (String) s;
         }
+        int length = s.length();
+        int start = indexOfConvertible(s);
+        if (start >= length) {
+            return s.toString();
+        }
         if (bmpOnly) {
             // 効率のため、すべて BMP ならば char で処理する。
-            int length = s.length();
             char[] chars = new char[length];
-            for (int i = 0; i < length; ++i) {
+            for (int i = 0; i < start; ++i) {
+                chars[i] = s.charAt(i);
+            }
+            for (int i = start; i < length; ++i) {
                 chars[i] = (char) convert(s.charAt(i));
             }
             return String.valueOf(chars);
         } else {
-            return StringUtils.codePointsToString(
-                    s.codePoints().map(this::convert).toArray());
+            StringBuilder sb = new StringBuilder(length + 16);
+            sb.append(s, 0, start);
+            for (int i = start; i < length; ) {
+                int cp = Character.codePointAt(s, i);
+                sb.appendCodePoint(convert(cp));
+                i += Character.charCount(cp);
+            }
+            return sb.toString();
+        }
+    }
+
+    /**
+     * 最初に変換される文字の位置を返します。
+     *
+     * @param s 文字列
+     * @return 最初に変換される文字の位置 (なければ文字列の長さ)
+     */
+    int indexOfConvertible(CharSequence s) {
+        int length = s.length();
+        for (int i = 0; i < length; ) {
+            int cp = bmpOnly ? s.charAt(i) : Character.codePointAt(s, i);
+            if (convert(cp) != cp) {
+                return i;
+            }
+            i += bmpOnly ? 1 : Character.charCount(cp);
         }
+        return length;
     }
 
 }
@@ -4,10 +4,15 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
-import java.util.Collections;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 import java.util.function.Predicate;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -16,6 +21,8 @@ import org.glad2121.util.StringUtils;
 
 /**
  * コードポイントの集合。
+ * <p>
+ * コードポイントの上位ビットでブロックを選び、下位ビットで区分値を引く2段の表で保持する。
  *
  * @author glad2121
  */
@@ -26,15 +33,62 @@ class CodePointSet {
      */
     static final String SOURCE_NAME = "charset-compact.txt";
 
+    /**
+     * ビルド時に設定ファイルから生成されるバイナリファイル名。
+     */
+    static final String BINARY_NAME = "charset-compact.bin";
+
+    /**
+     * バイナリファイルの先頭の識別子。
+     */
+    static final int BINARY_MAGIC = 0x43505331;
+
     /**
      * このクラスのインスタンス。
      */
-    static final CodePointSet INSTANCE = loadFromCharsetCompactText(SOURCE_NAME);
+    static final CodePointSet INSTANCE = load();
+
+    /**
+     * ブロックのビット数。
+     */
+    static final int BLOCK_BITS = 8;
+
+    /**
+     * ブロックの大きさ。
+     */
+    static final int BLOCK_SIZE = 1 << BLOCK_BITS;
 
     /**
-     * コードポイントと文字区分の対応表。
+     * 未定義を表すバイト値。
      */
-    final Map<Integer, CharType> map;
+    static final byte UNDEFINED_VALUE = (byte) 0xFF;
+
+    /**
+     * コードポイントの上位ビットからブロック番号への変換表。
+     * <p>
+     * ブロック番号 0 は、すべて未定義の共有ブロック。
+     */
+    final char[] index;
+
+    /**
+     * ブロックを連結した、コードポイントの下位ビットから区分値への変換表。
+     */
+    final byte[] blocks;
+
+    /**
+     * コードポイント以外のキー (結合文字列) の昇順の配列。
+     */
+    final int[] extraKeys;
+
+    /**
+     * コードポイント以外のキーの区分値。
+     */
+    final byte[] extraValues;
+
+    /**
+     * 区分値と文字区分の対応表。
+     */
+    final CharType[] types = new CharType[256];
 
     /**
      * コンストラクタ。
@@ -42,7 +96,124 @@ class CodePointSet {
      * @param map コードポイントと文字区分の対応表。
      */
     CodePointSet(Map<Integer, CharType> map) {
-        this.map = Collections.unmodifiableMap(map);
+        Map<Integer, CharType> sorted = new TreeMap<>(map);
+        char[] index = new char[(Character.MAX_CODE_POINT + 1) >>> BLOCK_BITS];
+        List<byte[]> blockList = new ArrayList<>();
+        Map<ByteBuffer, Integer> blockNumbers = new HashMap<>();
+        byte[] empty = newBlock();
+        blockList.add(empty);
+        blockNumbers.put(ByteBuffer.wrap(empty), 0);
+        int[] extraKeys = new int[map.size()];
+        byte[] extraValues = new byte[map.size()];
+        int extraCount = 0;
+        byte[] block = null;
+        int blockIndex = -1;
+        for (Map.Entry<Integer, CharType> entry : sorted.entrySet()) {
+            int key = entry.getKey();
+            CharType type = entry.getValue();
+            if (type.value < 0) {
+                continue;
+            }
+            if (type.value >= (UNDEFINED_VALUE & 0xFF)) {
+                throw new IllegalArgumentException("Unsupported type: " + type);
+            }
+            types[type.value] = type;
+            if (key < 0 || key > Character.MAX_CODE_POINT) {
+                extraKeys[extraCount] = key;
+                extraValues[extraCount++] = (byte) type.value;
+                continue;
+            }
+            if ((key >>> BLOCK_BITS) != blockIndex) {
+                addBlock(index, blockIndex, block, blockList, blockNumbers);
+                blockIndex = key >>> BLOCK_BITS;
+                block = newBlock();
+            }
+            block[key & (BLOCK_SIZE - 1)] = (byte) type.value;
+        }
+        addBlock(index, blockIndex, block, blockList, blockNumbers);
+        this.index = index;
+        this.blocks = new byte[blockList.size() * BLOCK_SIZE];
+        for (int i = 0; i < blockList.size(); ++i) {
+            System.arraycopy(blockList.get(i), 0, blocks, i * BLOCK_SIZE, BLOCK_SIZE);
+        }
+        this.extraKeys = Arrays.copyOf(extraKeys, extraCount);
+        this.extraValues = Arrays.copyOf(extraValues, extraCount);
+    }
+
+    /**
+     * 変換表を直接指定するコンストラクタ。
+     *
+     * @param index ブロック番号への変換表
+     * @param blocks ブロックを連結した変換表
+     * @param extraKeys コードポイント以外のキーの昇順の配列
+     * @param extraValues コードポイント以外のキーの区分値
+     */
+    CodePointSet(char[] index, byte[] blocks, int[] extraKeys, byte[] extraValues) {
+        this.index = index;
+        this.blocks = blocks;
+        this.extraKeys = extraKeys;
+        this.extraValues = extraValues;
+        for (byte[] values : new byte[][] {blocks, extraValues}) {
+            for (byte value : values) {
+                if (value != UNDEFINED_VALUE && types[value & 0xFF] == null) {
+                    types[value & 0xFF] = CharType.getOrCreate(value & 0xFF);
+                }
+            }
+        }
+    }
+
+    /**
+     * すべて未定義のブロックを生成します。
+     *
+     * @return ブロック
+     */
+    static byte[] newBlock() {
+        byte[] block = new byte[BLOCK_SIZE];
+        Arrays.fill(block, UNDEFINED_VALUE);
+        return block;
+    }
+
+    /**
+     * ブロックを登録します。
+     * <p>
+     * 同じ内容のブロックが登録済みならば、それを共有する。
+     *
+     * @param index ブロック番号への変換表
+     * @param blockIndex コードポイントの上位ビット
+     * @param block ブロック
+     * @param blockList 登録済みのブロック
+     * @param blockNumbers 登録済みのブロックとブロック番号の対応表
+     */
+    static void addBlock(char[] index, int blockIndex, byte[] block,
+            List<byte[]> blockList, Map<ByteBuffer, Integer> blockNumbers) {
+        if (block == null) {
+            return;
+        }
+        Integer number = blockNumbers.get(ByteBuffer.wrap(block));
+        if (number == null) {
+            number = blockList.size();
+            blockList.add(block);
+            blockNumbers.put(ByteBuffer.wrap(block), number);
+        }
+        index[blockIndex] = (char) number.intValue();
+    }
+
+    /**
+     * 指定されたコードポイントの区分値を返します。
+     *
+     * @param codePoint コードポイント
+     * @return 区分値 (未定義ならば -1)
+     */
+    int typeValue(int codePoint) {
+        int value;
+        if ((codePoint >>> BLOCK_BITS) < index.length) {
+            value = blocks[(index[codePoint >>> BLOCK_BITS] << BLOCK_BITS)
+                    | (codePoint & (BLOCK_SIZE - 1))];
+        } else {
+            int i = Arrays.binarySearch(extraKeys, codePoint);
+            value = (i >= 0) ? extraValues[i] : UNDEFINED_VALUE;
+        }
+        return (value == UNDEFINED_VALUE) ? -1 : (value & 0xFF);
     }
 
     /**
@@ -52,7 +223,8 @@ class CodePointSet {
      * @return 文字区分
      */
     public CharType charType(int codePoint) {
-        return map.getOrDefault(codePoint, CharType.UNDEFINED);
+        int value = typeValue(codePoint);
+        return (value < 0) ? CharType.UNDEFINED : types[value];
     }
 
     /**
@@ -62,7 +234,7 @@ class CodePointSet {
      * @return 対応表に含まれれば {@code true}
      */
     public boolean contains(int codePoint) {
-        return map.containsKey(codePoint);
+        return typeValue(codePoint) >= 0;
     }
 
     /**
@@ -72,10 +244,7 @@ class CodePointSet {
      * @return すべて対応表に含まれれば {@code true}
      */
     public boolean containsAll(CharSequence s) {
-        if (StringUtils.isEmpty(s)) {
-            return true;
-        }
-        return s.codePoints().allMatch(this::contains);
+        return matchesAll(s, CharType.MASK_DEFINED);
     }
 
     /**
@@ -89,6 +258,18 @@ class CodePointSet {
         return pred.test(charType(codePoint));
     }
 
+    /**
+     * 指定されたコードポイントがビットマスクの条件を満たすか判定します。
+     *
+     * @param codePoint コードポイント
+     * @param mask 条件のビットマスク
+     * @return 条件を満たせば {@code true}
+     * @see CharType#matches(int, int)
+     */
+    public boolean matches(int codePoint, int mask) {
+        return CharType.matches(typeValue(codePoint), mask);
+    }
+
     /**
      * 文字列を構成する文字がすべて条件を満たすか判定します。
      *
@@ -103,6 +284,48 @@ class CodePointSet {
         return s.codePoints().allMatch(cp -> matches(cp, pred));
     }
 
+    /**
+     * 文字列を構成する文字がすべてビットマスクの条件を満たすか判定します。
+     *
+     * @param s 文字列
+     * @param mask 条件のビットマスク
+     * @return すべて条件を満たせば {@code true}
+     */
+    public boolean matchesAll(CharSequence s, int mask) {
+        return indexOfMismatch(s, mask) < 0;
+    }
+
+    /**
+     * 文字列を構成する文字のうち、ビットマスクの条件を満たさない最初の位置を返します。
+     *
+     * @param s 文字列
+     * @param mask 条件のビットマスク
+     * @return 条件を満たさない最初の位置 (すべて満たせば -1)
+     */
+    public int indexOfMismatch(CharSequence s, int mask) {
+        if (StringUtils.isEmpty(s)) {
+            return -1;
+        }
+        int length = s.length();
+        for (int i = 0; i < length; ) {
+            char c = s.charAt(i);
+            int cp = c;
+            int next = i + 1;
+            if (Character.isHighSurrogate(c) && next < length) {
+                char c2 = s.charAt(next);
+                if (Character.isLowSurrogate(c2)) {
+                    cp = Character.toCodePoint(c, c2);
+                    ++next;
+                }
+            }
+            if (!matches(cp, mask)) {
+                return i;
+            }
+            i = next;
+        }
+        return -1;
+    }
+
     /**
      * 指定された条件を満たすコードポイントの個数を返します。
      *
@@ -110,11 +333,36 @@ class CodePointSet {
      * @return コードポイントの個数
      */
     int count(Predicate<CharType> pred) {
-        return (int) map.entrySet().stream()
-            .filter(entry -> pred.test(entry.getValue()))
+        return (int) toMap().values().stream()
+            .filter(pred)
             .count();
     }
 
+    /**
+     * コードポイントと文字区分の対応表を生成して返します。
+     *
+     * @return コードポイントの昇順の対応表
+     */
+    Map<Integer, CharType> toMap() {
+        Map<Integer, CharType> map = new TreeMap<>();
+        for (int i = 0; i < index.length; ++i) {
+            if (index[i] == 0) {
+                continue;
+            }
+            for (int j = 0; j < BLOCK_SIZE; ++j) {
+                int cp = (i << BLOCK_BITS) | j;
+                int value = typeValue(cp);
+                if (value >= 0) {
+                    map.put(cp, types[value]);
+                }
+            }
+        }
+        for (int i = 0; i < extraKeys.length; ++i) {
+            map.put(extraKeys[i], types[extraValues[i] & 0xFF]);
+        }
+        return map;
+    }
+
     /**
      * 16バイト2文字からコードポイントを生成します。
      *
@@ -132,6 +380,77 @@ class CodePointSet {
         throw new RuntimeException(String.format("Unsupported code: %04X %04X", c0, c1));
     }
 
+    /**
+     * コードポイントの集合を読み込みます。
+     * <p>
+     * ビルド時に生成されたバイナリファイルがあればそれを、なければ設定ファイルを読み込む。
+     *
+     * @return コードポイントの集合
+     */
+    static CodePointSet load() {
+        CodePointSet set = loadFromBinary(BINARY_NAME);
+        if (set != null) {
+            return set;
+        }
+        return loadFromCharsetCompactText(SOURCE_NAME);
+    }
+
+    /**
+     * バイナリファイルを一括で読み込んで、コードポイントの集合を生成します。
+     *
+     * @param name リソース名
+     * @return コードポイントの集合 (リソースがなければ {@code null})
+     */
+    static CodePointSet loadFromBinary(String name) {
+        try (InputStream in = CodePointSet.class.getResourceAsStream(name)) {
+            if (in == null) {
+                return null;
+            }
+            ByteBuffer buf = ByteBuffer.wrap(in.readAllBytes());
+            if (buf.getInt() != BINARY_MAGIC) {
+                throw new RuntimeException("Invalid resource: " + name);
+            }
+            char[] index = new char[buf.getInt()];
+            byte[] blocks = new byte[buf.getInt()];
+            int[] extraKeys = new int[buf.getInt()];
+            byte[] extraValues = new byte[extraKeys.length];
+            buf.asCharBuffer().get(index);
+            buf.position(buf.position() + index.length * Character.BYTES);
+            buf.get(blocks);
+            buf.asIntBuffer().get(extraKeys);
+            buf.position(buf.position() + extraKeys.length * Integer.BYTES);
+            buf.get(extraValues);
+            return new CodePointSet(index, blocks, extraKeys, extraValues);
+        } catch (IOException | BufferUnderflowException e) {
+            throw new RuntimeException("Failed to load resource: " + name, e);
+        }
+    }
+
+    /**
+     * バイナリファイルの内容を生成します。
+     *
+     * @return バイナリファイルの内容
+     */
+    byte[] toBinary() {
+        ByteBuffer buf = ByteBuffer.allocate(Integer.BYTES * 4
+                + index.length * Character.BYTES
+                + blocks.length
+                + extraKeys.length * (Integer.BYTES + 1));
+        buf.putInt(BINARY_MAGIC)
+            .putInt(index.length)
+            .putInt(blocks.length)
+            .putInt(extraKeys.length);
+        for (char c : index) {
+            buf.putChar(c);
+        }
+        buf.put(blocks);
+        for (int key : extraKeys) {
+            buf.putInt(key);
+        }
+        buf.put(extraValues);
+        return buf.array();
+    }
+
     /**
      * 設定ファイルを読み込んで、コードポイントの集合を生成します。
      *
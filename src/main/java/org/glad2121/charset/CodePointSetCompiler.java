@@ -0,0 +1,55 @@
+package org.glad2121.charset;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * 設定ファイルからコードポイントの集合のバイナリファイルを生成するツール。
+ * <p>
+ * ビルド時 (process-classes) に exec-maven-plugin から実行し、クラスパスの出力先ディレクトリに書き込む。
+ * 設定ファイル {@value CodePointSet#SOURCE_NAME} を正とし、バイナリファイルはその写しとする。
+ *
+ * @author glad2121
+ */
+public final class CodePointSetCompiler {
+
+    /**
+     * 使用しないコンストラクタ。
+     */
+    private CodePointSetCompiler() {
+    }
+
+    /**
+     * メインルーチン。
+     *
+     * @param args 出力先ディレクトリ
+     * @throws IOException 入出力エラーが発生した場合
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            throw new IllegalArgumentException("Usage: CodePointSetCompiler <output-directory>");
+        }
+        Path file = compile(Paths.get(args[0]));
+        System.out.println("Generated: " + file);
+    }
+
+    /**
+     * 設定ファイルを読み込んで、バイナリファイルを書き込みます。
+     *
+     * @param outputDirectory 出力先ディレクトリ
+     * @return 書き込んだファイル
+     * @throws IOException 入出力エラーが発生した場合
+     */
+    static Path compile(Path outputDirectory) throws IOException {
+        CodePointSet set = CodePointSet.loadFromCharsetCompactText(CodePointSet.SOURCE_NAME);
+        Path file = outputDirectory
+                .resolve(CodePointSet.class.getPackageName().replace('.', '/'))
+                .resolve(CodePointSet.BINARY_NAME);
+        Files.createDirectories(file.getParent());
+        Files.write(file, set.toBinary());
+        return file;
+    }
+
+}
@@ -0,0 +1,319 @@
+package org.glad2121.charset;
+
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.glad2121.util.StringUtils;
+
+/**
+ * 文字集合のエンコーダ・デコーダのプール。
+ * <p>
+ * 文字集合、エラー時の動作、置換文字列の組み合わせごとに、上限付きのキューで
+ * リセット済みのエンコーダ・デコーダを保持し、再利用する。
+ * スレッドに結び付けないため、仮想スレッドなど多数のスレッドから使用しても保持する数は増えない。
+ * キューが空ならば新たに生成し、キューがいっぱいならば返却されたものを破棄する。
+ * 任意の置換文字列で組み合わせが際限なく増えないように、保持する組み合わせの数にも上限を設け、
+ * 上限を超えた組み合わせはプールせずに毎回生成する。
+ *
+ * @author glad2121
+ */
+final class CoderPool {
+
+    /**
+     * 共通のプール。
+     */
+    static final CoderPool INSTANCE = new CoderPool(
+            Math.max(4, Runtime.getRuntime().availableProcessors() * 2));
+
+    /**
+     * 保持する組み合わせの最大数。
+     */
+    static final int MAX_KEYS = 64;
+
+    /**
+     * 組み合わせごとに保持する最大数。
+     */
+    final int capacity;
+
+    /**
+     * 組み合わせごとのエンコーダのキュー。
+     */
+    final ConcurrentMap<Key, Queue<CharsetEncoder>> encoders = new ConcurrentHashMap<>();
+
+    /**
+     * 組み合わせごとのデコーダのキュー。
+     */
+    final ConcurrentMap<Key, Queue<CharsetDecoder>> decoders = new ConcurrentHashMap<>();
+
+    /**
+     * プールから取り出せた回数。
+     */
+    final LongAdder hits = new LongAdder();
+
+    /**
+     * 新たに生成した回数。
+     */
+    final LongAdder misses = new LongAdder();
+
+    /**
+     * コンストラクタ。
+     *
+     * @param capacity 組み合わせごとに保持する最大数
+     */
+    CoderPool(int capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * エンコーダを取り出します。
+     * <p>
+     * 使用後は {@link #release(Key, CharsetEncoder)} で返却する。
+     *
+     * @param key 組み合わせ
+     * @return リセット済みのエンコーダ
+     */
+    CharsetEncoder encoder(Key key) {
+        Queue<CharsetEncoder> queue = queue(encoders, key);
+        CharsetEncoder encoder = (queue != null) ? queue.poll() : null;
+        if (encoder != null) {
+            hits.increment();
+            return encoder;
+        }
+        misses.increment();
+        encoder = key.charset.newEncoder()
+            .onMalformedInput(key.action)
+            .onUnmappableCharacter(key.action);
+        if (StringUtils.isNotEmpty(key.replace)) {
+            encoder.replaceWith(key.replace.getBytes(key.charset));
+        }
+        return encoder;
+    }
+
+    /**
+     * デコーダを取り出します。
+     * <p>
+     * 使用後は {@link #release(Key, CharsetDecoder)} で返却する。
+     *
+     * @param key 組み合わせ
+     * @return リセット済みのデコーダ
+     */
+    CharsetDecoder decoder(Key key) {
+        Queue<CharsetDecoder> queue = queue(decoders, key);
+        CharsetDecoder decoder = (queue != null) ? queue.poll() : null;
+        if (decoder != null) {
+            hits.increment();
+            return decoder;
+        }
+        misses.increment();
+        decoder = key.charset.newDecoder()
+            .onMalformedInput(key.action)
+            .onUnmappableCharacter(key.action);
+        if (StringUtils.isNotEmpty(key.replace)) {
+            decoder.replaceWith(key.replace);
+        }
+        return decoder;
+    }
+
+    /**
+     * エンコーダをリセットして返却します。
+     *
+     * @param key 組み合わせ
+     * @param encoder エンコーダ
+     */
+    void release(Key key, CharsetEncoder encoder) {
+        Queue<CharsetEncoder> queue = encoders.get(key);
+        if (queue != null) {
+            queue.offer(encoder.reset());
+        }
+    }
+
+    /**
+     * デコーダをリセットして返却します。
+     *
+     * @param key 組み合わせ
+     * @param decoder デコーダ
+     */
+    void release(Key key, CharsetDecoder decoder) {
+        Queue<CharsetDecoder> queue = decoders.get(key);
+        if (queue != null) {
+            queue.offer(decoder.reset());
+        }
+    }
+
+    /**
+     * 組み合わせのキューを返します。
+     * <p>
+     * 組み合わせの数が上限に達している場合は、新たなキューを生成せずに {@code null} を返す。
+     *
+     * @param <T> 要素の型
+     * @param queues 組み合わせごとのキュー
+     * @param key 組み合わせ
+     * @return キュー (プールしない組み合わせならば {@code null})
+     */
+    <T> Queue<T> queue(ConcurrentMap<Key, Queue<T>> queues, Key key) {
+        Queue<T> queue = queues.get(key);
+        if (queue == null && queues.size() < MAX_KEYS) {
+            queue = queues.computeIfAbsent(key, k -> newQueue());
+        }
+        return queue;
+    }
+
+    /**
+     * 上限付きのキューを生成します。
+     *
+     * @param <T> 要素の型
+     * @return キュー
+     */
+    <T> Queue<T> newQueue() {
+        return new ArrayBlockingQueue<>(capacity);
+    }
+
+    /**
+     * プールから取り出せた回数を返します。
+     *
+     * @return プールから取り出せた回数
+     */
+    long hitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * 新たに生成した回数を返します。
+     *
+     * @return 新たに生成した回数
+     */
+    long missCount() {
+        return misses.sum();
+    }
+
+    /**
+     * 文字集合、エラー時の動作、置換文字列の組み合わせ。
+     */
+    static final class Key {
+
+        /**
+         * 文字集合ごとの、エラーを報告する組み合わせ。
+         */
+        static final ConcurrentMap<Charset, Key> REPORT_KEYS = new ConcurrentHashMap<>();
+
+        /**
+         * 文字集合ごとの、既定の置換文字列でエラーを置換する組み合わせ。
+         */
+        static final ConcurrentMap<Charset, Key> REPLACE_KEYS = new ConcurrentHashMap<>();
+
+        /**
+         * 文字集合。
+         */
+        final Charset charset;
+
+        /**
+         * 不正な入力・変換できない文字の扱い。
+         */
+        final CodingErrorAction action;
+
+        /**
+         * 置換文字列 (空ならば文字集合の既定値)。
+         */
+        final String replace;
+
+        /**
+         * ハッシュ値。
+         */
+        final int hash;
+
+        /**
+         * コンストラクタ。
+         *
+         * @param charset 文字集合
+         * @param action 不正な入力・変換できない文字の扱い
+         * @param replace 置換文字列 (空ならば文字集合の既定値)
+         */
+        Key(Charset charset, CodingErrorAction action, String replace) {
+            this.charset = charset;
+            this.action = action;
+            this.replace = StringUtils.isEmpty(replace) ? null : replace;
+            this.hash = (charset.hashCode() * 31 + action.hashCode()) * 31 + Objects.hashCode(this.replace);
+        }
+
+        /**
+         * エラーを報告する組み合わせを返します。
+         * <p>
+         * 文字集合ごとにキャッシュした組み合わせを返すため、呼び出しごとに生成しない。
+         *
+         * @param charset 文字集合
+         * @return 組み合わせ
+         */
+        static Key report(Charset charset) {
+            Key key = REPORT_KEYS.get(charset);
+            return (key != null) ? key : REPORT_KEYS.computeIfAbsent(charset, Key::newReport);
+        }
+
+        /**
+         * エラーを報告する組み合わせを生成します。
+         *
+         * @param charset 文字集合
+         * @return 組み合わせ
+         */
+        static Key newReport(Charset charset) {
+            return new Key(charset, CodingErrorAction.REPORT, null);
+        }
+
+        /**
+         * エラーを置換する組み合わせを返します。
+         *
+         * @param charset 文字集合
+         * @param replace 置換文字列 (空ならば文字集合の既定値)
+         * @return 組み合わせ
+         */
+        static Key replace(Charset charset, String replace) {
+            if (StringUtils.isNotEmpty(replace)) {
+                return new Key(charset, CodingErrorAction.REPLACE, replace);
+            }
+            Key key = REPLACE_KEYS.get(charset);
+            return (key != null) ? key : REPLACE_KEYS.computeIfAbsent(charset, Key::newReplace);
+        }
+
+        /**
+         * 既定の置換文字列でエラーを置換する組み合わせを生成します。
+         *
+         * @param charset 文字集合
+         * @return 組み合わせ
+         */
+        static Key newReplace(Charset charset) {
+            return new Key(charset, CodingErrorAction.REPLACE, null);
+        }
+
+        /**
+         * このオブジェクトのハッシュ値を返します。
+         */
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        /**
+         * このオブジェクトと他のオブジェクトが等しいか判定します。
+         */
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) other;
+            return hash == key.hash
+                    && charset.equals(key.charset)
+                    && action.equals(key.action)
+                    && Objects.equals(replace, key.replace);
+        }
+
+    }
+
+}
@@ -0,0 +1,95 @@
+package org.glad2121.charset;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CoderResult;
+
+/**
+ * コンバータを適用した文字集合のエンコード表。
+ * <p>
+ * 参照実装のエンコーダで基本多言語面の全ての文字をエンコードした結果を保持する。
+ * コンバータによる変換と、移譲先の文字集合のバイト表を1つにまとめたもの。
+ * 文字集合ごとに一度だけ生成し、エンコーダ間で共有する。
+ *
+ * @author glad2121
+ */
+final class ConverterEncodeTable {
+
+    /**
+     * 変換できない文字であることを示す値。
+     */
+    static final int UNMAPPABLE = 0xFFFF;
+
+    /**
+     * 表を使わずに参照実装でエンコードすべき文字であることを示す値。
+     * <p>
+     * サロゲート、合成用文字、その他の特殊な結果になる文字が該当する。
+     */
+    static final int SLOW = 0xFFFE;
+
+    /**
+     * 文字ごとのエンコード結果。
+     * <p>
+     * 1バイトならばその値、2バイトならば上位バイト・下位バイトを連結した値。
+     */
+    final short[] table = new short[0x10000];
+
+    /**
+     * 参照実装のエンコーダからエンコード表を生成します。
+     *
+     * @param reference 参照実装のエンコーダ
+     */
+    ConverterEncodeTable(ConverterEncoder reference) {
+        CharBuffer in = CharBuffer.allocate(2);
+        ByteBuffer out = ByteBuffer.allocate(8);
+        for (int c = 0; c < 0x10000; ++c) {
+            int value;
+            if (Character.isSurrogate((char) c) || ConverterEncoder.isCombiningChar(c)) {
+                value = SLOW;
+            } else {
+                in.clear();
+                reference.append(in, reference.convert(c));
+                value = encode(reference, in.flip(), out.clear());
+            }
+            table[c] = (short) value;
+        }
+    }
+
+    /**
+     * 参照実装のエンコーダで1文字分をエンコードし、表に格納する値を返します。
+     *
+     * @param reference 参照実装のエンコーダ
+     * @param in 入力文字バッファ
+     * @param out 出力バイトバッファ
+     * @return 表に格納する値
+     */
+    static int encode(ConverterEncoder reference, CharBuffer in, ByteBuffer out) {
+        int length = in.remaining();
+        CoderResult result = reference.doEncode(in, out);
+        if (result.isUnmappable() && result.length() == 1 && length == 1) {
+            return UNMAPPABLE;
+        }
+        if (!result.isUnderflow() || in.hasRemaining()) {
+            return SLOW;
+        }
+        out.flip();
+        if (out.remaining() == 1) {
+            return out.get(0) & 0xFF;
+        }
+        if (out.remaining() == 2 && ShiftJISDecodeTable.isLead(out.get(0) & 0xFF)) {
+            return ((out.get(0) & 0xFF) << 8) | (out.get(1) & 0xFF);
+        }
+        return SLOW;
+    }
+
+    /**
+     * 文字のエンコード結果を返します。
+     *
+     * @param c 文字
+     * @return エンコード結果、または {@link #UNMAPPABLE}, {@link #SLOW}
+     */
+    int encode(char c) {
+        return table[c] & 0xFFFF;
+    }
+
+}
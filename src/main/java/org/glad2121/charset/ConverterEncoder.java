@@ -8,6 +8,10 @@ import java.util.function.IntUnaryOperator;
 
 /**
  * コンバータを適用した文字集合エンコーダ。
+ * <p>
+ * エンコード表が指定された場合は、表を参照して直接エンコードし、
+ * サロゲートペアと合成用文字を含む文字だけを移譲先のエンコーダでエンコードする。
+ * 指定されない場合は、1文字ずつ移譲先のエンコーダでエンコードする (エンコード表の生成に使用)。
  *
  * @author glad2121
  */
@@ -24,18 +28,41 @@ class ConverterEncoder extends CharsetEncoder {
     final IntUnaryOperator converter;
 
     /**
-     * コンストラクタ。
+     * エンコード表。
+     */
+    final ConverterEncodeTable table;
+
+    /**
+     * 移譲先のエンコーダに渡す文字バッファ。
+     */
+    final CharBuffer buf = CharBuffer.allocate(4);
+
+    /**
+     * 移譲先のエンコーダを用いるコンストラクタ。
      *
      * @param delegate 移譲先のエンコーダ
      * @param converter 適用するコンバータ
      */
     ConverterEncoder(CharsetEncoder delegate, IntUnaryOperator converter) {
+        this(delegate, converter, null);
+    }
+
+    /**
+     * エンコード表を用いるコンストラクタ。
+     *
+     * @param delegate 移譲先のエンコーダ
+     * @param converter 適用するコンバータ
+     * @param table エンコード表
+     */
+    ConverterEncoder(CharsetEncoder delegate, IntUnaryOperator converter,
+            ConverterEncodeTable table) {
         super(delegate.charset(),
                 delegate.maxBytesPerChar(),
                 delegate.maxBytesPerChar(),
                 delegate.replacement());
         this.delegate = delegate;
         this.converter = converter;
+        this.table = table;
     }
 
     /**
@@ -43,46 +70,191 @@ class ConverterEncoder extends CharsetEncoder {
      */
     @Override
     protected CoderResult encodeLoop(CharBuffer in, ByteBuffer out) {
-        int mark = in.position();
+        if (table == null) {
+            return encodeLoopByDelegate(in, out);
+        }
+        if (in.hasArray() && out.hasArray()) {
+            return encodeArrayLoop(in, out);
+        }
+        return encodeBufferLoop(in, out);
+    }
+
+    /**
+     * エンコード表を参照して、配列を直接エンコードします。
+     *
+     * @param in  入力文字バッファ
+     * @param out 出力バイトバッファ
+     * @return 実行結果
+     */
+    CoderResult encodeArrayLoop(CharBuffer in, ByteBuffer out) {
+        char[] sa = in.array();
+        int sp = in.arrayOffset() + in.position();
+        int sl = in.arrayOffset() + in.limit();
+        byte[] da = out.array();
+        int dp = out.arrayOffset() + out.position();
+        int dl = out.arrayOffset() + out.limit();
         try {
-            CharBuffer buf = CharBuffer.allocate(2);
-            while (in.hasRemaining()) {
-                char c = in.get();
-                if (Character.isSurrogate(c)) {
-                    // サロゲートペアの場合。
-                    if (!in.hasRemaining()) {
-                        return CoderResult.malformedForLength(1);
+            while (sp < sl) {
+                int value = table.encode(sa[sp]);
+                if (value == ConverterEncodeTable.SLOW
+                        || (sp + 1 < sl && isSlowNext(sa[sp + 1]))) {
+                    // サロゲートペア、合成用文字を含む場合。
+                    in.position(sp - in.arrayOffset());
+                    out.position(dp - out.arrayOffset());
+                    CoderResult result = encodeByDelegate(in, out);
+                    int next = in.arrayOffset() + in.position();
+                    boolean progress = (next != sp);
+                    sp = next;
+                    dp = out.arrayOffset() + out.position();
+                    if (!result.isUnderflow() || !progress) {
+                        return result;
                     }
-                    char c2 = in.get();
-                    if (!Character.isSurrogate(c2)) {
-                        return CoderResult.malformedForLength(1);
+                    continue;
+                }
+                if (value == ConverterEncodeTable.UNMAPPABLE) {
+                    return CoderResult.unmappableForLength(1);
+                }
+                if (value < 0x100) {
+                    if (dp == dl) {
+                        return CoderResult.OVERFLOW;
                     }
-                    int cp = Character.toCodePoint(c, c2);
-                    // コンバータを適用。
-                    cp = convert(cp);
-                    append(buf.clear(), cp);
+                    da[dp++] = (byte) value;
                 } else {
-                    // 基本多言語面の場合。
-                    // コンバータを適用。
-                    int cp = convert(c);
-                    append(buf.clear(), cp);
-                    if (in.hasRemaining()) {
-                        int pos = in.position();
-                        char c2 = in.get();
-                        if (isCombiningChar(c2)) {
-                            append(buf, c2);
-                        } else {
-                            in.position(pos);
-                        }
+                    if (dl - dp < 2) {
+                        return CoderResult.OVERFLOW;
                     }
+                    da[dp++] = (byte) (value >> 8);
+                    da[dp++] = (byte) value;
                 }
-                CoderResult result = doEncode(buf.flip(), out);
-                if (!result.isUnderflow()) {
+                ++sp;
+            }
+            return CoderResult.UNDERFLOW;
+        } finally {
+            in.position(sp - in.arrayOffset());
+            out.position(dp - out.arrayOffset());
+        }
+    }
+
+    /**
+     * エンコード表を参照して、バッファを直接エンコードします。
+     *
+     * @param in  入力文字バッファ
+     * @param out 出力バイトバッファ
+     * @return 実行結果
+     */
+    CoderResult encodeBufferLoop(CharBuffer in, ByteBuffer out) {
+        while (in.hasRemaining()) {
+            int pos = in.position();
+            int value = table.encode(in.get(pos));
+            if (value == ConverterEncodeTable.SLOW
+                    || (pos + 1 < in.limit() && isSlowNext(in.get(pos + 1)))) {
+                // サロゲートペア、合成用文字を含む場合。
+                CoderResult result = encodeByDelegate(in, out);
+                if (!result.isUnderflow() || in.position() == pos) {
                     return result;
                 }
-                // エンコードが成功した場合は位置を更新する。
-                mark = in.position();
+                continue;
             }
+            if (value == ConverterEncodeTable.UNMAPPABLE) {
+                return CoderResult.unmappableForLength(1);
+            }
+            if (value < 0x100) {
+                if (!out.hasRemaining()) {
+                    return CoderResult.OVERFLOW;
+                }
+                out.put((byte) value);
+            } else {
+                if (out.remaining() < 2) {
+                    return CoderResult.OVERFLOW;
+                }
+                out.put((byte) (value >> 8));
+                out.put((byte) value);
+            }
+            in.position(pos + 1);
+        }
+        return CoderResult.UNDERFLOW;
+    }
+
+    /**
+     * 次の文字が合成用文字で、現在の文字と併せてエンコードすべきか判定します。
+     *
+     * @param next 次の文字
+     * @return 併せてエンコードすべきならば {@code true}
+     */
+    boolean isSlowNext(char next) {
+        return table.encode(next) == ConverterEncodeTable.SLOW && isCombiningChar(next);
+    }
+
+    /**
+     * 移譲先のエンコーダで、1文字ずつエンコードします。
+     *
+     * @param in  入力文字バッファ
+     * @param out 出力バイトバッファ
+     * @return 実行結果
+     */
+    CoderResult encodeLoopByDelegate(CharBuffer in, ByteBuffer out) {
+        while (in.hasRemaining()) {
+            int pos = in.position();
+            CoderResult result = encodeByDelegate(in, out);
+            if (!result.isUnderflow() || in.position() == pos) {
+                return result;
+            }
+        }
+        return CoderResult.UNDERFLOW;
+    }
+
+    /**
+     * 移譲先のエンコーダで、1文字 (サロゲートペア、後続の合成用文字を含む) をエンコードします。
+     * <p>
+     * エンコードに成功した場合だけ入力と出力の位置を進める。
+     * サロゲートペアの途中で入力が終わっている場合は、位置を進めずに {@code UNDERFLOW} を返す。
+     *
+     * @param in  入力文字バッファ
+     * @param out 出力バイトバッファ
+     * @return 実行結果
+     */
+    CoderResult encodeByDelegate(CharBuffer in, ByteBuffer out) {
+        int mark = in.position();
+        int outMark = out.position();
+        try {
+            char c = in.get();
+            if (Character.isSurrogate(c)) {
+                // サロゲートペアの場合。
+                if (!in.hasRemaining()) {
+                    // 続きの文字を待つ。
+                    return CoderResult.UNDERFLOW;
+                }
+                char c2 = in.get();
+                if (!Character.isSurrogate(c2)) {
+                    return CoderResult.malformedForLength(1);
+                }
+                int cp = Character.toCodePoint(c, c2);
+                // コンバータを適用。
+                cp = convert(cp);
+                append(buf.clear(), cp);
+            } else {
+                // 基本多言語面の場合。
+                // コンバータを適用。
+                int cp = convert(c);
+                append(buf.clear(), cp);
+                if (in.hasRemaining()) {
+                    int pos = in.position();
+                    char c2 = in.get();
+                    if (isCombiningChar(c2)) {
+                        append(buf, c2);
+                    } else {
+                        in.position(pos);
+                    }
+                }
+            }
+            CoderResult result = doEncode(buf.flip(), out);
+            if (!result.isUnderflow()) {
+                // 途中まで出力された結果は破棄する。
+                out.position(outMark);
+                return result;
+            }
+            // エンコードが成功した場合は位置を更新する。
+            mark = in.position();
             return CoderResult.UNDERFLOW;
         } finally {
             in.position(mark);
@@ -95,8 +267,18 @@ class ConverterEncoder extends CharsetEncoder {
      * @param c 文字
      * @return 合成用文字ならば {@code true}
      */
-    boolean isCombiningChar(int c) {
-        return "\u3099\u309A\u0300\u0301\u02E5\u02E9".indexOf(c) >= 0;
+    static boolean isCombiningChar(int c) {
+        switch (c) {
+        case '\u3099':
+        case '\u309A':
+        case '\u0300':
+        case '\u0301':
+        case '\u02E5':
+        case '\u02E9':
+            return true;
+        default:
+            return false;
+        }
     }
 
     /**
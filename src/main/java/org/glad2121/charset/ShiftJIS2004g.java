@@ -37,7 +37,7 @@ class ShiftJIS2004g extends Charset {
     @Override
     public CharsetEncoder newEncoder() {
         return new ConverterEncoder(delegate.newEncoder(),
-                CodePointConverters.TO_JIS_2004);
+                CodePointConverters.TO_JIS_2004, EncodeTableHolder.TABLE);
     }
 
     /**
@@ -45,7 +45,38 @@ class ShiftJIS2004g extends Charset {
      */
     @Override
     public CharsetDecoder newDecoder() {
-        return new ShiftJISDecoder(delegate.newDecoder());
+        return new ShiftJISDecoder(DecodeTableHolder.TABLE);
+    }
+
+    /**
+     * デコード表の保持クラス。
+     * <p>
+     * 最初に使用された時に一度だけ生成する。
+     */
+    static class DecodeTableHolder {
+
+        /**
+         * デコード表。
+         */
+        static final ShiftJISDecodeTable TABLE = new ShiftJISDecodeTable(
+                new ShiftJISDecoder(Charset.forName("x-SJIS_0213").newDecoder()));
+
+    }
+
+    /**
+     * エンコード表の保持クラス。
+     * <p>
+     * 最初に使用された時に一度だけ生成する。
+     */
+    static class EncodeTableHolder {
+
+        /**
+         * エンコード表。
+         */
+        static final ConverterEncodeTable TABLE = new ConverterEncodeTable(
+                new ConverterEncoder(Charset.forName("x-SJIS_0213").newEncoder(),
+                        CodePointConverters.TO_JIS_2004));
+
     }
 
 }
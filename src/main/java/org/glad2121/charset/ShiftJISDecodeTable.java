@@ -0,0 +1,213 @@
+package org.glad2121.charset;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CoderResult;
+
+/**
+ * Shift_JIS および派生文字集合のデコード表。
+ * <p>
+ * 参照実装のデコーダで全ての1バイト文字・2バイト文字をデコードした結果を保持する。
+ * 文字集合ごとに一度だけ生成し、デコーダ間で共有する。
+ *
+ * @author glad2121
+ */
+final class ShiftJISDecodeTable {
+
+    /**
+     * 変換できないバイト列であることを示す値。
+     */
+    static final int UNMAPPABLE = -1;
+
+    /**
+     * 不正なバイト列であることを示す値。
+     */
+    static final int MALFORMED = -2;
+
+    /**
+     * 下位バイトの最小値。
+     */
+    static final int TRAIL_MIN = 0x40;
+
+    /**
+     * 下位バイトの最大値。
+     */
+    static final int TRAIL_MAX = 0xFC;
+
+    /**
+     * 上位バイト1つあたりの下位バイトの個数。
+     */
+    static final int TRAIL_COUNT = TRAIL_MAX - TRAIL_MIN + 1;
+
+    /**
+     * 上位バイトから上位バイトの通し番号への変換表 (上位バイトでなければ -1)。
+     */
+    static final int[] LEAD_INDEX = new int[256];
+
+    /**
+     * 上位バイトの個数。
+     */
+    static final int LEAD_COUNT;
+
+    static {
+        int count = 0;
+        for (int n = 0; n < 256; ++n) {
+            LEAD_INDEX[n] = isLead(n) ? count++ : -1;
+        }
+        LEAD_COUNT = count;
+    }
+
+    /**
+     * 参照実装のデコーダの文字集合。
+     */
+    final Charset charset;
+
+    /**
+     * 1バイトあたりの最大文字数。
+     */
+    final float maxCharsPerByte;
+
+    /**
+     * 0x00-0x7F がすべて同じ値の文字にデコードされるか。
+     */
+    final boolean asciiCompatible;
+
+    /**
+     * 1バイト文字のデコード結果。
+     */
+    final int[] singles = new int[256];
+
+    /**
+     * 2バイト文字のデコード結果 (上位バイトの通し番号 * 下位バイトの個数 + 下位バイト - 最小値)。
+     */
+    final int[] doubles = new int[LEAD_COUNT * TRAIL_COUNT];
+
+    /**
+     * 参照実装のデコーダからデコード表を生成します。
+     *
+     * @param reference 参照実装のデコーダ
+     */
+    ShiftJISDecodeTable(ShiftJISDecoder reference) {
+        this.charset = reference.charset();
+        this.maxCharsPerByte = reference.maxCharsPerByte();
+        ByteBuffer in = ByteBuffer.allocate(2);
+        CharBuffer out = CharBuffer.allocate(4);
+        for (int n = 0; n < 256; ++n) {
+            if (!isLead(n)) {
+                singles[n] = decode(reference, in.clear().put((byte) n).flip(), out, 1);
+            }
+        }
+        for (int n1 = 0; n1 < 256; ++n1) {
+            if (!isLead(n1)) {
+                continue;
+            }
+            for (int n2 = TRAIL_MIN; n2 <= TRAIL_MAX; ++n2) {
+                if (isTrail(n2)) {
+                    doubles[index(n1, n2)] = decode(reference,
+                            in.clear().put((byte) n1).put((byte) n2).flip(), out, 2);
+                }
+            }
+        }
+        boolean ascii = true;
+        for (int n = 0; n < 0x80; ++n) {
+            ascii &= (singles[n] == n);
+        }
+        this.asciiCompatible = ascii;
+    }
+
+    /**
+     * 参照実装のデコーダで1文字分をデコードし、表に格納する値を返します。
+     *
+     * @param reference 参照実装のデコーダ
+     * @param in 入力バイトバッファ
+     * @param out 出力文字バッファ
+     * @param length 入力のバイト数
+     * @return 表に格納する値
+     */
+    static int decode(ShiftJISDecoder reference, ByteBuffer in, CharBuffer out, int length) {
+        CoderResult result = reference.doDecode(in, out.clear());
+        if (result.isError()) {
+            if (length == 2) {
+                // 2バイトまとめてエラーにする。
+                return UNMAPPABLE;
+            }
+            if (result.length() != 1) {
+                throw new IllegalStateException(String.format(
+                        "Unexpected result: %s, length: %d", result, length));
+            }
+            return result.isMalformed() ? MALFORMED : UNMAPPABLE;
+        }
+        if (!result.isUnderflow() || in.hasRemaining()) {
+            throw new IllegalStateException(String.format(
+                    "Unexpected result: %s, length: %d", result, length));
+        }
+        out.flip();
+        switch (out.remaining()) {
+        case 1:
+            return out.get(0);
+        case 2:
+            return out.get(0) | (out.get(1) << 16);
+        default:
+            throw new IllegalStateException(String.format(
+                    "Unexpected chars: %d, length: %d", out.remaining(), length));
+        }
+    }
+
+    /**
+     * 1バイト文字のデコード結果を返します。
+     * <p>
+     * 下位16ビットが1文字目、上位16ビットが2文字目 (なければ 0)。
+     *
+     * @param n1 バイト
+     * @return デコード結果、または {@link #UNMAPPABLE}, {@link #MALFORMED}
+     */
+    int decode(int n1) {
+        return singles[n1];
+    }
+
+    /**
+     * 2バイト文字のデコード結果を返します。
+     * <p>
+     * 下位16ビットが1文字目、上位16ビットが2文字目 (なければ 0)。
+     *
+     * @param n1 上位バイト
+     * @param n2 下位バイト
+     * @return デコード結果、または {@link #UNMAPPABLE}
+     */
+    int decode(int n1, int n2) {
+        return doubles[index(n1, n2)];
+    }
+
+    /**
+     * 2バイト文字のデコード結果の格納位置を返します。
+     *
+     * @param n1 上位バイト
+     * @param n2 下位バイト
+     * @return 格納位置
+     */
+    static int index(int n1, int n2) {
+        return LEAD_INDEX[n1] * TRAIL_COUNT + (n2 - TRAIL_MIN);
+    }
+
+    /**
+     * 指定された値が Shift_JIS の上位バイトか判定します。
+     *
+     * @param n テストする値
+     * @return 上位バイトならば {@code true}
+     */
+    static boolean isLead(int n) {
+        return (0x81 <= n && n <= 0x9F) || (0xE0 <= n && n <= 0xFC);
+    }
+
+    /**
+     * 指定された値が Shift_JIS の下位バイトか判定します。
+     *
+     * @param n テストする値
+     * @return 下位バイトならば {@code true}
+     */
+    static boolean isTrail(int n) {
+        return TRAIL_MIN <= n && n <= TRAIL_MAX && n != 0x7F;
+    }
+
+}
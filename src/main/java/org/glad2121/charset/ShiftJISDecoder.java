@@ -7,6 +7,9 @@ import java.nio.charset.CoderResult;
 
 /**
  * Shift_JIS および派生文字集合のデコーダ。
+ * <p>
+ * デコード表が指定された場合は、表を参照して直接デコードする。
+ * 指定されない場合は、1文字ずつ移譲先のデコーダでデコードする (デコード表の生成に使用)。
  *
  * @author glad2121
  */
@@ -18,7 +21,12 @@ class ShiftJISDecoder extends CharsetDecoder {
     final CharsetDecoder delegate;
 
     /**
-     * コンストラクタ。
+     * デコード表。
+     */
+    final ShiftJISDecodeTable table;
+
+    /**
+     * 移譲先のデコーダを用いるコンストラクタ。
      *
      * @param delegate 移譲先のデコーダ
      */
@@ -27,6 +35,20 @@ class ShiftJISDecoder extends CharsetDecoder {
                 delegate.maxCharsPerByte(),
                 delegate.maxCharsPerByte());
         this.delegate = delegate;
+        this.table = null;
+    }
+
+    /**
+     * デコード表を用いるコンストラクタ。
+     *
+     * @param table デコード表
+     */
+    ShiftJISDecoder(ShiftJISDecodeTable table) {
+        super(table.charset,
+                table.maxCharsPerByte,
+                table.maxCharsPerByte);
+        this.delegate = null;
+        this.table = table;
     }
 
     /**
@@ -34,6 +56,160 @@ class ShiftJISDecoder extends CharsetDecoder {
      */
     @Override
     protected CoderResult decodeLoop(ByteBuffer in, CharBuffer out) {
+        if (table == null) {
+            return decodeLoopByDelegate(in, out);
+        }
+        if (in.hasArray() && out.hasArray()) {
+            return decodeArrayLoop(in, out);
+        }
+        return decodeBufferLoop(in, out);
+    }
+
+    /**
+     * デコード表を参照して、配列を直接デコードします。
+     *
+     * @param in  入力バイトバッファ
+     * @param out 出力文字バッファ
+     * @return 実行結果
+     */
+    CoderResult decodeArrayLoop(ByteBuffer in, CharBuffer out) {
+        byte[] sa = in.array();
+        int sp = in.arrayOffset() + in.position();
+        int sl = in.arrayOffset() + in.limit();
+        char[] da = out.array();
+        int dp = out.arrayOffset() + out.position();
+        int dl = out.arrayOffset() + out.limit();
+        try {
+            while (sp < sl) {
+                if (table.asciiCompatible) {
+                    // ASCII が続く間はそのままコピーする。
+                    int limit = sp + Math.min(sl - sp, dl - dp);
+                    while (sp < limit && sa[sp] >= 0) {
+                        da[dp++] = (char) sa[sp++];
+                    }
+                    if (sp == sl) {
+                        break;
+                    }
+                }
+                int n1 = sa[sp] & 0xFF;
+                int value;
+                int length;
+                if (ShiftJISDecodeTable.isLead(n1)) {
+                    // 2バイト文字の場合。
+                    if (sp + 1 == sl) {
+                        // 続きのバイトを待つ。
+                        return CoderResult.UNDERFLOW;
+                    }
+                    int n2 = sa[sp + 1] & 0xFF;
+                    if (!ShiftJISDecodeTable.isTrail(n2)) {
+                        return CoderResult.malformedForLength(1);
+                    }
+                    value = table.decode(n1, n2);
+                    length = 2;
+                } else {
+                    // 1バイト文字の場合。
+                    value = table.decode(n1);
+                    length = 1;
+                }
+                CoderResult error = errorResult(value, length);
+                if (error != null) {
+                    return error;
+                }
+                char c2 = (char) (value >>> 16);
+                if (dl - dp < ((c2 == 0) ? 1 : 2)) {
+                    return CoderResult.OVERFLOW;
+                }
+                da[dp++] = (char) value;
+                if (c2 != 0) {
+                    da[dp++] = c2;
+                }
+                sp += length;
+            }
+            return CoderResult.UNDERFLOW;
+        } finally {
+            in.position(sp - in.arrayOffset());
+            out.position(dp - out.arrayOffset());
+        }
+    }
+
+    /**
+     * デコード表を参照して、バッファを直接デコードします。
+     *
+     * @param in  入力バイトバッファ
+     * @param out 出力文字バッファ
+     * @return 実行結果
+     */
+    CoderResult decodeBufferLoop(ByteBuffer in, CharBuffer out) {
+        int mark = in.position();
+        try {
+            while (in.hasRemaining()) {
+                int n1 = in.get() & 0xFF;
+                int value;
+                int length;
+                if (ShiftJISDecodeTable.isLead(n1)) {
+                    // 2バイト文字の場合。
+                    if (!in.hasRemaining()) {
+                        // 続きのバイトを待つ。
+                        return CoderResult.UNDERFLOW;
+                    }
+                    int n2 = in.get() & 0xFF;
+                    if (!ShiftJISDecodeTable.isTrail(n2)) {
+                        return CoderResult.malformedForLength(1);
+                    }
+                    value = table.decode(n1, n2);
+                    length = 2;
+                } else {
+                    // 1バイト文字の場合。
+                    value = table.decode(n1);
+                    length = 1;
+                }
+                CoderResult error = errorResult(value, length);
+                if (error != null) {
+                    return error;
+                }
+                char c2 = (char) (value >>> 16);
+                if (out.remaining() < ((c2 == 0) ? 1 : 2)) {
+                    return CoderResult.OVERFLOW;
+                }
+                out.put((char) value);
+                if (c2 != 0) {
+                    out.put(c2);
+                }
+                // デコードに成功した場合は位置を更新する。
+                mark = in.position();
+            }
+            return CoderResult.UNDERFLOW;
+        } finally {
+            in.position(mark);
+        }
+    }
+
+    /**
+     * デコード表の値がエラーを示す場合に、その実行結果を返します。
+     *
+     * @param value デコード表の値
+     * @param length 入力のバイト数
+     * @return エラーの実行結果、エラーでなければ {@code null}
+     */
+    static CoderResult errorResult(int value, int length) {
+        switch (value) {
+        case ShiftJISDecodeTable.UNMAPPABLE:
+            return CoderResult.unmappableForLength(length);
+        case ShiftJISDecodeTable.MALFORMED:
+            return CoderResult.malformedForLength(length);
+        default:
+            return null;
+        }
+    }
+
+    /**
+     * 移譲先のデコーダで、1文字ずつデコードします。
+     *
+     * @param in  入力バイトバッファ
+     * @param out 出力文字バッファ
+     * @return 実行結果
+     */
+    CoderResult decodeLoopByDelegate(ByteBuffer in, CharBuffer out) {
         int mark = in.position();
         try {
             ByteBuffer buf = ByteBuffer.allocate(2);
@@ -42,7 +218,8 @@ class ShiftJISDecoder extends CharsetDecoder {
                 if (isSjisHi(n & 0xFF)) {
                     // 2バイト文字の場合。
                     if (!in.hasRemaining()) {
-                        return CoderResult.malformedForLength(1);
+                        // 続きのバイトを待つ。
+                        return CoderResult.UNDERFLOW;
                     }
                     byte n2 = in.get();
                     if (!isSjisLo(n2 & 0xFF)) {
@@ -81,7 +258,7 @@ class ShiftJISDecoder extends CharsetDecoder {
      * @return 上位バイトならば {@code true}
      */
     boolean isSjisHi(int n) {
-        return (0x81 <= n && n <= 0x9F) || (0xE0 <= n && n <= 0xFC);
+        return ShiftJISDecodeTable.isLead(n);
     }
 
     /**
@@ -91,7 +268,7 @@ class ShiftJISDecoder extends CharsetDecoder {
      * @return 下位バイトならば {@code true}
      */
     boolean isSjisLo(int n) {
-        return 0x40 <= n && n <= 0xFC && n != 0x7F;
+        return ShiftJISDecodeTable.isTrail(n);
     }
 
     /**
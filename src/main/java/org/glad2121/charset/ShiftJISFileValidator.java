@@ -0,0 +1,533 @@
+package org.glad2121.charset;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Predicate;
+
+/**
+ * Shift_JIS および派生文字集合のファイルの検証器。
+ * <p>
+ * ファイルをメモリにマップし、文字の境界で分割したチャンクを {@link ForkJoinPool} で並列に走査する。
+ * 各文字を {@link CodePointSet} で文字区分に分類し、条件を満たさない文字・不正なバイト列の
+ * 位置 (バイト単位) と、文字区分ごとの文字数を集計する。
+ * <p>
+ * Shift_JIS の上位バイトと下位バイトは値の範囲が重なるため、チャンクの境界は、
+ * 分割位置の直前に連続する上位バイトの範囲の値の個数の偶奇で決める。
+ * 上位バイトの範囲外の値は必ず文字の末尾なので、そこから2バイトずつ組になる。
+ * <pre>
+ * ShiftJISFileValidator validator = new ShiftJISFileValidator(
+ *         CharsetUtils.WINDOWS_31J, t -&gt; t.isJis1990() || t.isIbmExt());
+ * ShiftJISFileValidator.Result result = validator.validate(path);
+ * if (!result.isValid()) {
+ *     long[] offsets = result.getInvalidOffsets();
+ *     Map&lt;CharType, Long&gt; counts = result.getCounts();
+ * }
+ * </pre>
+ * このクラスのインスタンスは不変で、複数のスレッドから同時に使用できる。
+ *
+ * @author glad2121
+ */
+public final class ShiftJISFileValidator {
+
+    /**
+     * 検証できる JDK 標準の Shift_JIS 派生文字集合の正規名。
+     * <p>
+     * このライブラリの {@link ShiftJISg} などは、デコード表を持つデコーダで判定する。
+     */
+    static final Set<String> SHIFT_JIS_FAMILY = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+            "Shift_JIS", "windows-31j", "x-SJIS_0213", "x-MS932_0213", "x-PCK",
+            "x-IBM942", "x-IBM942C", "x-IBM943", "x-IBM943C")));
+
+    /**
+     * チャンクのサイズの既定値。
+     */
+    static final int DEFAULT_CHUNK_SIZE = 64 * 1024 * 1024;
+
+    /**
+     * 記録する位置の個数の既定値。
+     */
+    static final int DEFAULT_MAX_OFFSETS = 1000;
+
+    /**
+     * 区分値の個数 (最後は未定義の文字)。
+     */
+    static final int TYPE_COUNT = 257;
+
+    /**
+     * 未定義の文字の区分値の格納位置。
+     */
+    static final int UNDEFINED_INDEX = TYPE_COUNT - 1;
+
+    /**
+     * デコード表。
+     */
+    final ShiftJISDecodeTable table;
+
+    /**
+     * 区分値ごとの、条件を満たすか (最後は未定義の文字)。
+     */
+    final boolean[] accepted = new boolean[TYPE_COUNT];
+
+    /**
+     * 文字区分の対応表。
+     */
+    final CodePointSet set = CodePointSet.INSTANCE;
+
+    /**
+     * チャンクのサイズ。
+     */
+    final int chunkSize;
+
+    /**
+     * 記録する位置の最大個数。
+     */
+    final int maxOffsets;
+
+    /**
+     * 文字区分の条件を指定するコンストラクタ。
+     *
+     * @param charset Shift_JIS および派生文字集合
+     * @param pred 文字区分の条件
+     * @throws IllegalArgumentException Shift_JIS の派生文字集合ではない場合
+     */
+    public ShiftJISFileValidator(Charset charset, Predicate<CharType> pred) {
+        this(charset, pred, DEFAULT_CHUNK_SIZE, DEFAULT_MAX_OFFSETS);
+    }
+
+    /**
+     * 条件のビットマスクを指定するコンストラクタ。
+     *
+     * @param charset Shift_JIS および派生文字集合
+     * @param mask 条件のビットマスク ({@link CharType#MASK_JIS_1990} など)
+     * @throws IllegalArgumentException Shift_JIS の派生文字集合ではない場合
+     */
+    public ShiftJISFileValidator(Charset charset, int mask) {
+        this(charset, t -> t.matches(mask));
+    }
+
+    /**
+     * コンストラクタ。
+     *
+     * @param charset Shift_JIS および派生文字集合
+     * @param pred 文字区分の条件
+     * @param chunkSize チャンクのサイズ
+     * @param maxOffsets 記録する位置の最大個数
+     */
+    ShiftJISFileValidator(Charset charset, Predicate<CharType> pred, int chunkSize, int maxOffsets) {
+        if (chunkSize <= 0 || chunkSize == Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("chunkSize: " + chunkSize);
+        }
+        this.table = decodeTable(charset);
+        for (int value = 0; value < UNDEFINED_INDEX; ++value) {
+            CharType type = CharType.of(value);
+            accepted[value] = (type != CharType.UNDEFINED) && pred.test(type);
+        }
+        accepted[UNDEFINED_INDEX] = pred.test(CharType.UNDEFINED);
+        this.chunkSize = chunkSize;
+        this.maxOffsets = maxOffsets;
+    }
+
+    /**
+     * 文字集合のデコード表を返します。
+     *
+     * @param charset Shift_JIS および派生文字集合
+     * @return デコード表
+     * @throws IllegalArgumentException Shift_JIS の派生文字集合ではない場合
+     */
+    static ShiftJISDecodeTable decodeTable(Charset charset) {
+        CharsetDecoder decoder = charset.newDecoder();
+        if (decoder instanceof ShiftJISDecoder && ((ShiftJISDecoder) decoder).table != null) {
+            return ((ShiftJISDecoder) decoder).table;
+        }
+        if (!SHIFT_JIS_FAMILY.contains(charset.name())) {
+            throw new IllegalArgumentException("not a Shift_JIS family charset: " + charset.name());
+        }
+        return new ShiftJISDecodeTable(new ShiftJISDecoder(decoder));
+    }
+
+    /**
+     * 共通の {@link ForkJoinPool} でファイルを検証します。
+     *
+     * @param path ファイルのパス
+     * @return 検証結果
+     * @throws IOException 入出力エラーが発生した場合
+     */
+    public Result validate(Path path) throws IOException {
+        return validate(path, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * 指定された {@link ForkJoinPool} でファイルを検証します。
+     *
+     * @param path ファイルのパス
+     * @param pool 並列処理に使用するプール
+     * @return 検証結果
+     * @throws IOException 入出力エラーが発生した場合
+     */
+    public Result validate(Path path, ForkJoinPool pool) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            int chunks = (int) Math.max(1, (size + chunkSize - 1) / chunkSize);
+            return pool.invoke(new ChunkTask(channel, size, 0, chunks));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * 指定された位置以降で最初の文字の境界を返します。
+     *
+     * @param channel ファイル・チャネル
+     * @param size ファイルのサイズ
+     * @param position 位置
+     * @return 文字の境界
+     * @throws IOException 入出力エラーが発生した場合
+     */
+    static long boundary(FileChannel channel, long size, long position) throws IOException {
+        if (position <= 0 || position >= size) {
+            return Math.max(0, Math.min(position, size));
+        }
+        // 直前に連続する上位バイトの範囲の値を数える。
+        ByteBuffer window = ByteBuffer.allocate(256);
+        long leads = 0;
+        long end = position;
+        scan: while (end > 0) {
+            long start = Math.max(0, end - window.capacity());
+            window.clear().limit((int) (end - start));
+            while (window.hasRemaining()) {
+                if (channel.read(window, start + window.position()) < 0) {
+                    throw new IOException("Unexpected end of file: " + (start + window.position()));
+                }
+            }
+            for (int i = (int) (end - start) - 1; i >= 0; --i) {
+                if (!ShiftJISDecodeTable.isLead(window.get(i) & 0xFF)) {
+                    break scan;
+                }
+                ++leads;
+            }
+            end = start;
+        }
+        if ((leads & 1) == 0) {
+            return position;
+        }
+        // 直前の上位バイトと組になる場合は、次のバイトの後ろが境界になる。
+        window.clear().limit(1);
+        channel.read(window, position);
+        return ShiftJISDecodeTable.isTrail(window.get(0) & 0xFF) ? position + 1 : position;
+    }
+
+    /**
+     * チャンクの範囲を検証するタスク。
+     */
+    final class ChunkTask extends RecursiveTask<Result> {
+
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * ファイル・チャネル。
+         */
+        final transient FileChannel channel;
+
+        /**
+         * ファイルのサイズ。
+         */
+        final long size;
+
+        /**
+         * 最初のチャンク番号。
+         */
+        final int from;
+
+        /**
+         * 最後のチャンク番号 + 1。
+         */
+        final int to;
+
+        /**
+         * コンストラクタ。
+         *
+         * @param channel ファイル・チャネル
+         * @param size ファイルのサイズ
+         * @param from 最初のチャンク番号
+         * @param to 最後のチャンク番号 + 1
+         */
+        ChunkTask(FileChannel channel, long size, int from, int to) {
+            this.channel = channel;
+            this.size = size;
+            this.from = from;
+            this.to = to;
+        }
+
+        /**
+         * チャンクの範囲を検証します。
+         */
+        @Override
+        protected Result compute() {
+            if (to - from > 1) {
+                int mid = (from + to) >>> 1;
+                ChunkTask right = new ChunkTask(channel, size, mid, to);
+                right.fork();
+                Result left = new ChunkTask(channel, size, from, mid).compute();
+                return left.merge(right.join());
+            }
+            try {
+                long start = boundary(channel, size, (long) from * chunkSize);
+                long end = boundary(channel, size, (long) to * chunkSize);
+                Result result = new Result(start, maxOffsets);
+                if (start < end) {
+                    MappedByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+                    scan(buf, start, result);
+                }
+                return result;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+    }
+
+    /**
+     * バッファの全体を走査して、検証結果に記録します。
+     * <p>
+     * バッファの先頭は文字の境界であること。
+     *
+     * @param buf バッファ
+     * @param base バッファの先頭のファイル上の位置
+     * @param result 検証結果
+     */
+    void scan(ByteBuffer buf, long base, Result result) {
+        int length = buf.limit();
+        long[] counts = result.counts;
+        for (int i = 0; i < length; ) {
+            int n1 = buf.get(i) & 0xFF;
+            int value;
+            int n;
+            if (ShiftJISDecodeTable.isLead(n1)) {
+                if (i + 1 == length || !ShiftJISDecodeTable.isTrail(buf.get(i + 1) & 0xFF)) {
+                    value = ShiftJISDecodeTable.MALFORMED;
+                    n = 1;
+                } else {
+                    value = table.decode(n1, buf.get(i + 1) & 0xFF);
+                    n = 2;
+                }
+            } else {
+                value = table.decode(n1);
+                n = 1;
+            }
+            boolean valid;
+            if (value < 0) {
+                ++result.errorCount;
+                valid = false;
+            } else {
+                char c1 = (char) value;
+                char c2 = (char) (value >>> 16);
+                if (c2 == 0) {
+                    valid = classify(c1, counts);
+                } else if (Character.isSurrogatePair(c1, c2)) {
+                    valid = classify(Character.toCodePoint(c1, c2), counts);
+                } else {
+                    valid = classify(c1, counts) & classify(c2, counts);
+                }
+            }
+            if (!valid) {
+                result.addInvalid(base + i);
+            }
+            i += n;
+        }
+        result.length = length;
+    }
+
+    /**
+     * コードポイントを文字区分に分類して数えます。
+     *
+     * @param codePoint コードポイント
+     * @param counts 区分値ごとの文字数
+     * @return 条件を満たせば {@code true}
+     */
+    boolean classify(int codePoint, long[] counts) {
+        int value = set.typeValue(codePoint);
+        int index = (value < 0) ? UNDEFINED_INDEX : value;
+        ++counts[index];
+        return accepted[index];
+    }
+
+    /**
+     * 検証結果。
+     */
+    public static final class Result {
+
+        /**
+         * 検証した範囲の先頭のファイル上の位置。
+         */
+        final long start;
+
+        /**
+         * 検証したバイト数。
+         */
+        long length;
+
+        /**
+         * 区分値ごとの文字数 (最後は未定義の文字)。
+         */
+        final long[] counts = new long[TYPE_COUNT];
+
+        /**
+         * 不正なバイト列・変換できないバイト列の個数。
+         */
+        long errorCount;
+
+        /**
+         * 条件を満たさない文字・不正なバイト列の個数。
+         */
+        long invalidCount;
+
+        /**
+         * 記録する位置の最大個数。
+         */
+        final int maxOffsets;
+
+        /**
+         * 条件を満たさない文字・不正なバイト列の位置 (先頭から最大個数まで)。
+         */
+        long[] offsets;
+
+        /**
+         * 記録した位置の個数。
+         */
+        int offsetCount;
+
+        /**
+         * コンストラクタ。
+         *
+         * @param start 検証した範囲の先頭のファイル上の位置
+         * @param maxOffsets 記録する位置の最大個数
+         */
+        Result(long start, int maxOffsets) {
+            this.start = start;
+            this.maxOffsets = maxOffsets;
+            this.offsets = new long[Math.min(maxOffsets, 16)];
+        }
+
+        /**
+         * 条件を満たさない文字の位置を追加します。
+         *
+         * @param offset ファイル上の位置
+         */
+        void addInvalid(long offset) {
+            ++invalidCount;
+            if (offsetCount == offsets.length) {
+                if (offsetCount >= maxOffsets) {
+                    return;
+                }
+                offsets = Arrays.copyOf(offsets, Math.min(offsetCount * 2, maxOffsets));
+            }
+            offsets[offsetCount++] = offset;
+        }
+
+        /**
+         * 後続の範囲の検証結果を併合します。
+         *
+         * @param next 後続の範囲の検証結果
+         * @return 併合した検証結果
+         */
+        Result merge(Result next) {
+            Result merged = new Result(start, maxOffsets);
+            merged.length = length + next.length;
+            for (int i = 0; i < TYPE_COUNT; ++i) {
+                merged.counts[i] = counts[i] + next.counts[i];
+            }
+            merged.errorCount = errorCount + next.errorCount;
+            merged.invalidCount = invalidCount + next.invalidCount;
+            int count = (int) Math.min(maxOffsets, (long) offsetCount + next.offsetCount);
+            merged.offsets = Arrays.copyOf(offsets, count);
+            int n = Math.min(count - offsetCount, next.offsetCount);
+            if (n > 0) {
+                System.arraycopy(next.offsets, 0, merged.offsets, offsetCount, n);
+            }
+            merged.offsetCount = count;
+            return merged;
+        }
+
+        /**
+         * 検証したバイト数を返します。
+         *
+         * @return 検証したバイト数
+         */
+        public long getLength() {
+            return length;
+        }
+
+        /**
+         * すべての文字が条件を満たすか判定します。
+         *
+         * @return すべての文字が条件を満たせば {@code true}
+         */
+        public boolean isValid() {
+            return invalidCount == 0;
+        }
+
+        /**
+         * 条件を満たさない文字・不正なバイト列の個数を返します。
+         *
+         * @return 条件を満たさない文字・不正なバイト列の個数
+         */
+        public long getInvalidCount() {
+            return invalidCount;
+        }
+
+        /**
+         * 不正なバイト列・変換できないバイト列の個数を返します。
+         *
+         * @return 不正なバイト列・変換できないバイト列の個数
+         */
+        public long getErrorCount() {
+            return errorCount;
+        }
+
+        /**
+         * 条件を満たさない文字・不正なバイト列の位置を、先頭から最大個数まで返します。
+         *
+         * @return ファイル上の位置 (昇順)
+         */
+        public long[] getInvalidOffsets() {
+            return Arrays.copyOf(offsets, offsetCount);
+        }
+
+        /**
+         * 文字区分ごとの文字数を返します。
+         * <p>
+         * 対応表に含まれない文字は {@link CharType#UNDEFINED} に数える。
+         *
+         * @return 文字区分と文字数のマップ (文字区分の昇順)
+         */
+        public Map<CharType, Long> getCounts() {
+            Map<CharType, Long> map = new TreeMap<>();
+            for (int i = 0; i < UNDEFINED_INDEX; ++i) {
+                if (counts[i] > 0) {
+                    map.put(CharType.of(i), counts[i]);
+                }
+            }
+            if (counts[UNDEFINED_INDEX] > 0) {
+                map.put(CharType.UNDEFINED, counts[UNDEFINED_INDEX]);
+            }
+            return Collections.unmodifiableMap(map);
+        }
+
+    }
+
+}
@@ -0,0 +1,267 @@
+package org.glad2121.charset;
+
+/**
+ * 全角ひらがな・カタカナの濁点・半濁点の合成・分解表。
+ * <p>
+ * 清音と結合用濁点・半濁点 (U+3099, U+309A) の組み合わせを固定の表で保持し、
+ * {@link java.text.Normalizer} を使わずに1回の走査で合成・分解する。
+ * 結果は、全角ひらがな・カタカナの範囲で NFC・NFD を適用したものと同じになる。
+ *
+ * @author glad2121
+ */
+final class VoicedSoundMarks {
+
+    /**
+     * 表の最初のコードポイント。
+     */
+    static final int MIN = 0x3040;
+
+    /**
+     * 表の最後のコードポイント。
+     */
+    static final int MAX = 0x30FF;
+
+    /**
+     * 結合用濁点。
+     */
+    static final char VOICED = '\u3099';
+
+    /**
+     * 結合用半濁点。
+     */
+    static final char SEMI_VOICED = '\u309A';
+
+    /**
+     * 濁点と合成できる清音。
+     */
+    static final String VOICED_BASES =
+            "うかきくけこさしすせそたちつてとはひふへほゝ"
+            + "ウカキクケコサシスセソタチツテトハヒフヘホワヰヱヲヽ";
+
+    /**
+     * 清音と濁点の合成結果 (濁音)。
+     */
+    static final String VOICED_COMPOSED =
+            "ゔがぎぐげござじずぜぞだぢづでどばびぶべぼゞ"
+            + "ヴガギグゲゴザジズゼゾダヂヅデドバビブベボヷヸヹヺヾ";
+
+    /**
+     * 半濁点と合成できる清音。
+     */
+    static final String SEMI_VOICED_BASES = "はひふへほハヒフヘホ";
+
+    /**
+     * 清音と半濁点の合成結果 (半濁音)。
+     */
+    static final String SEMI_VOICED_COMPOSED = "ぱぴぷぺぽパピプペポ";
+
+    /**
+     * 分解しない濁音。
+     * <p>
+     * 半角カナへの変換に問題がある文字 (ゞ、ヸ、ヹ、ヾ)。
+     */
+    static final String NON_DECOMPOSABLE = "ゞヸヹヾ";
+
+    /**
+     * 清音と濁点の合成結果 (合成できなければ 0)。
+     */
+    static final char[] COMPOSED_VOICED = new char[MAX - MIN + 1];
+
+    /**
+     * 清音と半濁点の合成結果 (合成できなければ 0)。
+     */
+    static final char[] COMPOSED_SEMI_VOICED = new char[MAX - MIN + 1];
+
+    /**
+     * 分解結果の清音 (分解できなければ 0)。
+     */
+    static final char[] DECOMPOSED_BASE = new char[MAX - MIN + 1];
+
+    /**
+     * 分解結果の濁点・半濁点 (分解できなければ 0)。
+     */
+    static final char[] DECOMPOSED_MARK = new char[MAX - MIN + 1];
+
+    static {
+        put(VOICED_BASES, VOICED_COMPOSED, VOICED, COMPOSED_VOICED);
+        put(SEMI_VOICED_BASES, SEMI_VOICED_COMPOSED, SEMI_VOICED, COMPOSED_SEMI_VOICED);
+    }
+
+    /**
+     * 使用しないコンストラクタ。
+     */
+    private VoicedSoundMarks() {
+    }
+
+    /**
+     * 合成・分解表に登録します。
+     *
+     * @param bases 清音
+     * @param composed 合成結果
+     * @param mark 結合用濁点・半濁点
+     * @param table 合成表
+     */
+    static void put(String bases, String composed, char mark, char[] table) {
+        for (int i = 0; i < bases.length(); ++i) {
+            char base = bases.charAt(i);
+            char c = composed.charAt(i);
+            table[base - MIN] = c;
+            if (NON_DECOMPOSABLE.indexOf(c) < 0) {
+                DECOMPOSED_BASE[c - MIN] = base;
+                DECOMPOSED_MARK[c - MIN] = mark;
+            }
+        }
+    }
+
+    /**
+     * 指定された文字に濁点・半濁点を合成できる可能性があるか判定します。
+     *
+     * @param base 文字
+     * @return 合成できる可能性があれば {@code true}
+     */
+    static boolean isComposable(int base) {
+        return MIN <= base && base <= MAX
+                && (COMPOSED_VOICED[base - MIN] != 0 || COMPOSED_SEMI_VOICED[base - MIN] != 0);
+    }
+
+    /**
+     * 清音と濁点・半濁点を合成します。
+     *
+     * @param base 清音
+     * @param mark 結合用濁点・半濁点
+     * @return 合成結果 (合成できなければ -1)
+     */
+    static int compose(int base, int mark) {
+        if (base < MIN || MAX < base) {
+            return -1;
+        }
+        char composed;
+        if (mark == VOICED) {
+            composed = COMPOSED_VOICED[base - MIN];
+        } else if (mark == SEMI_VOICED) {
+            composed = COMPOSED_SEMI_VOICED[base - MIN];
+        } else {
+            return -1;
+        }
+        return (composed != 0) ? composed : -1;
+    }
+
+    /**
+     * 濁音・半濁音を分解した清音を返します。
+     *
+     * @param c 文字
+     * @return 分解結果の清音 (分解できなければ -1)
+     */
+    static int decomposeBase(int c) {
+        if (c < MIN || MAX < c || DECOMPOSED_BASE[c - MIN] == 0) {
+            return -1;
+        }
+        return DECOMPOSED_BASE[c - MIN];
+    }
+
+    /**
+     * 濁音・半濁音を分解した濁点・半濁点を返します。
+     *
+     * @param c 文字
+     * @return 分解結果の結合用濁点・半濁点 (分解できなければ -1)
+     */
+    static int decomposeMark(int c) {
+        if (c < MIN || MAX < c || DECOMPOSED_MARK[c - MIN] == 0) {
+            return -1;
+        }
+        return DECOMPOSED_MARK[c - MIN];
+    }
+
+    /**
+     * 文字列中の合成可能な濁点・半濁点を合成します。
+     *
+     * @param s 変換前の文字列
+     * @return 変換後の文字列
+     */
+    static String compose(CharSequence s) {
+        return convertAndCompose(s, null);
+    }
+
+    /**
+     * 文字列の各文字をコンバータで変換し、合成可能な濁点・半濁点を合成します。
+     * <p>
+     * 半角の濁点・半濁点 (U+FF9E, U+FF9F) は、コンバータで結合用濁点・半濁点に変換してから合成する。
+     *
+     * @param s 変換前の文字列
+     * @param converter 基本多言語面のみのコンバータ ({@code null} ならば変換しない)
+     * @return 変換後の文字列
+     */
+    static String convertAndCompose(CharSequence s, CodePointConverter converter) {
+        if (s == null || "".equals(s)) {
+            return (String) s;
+        }
+        int length = s.length();
+        char[] chars = new char[length];
+        int count = 0;
+        boolean changed = false;
+        for (int i = 0; i < length; ++i) {
+            char c0 = s.charAt(i);
+            char c = (converter == null) ? c0 : (char) converter.convert(c0);
+            changed |= (c != c0);
+            if (count > 0 && (c == VOICED || c == SEMI_VOICED)) {
+                int composed = compose(chars[count - 1], c);
+                if (composed >= 0) {
+                    chars[count - 1] = (char) composed;
+                    changed = true;
+                    continue;
+                }
+            }
+            chars[count++] = c;
+        }
+        return changed ? new String(chars, 0, count) : s.toString();
+    }
+
+    /**
+     * 文字列中の濁音・半濁音を、清音と結合用濁点・半濁点に分解します。
+     *
+     * @param s 変換前の文字列
+     * @return 変換後の文字列
+     */
+    static String decompose(CharSequence s) {
+        return decomposeAndConvert(s, null);
+    }
+
+    /**
+     * 文字列中の濁音・半濁音を分解し、各文字をコンバータで変換します。
+     *
+     * @param s 変換前の文字列
+     * @param converter 基本多言語面のみのコンバータ ({@code null} ならば変換しない)
+     * @return 変換後の文字列
+     */
+    static String decomposeAndConvert(CharSequence s, CodePointConverter converter) {
+        if (s == null || "".equals(s)) {
+            return (String) s;
+        }
+        int length = s.length();
+        StringBuilder sb = null;
+        for (int i = 0; i < length; ++i) {
+            char c = s.charAt(i);
+            int base = decomposeBase(c);
+            if (base < 0) {
+                char converted = (converter == null) ? c : (char) converter.convert(c);
+                if (sb != null) {
+                    sb.append(converted);
+                } else if (converted != c) {
+                    sb = new StringBuilder(length + 16).append(s, 0, i).append(converted);
+                }
+                continue;
+            }
+            int mark = decomposeMark(c);
+            if (sb == null) {
+                sb = new StringBuilder(length + 16).append(s, 0, i);
+            }
+            if (converter != null) {
+                base = converter.convert(base);
+                mark = converter.convert(mark);
+            }
+            sb.append((char) base).append((char) mark);
+        }
+        return (sb != null) ? sb.toString() : s.toString();
+    }
+
+}
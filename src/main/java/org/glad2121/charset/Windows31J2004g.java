@@ -46,7 +46,7 @@ class Windows31J2004g extends Charset {
     @Override
     public CharsetEncoder newEncoder() {
         return new Encoder(delegate.newEncoder(), sjis2004.newEncoder(),
-                CodePointConverters.TO_WINDOWS_31J_2004);
+                CodePointConverters.TO_WINDOWS_31J_2004, EncodeTableHolder.TABLE);
     }
 
     /**
@@ -54,11 +54,46 @@ class Windows31J2004g extends Charset {
      */
     @Override
     public CharsetDecoder newDecoder() {
-        return new Decoder(delegate.newDecoder(), sjis2004.newDecoder());
+        return new ShiftJISDecoder(DecodeTableHolder.TABLE);
+    }
+
+    /**
+     * デコード表の保持クラス。
+     * <p>
+     * 最初に使用された時に一度だけ生成する。
+     */
+    static class DecodeTableHolder {
+
+        /**
+         * デコード表。
+         */
+        static final ShiftJISDecodeTable TABLE = new ShiftJISDecodeTable(
+                new Decoder(Charset.forName("Windows-31J").newDecoder(),
+                        Charset.forName("x-SJIS_0213").newDecoder()));
+
+    }
+
+    /**
+     * エンコード表の保持クラス。
+     * <p>
+     * 最初に使用された時に一度だけ生成する。
+     */
+    static class EncodeTableHolder {
+
+        /**
+         * エンコード表。
+         */
+        static final ConverterEncodeTable TABLE = new ConverterEncodeTable(
+                new Encoder(Charset.forName("Windows-31J").newEncoder(),
+                        Charset.forName("x-SJIS_0213").newEncoder(),
+                        CodePointConverters.TO_WINDOWS_31J_2004, null));
+
     }
 
     /**
      * 文字集合エンコーダ。
+     * <p>
+     * エンコード表を指定しない場合は、エンコード表の生成に使用する。
      */
     static class Encoder extends ConverterEncoder {
 
@@ -73,10 +108,11 @@ class Windows31J2004g extends Charset {
          * @param delegate 移譲先の Windows-31J エンコーダ
          * @param sjis2004 移譲先の Shift_JIS-2004 エンコーダ
          * @param converter 適用するコンバータ
+         * @param table エンコード表
          */
         Encoder(CharsetEncoder delegate, CharsetEncoder sjis2004,
-                IntUnaryOperator converter) {
-            super(delegate, converter);
+                IntUnaryOperator converter, ConverterEncodeTable table) {
+            super(delegate, converter, table);
             this.sjis2004 = sjis2004;
         }
 
@@ -106,10 +142,15 @@ class Windows31J2004g extends Charset {
             int ds = out.position();
             sjis2004.reset();
             CoderResult result2 = sjis2004.encode(in, out, true);
+            if (result2.isUnderflow()) {
+                // 合成を待って保留された文字は flush で出力される。
+                result2 = sjis2004.flush(out);
+            }
             if (!result2.isUnderflow()) {
+                in.position(ss);
+                out.position(ds);
                 return result2;
             }
-            sjis2004.flush(out);
 
             int length = out.position() - ds;
             if (length == 2) {
@@ -129,7 +170,7 @@ class Windows31J2004g extends Charset {
     }
 
     /**
-     * 文字集合デコーダ。
+     * 文字集合デコーダ (デコード表の生成に使用)。
      */
     static class Decoder extends ShiftJISDecoder {
 
@@ -37,7 +37,7 @@ class Windows31Jg extends Charset {
     @Override
     public CharsetEncoder newEncoder() {
         return new ConverterEncoder(delegate.newEncoder(),
-                CodePointConverters.TO_WINDOWS_31J);
+                CodePointConverters.TO_WINDOWS_31J, EncodeTableHolder.TABLE);
     }
 
     /**
@@ -45,7 +45,38 @@ class Windows31Jg extends Charset {
      */
     @Override
     public CharsetDecoder newDecoder() {
-        return new ShiftJISDecoder(delegate.newDecoder());
+        return new ShiftJISDecoder(DecodeTableHolder.TABLE);
+    }
+
+    /**
+     * デコード表の保持クラス。
+     * <p>
+     * 最初に使用された時に一度だけ生成する。
+     */
+    static class DecodeTableHolder {
+
+        /**
+         * デコード表。
+         */
+        static final ShiftJISDecodeTable TABLE = new ShiftJISDecodeTable(
+                new ShiftJISDecoder(Charset.forName("Windows-31J").newDecoder()));
+
+    }
+
+    /**
+     * エンコード表の保持クラス。
+     * <p>
+     * 最初に使用された時に一度だけ生成する。
+     */
+    static class EncodeTableHolder {
+
+        /**
+         * エンコード表。
+         */
+        static final ConverterEncodeTable TABLE = new ConverterEncodeTable(
+                new ConverterEncoder(Charset.forName("Windows-31J").newEncoder(),
+                        CodePointConverters.TO_WINDOWS_31J));
+
     }
 
 }
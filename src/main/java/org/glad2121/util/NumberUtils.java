@@ -1,6 +1,8 @@
 package org.glad2121.util;
 
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Objects;
 
 /**
  * 数値関連のユーティリティ。
@@ -18,14 +20,25 @@ public final class NumberUtils {
             "0123456789ABCDEFGHJKMNPQRSTVWXYZ".getBytes(StandardCharsets.US_ASCII);
 
     /**
-     * 英字から数値への変換表。
+     * ASCII 文字から数値への変換表 (変換できない文字は -1)。
      * <p>
-     * I, L, O は 1, 1, 0 へ変換、U はエラーとする。
+     * 英字は大文字・小文字を区別しない。I, L, O は 1, 1, 0 へ変換、U はエラーとする。
      */
-    private static final int[] ALPHA_TO_NUM = {
-        10, 11, 12, 13, 14, 15, 16, 17, 1, 18, 19, 1, 20, 21,
-        0, 22, 23, 24, 25, 26, -1, 27, 28, 29, 30, 31
-    };
+    static final byte[] DIGIT_TO_NUM = digitToNum();
+
+    /**
+     * バイトから Crockford's Base32 の数値への変換表 (変換できないバイトは -1)。
+     * <p>
+     * 一括変換で、バイトを {@code & 0xFF} した値をそのまま添字にするため、256 要素に広げる。
+     */
+    static final byte[] BYTE_TO_NUM = byteToNum();
+
+    /**
+     * {@code long} を Crockford's Base32 で表す固定桁数。
+     * <p>
+     * 先頭の桁は上位4ビットだけを表すので、0-F になる。
+     */
+    public static final int CROCKFORD32_LONG_LENGTH = 13;
 
     /**
      * 最小の基数。
@@ -43,6 +56,35 @@ public final class NumberUtils {
     private NumberUtils() {
     }
 
+    /**
+     * ASCII 文字から数値への変換表を生成します。
+     *
+     * @return 変換表
+     */
+    static byte[] digitToNum() {
+        byte[] table = new byte[128];
+        Arrays.fill(table, (byte) -1);
+        for (int i = 0; i < NUM_TO_DIGIT.length; ++i) {
+            table[NUM_TO_DIGIT[i]] = (byte) i;
+            table[Character.toLowerCase(NUM_TO_DIGIT[i])] = (byte) i;
+        }
+        table['I'] = table['i'] = table['L'] = table['l'] = 1;
+        table['O'] = table['o'] = 0;
+        return table;
+    }
+
+    /**
+     * バイトから Crockford's Base32 の数値への変換表を生成します。
+     *
+     * @return 変換表
+     */
+    static byte[] byteToNum() {
+        byte[] table = new byte[256];
+        Arrays.fill(table, (byte) -1);
+        System.arraycopy(DIGIT_TO_NUM, 0, table, 0, DIGIT_TO_NUM.length);
+        return table;
+    }
+
     /**
      * {@code int} を基数 {@code radix} の文字列表現に変換します。
      *
@@ -155,6 +197,56 @@ public final class NumberUtils {
         toUnsignedString(value, 5, buf, offset, count);
     }
 
+    /**
+     * {@code long} の配列を、固定桁数 ({@value #CROCKFORD32_LONG_LENGTH} 桁) の
+     * Crockford's Base32 の ASCII 文字の連続したバイト列に変換します。
+     *
+     * @param values {@code long} の配列
+     * @return ASCII 文字のバイト列
+     */
+    public static byte[] toCrockford32(long[] values) {
+        byte[] ascii = new byte[Math.multiplyExact(values.length, CROCKFORD32_LONG_LENGTH)];
+        toCrockford32(values, 0, values.length, ascii, 0);
+        return ascii;
+    }
+
+    /**
+     * {@code long} の配列の指定された範囲を、固定桁数 ({@value #CROCKFORD32_LONG_LENGTH} 桁) の
+     * Crockford's Base32 の ASCII 文字としてバイト列に書き込みます。
+     * <p>
+     * 区切り文字は入れずに連続して書き込む。
+     * 5ビットずつの変換表を引く処理を、値ごとに展開して分岐なしで行う。
+     *
+     * @param values {@code long} の配列
+     * @param from 変換する範囲の先頭
+     * @param count 変換する個数
+     * @param ascii 書き込むバイト列
+     * @param offset 書き込むオフセット
+     * @return 書き込んだ次のオフセット
+     */
+    public static int toCrockford32(long[] values, int from, int count, byte[] ascii, int offset) {
+        Objects.checkFromIndexSize(from, count, values.length);
+        Objects.checkFromIndexSize(offset, Math.multiplyExact(count, CROCKFORD32_LONG_LENGTH), ascii.length);
+        final byte[] table = NUM_TO_DIGIT;
+        for (int i = from, end = from + count; i < end; ++i, offset += CROCKFORD32_LONG_LENGTH) {
+            long v = values[i];
+            ascii[offset] = table[(int) (v >>> 60)];
+            ascii[offset + 1] = table[(int) (v >>> 55) & 0x1F];
+            ascii[offset + 2] = table[(int) (v >>> 50) & 0x1F];
+            ascii[offset + 3] = table[(int) (v >>> 45) & 0x1F];
+            ascii[offset + 4] = table[(int) (v >>> 40) & 0x1F];
+            ascii[offset + 5] = table[(int) (v >>> 35) & 0x1F];
+            ascii[offset + 6] = table[(int) (v >>> 30) & 0x1F];
+            ascii[offset + 7] = table[(int) (v >>> 25) & 0x1F];
+            ascii[offset + 8] = table[(int) (v >>> 20) & 0x1F];
+            ascii[offset + 9] = table[(int) (v >>> 15) & 0x1F];
+            ascii[offset + 10] = table[(int) (v >>> 10) & 0x1F];
+            ascii[offset + 11] = table[(int) (v >>> 5) & 0x1F];
+            ascii[offset + 12] = table[(int) v & 0x1F];
+        }
+        return offset;
+    }
+
     /**
      * {@code int} を {@code 2 ^ shift} 進数文字列に変換します。
      *
@@ -270,6 +362,85 @@ public final class NumberUtils {
         return negative ? -result : result;
     }
 
+    /**
+     * 固定桁数 ({@value #CROCKFORD32_LONG_LENGTH} 桁) の Crockford's Base32 の ASCII 文字が
+     * 連続したバイト列を、{@code long} の配列に変換します。
+     *
+     * @param ascii ASCII 文字のバイト列
+     * @param offset 読み取るオフセット
+     * @param count 変換する個数
+     * @return {@code long} の配列
+     */
+    public static long[] parseCrockford32(byte[] ascii, int offset, int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("count must not be negative: " + count);
+        }
+        long[] values = new long[count];
+        parseCrockford32(ascii, offset, values, 0, count);
+        return values;
+    }
+
+    /**
+     * 固定桁数 ({@value #CROCKFORD32_LONG_LENGTH} 桁) の Crockford's Base32 の ASCII 文字が
+     * 連続したバイト列を、{@code long} の配列の指定された範囲に読み取ります。
+     * <p>
+     * 英字の大文字・小文字は区別しない。I, L, O は 1, 1, 0 とみなす。
+     * 値ごとに13桁の変換結果の論理和をとり、不正な文字の有無を1回の分岐で判定する。
+     *
+     * @param ascii ASCII 文字のバイト列
+     * @param offset 読み取るオフセット
+     * @param values 格納する {@code long} の配列
+     * @param from 格納する範囲の先頭
+     * @param count 変換する個数
+     * @return 読み取った次のオフセット
+     * @throws NumberFormatException 不正な文字を含む場合、または {@code long} の範囲を超える場合
+     */
+    public static int parseCrockford32(byte[] ascii, int offset, long[] values, int from, int count) {
+        Objects.checkFromIndexSize(from, count, values.length);
+        Objects.checkFromIndexSize(offset, Math.multiplyExact(count, CROCKFORD32_LONG_LENGTH), ascii.length);
+        final byte[] table = BYTE_TO_NUM;
+        for (int i = from, end = from + count; i < end; ++i, offset += CROCKFORD32_LONG_LENGTH) {
+            int d0 = table[ascii[offset] & 0xFF];
+            int d1 = table[ascii[offset + 1] & 0xFF];
+            int d2 = table[ascii[offset + 2] & 0xFF];
+            int d3 = table[ascii[offset + 3] & 0xFF];
+            int d4 = table[ascii[offset + 4] & 0xFF];
+            int d5 = table[ascii[offset + 5] & 0xFF];
+            int d6 = table[ascii[offset + 6] & 0xFF];
+            int d7 = table[ascii[offset + 7] & 0xFF];
+            int d8 = table[ascii[offset + 8] & 0xFF];
+            int d9 = table[ascii[offset + 9] & 0xFF];
+            int d10 = table[ascii[offset + 10] & 0xFF];
+            int d11 = table[ascii[offset + 11] & 0xFF];
+            int d12 = table[ascii[offset + 12] & 0xFF];
+            // 不正な文字は -1 なので、論理和の符号ビットが立つ。
+            if ((d0 | d1 | d2 | d3 | d4 | d5 | d6 | d7 | d8 | d9 | d10 | d11 | d12) < 0 || d0 > 0xF) {
+                throw crockford32Error(ascii, offset);
+            }
+            values[i] = ((long) d0 << 60) | ((long) d1 << 55) | ((long) d2 << 50) | ((long) d3 << 45)
+                    | ((long) d4 << 40) | ((long) d5 << 35) | ((long) d6 << 30) | ((long) d7 << 25)
+                    | ((long) d8 << 20) | ((long) d9 << 15) | ((long) d10 << 10) | ((long) d11 << 5) | d12;
+        }
+        return offset;
+    }
+
+    /**
+     * 固定桁数の Crockford's Base32 の読み取りエラーを生成します。
+     *
+     * @param ascii ASCII 文字のバイト列
+     * @param offset エラーが発生した値のオフセット
+     * @return {@code NumberFormatException}
+     */
+    static NumberFormatException crockford32Error(byte[] ascii, int offset) {
+        String s = new String(ascii, offset, CROCKFORD32_LONG_LENGTH, StandardCharsets.ISO_8859_1);
+        for (int i = 0; i < CROCKFORD32_LONG_LENGTH; ++i) {
+            if (BYTE_TO_NUM[ascii[offset + i] & 0xFF] < 0) {
+                return new NumberFormatException("error at:" + (offset + i) + " in: \"" + s + "\"");
+            }
+        }
+        return new NumberFormatException("\"" + s + "\" exceeds range of long");
+    }
+
     /**
      * 基数が適切かチェックします。
      *
@@ -304,13 +475,39 @@ public final class NumberUtils {
      * @return 数値
      */
     static int charToNum(char c) {
+        if (c < DIGIT_TO_NUM.length) {
+            return DIGIT_TO_NUM[c];
+        }
+        // 全角の数字・英字など。
         if (Character.isDigit(c)) {
             return c & 0xF;
         }
         if (Character.isAlphabetic(c)) {
-            return ALPHA_TO_NUM[(c & 0x1F) - 1];
+            return DIGIT_TO_NUM['@' + (c & 0x1F)];
         }
         return -1;
     }
 
+    /**
+     * ASCII 文字を Crockford's Base32 の数値に変換します。
+     * <p>
+     * 変換表の範囲外の文字も、分岐せずに -1 を返す。
+     *
+     * @param c 文字
+     * @return 数値 (変換できない文字は -1)
+     */
+    static int crockford32ToNum(int c) {
+        return DIGIT_TO_NUM[c & 0x7F] | ((0x7F - c) >> 31);
+    }
+
+    /**
+     * Crockford's Base32 の数値を ASCII 文字に変換します。
+     *
+     * @param num 数値 (0-31)
+     * @return 文字
+     */
+    static byte numToCrockford32(int num) {
+        return NUM_TO_DIGIT[num];
+    }
+
 }
@@ -0,0 +1,319 @@
+package org.glad2121.util;
+
+import java.util.Objects;
+
+/**
+ * ULID のビット列を昇順に並べた、重複のない変更不可の配列。
+ * <p>
+ * 最上位・最下位ビット列の {@code long} の配列で保持するため、1件あたり16バイトになる。
+ * 順序は ULID の文字列表現の順序 (ビット列を符号なし整数とみなした順序) であり、
+ * {@link ULID#compareTo(ULID)} の順序と一致する。
+ * そのため、{@link #asList()} は {@code Collections.binarySearch} や
+ * {@code TreeSet<ULID>} との併合にそのまま使用できる。
+ * タイムスタンプはビット列の先頭にあるので、タイムスタンプの範囲で二分探索できる。
+ *
+ * @author glad2121
+ */
+public final class SortedULIDArray {
+
+    /**
+     * 挿入ソートに切り替える要素数。
+     */
+    static final int INSERTION_SORT_THRESHOLD = 16;
+
+    /**
+     * 最上位ビット列の配列。
+     */
+    final long[] msb;
+
+    /**
+     * 最下位ビット列の配列。
+     */
+    final long[] lsb;
+
+    /**
+     * 要素数。
+     */
+    final int size;
+
+    /**
+     * コンストラクタ。
+     *
+     * @param msb 昇順に並べた最上位ビット列の配列
+     * @param lsb 昇順に並べた最下位ビット列の配列
+     * @param size 要素数
+     */
+    SortedULIDArray(long[] msb, long[] lsb, int size) {
+        this.msb = msb;
+        this.lsb = lsb;
+        this.size = size;
+    }
+
+    /**
+     * 指定された ULID を昇順に並べ、重複を除いた配列を生成します。
+     *
+     * @param ulids ULID の配列のビュー
+     * @return ULID の昇順の配列
+     */
+    public static SortedULIDArray of(ULIDArray ulids) {
+        Objects.requireNonNull(ulids, "ulids must not be null");
+        return sorted(ulids.toMostSignificantBitsArray(), ulids.toLeastSignificantBitsArray());
+    }
+
+    /**
+     * 指定された集合の ULID を昇順に並べた配列を生成します。
+     *
+     * @param ulids ULID の集合
+     * @return ULID の昇順の配列
+     */
+    public static SortedULIDArray of(ULIDHashSet ulids) {
+        Objects.requireNonNull(ulids, "ulids must not be null");
+        ULIDArray array = ulids.toULIDArray();
+        return sorted(array.msb, array.lsb);
+    }
+
+    /**
+     * 指定された配列をそのまま昇順に並べ替え、重複を除いた配列を生成します。
+     *
+     * @param msb 最上位ビット列の配列
+     * @param lsb 最下位ビット列の配列
+     * @return ULID の昇順の配列
+     */
+    static SortedULIDArray sorted(long[] msb, long[] lsb) {
+        int n = msb.length;
+        if (!isSorted(msb, lsb, n)) {
+            sort(msb, lsb, 0, n);
+        }
+        int size = (n == 0) ? 0 : 1;
+        for (int i = 1; i < n; ++i) {
+            if (msb[i] != msb[size - 1] || lsb[i] != lsb[size - 1]) {
+                msb[size] = msb[i];
+                lsb[size] = lsb[i];
+                ++size;
+            }
+        }
+        return new SortedULIDArray(msb, lsb, size);
+    }
+
+    /**
+     * 配列が昇順に並んでいるか判定します。
+     * <p>
+     * 単調増加のジェネレータで生成した ULID は並べ替える必要がない。
+     *
+     * @param msb 最上位ビット列の配列
+     * @param lsb 最下位ビット列の配列
+     * @param n 要素数
+     * @return 昇順ならば {@code true}
+     */
+    static boolean isSorted(long[] msb, long[] lsb, int n) {
+        for (int i = 1; i < n; ++i) {
+            if (ULID.compareUnsigned(msb[i - 1], lsb[i - 1], msb[i], lsb[i]) > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 配列の指定された範囲を、クイックソートで昇順に並べ替えます。
+     * <p>
+     * 短い方の区間を再帰し、長い方の区間をループで処理するため、再帰の深さは対数に収まる。
+     *
+     * @param msb 最上位ビット列の配列
+     * @param lsb 最下位ビット列の配列
+     * @param from 範囲の先頭 (この位置を含む)
+     * @param to 範囲の末尾 (この位置を含まない)
+     */
+    static void sort(long[] msb, long[] lsb, int from, int to) {
+        while (to - from > INSERTION_SORT_THRESHOLD) {
+            // 先頭・中央・末尾の中央値を軸にする。
+            int mid = (from + to) >>> 1;
+            int last = to - 1;
+            if (ULID.compareUnsigned(msb[mid], lsb[mid], msb[from], lsb[from]) < 0) {
+                swap(msb, lsb, mid, from);
+            }
+            if (ULID.compareUnsigned(msb[last], lsb[last], msb[from], lsb[from]) < 0) {
+                swap(msb, lsb, last, from);
+            }
+            if (ULID.compareUnsigned(msb[last], lsb[last], msb[mid], lsb[mid]) < 0) {
+                swap(msb, lsb, last, mid);
+            }
+            long pivotMsb = msb[mid];
+            long pivotLsb = lsb[mid];
+            int i = from;
+            int j = last;
+            while (i <= j) {
+                while (ULID.compareUnsigned(msb[i], lsb[i], pivotMsb, pivotLsb) < 0) {
+                    ++i;
+                }
+                while (ULID.compareUnsigned(msb[j], lsb[j], pivotMsb, pivotLsb) > 0) {
+                    --j;
+                }
+                if (i <= j) {
+                    swap(msb, lsb, i++, j--);
+                }
+            }
+            if (j + 1 - from < to - i) {
+                sort(msb, lsb, from, j + 1);
+                from = i;
+            } else {
+                sort(msb, lsb, i, to);
+                to = j + 1;
+            }
+        }
+        for (int i = from + 1; i < to; ++i) {
+            long m = msb[i];
+            long l = lsb[i];
+            int j = i - 1;
+            while (j >= from && ULID.compareUnsigned(msb[j], lsb[j], m, l) > 0) {
+                msb[j + 1] = msb[j];
+                lsb[j + 1] = lsb[j];
+                --j;
+            }
+            msb[j + 1] = m;
+            lsb[j + 1] = l;
+        }
+    }
+
+    /**
+     * 配列の2つの要素を入れ替えます。
+     *
+     * @param msb 最上位ビット列の配列
+     * @param lsb 最下位ビット列の配列
+     * @param i 1つ目の位置
+     * @param j 2つ目の位置
+     */
+    static void swap(long[] msb, long[] lsb, int i, int j) {
+        long m = msb[i];
+        msb[i] = msb[j];
+        msb[j] = m;
+        long l = lsb[i];
+        lsb[i] = lsb[j];
+        lsb[j] = l;
+    }
+
+    /**
+     * 要素数を返します。
+     *
+     * @return 要素数
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 配列をコピーせずに参照するビューを返します。
+     *
+     * @return ULID の配列のビュー
+     */
+    public ULIDArray asList() {
+        return new ULIDArray(msb, lsb, 0, size);
+    }
+
+    /**
+     * 指定された位置の ULID を返します。
+     *
+     * @param index 位置
+     * @return ULID
+     */
+    public ULID get(int index) {
+        Objects.checkIndex(index, size);
+        return new ULID(msb[index], lsb[index]);
+    }
+
+    /**
+     * 指定された ULID を二分探索します。
+     *
+     * @param ulid ULID
+     * @return 位置 (存在しなければ {@code -(挿入位置) - 1})
+     */
+    public int indexOf(ULID ulid) {
+        return indexOf(ulid.getMostSignificantBits(), ulid.getLeastSignificantBits());
+    }
+
+    /**
+     * 指定されたビット列の ULID を二分探索します。
+     *
+     * @param msb 最上位ビット列
+     * @param lsb 最下位ビット列
+     * @return 位置 (存在しなければ {@code -(挿入位置) - 1})
+     */
+    public int indexOf(long msb, long lsb) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = ULID.compareUnsigned(this.msb[mid], this.lsb[mid], msb, lsb);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    /**
+     * 指定された ULID を含むか判定します。
+     *
+     * @param ulid ULID
+     * @return 含めば {@code true}
+     */
+    public boolean contains(ULID ulid) {
+        return indexOf(ulid) >= 0;
+    }
+
+    /**
+     * タイムスタンプが指定された値以上の、最初の位置を返します。
+     *
+     * @param timestamp タイムスタンプ
+     * @return 位置 (該当しなければ {@link #size()})
+     */
+    public int lowerBound(long timestamp) {
+        if (timestamp <= 0L) {
+            return 0;
+        }
+        if ((timestamp & ULID.TIMESTAMP_OVERFLOW_MASK) != 0L) {
+            return size;
+        }
+        long key = timestamp << 16;
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (Long.compareUnsigned(msb[mid], key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * タイムスタンプが指定された範囲内の ULID を、配列をコピーせずに参照するビューを返します。
+     *
+     * @param fromTimestamp 範囲の開始 (この値を含む)
+     * @param toTimestamp 範囲の終了 (この値を含まない)
+     * @return ULID の配列のビュー
+     */
+    public ULIDArray range(long fromTimestamp, long toTimestamp) {
+        int from = lowerBound(fromTimestamp);
+        int to = Math.max(from, lowerBound(toTimestamp));
+        return new ULIDArray(msb, lsb, from, to - from);
+    }
+
+    /**
+     * タイムスタンプが指定された範囲内の ULID の件数を返します。
+     *
+     * @param fromTimestamp 範囲の開始 (この値を含む)
+     * @param toTimestamp 範囲の終了 (この値を含まない)
+     * @return 件数
+     */
+    public int count(long fromTimestamp, long toTimestamp) {
+        return range(fromTimestamp, toTimestamp).size();
+    }
+
+}
@@ -1,11 +1,31 @@
 package org.glad2121.util;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.io.Serializable;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
 import java.security.SecureRandom;
 import java.time.Clock;
 import java.util.Objects;
 import java.util.Random;
 import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
 
 /**
  * 不変の ULID (Universally Unique Lexicographically Sortable Identifier) を表すクラス。
@@ -18,11 +38,32 @@ import java.util.UUID;
  */
 public final class ULID implements Serializable, Comparable<ULID> {
 
+    /**
+     * 文字列表現の文字数。
+     */
+    public static final int LENGTH = 26;
+
     /**
      * タイムスタンプが上限を超えたか判定するためのマスク。
      */
     static final long TIMESTAMP_OVERFLOW_MASK = 0xFFFF_0000_0000_0000L;
 
+    /**
+     * 最上位ビット列のうち、ランダム部の上位16ビットのマスク。
+     */
+    static final long RANDOM_HIGH_MASK = 0xFFFFL;
+
+    /**
+     * バイト列のビット列の長さ。
+     */
+    public static final int BYTES = 16;
+
+    /**
+     * バイト列を big-endian の {@code long} として読み書きする {@code VarHandle}。
+     */
+    static final VarHandle LONGS =
+            MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+
     /**
      * serialVersionUID
      */
@@ -83,18 +124,119 @@ public final class ULID implements Serializable, Comparable<ULID> {
      *
      * @param ulid ULID 表現の文字列
      * @return ULID
+     * @see #parse(CharSequence, int)
      */
     public static ULID from(String ulid) {
         Objects.requireNonNull(ulid, "ulid must not be null");
-        if (ulid.length() != 26) {
+        if (ulid.length() != LENGTH) {
             throw new IllegalArgumentException("ulid must be 26 chars");
         }
-        long timestamp = NumberUtils.parseLong(ulid.substring(0, 10), 32);
-        long part1 = NumberUtils.parseLong(ulid.substring(10, 18), 32);
-        long part2 = NumberUtils.parseLong(ulid.substring(18), 32);
-        long mostSigBits = (timestamp << 16) | (part1 >>> 24);
-        long leastSigBits = (part1 << 40) | part2;
-        return new ULID(mostSigBits, leastSigBits);
+        return parse(ulid, 0);
+    }
+
+    /**
+     * 文字列の指定された位置から26文字の ULID 表現を読み取り、ULID へ変換します。
+     * <p>
+     * 部分文字列を生成せず、変換表で1文字ずつ変換する。
+     * 英字は大文字・小文字を区別せず、I, L, O は 1, 1, 0 として読み取る。
+     *
+     * @param s 文字列
+     * @param offset 位置
+     * @return ULID
+     * @throws NumberFormatException Crockford's Base32 でない文字を含むか、128ビットを超える場合
+     */
+    public static ULID parse(CharSequence s, int offset) {
+        Objects.requireNonNull(s, "s must not be null");
+        Objects.checkFromIndexSize(offset, LENGTH, s.length());
+        // 不正な文字は -1 に、128ビットを超える先頭の文字は 7 - first が負になるので、
+        // 論理和が負ならばエラー。
+        int first = NumberUtils.crockford32ToNum(s.charAt(offset));
+        int check = first | (7 - first);
+        long high = first;
+        for (int i = 1; i < 13; ++i) {
+            int num = NumberUtils.crockford32ToNum(s.charAt(offset + i));
+            check |= num;
+            high = (high << 5) | num;
+        }
+        int middle = NumberUtils.crockford32ToNum(s.charAt(offset + 13));
+        check |= middle;
+        long low = 0L;
+        for (int i = 14; i < LENGTH; ++i) {
+            int num = NumberUtils.crockford32ToNum(s.charAt(offset + i));
+            check |= num;
+            low = (low << 5) | num;
+        }
+        if (check < 0) {
+            throw parseError(s.subSequence(offset, offset + LENGTH));
+        }
+        return of(high, middle, low);
+    }
+
+    /**
+     * バイト列の指定された位置から26バイトの ASCII の ULID 表現を読み取り、ULID へ変換します。
+     * <p>
+     * 文字列を生成せず、変換表で1バイトずつ変換する。
+     * 英字は大文字・小文字を区別せず、I, L, O は 1, 1, 0 として読み取る。
+     *
+     * @param ascii ASCII のバイト列
+     * @param offset 位置
+     * @return ULID
+     * @throws NumberFormatException Crockford's Base32 でない文字を含むか、128ビットを超える場合
+     */
+    public static ULID parse(byte[] ascii, int offset) {
+        Objects.requireNonNull(ascii, "ascii must not be null");
+        Objects.checkFromIndexSize(offset, LENGTH, ascii.length);
+        // 不正な文字は -1 に、128ビットを超える先頭の文字は 7 - first が負になるので、
+        // 論理和が負ならばエラー。
+        int first = NumberUtils.crockford32ToNum(ascii[offset] & 0xFF);
+        int check = first | (7 - first);
+        long high = first;
+        for (int i = 1; i < 13; ++i) {
+            int num = NumberUtils.crockford32ToNum(ascii[offset + i] & 0xFF);
+            check |= num;
+            high = (high << 5) | num;
+        }
+        int middle = NumberUtils.crockford32ToNum(ascii[offset + 13] & 0xFF);
+        check |= middle;
+        long low = 0L;
+        for (int i = 14; i < LENGTH; ++i) {
+            int num = NumberUtils.crockford32ToNum(ascii[offset + i] & 0xFF);
+            check |= num;
+            low = (low << 5) | num;
+        }
+        if (check < 0) {
+            throw parseError(new String(ascii, offset, LENGTH, StandardCharsets.ISO_8859_1));
+        }
+        return of(high, middle, low);
+    }
+
+    /**
+     * 26文字を前半13文字、中央の1文字、後半12文字に分けて読み取った値から ULID を生成します。
+     * <p>
+     * 前半13文字 (65ビット) の上位2ビットは0であること。
+     *
+     * @param high 前半13文字の値
+     * @param middle 中央の1文字の値
+     * @param low 後半12文字の値
+     * @return ULID
+     */
+    static ULID of(long high, int middle, long low) {
+        return new ULID((high << 1) | (middle >>> 4), ((long) middle << 60) | low);
+    }
+
+    /**
+     * 不正な ULID 表現のエラーを生成します。
+     *
+     * @param ulid ULID 表現の文字列
+     * @return {@code NumberFormatException}
+     */
+    static NumberFormatException parseError(CharSequence ulid) {
+        for (int i = 0; i < LENGTH; ++i) {
+            if (NumberUtils.crockford32ToNum(ulid.charAt(i)) < 0) {
+                return NumberUtils.makeNumberFormatException(ulid, i);
+            }
+        }
+        return new NumberFormatException("\"" + ulid + "\" exceeds range of ULID");
     }
 
     /**
@@ -105,20 +247,115 @@ public final class ULID implements Serializable, Comparable<ULID> {
      */
     public static ULID from(byte[] data) {
         Objects.requireNonNull(data, "data must not be null");
-        if (data.length != 16) {
+        if (data.length != BYTES) {
             throw new IllegalArgumentException("data must be 16 bytes");
         }
-        long mostSigBits = 0;
-        for (int i = 0; i < 8; ++i) {
-            mostSigBits = (mostSigBits << 8) | (data[i] & 0xFF);
+        return readFrom(data, 0);
+    }
+
+    /**
+     * バイト列の指定された位置から16バイトのビット列 (big-endian) を読み取り、ULID へ変換します。
+     *
+     * @param buf バイト列
+     * @param offset 位置
+     * @return ULID
+     */
+    public static ULID readFrom(byte[] buf, int offset) {
+        Objects.checkFromIndexSize(offset, BYTES, buf.length);
+        return new ULID((long) LONGS.get(buf, offset), (long) LONGS.get(buf, offset + 8));
+    }
+
+    /**
+     * バッファの現在位置から16バイトのビット列 (big-endian) を読み取り、ULID へ変換します。
+     * <p>
+     * バッファのバイト順序にかかわらず big-endian で読み取り、位置を16進める。
+     * 残りが16バイト未満の場合は、位置を変更せずに例外をスローする。
+     *
+     * @param buf バッファ
+     * @return ULID
+     * @throws BufferUnderflowException 残りが16バイト未満の場合
+     */
+    public static ULID readFrom(ByteBuffer buf) {
+        if (buf.remaining() < BYTES) {
+            throw new BufferUnderflowException();
+        }
+        long mostSigBits = buf.getLong();
+        long leastSigBits = buf.getLong();
+        if (buf.order() == ByteOrder.LITTLE_ENDIAN) {
+            return new ULID(Long.reverseBytes(mostSigBits), Long.reverseBytes(leastSigBits));
         }
-        long leastSigBits = 0;
-        for (int i = 8; i < 16; ++i) {
-            leastSigBits = (leastSigBits << 8) | (data[i] & 0xFF);
+        return new ULID(mostSigBits, leastSigBits);
+    }
+
+    /**
+     * バッファの指定された位置から16バイトのビット列 (big-endian) を読み取り、ULID へ変換します。
+     * <p>
+     * バッファのバイト順序にかかわらず big-endian で読み取る。バッファの位置は変更しない。
+     *
+     * @param buf バッファ
+     * @param index 位置
+     * @return ULID
+     * @throws IndexOutOfBoundsException 位置から16バイトがバッファの限界を超える場合
+     */
+    public static ULID readFrom(ByteBuffer buf, int index) {
+        Objects.checkFromIndexSize(index, BYTES, buf.limit());
+        long mostSigBits = buf.getLong(index);
+        long leastSigBits = buf.getLong(index + 8);
+        if (buf.order() == ByteOrder.LITTLE_ENDIAN) {
+            return new ULID(Long.reverseBytes(mostSigBits), Long.reverseBytes(leastSigBits));
         }
         return new ULID(mostSigBits, leastSigBits);
     }
 
+    /**
+     * 入力から16バイトのビット列 (big-endian) を読み取り、ULID へ変換します。
+     *
+     * @param in 入力
+     * @return ULID
+     * @throws IOException 入出力エラー
+     */
+    public static ULID readFrom(DataInput in) throws IOException {
+        long mostSigBits = in.readLong();
+        long leastSigBits = in.readLong();
+        return new ULID(mostSigBits, leastSigBits);
+    }
+
+    /**
+     * バイト列の指定された位置から、指定された個数の ULID を読み取ります。
+     *
+     * @param buf バイト列
+     * @param offset 位置
+     * @param count 個数
+     * @return ULID の配列
+     */
+    public static ULID[] readAll(byte[] buf, int offset, int count) {
+        Objects.checkFromIndexSize(offset, Math.multiplyExact(count, BYTES), buf.length);
+        ULID[] ulids = new ULID[count];
+        for (int i = 0; i < count; ++i, offset += BYTES) {
+            ulids[i] = new ULID((long) LONGS.get(buf, offset), (long) LONGS.get(buf, offset + 8));
+        }
+        return ulids;
+    }
+
+    /**
+     * バッファの現在位置から、指定された個数の ULID を読み取ります。
+     *
+     * @param buf バッファ
+     * @param count 個数
+     * @return ULID の配列
+     * @see #readFrom(ByteBuffer)
+     */
+    public static ULID[] readAll(ByteBuffer buf, int count) {
+        if (buf.remaining() < Math.multiplyExact(count, BYTES)) {
+            throw new BufferUnderflowException();
+        }
+        ULID[] ulids = new ULID[count];
+        for (int i = 0; i < count; ++i) {
+            ulids[i] = readFrom(buf);
+        }
+        return ulids;
+    }
+
     /**
      * 指定されたタイムスタンプとエントロピーから ULID へ変換します。
      *
@@ -143,6 +380,32 @@ public final class ULID implements Serializable, Comparable<ULID> {
         return new ULID(mostSigBits, leastSigBits);
     }
 
+    /**
+     * 指定されたタイムスタンプの ULID のうち、最小の ULID を返します。
+     * <p>
+     * ランダム部がすべて0の ULID であり、範囲の下限 (この値を含む) に使用する。
+     *
+     * @param timestamp タイムスタンプ
+     * @return 最小の ULID
+     */
+    public static ULID minFor(long timestamp) {
+        checkTimestamp(timestamp);
+        return new ULID(timestamp << 16, 0L);
+    }
+
+    /**
+     * 指定されたタイムスタンプの ULID のうち、最大の ULID を返します。
+     * <p>
+     * ランダム部がすべて1の ULID であり、範囲の上限 (この値を含む) に使用する。
+     *
+     * @param timestamp タイムスタンプ
+     * @return 最大の ULID
+     */
+    public static ULID maxFor(long timestamp) {
+        checkTimestamp(timestamp);
+        return new ULID((timestamp << 16) | RANDOM_HIGH_MASK, -1L);
+    }
+
     /**
      * 最上位ビット列を返します。
      *
@@ -204,34 +467,216 @@ public final class ULID implements Serializable, Comparable<ULID> {
      */
     @Override
     public String toString() {
-        char[] buf = new char[26];
-        NumberUtils.toCrockford32(timestamp(), buf, 0, 10);
-        long value = ((mostSigBits & 0xFFFFL) << 24) | (leastSigBits >>> 40);
-        NumberUtils.toCrockford32(value, buf, 10, 8);
-        NumberUtils.toCrockford32(leastSigBits, buf, 18, 8);
-        return new String(buf);
+        byte[] buf = new byte[LENGTH];
+        formatTo(buf, 0);
+        return new String(buf, StandardCharsets.ISO_8859_1);
     }
 
     /**
-     * この ULID のビット列を返します。
+     * この ULID の文字列表現を、文字の配列の指定された位置へ書き込みます。
      *
-     * @return ビット列
+     * @param buf 文字の配列
+     * @param offset 位置
+     * @return 書き込んだ次の位置
      */
-    public byte[] toBytes() {
-        byte[] result = new byte[16];
+    public int formatTo(char[] buf, int offset) {
+        Objects.checkFromIndexSize(offset, LENGTH, buf.length);
+        long lsb = leastSigBits;
+        for (int i = offset + LENGTH - 1; i > offset + 13; --i) {
+            buf[i] = (char) NumberUtils.numToCrockford32((int) lsb & 0x1F);
+            lsb >>>= 5;
+        }
         long msb = mostSigBits;
-        for (int i = 7; i >= 0; --i) {
-            result[i] = (byte) (msb & 0xFF);
-            msb >>= 8;
+        buf[offset + 13] = (char) NumberUtils.numToCrockford32(((int) msb & 1) << 4 | (int) lsb);
+        msb >>>= 1;
+        for (int i = offset + 12; i >= offset; --i) {
+            buf[i] = (char) NumberUtils.numToCrockford32((int) msb & 0x1F);
+            msb >>>= 5;
         }
+        return offset + LENGTH;
+    }
+
+    /**
+     * この ULID の文字列表現を、ASCII のバイト列の指定された位置へ書き込みます。
+     *
+     * @param buf バイト列
+     * @param offset 位置
+     * @return 書き込んだ次の位置
+     */
+    public int formatTo(byte[] buf, int offset) {
+        return formatTo(mostSigBits, leastSigBits, buf, offset);
+    }
+
+    /**
+     * 指定されたビット列の ULID の文字列表現を、ASCII のバイト列の指定された位置へ書き込みます。
+     *
+     * @param mostSigBits 最上位ビット列
+     * @param leastSigBits 最下位ビット列
+     * @param buf バイト列
+     * @param offset 位置
+     * @return 書き込んだ次の位置
+     */
+    static int formatTo(long mostSigBits, long leastSigBits, byte[] buf, int offset) {
+        Objects.checkFromIndexSize(offset, LENGTH, buf.length);
         long lsb = leastSigBits;
-        for (int i = 15; i >= 8; --i) {
-            result[i] = (byte) (lsb & 0xFF);
-            lsb >>= 8;
+        for (int i = offset + LENGTH - 1; i > offset + 13; --i) {
+            buf[i] = NumberUtils.numToCrockford32((int) lsb & 0x1F);
+            lsb >>>= 5;
+        }
+        long msb = mostSigBits;
+        buf[offset + 13] = NumberUtils.numToCrockford32(((int) msb & 1) << 4 | (int) lsb);
+        msb >>>= 1;
+        for (int i = offset + 12; i >= offset; --i) {
+            buf[i] = NumberUtils.numToCrockford32((int) msb & 0x1F);
+            msb >>>= 5;
+        }
+        return offset + LENGTH;
+    }
+
+    /**
+     * この ULID の文字列表現を、ASCII でバッファの指定された位置へ書き込みます。
+     * <p>
+     * バッファの位置 (position) は変更しない。
+     *
+     * @param buf バッファ
+     * @param index 位置
+     * @return 書き込んだ次の位置
+     */
+    public int formatTo(ByteBuffer buf, int index) {
+        Objects.checkFromIndexSize(index, LENGTH, buf.limit());
+        if (buf.hasArray()) {
+            formatTo(buf.array(), buf.arrayOffset() + index);
+        } else {
+            long lsb = leastSigBits;
+            for (int i = index + LENGTH - 1; i > index + 13; --i) {
+                buf.put(i, NumberUtils.numToCrockford32((int) lsb & 0x1F));
+                lsb >>>= 5;
+            }
+            long msb = mostSigBits;
+            buf.put(index + 13, NumberUtils.numToCrockford32(((int) msb & 1) << 4 | (int) lsb));
+            msb >>>= 1;
+            for (int i = index + 12; i >= index; --i) {
+                buf.put(i, NumberUtils.numToCrockford32((int) msb & 0x1F));
+                msb >>>= 5;
+            }
         }
+        return index + LENGTH;
+    }
+
+    /**
+     * この ULID のビット列を返します。
+     *
+     * @return ビット列
+     */
+    public byte[] toBytes() {
+        byte[] result = new byte[BYTES];
+        writeTo(result, 0);
         return result;
     }
 
+    /**
+     * この ULID のビット列 (big-endian) を、バイト列の指定された位置へ書き込みます。
+     *
+     * @param buf バイト列
+     * @param offset 位置
+     * @return 書き込んだ次の位置
+     */
+    public int writeTo(byte[] buf, int offset) {
+        Objects.checkFromIndexSize(offset, BYTES, buf.length);
+        LONGS.set(buf, offset, mostSigBits);
+        LONGS.set(buf, offset + 8, leastSigBits);
+        return offset + BYTES;
+    }
+
+    /**
+     * この ULID のビット列 (big-endian) を、バッファの現在位置へ書き込みます。
+     * <p>
+     * バッファのバイト順序にかかわらず big-endian で書き込み、位置を16進める。
+     * 残りが16バイト未満の場合は、何も書き込まずに例外をスローする。
+     *
+     * @param buf バッファ
+     * @return バッファ
+     * @throws BufferOverflowException 残りが16バイト未満の場合
+     */
+    public ByteBuffer writeTo(ByteBuffer buf) {
+        if (buf.remaining() < BYTES) {
+            throw new BufferOverflowException();
+        }
+        if (buf.order() == ByteOrder.LITTLE_ENDIAN) {
+            return buf.putLong(Long.reverseBytes(mostSigBits)).putLong(Long.reverseBytes(leastSigBits));
+        }
+        return buf.putLong(mostSigBits).putLong(leastSigBits);
+    }
+
+    /**
+     * この ULID のビット列 (big-endian) を、バッファの指定された位置へ書き込みます。
+     * <p>
+     * バッファのバイト順序にかかわらず big-endian で書き込む。バッファの位置は変更しない。
+     *
+     * @param buf バッファ
+     * @param index 位置
+     * @return 書き込んだ次の位置
+     * @throws IndexOutOfBoundsException 位置から16バイトがバッファの限界を超える場合 (何も書き込まない)
+     */
+    public int writeTo(ByteBuffer buf, int index) {
+        Objects.checkFromIndexSize(index, BYTES, buf.limit());
+        if (buf.order() == ByteOrder.LITTLE_ENDIAN) {
+            buf.putLong(index, Long.reverseBytes(mostSigBits));
+            buf.putLong(index + 8, Long.reverseBytes(leastSigBits));
+        } else {
+            buf.putLong(index, mostSigBits);
+            buf.putLong(index + 8, leastSigBits);
+        }
+        return index + BYTES;
+    }
+
+    /**
+     * この ULID のビット列 (big-endian) を出力へ書き込みます。
+     *
+     * @param out 出力
+     * @throws IOException 入出力エラー
+     */
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeLong(mostSigBits);
+        out.writeLong(leastSigBits);
+    }
+
+    /**
+     * 指定された ULID のビット列を、バイト列の指定された位置へ順に書き込みます。
+     *
+     * @param ulids ULID の配列
+     * @param buf バイト列
+     * @param offset 位置
+     * @return 書き込んだ次の位置
+     */
+    public static int writeAll(ULID[] ulids, byte[] buf, int offset) {
+        Objects.checkFromIndexSize(offset, Math.multiplyExact(ulids.length, BYTES), buf.length);
+        for (ULID ulid : ulids) {
+            LONGS.set(buf, offset, ulid.mostSigBits);
+            LONGS.set(buf, offset + 8, ulid.leastSigBits);
+            offset += BYTES;
+        }
+        return offset;
+    }
+
+    /**
+     * 指定された ULID のビット列を、バッファの現在位置へ順に書き込みます。
+     *
+     * @param ulids ULID の配列
+     * @param buf バッファ
+     * @return バッファ
+     * @see #writeTo(ByteBuffer)
+     */
+    public static ByteBuffer writeAll(ULID[] ulids, ByteBuffer buf) {
+        if (buf.remaining() < Math.multiplyExact(ulids.length, BYTES)) {
+            throw new BufferOverflowException();
+        }
+        for (ULID ulid : ulids) {
+            ulid.writeTo(buf);
+        }
+        return buf;
+    }
+
     /**
      * この ULID のハッシュ値を返します。
      */
@@ -256,13 +701,29 @@ public final class ULID implements Serializable, Comparable<ULID> {
 
     /**
      * この ULID を他の ULID と比較します。
+     * <p>
+     * ビット列を符号なし整数とみなして比較するため、文字列表現・バイト列の順序と一致する。
      */
     @Override
     public int compareTo(ULID other) {
-        return (this.mostSigBits < other.mostSigBits) ? -1 :
-                (this.mostSigBits > other.mostSigBits) ? 1 :
-                (this.leastSigBits < other.leastSigBits) ? -1 :
-                (this.leastSigBits > other.leastSigBits) ? 1 : 0;
+        return compareUnsigned(mostSigBits, leastSigBits, other.mostSigBits, other.leastSigBits);
+    }
+
+    /**
+     * 2つのビット列を符号なし整数とみなして比較します。
+     * <p>
+     * ULID の文字列表現の順序と一致する。
+     *
+     * @param msb1 1つ目の最上位ビット列
+     * @param lsb1 1つ目の最下位ビット列
+     * @param msb2 2つ目の最上位ビット列
+     * @param lsb2 2つ目の最下位ビット列
+     * @return 1つ目が小さければ負、等しければ0、大きければ正
+     */
+    static int compareUnsigned(long msb1, long lsb1, long msb2, long lsb2) {
+        return (msb1 != msb2)
+                ? Long.compareUnsigned(msb1, msb2)
+                : Long.compareUnsigned(lsb1, lsb2);
     }
 
     /**
@@ -277,97 +738,1370 @@ public final class ULID implements Serializable, Comparable<ULID> {
     }
 
     /**
-     * ULID のジェネレータ。
+     * ULID のランダム部 (エントロピー) の供給元。
      *
      * @author glad2121
      */
-    public static abstract class Generator {
+    public interface EntropySource {
 
         /**
-         * タイムスタンプを取得する {@code Clock}。
+         * ランダムな {@code int} を返します (ランダム部の上位16ビットに下位16ビットを使用する)。
+         *
+         * @return ランダムな {@code int}
          */
-        final Clock clock;
+        int nextInt();
 
         /**
-         * ランダム値を生成する {@code Random} オブジェクト。
+         * ランダムな {@code long} を返します (ランダム部の下位64ビットに使用する)。
+         *
+         * @return ランダムな {@code long}
          */
-        protected final Random random;
+        long nextLong();
 
         /**
-         * システムクロックと {@code SecureRandom} を用いたコンストラクタ。
+         * 指定されたタイムスタンプと、この供給元から取り出したランダム部で ULID を生成します。
+         * <p>
+         * 既定の実装は {@link #nextInt()} と {@link #nextLong()} を順に呼び出す。
+         * 1回の呼び出しでまとめて取り出せる実装は、オーバーライドしてよい。
+         * タイムスタンプは検証しない。
+         *
+         * @param timestamp タイムスタンプ
+         * @return ULID
          */
-        public Generator() {
-            this(Clock.systemUTC(), new SecureRandom());
+        default ULID nextULID(long timestamp) {
+            long mostSigBits = (timestamp << 16) | (nextInt() & RANDOM_HIGH_MASK);
+            long leastSigBits = nextLong();
+            return new ULID(mostSigBits, leastSigBits);
         }
 
         /**
-         * 指定された {@code Clock} と {@code Random} を用いたコンストラクタ。
+         * 指定された {@code Random} をそのまま呼び出す供給元を返します。
+         * <p>
+         * 同じ種の {@code Random} ならば、同じ ULID の列を生成する。
          *
-         * @param clock {@code Clock}
          * @param random {@code Random}
+         * @return エントロピーの供給元
          */
-        public Generator(Clock clock, Random random) {
-            this.clock = clock;
-            this.random = random;
+        static EntropySource of(Random random) {
+            Objects.requireNonNull(random, "random must not be null");
+            return new EntropySource() {
+                @Override
+                public int nextInt() {
+                    return random.nextInt();
+                }
+                @Override
+                public long nextLong() {
+                    return random.nextLong();
+                }
+            };
         }
 
         /**
-         * 次の ULID を生成します。
+         * {@code SecureRandom} で鍵を与えた AES-CTR のキーストリームを使う、推測困難な供給元を返します。
          * <p>
-         * サブクラスでオーバーライドする。
+         * {@code SecureRandom} は大きな単位で取り出してもバイトあたりのコストが高いため、
+         * 鍵の生成にだけ使い、ランダム値は AES-CTR でまとめて生成する。
+         * 複数のストライプに分けてそれぞれ鍵とバッファを持たせ、
+         * スレッドごとに異なるストライプを使うため、多数のスレッドから同時に使用しても競合しにくい。
+         * スレッドに結び付けないため、仮想スレッドなど多数のスレッドから使用しても保持する数は増えない。
+         * ストライプごとに {@code SecureRandom}、{@code Cipher} とバッファを持つため、
+         * 初めて呼び出した時に生成した1つのインスタンスを共有する。
          *
-         * @return ULID
+         * @return エントロピーの供給元
          */
-        public abstract ULID nextULID();
+        static EntropySource secure() {
+            return StripedSecureEntropySource.Shared.INSTANCE;
+        }
 
         /**
-         * タイムスタンプを返します。
+         * {@code ThreadLocalRandom} を使う、高速な供給元を返します。
+         * <p>
+         * 推測困難性は不要で、一意性と速度だけが必要な場合 (テストデータの生成など) に使用する。
          *
-         * @return タイムスタンプ
+         * @return エントロピーの供給元
          */
-        protected long timestamp() {
-            long timestamp = clock.millis();
-            checkTimestamp(timestamp);
-            return timestamp;
+        static EntropySource fast() {
+            return FastEntropySource.INSTANCE;
         }
 
     }
 
     /**
-     * デフォルトの ULID ジェネレータ。
-     *
-     * @author glad2121
+     * {@code ThreadLocalRandom} を使うエントロピーの供給元。
      */
-    public static class DefaultGenerator extends Generator {
+    static final class FastEntropySource implements EntropySource {
 
         /**
-         * このジェネレータのインスタンス。
+         * このクラスのインスタンス。
          */
-        static final DefaultGenerator INSTANCE = new DefaultGenerator();
+        static final FastEntropySource INSTANCE = new FastEntropySource();
 
         /**
-         * システムクロックと {@code SecureRandom} を用いたコンストラクタ。
+         * ランダムな {@code int} を返します。
          */
-        DefaultGenerator() {
+        @Override
+        public int nextInt() {
+            return ThreadLocalRandom.current().nextInt();
         }
 
         /**
-         * 指定された {@code Clock} と {@code Random} を用いたコンストラクタ。
+         * ランダムな {@code long} を返します。
+         */
+        @Override
+        public long nextLong() {
+            return ThreadLocalRandom.current().nextLong();
+        }
+
+    }
+
+    /**
+     * ストライプごとに {@code SecureRandom} で鍵を与えた AES-CTR のバッファを持つエントロピーの供給元。
+     */
+    static final class StripedSecureEntropySource implements EntropySource {
+
+        /**
+         * バッファのバイト数。
+         */
+        static final int BLOCK_SIZE = 4096;
+
+        /**
+         * バイト列から {@code int} を読み取る {@code VarHandle}。
+         */
+        static final VarHandle INTS =
+                MethodHandles.byteArrayViewVarHandle(int[].class, ByteOrder.BIG_ENDIAN);
+
+        /**
+         * バイト列から {@code short} を読み取る {@code VarHandle}。
+         */
+        static final VarHandle SHORTS =
+                MethodHandles.byteArrayViewVarHandle(short[].class, ByteOrder.BIG_ENDIAN);
+
+        /**
+         * ストライプ。
+         */
+        final Stripe[] stripes;
+
+        /**
+         * 共有のインスタンスを、初めて使用する時に生成するためのホルダー。
+         */
+        static final class Shared {
+
+            /**
+             * 共有のインスタンス。
+             */
+            static final StripedSecureEntropySource INSTANCE = new StripedSecureEntropySource(
+                    Runtime.getRuntime().availableProcessors() * 2, BLOCK_SIZE);
+
+        }
+
+        /**
+         * コンストラクタ。
          *
-         * @param clock {@code Clock}
-         * @param random {@code Random}
+         * @param count ストライプ数 (2のべき乗に切り上げる)
+         * @param blockSize バッファのバイト数 (8の倍数)
          */
-        public DefaultGenerator(Clock clock, Random random) {
-            super(clock, random);
+        StripedSecureEntropySource(int count, int blockSize) {
+            int n = Integer.highestOneBit(Math.max(1, count - 1) << 1);
+            this.stripes = new Stripe[n];
+            for (int i = 0; i < n; ++i) {
+                stripes[i] = new Stripe(new SecureRandom(), blockSize);
+            }
         }
 
         /**
-         * 次の ULID を生成します。
+         * 現在のスレッドが使うストライプを返します。
+         *
+         * @return ストライプ
+         */
+        Stripe stripe() {
+            long id = Thread.currentThread().getId();
+            int hash = (int) (id * 0x9E37_79B9_7F4A_7C15L >>> 32);
+            return stripes[hash & (stripes.length - 1)];
+        }
+
+        /**
+         * ランダムな {@code int} を返します。
          */
         @Override
-        public ULID nextULID() {
-            long mostSigBits = (timestamp() << 16) | (random.nextInt() & 0xFFFF);
-            long leastSigBits = random.nextLong();
+        public int nextInt() {
+            Stripe stripe = stripe();
+            synchronized (stripe) {
+                return (int) INTS.get(stripe.buffer, stripe.take(Integer.BYTES));
+            }
+        }
+
+        /**
+         * ランダムな {@code long} を返します。
+         */
+        @Override
+        public long nextLong() {
+            Stripe stripe = stripe();
+            synchronized (stripe) {
+                return (long) LONGS.get(stripe.buffer, stripe.take(Long.BYTES));
+            }
+        }
+
+        /**
+         * ランダム部の80ビットを1回のロックでまとめて取り出し、ULID を生成します。
+         */
+        @Override
+        public ULID nextULID(long timestamp) {
+            Stripe stripe = stripe();
+            long randomHigh;
+            long leastSigBits;
+            synchronized (stripe) {
+                int offset = stripe.take(Short.BYTES + Long.BYTES);
+                randomHigh = (short) SHORTS.get(stripe.buffer, offset) & RANDOM_HIGH_MASK;
+                leastSigBits = (long) LONGS.get(stripe.buffer, offset + Short.BYTES);
+            }
+            return new ULID((timestamp << 16) | randomHigh, leastSigBits);
+        }
+
+        /**
+         * {@code SecureRandom} で鍵を与えた AES-CTR のキーストリームのバッファ。
+         * <p>
+         * 補充ごとに、キーストリームの先頭を次の鍵とし、残りを出力する (高速な鍵の消去)。
+         * このため、内部状態が漏れても過去の出力は復元できない。
+         * さらに一定量を出力するごとに、{@code SecureRandom} から鍵を取り直す。
+         */
+        static final class Stripe {
+
+            /**
+             * 鍵のバイト数 (AES-128)。
+             */
+            static final int KEY_SIZE = 16;
+
+            /**
+             * {@code SecureRandom} から鍵を取り直すまでの補充回数。
+             */
+            static final int RESEED_INTERVAL = 256;
+
+            /**
+             * 全ゼロの初期カウンタ (鍵は補充ごとに変わるため固定でよい)。
+             */
+            static final IvParameterSpec ZERO_IV = new IvParameterSpec(new byte[KEY_SIZE]);
+
+            /**
+             * 鍵を生成する {@code SecureRandom}。
+             */
+            final SecureRandom random;
+
+            /**
+             * キーストリームを生成する暗号。
+             */
+            final Cipher cipher;
+
+            /**
+             * 暗号化する全ゼロのバイト列。
+             */
+            final byte[] zeros;
+
+            /**
+             * キーストリームのバッファ (先頭 {@link #KEY_SIZE} バイトは次の鍵)。
+             */
+            final byte[] buffer;
+
+            /**
+             * バッファの次に読み取る位置。
+             */
+            int position;
+
+            /**
+             * 鍵を取り直してからの補充回数。
+             */
+            int refills;
+
+            /**
+             * コンストラクタ。
+             *
+             * @param random {@code SecureRandom}
+             * @param blockSize バッファのバイト数
+             */
+            Stripe(SecureRandom random, int blockSize) {
+                this.random = random;
+                try {
+                    this.cipher = Cipher.getInstance("AES/CTR/NoPadding");
+                } catch (GeneralSecurityException e) {
+                    throw new IllegalStateException(e);
+                }
+                this.zeros = new byte[KEY_SIZE + blockSize];
+                this.buffer = new byte[KEY_SIZE + blockSize];
+                this.refills = RESEED_INTERVAL;
+                this.position = buffer.length;
+            }
+
+            /**
+             * 指定されたバイト数を取り出し、その位置を返します。
+             * <p>
+             * 残りが足りなければ、バッファ全体を補充する。
+             *
+             * @param bytes バイト数
+             * @return 取り出したバイト列のバッファ内の位置
+             */
+            int take(int bytes) {
+                if (position + bytes > buffer.length) {
+                    refill();
+                    position = KEY_SIZE;
+                }
+                int offset = position;
+                position += bytes;
+                return offset;
+            }
+
+            /**
+             * 前回のキーストリームの先頭 (または {@code SecureRandom}) を鍵として、バッファを補充します。
+             */
+            void refill() {
+                if (refills++ >= RESEED_INTERVAL) {
+                    random.nextBytes(buffer);
+                    refills = 1;
+                }
+                try {
+                    cipher.init(Cipher.ENCRYPT_MODE,
+                            new SecretKeySpec(buffer, 0, KEY_SIZE, "AES"), ZERO_IV);
+                    cipher.doFinal(zeros, 0, zeros.length, buffer, 0);
+                } catch (GeneralSecurityException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+
+        }
+
+    }
+
+    /**
+     * ULID のジェネレータ。
+     *
+     * @author glad2121
+     */
+    public static abstract class Generator {
+
+        /**
+         * タイムスタンプを取得する {@code Clock}。
+         */
+        final Clock clock;
+
+        /**
+         * ランダム値を生成する {@code Random} オブジェクト。
+         * <p>
+         * {@code Random} を指定して生成した場合はその {@code Random}、それ以外の場合は
+         * 全ジェネレータで共有する {@code SecureRandom} (初めて必要になった時に生成する)。
+         * ULID の生成には使用しない。
+         *
+         * @deprecated ランダム部は {@link #entropy} から取得するため、{@link #entropy} を使用すること。
+         */
+        @Deprecated
+        protected final Random random;
+
+        /**
+         * ランダム部の供給元。
+         */
+        protected final EntropySource entropy;
+
+        /**
+         * システムクロックと、共有の推測困難な供給元 ({@link EntropySource#secure()}) を用いたコンストラクタ。
+         */
+        public Generator() {
+            this(Clock.systemUTC(), SharedSecureRandom.INSTANCE, EntropySource.secure());
+        }
+
+        /**
+         * 指定された {@code Clock} と {@code Random} を用いたコンストラクタ。
+         *
+         * @param clock {@code Clock}
+         * @param random {@code Random}
+         */
+        public Generator(Clock clock, Random random) {
+            this(clock, random, EntropySource.of(random));
+        }
+
+        /**
+         * 指定された {@code Clock} とエントロピーの供給元を用いたコンストラクタ。
+         *
+         * @param clock {@code Clock}
+         * @param entropy エントロピーの供給元
+         */
+        public Generator(Clock clock, EntropySource entropy) {
+            this(clock, SharedSecureRandom.INSTANCE, entropy);
+        }
+
+        /**
+         * コンストラクタ。
+         *
+         * @param clock {@code Clock}
+         * @param random {@code Random}
+         * @param entropy エントロピーの供給元
+         */
+        private Generator(Clock clock, Random random, EntropySource entropy) {
+            this.clock = Objects.requireNonNull(clock, "clock must not be null");
+            this.random = random;
+            this.entropy = Objects.requireNonNull(entropy, "entropy must not be null");
+        }
+
+        /**
+         * {@link #random} に設定する共有の {@code SecureRandom} を、初めて使用する時に生成するためのホルダー。
+         */
+        static final class SharedSecureRandom {
+
+            /**
+             * 共有のインスタンス。
+             */
+            static final SecureRandom INSTANCE = new SecureRandom();
+
+        }
+
+        /**
+         * 次の ULID を生成します。
+         * <p>
+         * サブクラスでオーバーライドする。
+         *
+         * @return ULID
+         */
+        public abstract ULID nextULID();
+
+        /**
+         * 指定された個数の ULID を生成し、ビット列を配列に格納します。
+         * <p>
+         * 時計の読み取りとランダム値の取得は先頭の1件だけで行い、
+         * 以降はランダム部に1ずつ加えるため、生成順にソートされる。
+         * バッチの途中でランダム部があふれる場合の扱いは {@link #firstOfBatch(int)} による。
+         * この基底クラスでは、その時点のタイムスタンプのままランダム値を取り直し、
+         * {@link MonotonicGenerator} では時計が次のミリ秒に進むまで待つ。
+         *
+         * @param n 個数
+         * @param msb 最上位ビット列を格納する配列
+         * @param lsb 最下位ビット列を格納する配列
+         */
+        public void nextBatch(int n, long[] msb, long[] lsb) {
+            Objects.requireNonNull(msb, "msb must not be null");
+            Objects.requireNonNull(lsb, "lsb must not be null");
+            if (n < 0 || msb.length < n || lsb.length < n) {
+                throw new IllegalArgumentException("Illegal batch size: " + n);
+            }
+            if (n == 0) {
+                return;
+            }
+            ULID first = firstOfBatch(n);
+            long mostSigBits = first.mostSigBits;
+            long leastSigBits = first.leastSigBits;
+            for (int i = 0; i < n; ++i) {
+                msb[i] = mostSigBits;
+                lsb[i] = leastSigBits;
+                if (++leastSigBits == 0) {
+                    ++mostSigBits;
+                }
+            }
+        }
+
+        /**
+         * 指定された個数の ULID を生成し、配列のビュー ({@link ULIDArray}) として返します。
+         * <p>
+         * {@code ULID} オブジェクトは生成せず、ビット列の配列だけを保持する。
+         *
+         * @param n 個数
+         * @return ULID の配列のビュー
+         * @see #nextBatch(int, long[], long[])
+         */
+        public ULIDArray nextBatch(int n) {
+            if (n < 0) {
+                throw new IllegalArgumentException("Illegal batch size: " + n);
+            }
+            long[] msb = new long[n];
+            long[] lsb = new long[n];
+            nextBatch(n, msb, lsb);
+            return new ULIDArray(msb, lsb);
+        }
+
+        /**
+         * 指定された個数のバッチの先頭の ULID を返します。
+         * <p>
+         * ランダム部に {@code n - 1} を加えてもあふれない ULID を返す。
+         * あふれる場合は、待たずにその時点のタイムスタンプでランダム値を取り直す
+         * (前回の ULID との順序は保証しない)。
+         * 前回の ULID を保持するサブクラスは、バッチの末尾を前回の ULID として記録するように
+         * オーバーライドする。
+         *
+         * @param n 個数 (1以上)
+         * @return 先頭の ULID
+         */
+        protected ULID firstOfBatch(int n) {
+            ULID first = nextULID();
+            while (!fits(first, n)) {
+                first = entropy.nextULID(timestamp());
+            }
+            return first;
+        }
+
+        /**
+         * 指定された ULID のランダム部に {@code n - 1} を加えても、あふれないか判定します。
+         *
+         * @param first 先頭の ULID
+         * @param n 個数 (1以上)
+         * @return あふれなければ {@code true}
+         */
+        static boolean fits(ULID first, int n) {
+            long leastSigBits = first.leastSigBits + (n - 1);
+            int carry = (Long.compareUnsigned(leastSigBits, first.leastSigBits) < 0) ? 1 : 0;
+            return (first.mostSigBits & RANDOM_HIGH_MASK) + carry <= RANDOM_HIGH_MASK;
+        }
+
+        /**
+         * 指定された ULID に、128ビットの符号なし整数として値を加えた ULID を返します。
+         *
+         * @param ulid ULID
+         * @param n 加える値 (0以上)
+         * @return ULID
+         */
+        static ULID plus(ULID ulid, long n) {
+            long leastSigBits = ulid.leastSigBits + n;
+            int carry = (Long.compareUnsigned(leastSigBits, ulid.leastSigBits) < 0) ? 1 : 0;
+            return new ULID(ulid.mostSigBits + carry, leastSigBits);
+        }
+
+        /**
+         * タイムスタンプを返します。
+         *
+         * @return タイムスタンプ
+         */
+        protected long timestamp() {
+            long timestamp = clock.millis();
+            checkTimestamp(timestamp);
+            return timestamp;
+        }
+
+    }
+
+    /**
+     * デフォルトの ULID ジェネレータ。
+     *
+     * @author glad2121
+     */
+    public static class DefaultGenerator extends Generator {
+
+        /**
+         * このジェネレータのインスタンス。
+         */
+        static final DefaultGenerator INSTANCE = new DefaultGenerator();
+
+        /**
+         * システムクロックと、共有の推測困難な供給元 ({@link EntropySource#secure()}) を用いたコンストラクタ。
+         */
+        DefaultGenerator() {
+        }
+
+        /**
+         * 指定された {@code Clock} と {@code Random} を用いたコンストラクタ。
+         *
+         * @param clock {@code Clock}
+         * @param random {@code Random}
+         */
+        public DefaultGenerator(Clock clock, Random random) {
+            super(clock, random);
+        }
+
+        /**
+         * 指定された {@code Clock} とエントロピーの供給元を用いたコンストラクタ。
+         *
+         * @param clock {@code Clock}
+         * @param entropy エントロピーの供給元
+         */
+        public DefaultGenerator(Clock clock, EntropySource entropy) {
+            super(clock, entropy);
+        }
+
+        /**
+         * 次の ULID を生成します。
+         */
+        @Override
+        public ULID nextULID() {
+            return entropy.nextULID(timestamp());
+        }
+
+    }
+
+    /**
+     * 単調増加する ULID ジェネレータ。
+     * <p>
+     * 前回と同じミリ秒 (または時計が戻った場合) は、前回のランダム部 (80ビット) に1を加えるため、
+     * 同じミリ秒内でも生成順にソートされる (最下位ビット列の符号ビットへの繰り上がりを含め、
+     * {@link ULID#compareTo(ULID)} と文字列表現の順序は一致する)。
+     * ランダム部があふれた場合は、時計が次のミリ秒に進むまで待つ。
+     * 前回の ULID を {@code AtomicReference} で保持し、{@code synchronized} を使わずに
+     * CAS で更新するため、複数のスレッドから同時に使用できる。
+     *
+     * @author glad2121
+     */
+    public static class MonotonicGenerator extends Generator {
+
+        /**
+         * 前回生成した ULID。
+         */
+        final AtomicReference<ULID> last = new AtomicReference<>(new ULID(0L, 0L));
+
+        /**
+         * システムクロックと、共有の推測困難な供給元 ({@link EntropySource#secure()}) を用いたコンストラクタ。
+         */
+        public MonotonicGenerator() {
+        }
+
+        /**
+         * 指定された {@code Clock} と {@code Random} を用いたコンストラクタ。
+         *
+         * @param clock {@code Clock}
+         * @param random {@code Random}
+         */
+        public MonotonicGenerator(Clock clock, Random random) {
+            super(clock, random);
+        }
+
+        /**
+         * 指定された {@code Clock} とエントロピーの供給元を用いたコンストラクタ。
+         *
+         * @param clock {@code Clock}
+         * @param entropy エントロピーの供給元
+         */
+        public MonotonicGenerator(Clock clock, EntropySource entropy) {
+            super(clock, entropy);
+        }
+
+        /**
+         * 次の ULID を生成します。
+         */
+        @Override
+        public ULID nextULID() {
+            while (true) {
+                ULID prev = last.get();
+                long timestamp = timestamp();
+                ULID next = next(prev, timestamp);
+                if (last.compareAndSet(prev, next)) {
+                    issued(prev, timestamp);
+                    return next;
+                }
+            }
+        }
+
+        /**
+         * バッチの先頭の ULID を返し、バッチの末尾を前回の ULID として記録します。
+         */
+        @Override
+        protected ULID firstOfBatch(int n) {
+            while (true) {
+                ULID prev = last.get();
+                long timestamp = timestamp();
+                ULID first = next(prev, timestamp);
+                while (!fits(first, n)) {
+                    // バッチの途中でランダム部があふれるので、次のミリ秒まで待つ。
+                    first = next(new ULID(first.mostSigBits | RANDOM_HIGH_MASK, -1L),
+                            first.timestamp());
+                }
+                if (last.compareAndSet(prev, plus(first, n - 1))) {
+                    issued(prev, timestamp);
+                    return first;
+                }
+            }
+        }
+
+        /**
+         * 前回の ULID とタイムスタンプから、次の ULID を返します。
+         *
+         * @param prev 前回の ULID
+         * @param timestamp タイムスタンプ
+         * @return 次の ULID
+         */
+        ULID next(ULID prev, long timestamp) {
+            long prevTimestamp = prev.timestamp();
+            if (timestamp <= prevTimestamp) {
+                long mostSigBits = prev.mostSigBits;
+                long leastSigBits = prev.leastSigBits + 1;
+                if (leastSigBits != 0) {
+                    return new ULID(mostSigBits, leastSigBits);
+                }
+                if ((mostSigBits & RANDOM_HIGH_MASK) != RANDOM_HIGH_MASK) {
+                    return new ULID(mostSigBits + 1, leastSigBits);
+                }
+                timestamp = nextMillis(prevTimestamp);
+            }
+            return entropy.nextULID(timestamp);
+        }
+
+        /**
+         * ランダム部があふれた場合に、前回より後のタイムスタンプを返します。
+         * <p>
+         * 時計が次のミリ秒に進むまで待つ。
+         *
+         * @param prevTimestamp 前回のタイムスタンプ
+         * @return 次のタイムスタンプ
+         */
+        long nextMillis(long prevTimestamp) {
+            long timestamp;
+            do {
+                Thread.onSpinWait();
+                timestamp = timestamp();
+            } while (timestamp <= prevTimestamp);
+            return timestamp;
+        }
+
+        /**
+         * ULID を生成し、前回の ULID として記録した後に呼び出されます。
+         * <p>
+         * CAS が失敗して再試行した分は含まない。
+         *
+         * @param prev 前回の ULID
+         * @param timestamp 生成時に読み取ったタイムスタンプ
+         */
+        void issued(ULID prev, long timestamp) {
+        }
+
+    }
+
+    /**
+     * 時計が戻った場合の扱い。
+     *
+     * @author glad2121
+     * @see DriftTolerantGenerator
+     */
+    public enum ClockDriftPolicy {
+
+        /**
+         * 時計が前回のタイムスタンプに追いつくまで待ちます。
+         */
+        BLOCK,
+
+        /**
+         * 前回のタイムスタンプのまま生成を続け、ランダム部があふれたら次のミリ秒を先取りします。
+         */
+        BORROW,
+
+        /**
+         * {@code IllegalStateException} をスローします。
+         */
+        FAIL
+
+    }
+
+    /**
+     * ULID ジェネレータの計測値の通知先。
+     * <p>
+     * 生成のたびに呼び出されるため、実装はロックを使わずに短時間で終わる必要がある。
+     *
+     * @author glad2121
+     * @see GeneratorCounters
+     */
+    public interface GeneratorMetrics {
+
+        /**
+         * 時計が前回のタイムスタンプより戻っていたことを通知します。
+         *
+         * @param millis 戻った時間 (ミリ秒)
+         */
+        void clockRegressed(long millis);
+
+        /**
+         * 前回と同じミリ秒に生成したことを通知します。
+         */
+        void sameMillisecond();
+
+        /**
+         * 時計が進むのを待ったことを通知します。
+         *
+         * @param nanos 待った時間 (ナノ秒)
+         */
+        void spun(long nanos);
+
+    }
+
+    /**
+     * {@code LongAdder} で集計する、ULID ジェネレータの計測値。
+     * <p>
+     * 複数のスレッドから同時に更新しても競合しにくい。
+     * 値は監視のために定期的に読み取ることを想定しており、読み取りは更新と同期しない。
+     *
+     * @author glad2121
+     */
+    public static class GeneratorCounters implements GeneratorMetrics {
+
+        /**
+         * 時計が戻った回数。
+         */
+        final LongAdder regressions = new LongAdder();
+
+        /**
+         * 時計が戻った時間の最大値 (ミリ秒)。
+         */
+        final LongAccumulator maxRegressionMillis = new LongAccumulator(Math::max, 0L);
+
+        /**
+         * 前回と同じミリ秒に生成した回数。
+         */
+        final LongAdder sameMillisecond = new LongAdder();
+
+        /**
+         * 時計が進むのを待った時間の合計 (ナノ秒)。
+         */
+        final LongAdder spinNanos = new LongAdder();
+
+        /**
+         * 時計が前回のタイムスタンプより戻っていたことを通知します。
+         */
+        @Override
+        public void clockRegressed(long millis) {
+            regressions.increment();
+            maxRegressionMillis.accumulate(millis);
+        }
+
+        /**
+         * 前回と同じミリ秒に生成したことを通知します。
+         */
+        @Override
+        public void sameMillisecond() {
+            sameMillisecond.increment();
+        }
+
+        /**
+         * 時計が進むのを待ったことを通知します。
+         */
+        @Override
+        public void spun(long nanos) {
+            spinNanos.add(nanos);
+        }
+
+        /**
+         * 時計が戻った回数を返します。
+         *
+         * @return 回数
+         */
+        public long getRegressions() {
+            return regressions.sum();
+        }
+
+        /**
+         * 時計が戻った時間の最大値を返します。
+         *
+         * @return 時間 (ミリ秒)
+         */
+        public long getMaxRegressionMillis() {
+            return maxRegressionMillis.get();
+        }
+
+        /**
+         * 前回と同じミリ秒に生成した回数を返します。
+         *
+         * @return 回数
+         */
+        public long getSameMillisecond() {
+            return sameMillisecond.sum();
+        }
+
+        /**
+         * 時計が進むのを待った時間の合計を返します。
+         *
+         * @return 時間 (ナノ秒)
+         */
+        public long getSpinNanos() {
+            return spinNanos.sum();
+        }
+
+        /**
+         * すべての計測値を 0 に戻します。
+         */
+        public void reset() {
+            regressions.reset();
+            maxRegressionMillis.reset();
+            sameMillisecond.reset();
+            spinNanos.reset();
+        }
+
+        /**
+         * 計測値の文字列表現を返します。
+         */
+        @Override
+        public String toString() {
+            return "GeneratorCounters[regressions=" + getRegressions()
+                    + ", maxRegressionMillis=" + getMaxRegressionMillis()
+                    + ", sameMillisecond=" + getSameMillisecond()
+                    + ", spinNanos=" + getSpinNanos() + "]";
+        }
+
+    }
+
+    /**
+     * 時計の戻りを許容する、単調増加する ULID ジェネレータ。
+     * <p>
+     * NTP などで時計が戻っても、前回より前にソートされる ULID は生成しない。
+     * 許容範囲以内の戻りは、{@link MonotonicGenerator} と同様に前回のタイムスタンプのまま
+     * ランダム部に1を加える。許容範囲を超える戻りは、{@link ClockDriftPolicy} に従って、
+     * 時計が追いつくまで待つか、前回のタイムスタンプのまま生成を続けるか、例外をスローする。
+     * <p>
+     * 時計の戻り、同じミリ秒での生成、時計が進むのを待った時間を {@link GeneratorMetrics} に通知する。
+     * 時計の戻りと同じミリ秒での生成は、CAS が成功した生成だけを数える。
+     *
+     * @author glad2121
+     */
+    public static class DriftTolerantGenerator extends MonotonicGenerator {
+
+        /**
+         * 時計が戻った場合の扱い。
+         */
+        final ClockDriftPolicy policy;
+
+        /**
+         * 許容する時計の戻り (ミリ秒)。
+         */
+        final long toleranceMillis;
+
+        /**
+         * 計測値の通知先。
+         */
+        final GeneratorMetrics metrics;
+
+        /**
+         * システムクロックと、共有の推測困難な供給元 ({@link EntropySource#secure()}) を用いたコンストラクタ。
+         *
+         * @param policy 許容範囲を超えて時計が戻った場合の扱い
+         * @param toleranceMillis 許容する時計の戻り (ミリ秒)
+         * @param metrics 計測値の通知先
+         */
+        public DriftTolerantGenerator(
+                ClockDriftPolicy policy, long toleranceMillis, GeneratorMetrics metrics) {
+            this.policy = Objects.requireNonNull(policy, "policy must not be null");
+            this.toleranceMillis = checkTolerance(toleranceMillis);
+            this.metrics = Objects.requireNonNull(metrics, "metrics must not be null");
+        }
+
+        /**
+         * 指定された {@code Clock} とエントロピーの供給元を用いたコンストラクタ。
+         *
+         * @param clock {@code Clock}
+         * @param entropy エントロピーの供給元
+         * @param policy 許容範囲を超えて時計が戻った場合の扱い
+         * @param toleranceMillis 許容する時計の戻り (ミリ秒)
+         * @param metrics 計測値の通知先
+         */
+        public DriftTolerantGenerator(Clock clock, EntropySource entropy,
+                ClockDriftPolicy policy, long toleranceMillis, GeneratorMetrics metrics) {
+            super(clock, entropy);
+            this.policy = Objects.requireNonNull(policy, "policy must not be null");
+            this.toleranceMillis = checkTolerance(toleranceMillis);
+            this.metrics = Objects.requireNonNull(metrics, "metrics must not be null");
+        }
+
+        /**
+         * 許容する時計の戻りをチェックします。
+         *
+         * @param toleranceMillis 許容する時計の戻り (ミリ秒)
+         * @return 許容する時計の戻り
+         */
+        static long checkTolerance(long toleranceMillis) {
+            if (toleranceMillis < 0L) {
+                throw new IllegalArgumentException("toleranceMillis must not be negative: " + toleranceMillis);
+            }
+            return toleranceMillis;
+        }
+
+        /**
+         * 時計が戻った場合の扱いを返します。
+         *
+         * @return 時計が戻った場合の扱い
+         */
+        public ClockDriftPolicy getPolicy() {
+            return policy;
+        }
+
+        /**
+         * 許容する時計の戻りを返します。
+         *
+         * @return 許容する時計の戻り (ミリ秒)
+         */
+        public long getToleranceMillis() {
+            return toleranceMillis;
+        }
+
+        /**
+         * 計測値の通知先を返します。
+         *
+         * @return 計測値の通知先
+         */
+        public GeneratorMetrics getMetrics() {
+            return metrics;
+        }
+
+        /**
+         * 前回の ULID とタイムスタンプから、次の ULID を返します。
+         */
+        @Override
+        ULID next(ULID prev, long timestamp) {
+            long prevTimestamp = prev.timestamp();
+            long regression = prevTimestamp - timestamp;
+            if (regression > toleranceMillis) {
+                switch (policy) {
+                case BLOCK:
+                    timestamp = await(prevTimestamp);
+                    break;
+                case FAIL:
+                    metrics.clockRegressed(regression);
+                    throw new IllegalStateException(
+                            "clock moved backwards by " + regression + " ms (tolerance " + toleranceMillis + " ms)");
+                default:
+                    break;
+                }
+            }
+            return super.next(prev, timestamp);
+        }
+
+        /**
+         * ランダム部があふれた場合に、前回より後のタイムスタンプを返します。
+         * <p>
+         * {@link ClockDriftPolicy#BORROW} ならば待たずに次のミリ秒を先取りし、
+         * それ以外は時計が次のミリ秒に進むまで待つ。
+         */
+        @Override
+        long nextMillis(long prevTimestamp) {
+            if (policy == ClockDriftPolicy.BORROW) {
+                long timestamp = prevTimestamp + 1;
+                checkTimestamp(timestamp);
+                return timestamp;
+            }
+            return await(prevTimestamp + 1);
+        }
+
+        /**
+         * 時計が指定されたタイムスタンプに追いつくまで待ちます。
+         * <p>
+         * 残りが1ミリ秒を超える間は短時間ずつスレッドを停止し、それ以降はスピンする。
+         *
+         * @param target 待つタイムスタンプ
+         * @return 追いついた時点のタイムスタンプ
+         */
+        long await(long target) {
+            long start = System.nanoTime();
+            long timestamp;
+            while ((timestamp = timestamp()) < target) {
+                long remaining = target - timestamp;
+                if (remaining > 1L) {
+                    LockSupport.parkNanos(Math.min(remaining - 1L, 10L) * 1_000_000L);
+                } else {
+                    Thread.onSpinWait();
+                }
+            }
+            metrics.spun(System.nanoTime() - start);
+            return timestamp;
+        }
+
+        /**
+         * 時計の戻りと同じミリ秒での生成を通知します。
+         */
+        @Override
+        void issued(ULID prev, long timestamp) {
+            long prevTimestamp = prev.timestamp();
+            if (timestamp < prevTimestamp) {
+                metrics.clockRegressed(prevTimestamp - timestamp);
+            } else if (timestamp == prevTimestamp) {
+                metrics.sameMillisecond();
+            }
+        }
+
+    }
+
+    /**
+     * ノード (シャード) ID と、ノードごとの連番をランダム部に埋め込む ULID ジェネレータ。
+     * <p>
+     * ランダム部 (80ビット) の上位から、ノード ID、連番、残りのランダムビットの順に並べる。
+     * 同じミリ秒内は連番に1を加え、新しいミリ秒では連番を 0 に戻す。
+     * タイムスタンプ・ノード ID・連番の組は重複しないため、ノード ID が重複しなければ
+     * クラスタ全体で ULID が衝突しない。また、ノード内では生成順にソートされる。
+     * 連番があふれた場合は、時計が次のミリ秒に進むまで待つ。
+     * 時計が戻った場合は、{@link MonotonicGenerator} と同様に前回のタイムスタンプのまま連番を進める。
+     * <p>
+     * ノード ID は {@link #shardOf(ULID, int)} でビット演算だけで取り出せる。
+     * ノード ID のビット数が16以下ならば、最上位ビット列のシフトとマスクになる。
+     *
+     * @author glad2121
+     */
+    public static class ShardedGenerator extends MonotonicGenerator {
+
+        /**
+         * ノード ID の最大ビット数。
+         * <p>
+         * ノード ID を負でない {@code int} で扱うため、31ビットまでとする。
+         */
+        public static final int MAX_NODE_BITS = 31;
+
+        /**
+         * 連番の最大ビット数。
+         */
+        public static final int MAX_SEQUENCE_BITS = 32;
+
+        /**
+         * ランダム部のビット数。
+         */
+        static final int RANDOM_BITS = 80;
+
+        /**
+         * ノード ID。
+         */
+        final int nodeId;
+
+        /**
+         * ノード ID のビット数。
+         */
+        final int nodeBits;
+
+        /**
+         * 連番のビット数。
+         */
+        final int sequenceBits;
+
+        /**
+         * 連番の最下位ビットの位置 (ビット列全体の最下位ビットから数える)。
+         */
+        final int sequenceShift;
+
+        /**
+         * 連番の最大値。
+         */
+        final long maxSequence;
+
+        /**
+         * ノード ID と連番の領域の、最上位ビット列のマスク。
+         */
+        final long fieldsMsbMask;
+
+        /**
+         * ノード ID と連番の領域の、最下位ビット列のマスク。
+         */
+        final long fieldsLsbMask;
+
+        /**
+         * ノード ID を埋め込んだ最上位ビット列の部分。
+         */
+        final long nodeMsb;
+
+        /**
+         * ノード ID を埋め込んだ最下位ビット列の部分。
+         */
+        final long nodeLsb;
+
+        /**
+         * システムクロックと、共有の推測困難な供給元 ({@link EntropySource#secure()}) を用いたコンストラクタ。
+         *
+         * @param nodeId ノード ID
+         * @param nodeBits ノード ID のビット数 (1以上、{@value #MAX_NODE_BITS}以下)
+         * @param sequenceBits 連番のビット数 (1以上、{@value #MAX_SEQUENCE_BITS}以下)
+         */
+        public ShardedGenerator(int nodeId, int nodeBits, int sequenceBits) {
+            this(Clock.systemUTC(), EntropySource.secure(), nodeId, nodeBits, sequenceBits);
+        }
+
+        /**
+         * 指定された {@code Clock} とエントロピーの供給元を用いたコンストラクタ。
+         *
+         * @param clock {@code Clock}
+         * @param entropy エントロピーの供給元
+         * @param nodeId ノード ID
+         * @param nodeBits ノード ID のビット数 (1以上、{@value #MAX_NODE_BITS}以下)
+         * @param sequenceBits 連番のビット数 (1以上、{@value #MAX_SEQUENCE_BITS}以下)
+         */
+        public ShardedGenerator(Clock clock, EntropySource entropy, int nodeId, int nodeBits, int sequenceBits) {
+            super(clock, entropy);
+            checkNodeBits(nodeBits);
+            if (sequenceBits < 1 || sequenceBits > MAX_SEQUENCE_BITS) {
+                throw new IllegalArgumentException("sequenceBits must be between 1 and "
+                        + MAX_SEQUENCE_BITS + ": " + sequenceBits);
+            }
+            if (nodeId < 0 || Integer.toUnsignedLong(nodeId) > mask(nodeBits)) {
+                throw new IllegalArgumentException("nodeId does not fit in " + nodeBits + " bits: " + nodeId);
+            }
+            this.nodeId = nodeId;
+            this.nodeBits = nodeBits;
+            this.sequenceBits = sequenceBits;
+            this.sequenceShift = RANDOM_BITS - nodeBits - sequenceBits;
+            this.maxSequence = mask(sequenceBits);
+            long fieldsMask = mask(nodeBits + sequenceBits);
+            this.fieldsMsbMask = highBits(fieldsMask, sequenceShift);
+            this.fieldsLsbMask = lowBits(fieldsMask, sequenceShift);
+            this.nodeMsb = highBits(nodeId, RANDOM_BITS - nodeBits);
+            this.nodeLsb = lowBits(nodeId, RANDOM_BITS - nodeBits);
+        }
+
+        /**
+         * ノード ID のビット数をチェックします。
+         *
+         * @param nodeBits ノード ID のビット数
+         */
+        static void checkNodeBits(int nodeBits) {
+            if (nodeBits < 1 || nodeBits > MAX_NODE_BITS) {
+                throw new IllegalArgumentException("nodeBits must be between 1 and "
+                        + MAX_NODE_BITS + ": " + nodeBits);
+            }
+        }
+
+        /**
+         * 下位から指定されたビット数がすべて1の値を返します。
+         *
+         * @param bits ビット数 (64以下)
+         * @return マスク
+         */
+        static long mask(int bits) {
+            return (bits == Long.SIZE) ? -1L : (1L << bits) - 1;
+        }
+
+        /**
+         * 値を128ビットのビット列の指定された位置に置いた場合の、最上位ビット列の部分を返します。
+         *
+         * @param value 値
+         * @param shift 値の最下位ビットの位置
+         * @return 最上位ビット列の部分
+         */
+        static long highBits(long value, int shift) {
+            if (shift >= Long.SIZE) {
+                return value << (shift - Long.SIZE);
+            }
+            return (shift == 0) ? 0L : value >>> (Long.SIZE - shift);
+        }
+
+        /**
+         * 値を128ビットのビット列の指定された位置に置いた場合の、最下位ビット列の部分を返します。
+         *
+         * @param value 値
+         * @param shift 値の最下位ビットの位置
+         * @return 最下位ビット列の部分
+         */
+        static long lowBits(long value, int shift) {
+            return (shift >= Long.SIZE) ? 0L : value << shift;
+        }
+
+        /**
+         * 128ビットのビット列の指定された位置から値を取り出します。
+         *
+         * @param mostSigBits 最上位ビット列
+         * @param leastSigBits 最下位ビット列
+         * @param shift 値の最下位ビットの位置
+         * @param bits 値のビット数
+         * @return 値
+         */
+        static long bits(long mostSigBits, long leastSigBits, int shift, int bits) {
+            long value;
+            if (shift >= Long.SIZE) {
+                value = mostSigBits >>> (shift - Long.SIZE);
+            } else {
+                value = leastSigBits >>> shift;
+                if (shift != 0) {
+                    value |= mostSigBits << (Long.SIZE - shift);
+                }
+            }
+            return value & mask(bits);
+        }
+
+        /**
+         * 指定された ULID に埋め込まれたノード ID を返します。
+         * <p>
+         * ルーティングのために、データベースを参照せずにシャードを求める場合に使用する。
+         *
+         * @param ulid ULID
+         * @param nodeBits ノード ID のビット数 (1以上、{@value #MAX_NODE_BITS}以下)
+         * @return ノード ID
+         */
+        public static int shardOf(ULID ulid, int nodeBits) {
+            checkNodeBits(nodeBits);
+            return (int) bits(ulid.mostSigBits, ulid.leastSigBits, RANDOM_BITS - nodeBits, nodeBits);
+        }
+
+        /**
+         * このジェネレータの設定で、指定された ULID に埋め込まれたノード ID を返します。
+         *
+         * @param ulid ULID
+         * @return ノード ID
+         */
+        public int shardOf(ULID ulid) {
+            return (int) bits(ulid.mostSigBits, ulid.leastSigBits, RANDOM_BITS - nodeBits, nodeBits);
+        }
+
+        /**
+         * このジェネレータの設定で、指定された ULID に埋め込まれた連番を返します。
+         *
+         * @param ulid ULID
+         * @return 連番
+         */
+        public long sequenceOf(ULID ulid) {
+            return bits(ulid.mostSigBits, ulid.leastSigBits, sequenceShift, sequenceBits);
+        }
+
+        /**
+         * ノード ID を返します。
+         *
+         * @return ノード ID
+         */
+        public int getNodeId() {
+            return nodeId;
+        }
+
+        /**
+         * ノード ID のビット数を返します。
+         *
+         * @return ノード ID のビット数
+         */
+        public int getNodeBits() {
+            return nodeBits;
+        }
+
+        /**
+         * 連番のビット数を返します。
+         *
+         * @return 連番のビット数
+         */
+        public int getSequenceBits() {
+            return sequenceBits;
+        }
+
+        /**
+         * 指定された個数の ULID を生成し、ビット列を配列に格納します。
+         * <p>
+         * ランダム部に1ずつ加えるとノード ID の領域に繰り上がる可能性があるため、
+         * 1件ずつ連番を進めて生成する。
+         */
+        @Override
+        public void nextBatch(int n, long[] msb, long[] lsb) {
+            Objects.requireNonNull(msb, "msb must not be null");
+            Objects.requireNonNull(lsb, "lsb must not be null");
+            if (n < 0 || msb.length < n || lsb.length < n) {
+                throw new IllegalArgumentException("Illegal batch size: " + n);
+            }
+            for (int i = 0; i < n; ++i) {
+                ULID ulid = nextULID();
+                msb[i] = ulid.mostSigBits;
+                lsb[i] = ulid.leastSigBits;
+            }
+        }
+
+        /**
+         * 前回の ULID とタイムスタンプから、次の ULID を返します。
+         */
+        @Override
+        ULID next(ULID prev, long timestamp) {
+            long prevTimestamp = prev.timestamp();
+            if (timestamp <= prevTimestamp) {
+                long sequence = sequenceOf(prev) + 1;
+                if (sequence <= maxSequence) {
+                    return compose(prevTimestamp, sequence);
+                }
+                timestamp = nextMillis(prevTimestamp);
+            }
+            return compose(timestamp, 0L);
+        }
+
+        /**
+         * タイムスタンプ、ノード ID、連番、ランダムビットから ULID を組み立てます。
+         *
+         * @param timestamp タイムスタンプ
+         * @param sequence 連番
+         * @return ULID
+         */
+        ULID compose(long timestamp, long sequence) {
+            ULID random = entropy.nextULID(timestamp);
+            long mostSigBits = (random.mostSigBits & ~fieldsMsbMask)
+                    | nodeMsb | highBits(sequence, sequenceShift);
+            long leastSigBits = (random.leastSigBits & ~fieldsLsbMask)
+                    | nodeLsb | lowBits(sequence, sequenceShift);
             return new ULID(mostSigBits, leastSigBits);
         }
 
@@ -0,0 +1,266 @@
+package org.glad2121.util;
+
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * ULID のビット列を、最上位・最下位の {@code long} の配列で保持する変更不可のリスト。
+ * <p>
+ * 要素ごとに {@link ULID} オブジェクトを保持しないため、大量の ULID をまとめて扱う場合
+ * (一括登録など) に使用する。{@link #get(int)} は呼び出しごとに {@code ULID} を生成するので、
+ * ビット列やタイムスタンプだけが必要ならば {@link #getMostSignificantBits(int)} などを使う。
+ *
+ * @author glad2121
+ * @see ULID.Generator#nextBatch(int)
+ */
+public final class ULIDArray extends AbstractList<ULID> implements RandomAccess {
+
+    /**
+     * 最上位ビット列の配列。
+     */
+    final long[] msb;
+
+    /**
+     * 最下位ビット列の配列。
+     */
+    final long[] lsb;
+
+    /**
+     * 配列内の先頭の位置。
+     */
+    final int offset;
+
+    /**
+     * 要素数。
+     */
+    final int length;
+
+    /**
+     * コンストラクタ。
+     * <p>
+     * 配列はコピーせずに保持する。
+     *
+     * @param msb 最上位ビット列の配列
+     * @param lsb 最下位ビット列の配列
+     */
+    ULIDArray(long[] msb, long[] lsb) {
+        this(msb, lsb, 0, msb.length);
+        if (msb.length != lsb.length) {
+            throw new IllegalArgumentException("msb and lsb must have the same length");
+        }
+    }
+
+    /**
+     * 配列の一部を参照するコンストラクタ。
+     * <p>
+     * 配列はコピーせずに保持する。
+     *
+     * @param msb 最上位ビット列の配列
+     * @param lsb 最下位ビット列の配列
+     * @param offset 配列内の先頭の位置
+     * @param length 要素数
+     */
+    ULIDArray(long[] msb, long[] lsb, int offset, int length) {
+        this.msb = msb;
+        this.lsb = lsb;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    /**
+     * 指定された ULID の配列から生成します。
+     *
+     * @param ulids ULID の配列
+     * @return ULID の配列のビュー
+     */
+    public static ULIDArray of(ULID... ulids) {
+        long[] msb = new long[ulids.length];
+        long[] lsb = new long[ulids.length];
+        for (int i = 0; i < ulids.length; ++i) {
+            ULID ulid = Objects.requireNonNull(ulids[i], "ulids must not contain null");
+            msb[i] = ulid.getMostSignificantBits();
+            lsb[i] = ulid.getLeastSignificantBits();
+        }
+        return new ULIDArray(msb, lsb);
+    }
+
+    /**
+     * バイト列の指定された位置から、指定された個数の ULID のビット列 (big-endian) を読み取ります。
+     * <p>
+     * 要素ごとに {@code ULID} オブジェクトを生成しない。
+     *
+     * @param buf バイト列
+     * @param offset 位置
+     * @param count 個数
+     * @return ULID の配列のビュー
+     * @see ULID#readFrom(byte[], int)
+     */
+    public static ULIDArray readFrom(byte[] buf, int offset, int count) {
+        Objects.checkFromIndexSize(offset, Math.multiplyExact(count, ULID.BYTES), buf.length);
+        long[] msb = new long[count];
+        long[] lsb = new long[count];
+        for (int i = 0; i < count; ++i, offset += ULID.BYTES) {
+            msb[i] = (long) ULID.LONGS.get(buf, offset);
+            lsb[i] = (long) ULID.LONGS.get(buf, offset + 8);
+        }
+        return new ULIDArray(msb, lsb);
+    }
+
+    /**
+     * バッファの現在位置から、指定された個数の ULID のビット列 (big-endian) を読み取ります。
+     * <p>
+     * 要素ごとに {@code ULID} オブジェクトを生成しない。
+     *
+     * @param buf バッファ
+     * @param count 個数
+     * @return ULID の配列のビュー
+     * @see ULID#readFrom(ByteBuffer)
+     */
+    public static ULIDArray readFrom(ByteBuffer buf, int count) {
+        if (buf.remaining() < Math.multiplyExact(count, ULID.BYTES)) {
+            throw new BufferUnderflowException();
+        }
+        boolean reverse = (buf.order() == ByteOrder.LITTLE_ENDIAN);
+        long[] msb = new long[count];
+        long[] lsb = new long[count];
+        for (int i = 0; i < count; ++i) {
+            long m = buf.getLong();
+            long l = buf.getLong();
+            msb[i] = reverse ? Long.reverseBytes(m) : m;
+            lsb[i] = reverse ? Long.reverseBytes(l) : l;
+        }
+        return new ULIDArray(msb, lsb);
+    }
+
+    /**
+     * すべての ULID のビット列 (big-endian) を、バイト列の指定された位置へ順に書き込みます。
+     *
+     * @param buf バイト列
+     * @param offset 位置
+     * @return 書き込んだ次の位置
+     * @see ULID#writeTo(byte[], int)
+     */
+    public int writeTo(byte[] buf, int offset) {
+        Objects.checkFromIndexSize(offset, Math.multiplyExact(length, ULID.BYTES), buf.length);
+        for (int i = this.offset, end = this.offset + length; i < end; ++i) {
+            ULID.LONGS.set(buf, offset, msb[i]);
+            ULID.LONGS.set(buf, offset + 8, lsb[i]);
+            offset += ULID.BYTES;
+        }
+        return offset;
+    }
+
+    /**
+     * すべての ULID のビット列 (big-endian) を、バッファの現在位置へ順に書き込みます。
+     *
+     * @param buf バッファ
+     * @return バッファ
+     * @see ULID#writeTo(ByteBuffer)
+     */
+    public ByteBuffer writeTo(ByteBuffer buf) {
+        if (buf.remaining() < Math.multiplyExact(length, ULID.BYTES)) {
+            throw new BufferOverflowException();
+        }
+        boolean reverse = (buf.order() == ByteOrder.LITTLE_ENDIAN);
+        for (int i = offset, end = offset + length; i < end; ++i) {
+            buf.putLong(reverse ? Long.reverseBytes(msb[i]) : msb[i]);
+            buf.putLong(reverse ? Long.reverseBytes(lsb[i]) : lsb[i]);
+        }
+        return buf;
+    }
+
+    /**
+     * 要素数を返します。
+     */
+    @Override
+    public int size() {
+        return length;
+    }
+
+    /**
+     * 指定された位置の ULID を生成して返します。
+     */
+    @Override
+    public ULID get(int index) {
+        int i = offset + Objects.checkIndex(index, length);
+        return new ULID(msb[i], lsb[i]);
+    }
+
+    /**
+     * 指定された範囲を、配列をコピーせずに参照するビューを返します。
+     */
+    @Override
+    public ULIDArray subList(int fromIndex, int toIndex) {
+        Objects.checkFromToIndex(fromIndex, toIndex, length);
+        return new ULIDArray(msb, lsb, offset + fromIndex, toIndex - fromIndex);
+    }
+
+    /**
+     * 指定された位置の ULID の最上位ビット列を返します。
+     *
+     * @param index 位置
+     * @return 最上位ビット列
+     */
+    public long getMostSignificantBits(int index) {
+        return msb[offset + Objects.checkIndex(index, length)];
+    }
+
+    /**
+     * 指定された位置の ULID の最下位ビット列を返します。
+     *
+     * @param index 位置
+     * @return 最下位ビット列
+     */
+    public long getLeastSignificantBits(int index) {
+        return lsb[offset + Objects.checkIndex(index, length)];
+    }
+
+    /**
+     * 指定された位置の ULID のタイムスタンプを返します。
+     *
+     * @param index 位置
+     * @return タイムスタンプ
+     */
+    public long timestamp(int index) {
+        return getMostSignificantBits(index) >>> 16;
+    }
+
+    /**
+     * 指定された位置の ULID の文字列表現を、ASCII のバイト列の指定された位置へ書き込みます。
+     *
+     * @param index 位置
+     * @param buf バイト列
+     * @param offset バイト列の位置
+     * @return 書き込んだ次の位置
+     * @see ULID#formatTo(byte[], int)
+     */
+    public int formatTo(int index, byte[] buf, int offset) {
+        int i = this.offset + Objects.checkIndex(index, length);
+        return ULID.formatTo(msb[i], lsb[i], buf, offset);
+    }
+
+    /**
+     * 最上位ビット列の配列のコピーを返します。
+     *
+     * @return 最上位ビット列の配列
+     */
+    public long[] toMostSignificantBitsArray() {
+        return Arrays.copyOfRange(msb, offset, offset + length);
+    }
+
+    /**
+     * 最下位ビット列の配列のコピーを返します。
+     *
+     * @return 最下位ビット列の配列
+     */
+    public long[] toLeastSignificantBitsArray() {
+        return Arrays.copyOfRange(lsb, offset, offset + length);
+    }
+
+}
@@ -0,0 +1,144 @@
+package org.glad2121.util;
+
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * ULID のビット列を {@code long} のまま格納するハッシュ集合。
+ * <p>
+ * {@code HashSet<ULID>} では1件あたり約64バイトを使うが、この集合はスロットごとに
+ * 16バイトで、1件あたり約21バイト (負荷率 0.75) になる。
+ * {@link #offHeap(int)} で生成すると Java ヒープ外に格納するため、
+ * 数千万件を保持してもガベージコレクションの負荷にならない。
+ * スレッドセーフではない。
+ *
+ * @author glad2121
+ */
+public final class ULIDHashSet extends ULIDHashTable {
+
+    /**
+     * 空の集合を生成します。
+     */
+    public ULIDHashSet() {
+        this(0);
+    }
+
+    /**
+     * 指定された件数を拡張せずに格納できる、空の集合を生成します。
+     *
+     * @param expectedSize 想定する件数 (805,306,364 以下)
+     * @throws IllegalArgumentException 想定する件数が負、または最大件数を超える場合
+     */
+    public ULIDHashSet(int expectedSize) {
+        super(expectedSize, false, false);
+    }
+
+    /**
+     * コンストラクタ。
+     *
+     * @param expectedSize 想定する件数
+     * @param offHeap ヒープ外に格納するか
+     */
+    ULIDHashSet(int expectedSize, boolean offHeap) {
+        super(expectedSize, false, offHeap);
+    }
+
+    /**
+     * Java ヒープ外に格納する、空の集合を生成します。
+     * <p>
+     * バッファのバイト数が {@code int} の範囲に収まるスロット数までしか拡張しないため、
+     * 格納できる最大件数は 100,663,295 件 (ビット列が 0 の ULID を含む)。
+     *
+     * @param expectedSize 想定する件数 (100,663,295 以下)
+     * @return 集合
+     * @throws IllegalArgumentException 想定する件数が負、または最大件数を超える場合
+     */
+    public static ULIDHashSet offHeap(int expectedSize) {
+        return new ULIDHashSet(expectedSize, true);
+    }
+
+    /**
+     * 指定された ULID を追加します。
+     *
+     * @param ulid ULID
+     * @return 新たに追加した場合は {@code true}
+     * @throws IllegalStateException 新たに格納する場合に、最大件数に達している場合
+     */
+    public boolean add(ULID ulid) {
+        Objects.requireNonNull(ulid, "ulid must not be null");
+        return add(ulid.getMostSignificantBits(), ulid.getLeastSignificantBits());
+    }
+
+    /**
+     * 指定されたビット列の ULID を追加します。
+     *
+     * @param msb 最上位ビット列
+     * @param lsb 最下位ビット列
+     * @return 新たに追加した場合は {@code true}
+     * @throws IllegalStateException 新たに格納する場合に、最大件数に達している場合
+     */
+    public boolean add(long msb, long lsb) {
+        return insert(msb, lsb, 0L);
+    }
+
+    /**
+     * 指定された ULID を含むか判定します。
+     *
+     * @param ulid ULID
+     * @return 含めば {@code true}
+     */
+    public boolean contains(ULID ulid) {
+        return contains(ulid.getMostSignificantBits(), ulid.getLeastSignificantBits());
+    }
+
+    /**
+     * 指定されたビット列の ULID を含むか判定します。
+     *
+     * @param msb 最上位ビット列
+     * @param lsb 最下位ビット列
+     * @return 含めば {@code true}
+     */
+    public boolean contains(long msb, long lsb) {
+        return containsKey(msb, lsb);
+    }
+
+    /**
+     * 指定された ULID を削除します。
+     *
+     * @param ulid ULID
+     * @return 削除した場合は {@code true}
+     */
+    public boolean remove(ULID ulid) {
+        return remove(ulid.getMostSignificantBits(), ulid.getLeastSignificantBits());
+    }
+
+    /**
+     * 指定されたビット列の ULID を削除します。
+     *
+     * @param msb 最上位ビット列
+     * @param lsb 最下位ビット列
+     * @return 削除した場合は {@code true}
+     */
+    public boolean remove(long msb, long lsb) {
+        return delete(msb, lsb);
+    }
+
+    /**
+     * すべての ULID に対して処理を行います (順序は不定)。
+     *
+     * @param action 処理
+     */
+    public void forEach(Consumer<? super ULID> action) {
+        forEachSlot((msb, lsb, value) -> action.accept(new ULID(msb, lsb)));
+    }
+
+    /**
+     * すべての ULID を {@link ULIDArray} として返します (順序は不定)。
+     *
+     * @return ULID の配列のビュー
+     */
+    public ULIDArray toULIDArray() {
+        return keys();
+    }
+
+}
@@ -0,0 +1,403 @@
+package org.glad2121.util;
+
+/**
+ * ULID をキーとする、オープンアドレス法 (線形探索) のハッシュ表。
+ * <p>
+ * キーは {@link ULID} オブジェクトではなく、最上位・最下位ビット列のまま格納する。
+ * 両方のビット列が 0 の ULID は空きスロットと区別できないため、スロットの外に保持する。
+ * スロット数は2のべき乗に限らず、負荷率から必要な数だけ確保するため、
+ * 1件あたりのメモリは、おおよそスロットのバイト数 (16 または 24) を負荷率で割った値になる。
+ *
+ * @author glad2121
+ */
+abstract class ULIDHashTable {
+
+    /**
+     * 負荷率の上限。
+     */
+    static final double LOAD_FACTOR = 0.75;
+
+    /**
+     * 最小のスロット数。
+     */
+    static final int MIN_CAPACITY = 16;
+
+    /**
+     * 格納領域。
+     */
+    ULIDSlots slots;
+
+    /**
+     * 拡張する件数。
+     */
+    int threshold;
+
+    /**
+     * 件数 (ビット列が 0 の ULID を含む)。
+     */
+    int size;
+
+    /**
+     * ビット列が 0 の ULID を含むか。
+     */
+    boolean hasZero;
+
+    /**
+     * ビット列が 0 の ULID の値。
+     */
+    long zeroValue;
+
+    /**
+     * コンストラクタ。
+     *
+     * @param expectedSize 想定する件数
+     * @param hasValues 値を保持するか
+     * @param offHeap ヒープ外に格納するか
+     * @throws IllegalArgumentException 想定する件数が負、または最大件数を超える場合
+     */
+    ULIDHashTable(int expectedSize, boolean hasValues, boolean offHeap) {
+        int maxCapacity = ULIDSlots.maxCapacity(hasValues, offHeap);
+        if (expectedSize < 0 || expectedSize > thresholdOf(maxCapacity)) {
+            throw new IllegalArgumentException("Illegal expected size: " + expectedSize);
+        }
+        int capacity = Math.min(capacityFor(expectedSize), maxCapacity);
+        this.slots = offHeap
+                ? ULIDSlots.offHeap(capacity, hasValues)
+                : ULIDSlots.onHeap(capacity, hasValues);
+        this.threshold = thresholdOf(capacity);
+    }
+
+    /**
+     * 指定された件数を格納できるスロット数を返します。
+     *
+     * @param expectedSize 件数
+     * @return スロット数
+     */
+    static int capacityFor(long expectedSize) {
+        return (int) Math.min(Integer.MAX_VALUE,
+                Math.max(MIN_CAPACITY, (long) Math.ceil(expectedSize / LOAD_FACTOR) + 1));
+    }
+
+    /**
+     * 指定された種類のハッシュ表に格納できる最大件数 (ビット列が 0 の ULID を含む) を返します。
+     *
+     * @param hasValues 値を保持するか
+     * @param offHeap ヒープ外に格納するか
+     * @return 最大件数
+     */
+    static int maxSize(boolean hasValues, boolean offHeap) {
+        return thresholdOf(ULIDSlots.maxCapacity(hasValues, offHeap));
+    }
+
+    /**
+     * 指定されたスロット数で、拡張する件数を返します。
+     *
+     * @param capacity スロット数
+     * @return 拡張する件数
+     */
+    static int thresholdOf(int capacity) {
+        return (int) (capacity * LOAD_FACTOR);
+    }
+
+    /**
+     * ビット列のハッシュ値から、スロットの位置を返します。
+     * <p>
+     * ULID のランダム部が連番 (単調増加のジェネレータ) でも偏らないように撹拌し、
+     * 上位32ビットをスロット数の範囲に乗算で縮める。
+     *
+     * @param msb 最上位ビット列
+     * @param lsb 最下位ビット列
+     * @param capacity スロット数
+     * @return スロットの位置
+     */
+    static int slot(long msb, long lsb, int capacity) {
+        long h = (msb * 0x9E37_79B9_7F4A_7C15L + lsb) * 0xBF58_476D_1CE4_E5B9L;
+        return (int) (((h >>> 32) * capacity) >>> 32);
+    }
+
+    /**
+     * 件数を返します。
+     *
+     * @return 件数
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 空か判定します。
+     *
+     * @return 空ならば {@code true}
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * すべて削除します。
+     */
+    public void clear() {
+        slots.clear();
+        hasZero = false;
+        zeroValue = 0L;
+        size = 0;
+    }
+
+    /**
+     * 指定されたビット列のスロットの位置を返します。
+     *
+     * @param msb 最上位ビット列 (lsb と共に 0 でないこと)
+     * @param lsb 最下位ビット列
+     * @return スロットの位置 (存在しなければ -1)
+     */
+    int indexOf(long msb, long lsb) {
+        ULIDSlots slots = this.slots;
+        int capacity = slots.capacity;
+        int i = slot(msb, lsb, capacity);
+        while (true) {
+            long m = slots.msb(i);
+            long l = slots.lsb(i);
+            if (m == msb && l == lsb) {
+                return i;
+            }
+            if ((m | l) == 0L) {
+                return -1;
+            }
+            if (++i == capacity) {
+                i = 0;
+            }
+        }
+    }
+
+    /**
+     * 指定されたビット列が存在するか判定します。
+     *
+     * @param msb 最上位ビット列
+     * @param lsb 最下位ビット列
+     * @return 存在すれば {@code true}
+     */
+    boolean containsKey(long msb, long lsb) {
+        if ((msb | lsb) == 0L) {
+            return hasZero;
+        }
+        return indexOf(msb, lsb) >= 0;
+    }
+
+    /**
+     * 指定されたビット列の値を返します。
+     *
+     * @param msb 最上位ビット列
+     * @param lsb 最下位ビット列
+     * @param defaultValue 存在しない場合の値
+     * @return 値
+     */
+    long getValue(long msb, long lsb, long defaultValue) {
+        if ((msb | lsb) == 0L) {
+            return hasZero ? zeroValue : defaultValue;
+        }
+        int i = indexOf(msb, lsb);
+        return (i >= 0) ? slots.value(i) : defaultValue;
+    }
+
+    /**
+     * 指定されたビット列と値を格納します。
+     * <p>
+     * すでに存在する場合は、値だけを置き換える。
+     *
+     * @param msb 最上位ビット列
+     * @param lsb 最下位ビット列
+     * @param value 値
+     * @return 新たに格納した場合は {@code true}
+     * @throws IllegalStateException 新たに格納する場合に、最大件数に達している場合
+     */
+    boolean insert(long msb, long lsb, long value) {
+        if ((msb | lsb) == 0L) {
+            zeroValue = value;
+            if (hasZero) {
+                return false;
+            }
+            checkSize();
+            hasZero = true;
+            ++size;
+            return true;
+        }
+        ULIDSlots slots = this.slots;
+        int capacity = slots.capacity;
+        int i = slot(msb, lsb, capacity);
+        while (true) {
+            long m = slots.msb(i);
+            long l = slots.lsb(i);
+            if (m == msb && l == lsb) {
+                slots.setValue(i, value);
+                return false;
+            }
+            if ((m | l) == 0L) {
+                break;
+            }
+            if (++i == capacity) {
+                i = 0;
+            }
+        }
+        checkSize();
+        slots.set(i, msb, lsb, value);
+        if (++size > threshold) {
+            grow();
+        }
+        return true;
+    }
+
+    /**
+     * 指定されたビット列を削除します。
+     * <p>
+     * 削除したスロットの後に続く要素を、本来の位置を越えない範囲で前に詰める。
+     *
+     * @param msb 最上位ビット列
+     * @param lsb 最下位ビット列
+     * @return 削除した場合は {@code true}
+     */
+    boolean delete(long msb, long lsb) {
+        if ((msb | lsb) == 0L) {
+            if (!hasZero) {
+                return false;
+            }
+            hasZero = false;
+            zeroValue = 0L;
+            --size;
+            return true;
+        }
+        int i = indexOf(msb, lsb);
+        if (i < 0) {
+            return false;
+        }
+        ULIDSlots slots = this.slots;
+        int capacity = slots.capacity;
+        int j = i;
+        while (true) {
+            if (++j == capacity) {
+                j = 0;
+            }
+            long m = slots.msb(j);
+            long l = slots.lsb(j);
+            if ((m | l) == 0L) {
+                break;
+            }
+            // 本来の位置 k が、空いた位置 i から j までの間 (循環) ならば動かさない。
+            int k = slot(m, l, capacity);
+            if ((i <= j) ? (i < k && k <= j) : (i < k || k <= j)) {
+                continue;
+            }
+            slots.set(i, m, l, slots.value(j));
+            i = j;
+        }
+        slots.set(i, 0L, 0L, 0L);
+        --size;
+        return true;
+    }
+
+    /**
+     * 1件追加できるか確認します。
+     * <p>
+     * 最大のスロット数に達した後は、拡張する件数が最大件数になる。
+     *
+     * @throws IllegalStateException 最大件数に達している場合
+     */
+    void checkSize() {
+        if (size >= threshold && slots.capacity >= slots.maxCapacity()) {
+            throw new IllegalStateException("size exceeds " + threshold);
+        }
+    }
+
+    /**
+     * 拡張後のスロット数を返します。
+     * <p>
+     * 1.5倍に拡張し、最大のスロット数で頭打ちにする。
+     *
+     * @param capacity 現在のスロット数
+     * @param maxCapacity 最大のスロット数
+     * @return 拡張後のスロット数
+     * @throws IllegalStateException すでに最大のスロット数の場合
+     */
+    static int grownCapacity(int capacity, int maxCapacity) {
+        if (capacity >= maxCapacity) {
+            throw new IllegalStateException("capacity exceeds " + maxCapacity);
+        }
+        return (int) Math.min(maxCapacity, capacity * 3L / 2);
+    }
+
+    /**
+     * スロット数を1.5倍 (最大のスロット数まで) に拡張し、格納し直します。
+     */
+    void grow() {
+        ULIDSlots old = slots;
+        ULIDSlots slots = old.resize(grownCapacity(old.capacity, old.maxCapacity()));
+        int capacity = slots.capacity;
+        for (int i = 0; i < old.capacity; ++i) {
+            long m = old.msb(i);
+            long l = old.lsb(i);
+            if ((m | l) != 0L) {
+                int j = slot(m, l, capacity);
+                while ((slots.msb(j) | slots.lsb(j)) != 0L) {
+                    if (++j == capacity) {
+                        j = 0;
+                    }
+                }
+                slots.set(j, m, l, old.value(i));
+            }
+        }
+        this.slots = slots;
+        this.threshold = thresholdOf(capacity);
+    }
+
+    /**
+     * すべての要素に対して処理を行います。
+     *
+     * @param action 処理
+     */
+    void forEachSlot(SlotConsumer action) {
+        if (hasZero) {
+            action.accept(0L, 0L, zeroValue);
+        }
+        ULIDSlots slots = this.slots;
+        for (int i = 0; i < slots.capacity; ++i) {
+            long m = slots.msb(i);
+            long l = slots.lsb(i);
+            if ((m | l) != 0L) {
+                action.accept(m, l, slots.value(i));
+            }
+        }
+    }
+
+    /**
+     * すべてのキーを {@link ULIDArray} として返します (順序は不定)。
+     *
+     * @return キーの配列のビュー
+     */
+    ULIDArray keys() {
+        long[] msb = new long[size];
+        long[] lsb = new long[size];
+        int[] n = new int[1];
+        forEachSlot((m, l, v) -> {
+            msb[n[0]] = m;
+            lsb[n[0]++] = l;
+        });
+        return new ULIDArray(msb, lsb);
+    }
+
+    /**
+     * スロットの要素に対する処理。
+     */
+    @FunctionalInterface
+    interface SlotConsumer {
+
+        /**
+         * 処理を行います。
+         *
+         * @param msb 最上位ビット列
+         * @param lsb 最下位ビット列
+         * @param value 値
+         */
+        void accept(long msb, long lsb, long value);
+
+    }
+
+}
@@ -0,0 +1,181 @@
+package org.glad2121.util;
+
+import java.util.Objects;
+
+/**
+ * ULID のビット列をキー、{@code long} を値として、どちらもプリミティブのまま格納するハッシュ表。
+ * <p>
+ * スロットごとに24バイトで、1件あたり約32バイト (負荷率 0.75) になる。
+ * {@link #offHeap(int)} で生成すると Java ヒープ外に格納する。
+ * スレッドセーフではない。
+ *
+ * @author glad2121
+ */
+public final class ULIDLongHashMap extends ULIDHashTable {
+
+    /**
+     * 空のハッシュ表を生成します。
+     */
+    public ULIDLongHashMap() {
+        this(0);
+    }
+
+    /**
+     * 指定された件数を拡張せずに格納できる、空のハッシュ表を生成します。
+     *
+     * @param expectedSize 想定する件数 (805,306,364 以下)
+     * @throws IllegalArgumentException 想定する件数が負、または最大件数を超える場合
+     */
+    public ULIDLongHashMap(int expectedSize) {
+        super(expectedSize, true, false);
+    }
+
+    /**
+     * コンストラクタ。
+     *
+     * @param expectedSize 想定する件数
+     * @param offHeap ヒープ外に格納するか
+     */
+    ULIDLongHashMap(int expectedSize, boolean offHeap) {
+        super(expectedSize, true, offHeap);
+    }
+
+    /**
+     * Java ヒープ外に格納する、空のハッシュ表を生成します。
+     * <p>
+     * バッファのバイト数が {@code int} の範囲に収まるスロット数までしか拡張しないため、
+     * 格納できる最大件数は 67,108,863 件 (ビット列が 0 の ULID を含む)。
+     *
+     * @param expectedSize 想定する件数 (67,108,863 以下)
+     * @return ハッシュ表
+     * @throws IllegalArgumentException 想定する件数が負、または最大件数を超える場合
+     */
+    public static ULIDLongHashMap offHeap(int expectedSize) {
+        return new ULIDLongHashMap(expectedSize, true);
+    }
+
+    /**
+     * 指定された ULID と値を格納します。
+     *
+     * @param ulid ULID
+     * @param value 値
+     * @return 新たに格納した場合は {@code true}、値を置き換えた場合は {@code false}
+     * @throws IllegalStateException 新たに格納する場合に、最大件数に達している場合
+     */
+    public boolean put(ULID ulid, long value) {
+        Objects.requireNonNull(ulid, "ulid must not be null");
+        return put(ulid.getMostSignificantBits(), ulid.getLeastSignificantBits(), value);
+    }
+
+    /**
+     * 指定されたビット列の ULID と値を格納します。
+     *
+     * @param msb 最上位ビット列
+     * @param lsb 最下位ビット列
+     * @param value 値
+     * @return 新たに格納した場合は {@code true}、値を置き換えた場合は {@code false}
+     * @throws IllegalStateException 新たに格納する場合に、最大件数に達している場合
+     */
+    public boolean put(long msb, long lsb, long value) {
+        return insert(msb, lsb, value);
+    }
+
+    /**
+     * 指定された ULID の値を返します。
+     *
+     * @param ulid ULID
+     * @param defaultValue 存在しない場合の値
+     * @return 値
+     */
+    public long get(ULID ulid, long defaultValue) {
+        return get(ulid.getMostSignificantBits(), ulid.getLeastSignificantBits(), defaultValue);
+    }
+
+    /**
+     * 指定されたビット列の ULID の値を返します。
+     *
+     * @param msb 最上位ビット列
+     * @param lsb 最下位ビット列
+     * @param defaultValue 存在しない場合の値
+     * @return 値
+     */
+    public long get(long msb, long lsb, long defaultValue) {
+        return getValue(msb, lsb, defaultValue);
+    }
+
+    /**
+     * 指定された ULID を含むか判定します。
+     *
+     * @param ulid ULID
+     * @return 含めば {@code true}
+     */
+    public boolean containsKey(ULID ulid) {
+        return containsKey(ulid.getMostSignificantBits(), ulid.getLeastSignificantBits());
+    }
+
+    /**
+     * 指定されたビット列の ULID を含むか判定します。
+     */
+    @Override
+    public boolean containsKey(long msb, long lsb) {
+        return super.containsKey(msb, lsb);
+    }
+
+    /**
+     * 指定された ULID を削除します。
+     *
+     * @param ulid ULID
+     * @return 削除した場合は {@code true}
+     */
+    public boolean remove(ULID ulid) {
+        return remove(ulid.getMostSignificantBits(), ulid.getLeastSignificantBits());
+    }
+
+    /**
+     * 指定されたビット列の ULID を削除します。
+     *
+     * @param msb 最上位ビット列
+     * @param lsb 最下位ビット列
+     * @return 削除した場合は {@code true}
+     */
+    public boolean remove(long msb, long lsb) {
+        return delete(msb, lsb);
+    }
+
+    /**
+     * すべての ULID と値に対して処理を行います (順序は不定)。
+     *
+     * @param action 処理
+     */
+    public void forEach(EntryConsumer action) {
+        forEachSlot(action::accept);
+    }
+
+    /**
+     * すべての ULID を {@link ULIDArray} として返します (順序は不定)。
+     *
+     * @return ULID の配列のビュー
+     */
+    @Override
+    public ULIDArray keys() {
+        return super.keys();
+    }
+
+    /**
+     * ULID のビット列と値に対する処理。
+     */
+    @FunctionalInterface
+    public interface EntryConsumer {
+
+        /**
+         * 処理を行います。
+         *
+         * @param msb 最上位ビット列
+         * @param lsb 最下位ビット列
+         * @param value 値
+         */
+        void accept(long msb, long lsb, long value);
+
+    }
+
+}
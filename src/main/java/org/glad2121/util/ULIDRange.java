@@ -0,0 +1,196 @@
+package org.glad2121.util;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * ULID の半開区間 [from, to)。
+ * <p>
+ * 順序は ULID の文字列表現の順序 (ビット列を符号なし整数とみなした順序) であり、
+ * {@link ULID#compareTo(ULID)} の順序と一致する。
+ * タイムスタンプで分割したテーブルなどを、範囲ごとに並列に走査する際に使用する。
+ * 上限を含まないため、すべての ULID の中で最大の ULID だけは範囲に含められない。
+ *
+ * @author glad2121
+ */
+public final class ULIDRange {
+
+    /**
+     * 下限 (この値を含む)。
+     */
+    private final ULID from;
+
+    /**
+     * 上限 (この値を含まない)。
+     */
+    private final ULID to;
+
+    /**
+     * コンストラクタ。
+     *
+     * @param from 下限 (この値を含む)
+     * @param to 上限 (この値を含まない)
+     */
+    private ULIDRange(ULID from, ULID to) {
+        this.from = from;
+        this.to = to;
+    }
+
+    /**
+     * 指定された ULID の範囲を返します。
+     *
+     * @param from 下限 (この値を含む)
+     * @param to 上限 (この値を含まない)
+     * @return 範囲
+     */
+    public static ULIDRange of(ULID from, ULID to) {
+        Objects.requireNonNull(from, "from must not be null");
+        Objects.requireNonNull(to, "to must not be null");
+        if (compare(from, to) > 0) {
+            throw new IllegalArgumentException("from " + from + " is greater than to " + to);
+        }
+        return new ULIDRange(from, to);
+    }
+
+    /**
+     * 指定されたタイムスタンプの範囲に生成された ULID の範囲を返します。
+     *
+     * @param fromTimestamp タイムスタンプの下限 (この値を含む)
+     * @param toTimestamp タイムスタンプの上限 (この値を含まない)
+     * @return 範囲
+     * @see ULID#minFor(long)
+     */
+    public static ULIDRange ofTimestamps(long fromTimestamp, long toTimestamp) {
+        return of(ULID.minFor(fromTimestamp), ULID.minFor(toTimestamp));
+    }
+
+    /**
+     * 2つの ULID を符号なし整数とみなして比較します。
+     *
+     * @param a 1つ目の ULID
+     * @param b 2つ目の ULID
+     * @return 1つ目が小さければ負、等しければ0、大きければ正
+     */
+    static int compare(ULID a, ULID b) {
+        return ULID.compareUnsigned(
+                a.getMostSignificantBits(), a.getLeastSignificantBits(),
+                b.getMostSignificantBits(), b.getLeastSignificantBits());
+    }
+
+    /**
+     * 下限を返します。
+     *
+     * @return 下限 (この値を含む)
+     */
+    public ULID getFrom() {
+        return from;
+    }
+
+    /**
+     * 上限を返します。
+     *
+     * @return 上限 (この値を含まない)
+     */
+    public ULID getTo() {
+        return to;
+    }
+
+    /**
+     * 空の範囲か判定します。
+     *
+     * @return 空ならば {@code true}
+     */
+    public boolean isEmpty() {
+        return from.equals(to);
+    }
+
+    /**
+     * 指定された ULID が範囲内か判定します。
+     *
+     * @param ulid ULID
+     * @return 範囲内ならば {@code true}
+     */
+    public boolean contains(ULID ulid) {
+        return compare(from, ulid) <= 0 && compare(ulid, to) < 0;
+    }
+
+    /**
+     * この範囲を、ULID の個数が均等になるように指定された数の範囲に分割します。
+     * <p>
+     * ランダム部は一様に分布するので、同じミリ秒内でも生成される ULID の件数はほぼ均等になる。
+     * 各範囲の幅の差は高々1であり、範囲の幅が分割数より小さい場合は空の範囲を含む。
+     * 結果の範囲は昇順で、隣り合う範囲の上限と下限は一致する。
+     *
+     * @param count 分割数
+     * @return 分割した範囲
+     */
+    public List<ULIDRange> split(int count) {
+        if (count <= 0) {
+            throw new IllegalArgumentException("count must be positive: " + count);
+        }
+        BigInteger start = toBigInteger(from);
+        BigInteger width = toBigInteger(to).subtract(start);
+        BigInteger n = BigInteger.valueOf(count);
+        List<ULIDRange> ranges = new ArrayList<>(count);
+        ULID lower = from;
+        for (int i = 1; i < count; ++i) {
+            BigInteger offset = width.multiply(BigInteger.valueOf(i)).divide(n);
+            ULID upper = fromBigInteger(start.add(offset));
+            ranges.add(new ULIDRange(lower, upper));
+            lower = upper;
+        }
+        ranges.add(new ULIDRange(lower, to));
+        return ranges;
+    }
+
+    /**
+     * ULID を符号なし128ビット整数に変換します。
+     *
+     * @param ulid ULID
+     * @return 整数
+     */
+    static BigInteger toBigInteger(ULID ulid) {
+        return new BigInteger(1, ulid.toBytes());
+    }
+
+    /**
+     * 符号なし128ビット整数を ULID に変換します。
+     *
+     * @param value 整数
+     * @return ULID
+     */
+    static ULID fromBigInteger(BigInteger value) {
+        return new ULID(value.shiftRight(64).longValue(), value.longValue());
+    }
+
+    /**
+     * このオブジェクトのハッシュ値を返します。
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(from, to);
+    }
+
+    /**
+     * このオブジェクトと他のオブジェクトが等しいか判定します。
+     */
+    @Override
+    public boolean equals(Object other) {
+        if (!(other instanceof ULIDRange)) {
+            return false;
+        }
+        ULIDRange range = (ULIDRange) other;
+        return from.equals(range.from) && to.equals(range.to);
+    }
+
+    /**
+     * この範囲の文字列表現を返します。
+     */
+    @Override
+    public String toString() {
+        return "[" + from + ", " + to + ")";
+    }
+
+}
@@ -0,0 +1,374 @@
+package org.glad2121.util;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * ULID のハッシュ表の格納領域。
+ * <p>
+ * スロットごとに ULID の最上位・最下位ビット列と、必要ならば {@code long} の値を保持する。
+ * 両方のビット列が 0 のスロットは空きとみなす。
+ * Java ヒープ上の {@code long} の配列と、ヒープ外の {@code ByteBuffer} の2種類がある。
+ *
+ * @author glad2121
+ */
+abstract class ULIDSlots {
+
+    /**
+     * スロット数。
+     */
+    final int capacity;
+
+    /**
+     * 値を保持するか。
+     */
+    final boolean hasValues;
+
+    /**
+     * コンストラクタ。
+     *
+     * @param capacity スロット数
+     * @param hasValues 値を保持するか
+     */
+    ULIDSlots(int capacity, boolean hasValues) {
+        this.capacity = capacity;
+        this.hasValues = hasValues;
+    }
+
+    /**
+     * Java ヒープ上の格納領域を生成します。
+     *
+     * @param capacity スロット数
+     * @param hasValues 値を保持するか
+     * @return 格納領域
+     */
+    static ULIDSlots onHeap(int capacity, boolean hasValues) {
+        return new Heap(capacity, hasValues);
+    }
+
+    /**
+     * ヒープ外の格納領域を生成します。
+     *
+     * @param capacity スロット数
+     * @param hasValues 値を保持するか
+     * @return 格納領域
+     */
+    static ULIDSlots offHeap(int capacity, boolean hasValues) {
+        return new Direct(capacity, hasValues);
+    }
+
+    /**
+     * 指定された種類の格納領域の、最大のスロット数を返します。
+     *
+     * @param hasValues 値を保持するか
+     * @param offHeap ヒープ外に格納するか
+     * @return 最大のスロット数
+     */
+    static int maxCapacity(boolean hasValues, boolean offHeap) {
+        return offHeap ? Direct.maxCapacity(hasValues) : Heap.MAX_CAPACITY;
+    }
+
+    /**
+     * この格納領域の種類の、最大のスロット数を返します。
+     *
+     * @return 最大のスロット数
+     */
+    abstract int maxCapacity();
+
+    /**
+     * 同じ種類で、指定されたスロット数の格納領域を生成します。
+     *
+     * @param capacity スロット数
+     * @return 格納領域
+     */
+    abstract ULIDSlots resize(int capacity);
+
+    /**
+     * 指定されたスロットの最上位ビット列を返します。
+     *
+     * @param i スロット
+     * @return 最上位ビット列
+     */
+    abstract long msb(int i);
+
+    /**
+     * 指定されたスロットの最下位ビット列を返します。
+     *
+     * @param i スロット
+     * @return 最下位ビット列
+     */
+    abstract long lsb(int i);
+
+    /**
+     * 指定されたスロットの値を返します。
+     *
+     * @param i スロット
+     * @return 値 (値を保持しない場合は 0)
+     */
+    abstract long value(int i);
+
+    /**
+     * 指定されたスロットにビット列と値を設定します。
+     *
+     * @param i スロット
+     * @param msb 最上位ビット列
+     * @param lsb 最下位ビット列
+     * @param value 値 (値を保持しない場合は無視する)
+     */
+    abstract void set(int i, long msb, long lsb, long value);
+
+    /**
+     * 指定されたスロットの値を設定します。
+     *
+     * @param i スロット
+     * @param value 値 (値を保持しない場合は無視する)
+     */
+    abstract void setValue(int i, long value);
+
+    /**
+     * すべてのスロットを空きにします。
+     */
+    abstract void clear();
+
+    /**
+     * {@code long} の配列の格納領域。
+     * <p>
+     * 同じスロットの2つのビット列が同じキャッシュラインに載るように、交互に並べる。
+     */
+    static final class Heap extends ULIDSlots {
+
+        /**
+         * 最大のスロット数。
+         */
+        static final int MAX_CAPACITY = (Integer.MAX_VALUE - 8) / 2;
+
+        /**
+         * 最上位・最下位ビット列を交互に並べた配列。
+         */
+        final long[] keys;
+
+        /**
+         * 値の配列 (値を保持しない場合は {@code null})。
+         */
+        final long[] values;
+
+        /**
+         * コンストラクタ。
+         *
+         * @param capacity スロット数
+         * @param hasValues 値を保持するか
+         */
+        Heap(int capacity, boolean hasValues) {
+            super(capacity, hasValues);
+            if (capacity > MAX_CAPACITY) {
+                throw new IllegalStateException("capacity exceeds " + MAX_CAPACITY);
+            }
+            this.keys = new long[capacity * 2];
+            this.values = hasValues ? new long[capacity] : null;
+        }
+
+        /**
+         * 同じ種類で、指定されたスロット数の格納領域を生成します。
+         */
+        @Override
+        ULIDSlots resize(int capacity) {
+            return new Heap(capacity, hasValues);
+        }
+
+        /**
+         * 最大のスロット数を返します。
+         */
+        @Override
+        int maxCapacity() {
+            return MAX_CAPACITY;
+        }
+
+        /**
+         * 指定されたスロットの最上位ビット列を返します。
+         */
+        @Override
+        long msb(int i) {
+            return keys[i * 2];
+        }
+
+        /**
+         * 指定されたスロットの最下位ビット列を返します。
+         */
+        @Override
+        long lsb(int i) {
+            return keys[i * 2 + 1];
+        }
+
+        /**
+         * 指定されたスロットの値を返します。
+         */
+        @Override
+        long value(int i) {
+            return hasValues ? values[i] : 0L;
+        }
+
+        /**
+         * 指定されたスロットにビット列と値を設定します。
+         */
+        @Override
+        void set(int i, long msb, long lsb, long value) {
+            keys[i * 2] = msb;
+            keys[i * 2 + 1] = lsb;
+            if (hasValues) {
+                values[i] = value;
+            }
+        }
+
+        /**
+         * 指定されたスロットの値を設定します。
+         */
+        @Override
+        void setValue(int i, long value) {
+            if (hasValues) {
+                values[i] = value;
+            }
+        }
+
+        /**
+         * すべてのスロットを空きにします。
+         */
+        @Override
+        void clear() {
+            Arrays.fill(keys, 0L);
+            if (hasValues) {
+                Arrays.fill(values, 0L);
+            }
+        }
+
+    }
+
+    /**
+     * ヒープ外の {@code ByteBuffer} の格納領域。
+     * <p>
+     * スロットごとに、最上位ビット列、最下位ビット列、値 (保持する場合) の順に並べる。
+     * 領域は {@code ByteBuffer} がガベージコレクションで回収される際に解放される。
+     */
+    static final class Direct extends ULIDSlots {
+
+        /**
+         * スロットのバイト数。
+         */
+        final int stride;
+
+        /**
+         * ヒープ外のバッファ。
+         */
+        final ByteBuffer buffer;
+
+        /**
+         * コンストラクタ。
+         *
+         * @param capacity スロット数
+         * @param hasValues 値を保持するか
+         */
+        Direct(int capacity, boolean hasValues) {
+            super(capacity, hasValues);
+            this.stride = stride(hasValues);
+            if (capacity > maxCapacity(hasValues)) {
+                throw new IllegalStateException("capacity exceeds " + maxCapacity(hasValues));
+            }
+            this.buffer = ByteBuffer.allocateDirect(capacity * stride).order(ByteOrder.nativeOrder());
+        }
+
+        /**
+         * スロットのバイト数を返します。
+         *
+         * @param hasValues 値を保持するか
+         * @return スロットのバイト数
+         */
+        static int stride(boolean hasValues) {
+            return hasValues ? 3 * Long.BYTES : 2 * Long.BYTES;
+        }
+
+        /**
+         * 最大のスロット数 (バッファが {@code int} の範囲に収まる数) を返します。
+         *
+         * @param hasValues 値を保持するか
+         * @return 最大のスロット数
+         */
+        static int maxCapacity(boolean hasValues) {
+            return Integer.MAX_VALUE / stride(hasValues);
+        }
+
+        /**
+         * 同じ種類で、指定されたスロット数の格納領域を生成します。
+         */
+        @Override
+        ULIDSlots resize(int capacity) {
+            return new Direct(capacity, hasValues);
+        }
+
+        /**
+         * 最大のスロット数を返します。
+         */
+        @Override
+        int maxCapacity() {
+            return maxCapacity(hasValues);
+        }
+
+        /**
+         * 指定されたスロットの最上位ビット列を返します。
+         */
+        @Override
+        long msb(int i) {
+            return buffer.getLong(i * stride);
+        }
+
+        /**
+         * 指定されたスロットの最下位ビット列を返します。
+         */
+        @Override
+        long lsb(int i) {
+            return buffer.getLong(i * stride + Long.BYTES);
+        }
+
+        /**
+         * 指定されたスロットの値を返します。
+         */
+        @Override
+        long value(int i) {
+            return hasValues ? buffer.getLong(i * stride + 2 * Long.BYTES) : 0L;
+        }
+
+        /**
+         * 指定されたスロットにビット列と値を設定します。
+         */
+        @Override
+        void set(int i, long msb, long lsb, long value) {
+            int offset = i * stride;
+            buffer.putLong(offset, msb);
+            buffer.putLong(offset + Long.BYTES, lsb);
+            if (hasValues) {
+                buffer.putLong(offset + 2 * Long.BYTES, value);
+            }
+        }
+
+        /**
+         * 指定されたスロットの値を設定します。
+         */
+        @Override
+        void setValue(int i, long value) {
+            if (hasValues) {
+                buffer.putLong(i * stride + 2 * Long.BYTES, value);
+            }
+        }
+
+        /**
+         * すべてのスロットを空きにします。
+         */
+        @Override
+        void clear() {
+            for (int offset = 0, limit = buffer.capacity(); offset < limit; offset += Long.BYTES) {
+                buffer.putLong(offset, 0L);
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,136 @@
+package org.glad2121.charset;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Predicate;
+
+import org.glad2121.charset.CharClassSummary.CharClass;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * {@link CharClassSummary} の単体テスト。
+ */
+class CharClassSummaryTest {
+
+    @BeforeEach
+    void setUp() throws Exception {
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+    }
+
+    @Test
+    @DisplayName("要約の判定が、CharsetUtils の判定と一致すること。")
+    void testSameAsCharsetUtils() {
+        String chars = "09AZaz ~\u007F\t｡･ﾟ０９ＡＺａｚ！"
+                + "ぁゖ゙゛ゞ゠ァヺ・ーヾ亜熙丂黑纊―∑俍"
+                + "𠮟😀\uD842￿";
+        Random random = new Random(0L);
+        for (int n = 0; n < 10_000; ++n) {
+            StringBuilder sb = new StringBuilder();
+            int length = random.nextInt(16);
+            // 同じ分類の文字が多くなるように、同じ文字を繰り返す。
+            int start = random.nextInt(chars.length());
+            for (int i = 0; i < length; ++i) {
+                if (random.nextInt(4) == 0) {
+                    start = random.nextInt(chars.length());
+                }
+                sb.append(chars.charAt(start));
+            }
+            String s = sb.toString();
+            CharClassSummary summary = CharsetUtils.classify(s);
+            assertThat(summary.getLength()).isEqualTo(s.length());
+            check(summary, s, CharClass.HALFWIDTH_NUMERIC, CharsetUtils::isHalfwidthNumeric);
+            check(summary, s, CharClass.HALFWIDTH_UPPER, CharsetUtils::isHalfwidthUpper);
+            check(summary, s, CharClass.HALFWIDTH_LOWER, CharsetUtils::isHalfwidthLower);
+            check(summary, s, CharClass.HALFWIDTH_ALPHA, CharsetUtils::isHalfwidthAlpha);
+            check(summary, s, CharClass.HALFWIDTH_ALNUM, CharsetUtils::isHalfwidthAlnum);
+            check(summary, s, CharClass.HALFWIDTH_ASCII, CharsetUtils::isHalfwidthAscii);
+            check(summary, s, CharClass.HALFWIDTH_KATAKANA, CharsetUtils::isHalfwidthKatakana);
+            check(summary, s, CharClass.HALFWIDTH_KANA, CharsetUtils::isHalfwidthKana);
+            check(summary, s, CharClass.FULLWIDTH_NUMERIC, CharsetUtils::isFullwidthNumeric);
+            check(summary, s, CharClass.FULLWIDTH_UPPER, CharsetUtils::isFullwidthUpper);
+            check(summary, s, CharClass.FULLWIDTH_LOWER, CharsetUtils::isFullwidthLower);
+            check(summary, s, CharClass.FULLWIDTH_ALPHA, CharsetUtils::isFullwidthAlpha);
+            check(summary, s, CharClass.FULLWIDTH_ALNUM, CharsetUtils::isFullwidthAlnum);
+            check(summary, s, CharClass.FULLWIDTH_HIRAGANA, CharsetUtils::isFullwidthHiragana);
+            check(summary, s, CharClass.FULLWIDTH_KATAKANA, CharsetUtils::isFullwidthKatakana);
+            check(summary, s, CharClass.JIS_X_0201, CharsetUtils::isJisX0201);
+            check(summary, s, CharClass.JIS_1990, CharsetUtils::isJis1990);
+            check(summary, s, CharClass.JIS_2004, CharsetUtils::isJis2004);
+            check(summary, s, CharClass.BASIC_J, CharsetUtils::isBasicJ);
+            check(summary, s, CharClass.COMMON_J, CharsetUtils::isCommonJ);
+            check(summary, s, CharClass.AVAILABLE, CharsetUtils::isAvailable);
+            assertThat(summary.matchesNone(CharClass.HALFWIDTH_KANA))
+                .as(s).isEqualTo(CharsetUtils.noHalfwidthKana(s));
+            assertThat(summary.matchesNone(CharClass.FULLWIDTH_ALNUM))
+                .as(s).isEqualTo(CharsetUtils.noFullwidthAlnum(s));
+            for (CharClass c : CharClass.values()) {
+                if (c.mask != 0) {
+                    assertThat(summary.indexOfMismatch(c))
+                        .as(s).isEqualTo(CodePointSet.INSTANCE.indexOfMismatch(s, c.mask));
+                }
+            }
+        }
+    }
+
+    /**
+     * 要約の判定と、文字列全体の判定・先頭から1文字ずつの判定が一致することを確認します。
+     */
+    void check(CharClassSummary summary, String s, CharClass c, Predicate<CharSequence> pred) {
+        assertThat(summary.matchesAll(c)).as("%s %s", c, s).isEqualTo(pred.test(s));
+        int mismatch = -1;
+        int match = -1;
+        for (int i = 0; i < s.length(); i += Character.charCount(s.codePointAt(i))) {
+            boolean matches = pred.test(new StringBuilder().appendCodePoint(s.codePointAt(i)));
+            if (!matches && mismatch < 0) {
+                mismatch = i;
+            }
+            if (matches && match < 0) {
+                match = i;
+            }
+        }
+        assertThat(summary.indexOfMismatch(c)).as("%s %s", c, s).isEqualTo(mismatch);
+        assertThat(summary.indexOfMatch(c)).as("%s %s", c, s).isEqualTo(match);
+        assertThat(summary.getCharClasses().contains(c)).as("%s %s", c, s).isEqualTo(match >= 0);
+    }
+
+    @Test
+    @DisplayName("文字区分と、その最初の位置を返すこと。")
+    void testCharTypes() {
+        String s = "Aｱ亜B𠮟￿";
+        CharClassSummary summary = CharsetUtils.classify(s);
+        Map<CharType, Integer> types = summary.getCharTypes();
+        assertThat(types).containsEntry(CodePointSet.INSTANCE.charType('A'), 0);
+        assertThat(types).containsEntry(CodePointSet.INSTANCE.charType('ｱ'), 1);
+        assertThat(types).containsEntry(CodePointSet.INSTANCE.charType('亜'), 2);
+        assertThat(types).containsEntry(CharType.UNDEFINED, 6);
+        assertThat(new ArrayList<>(types.values())).isSorted();
+        assertThat(summary.indexOfMismatch(CharClass.AVAILABLE)).isEqualTo(6);
+        assertThat(summary.indexOfMismatch(CharClass.JIS_1990)).isEqualTo(4);
+
+        assertThat(CharsetUtils.classify(null).getLength()).isEqualTo(0);
+        assertThat(CharsetUtils.classify("").matchesAll(CharClass.HALFWIDTH_NUMERIC)).isTrue();
+        assertThat(CharsetUtils.classify("").matchesAny(CharClass.AVAILABLE)).isFalse();
+    }
+
+    @Test
+    @DisplayName("全角ひらがな・カタカナのコードポイントの判定が、パターンと一致すること。")
+    void testFullwidthKanaCodePoint() {
+        for (int c = 0; c <= 0xFFFF; ++c) {
+            String s = String.valueOf((char) c);
+            assertThat(CharsetUtils.isFullwidthHiragana(c))
+                .as("U+%04X", c).isEqualTo(CharsetUtils.isFullwidthHiragana(s));
+            assertThat(CharsetUtils.isFullwidthKatakana(c))
+                .as("U+%04X", c).isEqualTo(CharsetUtils.isFullwidthKatakana(s));
+        }
+    }
+
+}
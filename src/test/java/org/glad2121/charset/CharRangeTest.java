@@ -0,0 +1,71 @@
+package org.glad2121.charset;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.Random;
+import java.util.function.IntPredicate;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * {@link CharRange} の単体テスト。
+ */
+class CharRangeTest {
+
+    @BeforeEach
+    void setUp() throws Exception {
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+    }
+
+    @Test
+    @DisplayName("文字の範囲の判定が、コードポイントの判定と一致すること。")
+    void testSameAsCodePointPredicate() {
+        check(CharRange.HALFWIDTH_NUMERIC, CharsetUtils::isHalfwidthNumeric);
+        check(CharRange.HALFWIDTH_UPPER, CharsetUtils::isHalfwidthUpper);
+        check(CharRange.HALFWIDTH_LOWER, CharsetUtils::isHalfwidthLower);
+        check(CharRange.HALFWIDTH_ALPHA, CharsetUtils::isHalfwidthAlpha);
+        check(CharRange.HALFWIDTH_ALNUM, CharsetUtils::isHalfwidthAlnum);
+        check(CharRange.HALFWIDTH_ASCII, CharsetUtils::isHalfwidthAscii);
+        check(CharRange.HALFWIDTH_KATAKANA, CharsetUtils::isHalfwidthKatakana);
+        check(CharRange.HALFWIDTH_KANA, CharsetUtils::isHalfwidthKana);
+        check(CharRange.FULLWIDTH_NUMERIC, CharsetUtils::isFullwidthNumeric);
+        check(CharRange.FULLWIDTH_UPPER, CharsetUtils::isFullwidthUpper);
+        check(CharRange.FULLWIDTH_LOWER, CharsetUtils::isFullwidthLower);
+        check(CharRange.FULLWIDTH_ALPHA, CharsetUtils::isFullwidthAlpha);
+        check(CharRange.FULLWIDTH_ALNUM, CharsetUtils::isFullwidthAlnum);
+    }
+
+    void check(CharRange range, IntPredicate pred) {
+        for (int c = 0; c <= Character.MAX_CODE_POINT; ++c) {
+            if (range.contains(c) != pred.test(c)) {
+                fail(String.format("U+%04X", c));
+            }
+        }
+        // 16文字単位・4文字単位の判定と端数の判定が、1文字ずつの判定と一致すること。
+        String chars = "09AZaz ~\u007F/:@[`{｡･ﾟ０９ＡＺａｚ｠ﾠ／：＠［｀｛"
+                + "\u0000\u001F\u7FFF\u8000\uFFFF";
+        Random random = new Random(0L);
+        for (int n = 0; n < 10_000; ++n) {
+            StringBuilder sb = new StringBuilder();
+            int length = random.nextInt(40);
+            // 範囲内の文字が多くなるように、同じ文字を繰り返す。
+            char c = chars.charAt(random.nextInt(chars.length()));
+            for (int i = 0; i < length; ++i) {
+                if (random.nextInt(8) == 0) {
+                    c = chars.charAt(random.nextInt(chars.length()));
+                }
+                sb.append(c);
+            }
+            String s = sb.toString();
+            assertThat(range.containsAll(s)).as(s).isEqualTo(s.chars().allMatch(pred));
+            assertThat(range.containsAny(s)).as(s).isEqualTo(s.chars().anyMatch(pred));
+        }
+    }
+
+}
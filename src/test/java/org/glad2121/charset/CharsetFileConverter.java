@@ -129,7 +129,7 @@ class CharsetFileConverter {
             int prev = -1;
             int first = -1;
             int last = -1;
-            for (var entry : set.map.entrySet()) {
+            for (var entry : set.toMap().entrySet()) {
                 int codePoint = entry.getKey();
                 if (!type.equals(entry.getValue())
                         || codePoint >= 0x10000
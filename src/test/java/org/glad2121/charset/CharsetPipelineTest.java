@@ -0,0 +1,127 @@
+package org.glad2121.charset;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.Random;
+import java.util.function.UnaryOperator;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * {@link CharsetPipeline} の単体テスト。
+ */
+class CharsetPipelineTest {
+
+    /**
+     * ランダムな文字列に使用する文字。
+     */
+    static final String SAMPLES = "aAz0 ０Ａｚ　、。「」・ー､｡｢｣･ｰ"
+            + "あかはうゝわアカハウヽワヷｱｶﾊｳﾜｦﾝﾞﾟ゙゚゛゜"
+            + "がぱゔゞガパヴヾ髙﨑～－∑①𠮟\uD842";
+
+    @BeforeEach
+    void setUp() throws Exception {
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+    }
+
+    @Test
+    @DisplayName("変換・検証の例。")
+    void testApply() {
+        CharsetPipeline pipeline = CharsetUtils.pipeline()
+                .toHalfwidthAscii()
+                .toFullwidthKatakana()
+                .toJis1990()
+                .requireJis1990()
+                .build();
+        assertThat(pipeline.apply(null)).isNull();
+        assertThat(pipeline.convert(null)).isNull();
+
+        CharsetPipeline.Result result = pipeline.apply("");
+        assertThat(result.getText()).isEmpty();
+        assertThat(result.isValid()).isTrue();
+
+        result = pipeline.apply("ＡＢＣ ｶﾞｷﾞｸﾞ ﾊﾟﾋﾟﾌﾟ");
+        assertThat(result.getText()).isEqualTo("ABC ガギグ パピプ");
+        assertThat(result.getInvalidIndex()).isEqualTo(-1);
+        assertThat(result.isValid()).isTrue();
+
+        result = pipeline.apply("ｱｲ𠮟ｳéｴ");
+        assertThat(result.getText()).isEqualTo("アイ叱ウéエ");
+        assertThat(result.getInvalidIndex()).isEqualTo(4);
+        assertThat(result.isValid()).isFalse();
+
+        // 検証なし。
+        result = CharsetUtils.pipeline().toFullwidthHiragana().build().apply("ｶﾞ髙");
+        assertThat(result.getText()).isEqualTo("が髙");
+        assertThat(result.isValid()).isTrue();
+    }
+
+    @Test
+    @DisplayName("連続するコードポイント変換が、1つの変換表に融合されること。")
+    void testFusion() {
+        CharsetPipeline pipeline = CharsetUtils.pipeline()
+                .toHalfwidthAscii()
+                .toFullwidthKatakana()
+                .toJis1990()
+                .toHiragana()
+                .build();
+        assertThat(pipeline.stages).hasSize(3);
+        assertThat(pipeline.stages[0].type).isEqualTo(CharsetPipeline.StageType.CONVERT);
+        assertThat(pipeline.stages[1].type).isEqualTo(CharsetPipeline.StageType.COMPOSE);
+        assertThat(pipeline.stages[2].type).isEqualTo(CharsetPipeline.StageType.CONVERT);
+    }
+
+    @Test
+    @DisplayName("個別の変換を順に行った結果と一致すること。")
+    void testSameAsSequential() {
+        checkSameAsSequential(
+                CharsetUtils.pipeline().toHalfwidthAscii().toFullwidthKatakana().toJis1990()
+                    .requireAvailable().build(),
+                s -> CharsetUtils.toJis1990(CharsetUtils.composeVoicedSoundMark(
+                        CodePointConverters.TO_FULLWIDTH_KATAKANA.convert(
+                                CharsetUtils.toHalfwidthAscii(s)))),
+                CharType.MASK_DEFINED);
+        checkSameAsSequential(
+                CharsetUtils.pipeline().toFullwidthHiragana().toWindows31j()
+                    .requireCommonJ().build(),
+                s -> CharsetUtils.toWindows31j(CharsetUtils.composeVoicedSoundMark(
+                        CodePointConverters.TO_FULLWIDTH_HIRAGANA.convert(s))),
+                CharType.MASK_COMMON_J);
+        checkSameAsSequential(
+                CharsetUtils.pipeline().toKatakana().toHalfwidthKana().toHalfwidthAlnum()
+                    .requireJis1990().requireBasicJ().build(),
+                s -> CharsetUtils.toHalfwidthAlnum(CharsetUtils.toHalfwidthKana(
+                        CharsetUtils.toKatakana(s))),
+                CharType.MASK_JIS_1990 & CharType.MASK_BASIC_J);
+        checkSameAsSequential(
+                CharsetUtils.pipeline().toFullwidthAlnum().toJis2004().build(),
+                s -> CharsetUtils.toJis2004(CharsetUtils.toFullwidthAlnum(s)),
+                null);
+    }
+
+    void checkSameAsSequential(CharsetPipeline pipeline, UnaryOperator<String> sequential, Integer mask) {
+        Random random = new Random(0L);
+        StringBuilder sb = new StringBuilder();
+        for (int n = 0; n < 2000; ++n) {
+            sb.setLength(0);
+            int length = random.nextInt(12);
+            for (int i = 0; i < length; ++i) {
+                sb.append(SAMPLES.charAt(random.nextInt(SAMPLES.length())));
+            }
+            String s = sb.toString();
+            String expected = sequential.apply(s);
+            CharsetPipeline.Result result = pipeline.apply(s);
+            assertThat(result.getText()).as(s).isEqualTo(expected);
+            int invalidIndex = (mask == null) ? -1
+                    : CodePointSet.INSTANCE.indexOfMismatch(expected, mask);
+            assertThat(result.getInvalidIndex()).as(s).isEqualTo(invalidIndex);
+        }
+    }
+
+}
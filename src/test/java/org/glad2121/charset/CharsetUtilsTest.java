@@ -3,8 +3,19 @@ package org.glad2121.charset;
 import static org.assertj.core.api.Assertions.*;
 import static org.glad2121.charset.CharsetUtils.*;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
+import java.nio.charset.CodingErrorAction;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.Arrays;
+import java.util.Random;
 
 import org.glad2121.util.ArrayUtils;
 import org.glad2121.util.StringUtils;
@@ -12,6 +23,7 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 /**
  * {@link CharsetUtils} の単体テスト。
@@ -1399,6 +1411,181 @@ class CharsetUtilsTest {
         //checkShiftJis(SHIFT_JIS);
     }
 
+    @Test
+    @DisplayName("バイト配列・バイトバッファへの直接エンコードのテスト。")
+    void testEncodeInto() {
+        byte[] dst = new byte[10];
+        assertThat(encodeInto("Aあい", SHIFT_JIS, dst, 2, 8)).isEqualTo(5);
+        assertThat(Arrays.copyOfRange(dst, 2, 7)).isEqualTo(encode("Aあい", SHIFT_JIS));
+        assertThat(encodeInto(null, SHIFT_JIS, dst, 0, 10)).isEqualTo(0);
+        assertThat(encodeInto("", SHIFT_JIS, dst, 0, 10)).isEqualTo(0);
+
+        // 2バイト文字は分割しない。
+        Arrays.fill(dst, (byte) ' ');
+        assertThat(encodeInto("Aあい", SHIFT_JIS, dst, 0, 4)).isEqualTo(3);
+        assertThat(dst).startsWith(encode("Aあ ", SHIFT_JIS));
+        assertThat(encodeInto("𠮟あ", SHIFT_JIS_2004, dst, 0, 3)).isEqualTo(2);
+        assertThat(encodeInto("か゚あ", SHIFT_JIS_2004_G, dst, 0, 3)).isEqualTo(2);
+
+        // 終了シーケンスは範囲内に収める。
+        byte[] jis = encode("Aあ", ISO_2022_JP);
+        assertThat(encodeInto("Aあ", ISO_2022_JP, dst, 0, 10)).isEqualTo(jis.length);
+        assertThat(Arrays.copyOf(dst, jis.length)).isEqualTo(jis);
+        assertThat(encodeInto("Aあい", ISO_2022_JP, dst, 0, 10)).isEqualTo(9);
+        assertThat(Arrays.copyOf(dst, 9)).isEqualTo(jis);
+        assertThat(encodeInto("Aあい", ISO_2022_JP, dst, 0, 6)).isEqualTo(1);
+
+        // 変換できない文字。
+        assertThatThrownBy(() -> encodeInto("A\u2015", SHIFT_JIS, dst, 0, 10))
+            .isInstanceOf(CharacterCodingRuntimeException.class)
+            .hasMessage("position: 1, rejected: \\u2015 (\u2015)");
+        assertThat(encodeInto("A\u2015", SHIFT_JIS, dst, 0, 10, "〓")).isEqualTo(3);
+        assertThat(Arrays.copyOf(dst, 3)).isEqualTo(encode("A〓", SHIFT_JIS));
+
+        // バイトバッファ。
+        ByteBuffer buf = ByteBuffer.allocateDirect(6);
+        buf.position(1);
+        assertThat(encodeInto("あいう", WINDOWS_31J_G, buf)).isEqualTo(4);
+        assertThat(buf.position()).isEqualTo(5);
+        assertThat(buf.limit()).isEqualTo(6);
+        assertThat(encodeInto("①", SHIFT_JIS, buf, null)).isEqualTo(1);
+        assertThat(buf.get(5)).isEqualTo((byte) '?');
+    }
+
+    @Test
+    @DisplayName("エンコードせずに求めたバイト数が、エンコード結果と一致すること。")
+    void testByteLength() {
+        assertThat(byteLength(null, WINDOWS_31J)).isEqualTo(0);
+        assertThat(byteLength("", WINDOWS_31J)).isEqualTo(0);
+        assertThat(byteLength("Aあｱ髙", WINDOWS_31J)).isEqualTo(6);
+        assertThat(byteLength("か゚𠮟", SHIFT_JIS_2004)).isEqualTo(4);
+        assertThatThrownBy(() -> byteLength("A\u2015", SHIFT_JIS))
+            .isInstanceOf(CharacterCodingRuntimeException.class)
+            .hasMessage("position: 1, rejected: \\u2015 (\u2015)");
+
+        // 状態を持つ文字集合は、表を使用しない。
+        assertThat(ByteLengthTable.of(WINDOWS_31J_G).widths).isNotNull();
+        assertThat(ByteLengthTable.of(UTF_8).widths).isNotNull();
+        assertThat(ByteLengthTable.of(ISO_2022_JP).widths).isNull();
+        assertThat(ByteLengthTable.of(IBM_930).widths).isNull();
+
+        String[] chars = { "A", "ｱ", "~", "\\", "あ", "漢", "髙", "①", "か", "\u309A", "é", "𠮟" };
+        Charset[] charsets = {
+            UTF_8, ISO_2022_JP, EUC_JP, SHIFT_JIS_2004, SHIFT_JIS_2004_G,
+            WINDOWS_31J_G, WINDOWS_31J_2004_G, IBM_930
+        };
+        Random random = new Random(0L);
+        for (int n = 0; n < 2000; ++n) {
+            StringBuilder sb = new StringBuilder();
+            int length = random.nextInt(10);
+            for (int i = 0; i < length; ++i) {
+                sb.append(chars[random.nextInt(chars.length)]);
+            }
+            String s = sb.toString();
+            for (Charset charset : charsets) {
+                byte[] bytes = encode(s, charset, "?");
+                if (!Arrays.equals(bytes, encodeOrNull(s, charset))) {
+                    continue;
+                }
+                assertThat(byteLength(s, charset)).as("%s: %s", charset, s).isEqualTo(bytes.length);
+                assertThat(isWithinByteLength(s, charset, bytes.length)).isTrue();
+                assertThat(isWithinByteLength(s, charset, bytes.length - 1)).isFalse();
+            }
+        }
+    }
+
+    byte[] encodeOrNull(String s, Charset charset) {
+        try {
+            return encode(s, charset);
+        } catch (CharacterCodingRuntimeException e) {
+            return null;
+        }
+    }
+
+    @Test
+    @DisplayName("チャネルの文字コード変換のテスト。")
+    void testTranscode(@TempDir Path dir) throws Exception {
+        // バッファの境界をまたぐ長さの文字列。
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 20_000; ++i) {
+            sb.append("あいう漢字ABC①\n");
+        }
+        String text = sb.toString();
+        String text2004 = text.replace("C", "C𠮟");
+
+        byte[] sjis = encode(text, WINDOWS_31J);
+        assertThat(transcodeBytes(sjis, WINDOWS_31J, UTF_8)).isEqualTo(encode(text, UTF_8));
+        assertThat(transcodeBytes(encode(text2004, UTF_8), UTF_8, SHIFT_JIS_2004))
+            .isEqualTo(encode(text2004, SHIFT_JIS_2004));
+
+        // 不正な入力の位置。
+        byte[] malformed = sjis.clone();
+        malformed[100_000] = (byte) 0x80;
+        assertThatThrownBy(() -> transcodeBytes(malformed, WINDOWS_31J, UTF_8))
+            .isInstanceOf(CharacterCodingRuntimeException.class)
+            .hasMessage("position: 100000, rejected: 0x80");
+        assertThatThrownBy(() -> transcodeBytes(encode(text2004, UTF_8), UTF_8, SHIFT_JIS))
+            .isInstanceOf(CharacterCodingRuntimeException.class)
+            .hasMessage("position: 8, rejected: \\uD842\\uDF9F (𠮟)");
+
+        // 置換。
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        long written = CharsetUtils.transcode(Channels.newChannel(new ByteArrayInputStream(malformed)), WINDOWS_31J,
+                Channels.newChannel(baos), UTF_8, "〓");
+        assertThat(written).isEqualTo(baos.size());
+        assertThat(decode(baos.toByteArray(), UTF_8)).isEqualTo(
+                decode(malformed, WINDOWS_31J, "〓"));
+        assertThat(transcodeBytes(encode("髙①𠮟", UTF_8), UTF_8, SHIFT_JIS, "〓"))
+            .isEqualTo(encode("〓〓〓", SHIFT_JIS));
+
+        // 同じ文字コードのファイルは、そのまま転送する。
+        Path source = Files.write(dir.resolve("source.txt"), sjis);
+        Path target = dir.resolve("target.txt");
+        try (FileChannel in = FileChannel.open(source);
+                FileChannel out = FileChannel.open(target,
+                        StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            assertThat(CharsetUtils.transcode(in, WINDOWS_31J, out, WINDOWS_31J)).isEqualTo(sjis.length);
+        }
+        assertThat(Files.readAllBytes(target)).isEqualTo(sjis);
+    }
+
+    @Test
+    @DisplayName("チャネルの文字コード変換のバッファが、エラー時も返却されて再利用されること。")
+    void testTranscodeReusesBuffers() throws Exception {
+        byte[] sjis = encode("あいう漢字ABC①", WINDOWS_31J);
+        transcodeBytes(sjis, WINDOWS_31J, UTF_8);
+        ChannelTranscoder transcoder = new ChannelTranscoder(WINDOWS_31J, UTF_8, CodingErrorAction.REPORT, null);
+        assertThat(ChannelTranscoder.BYTE_BUFFERS).doesNotContain(transcoder.in, transcoder.out);
+        ByteBuffer in = transcoder.in;
+        assertThat(in.isDirect()).isTrue();
+
+        // 不正な入力で例外が発生しても、バッファは返却される。
+        byte[] malformed = { (byte) 0x80 };
+        assertThatThrownBy(() -> transcoder.transcode(
+                Channels.newChannel(new ByteArrayInputStream(malformed)),
+                Channels.newChannel(new ByteArrayOutputStream())))
+            .isInstanceOf(CharacterCodingRuntimeException.class);
+        assertThat(ChannelTranscoder.BYTE_BUFFERS).contains(in);
+        assertThat(in.position()).isEqualTo(0);
+        assertThat(in.limit()).isEqualTo(ChannelTranscoder.BUFFER_SIZE);
+    }
+
+    byte[] transcodeBytes(byte[] bytes, Charset inCharset, Charset outCharset) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        long written = CharsetUtils.transcode(Channels.newChannel(new ByteArrayInputStream(bytes)), inCharset,
+                Channels.newChannel(baos), outCharset);
+        assertThat(written).isEqualTo(baos.size());
+        return baos.toByteArray();
+    }
+
+    byte[] transcodeBytes(byte[] bytes, Charset inCharset, Charset outCharset, String replace)
+            throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        CharsetUtils.transcode(Channels.newChannel(new ByteArrayInputStream(bytes)), inCharset,
+                Channels.newChannel(baos), outCharset, replace);
+        return baos.toByteArray();
+    }
+
     @Test
     @DisplayName("拡張版 Shift_JIS のエンコード・デコードのテスト。")
     void testShiftJisG() {
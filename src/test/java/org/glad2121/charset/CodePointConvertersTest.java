@@ -31,4 +31,38 @@ class CodePointConvertersTest {
         assertThat(CodePointConverters.FULLWIDTH_HIRAGANA).hasSize(55);
     }
 
+    @Test
+    @DisplayName("変換表に基づいてコードポイントと文字列を変換すること。")
+    void testConvert() {
+        CodePointConverter converter = CodePointConverter.create("test",
+                new int[] {'a', 0x20B9F, 'b', '\uFFFF', 'c'},
+                new int[] {'A', '叱', 0x20B9F, 'x', 'c'});
+        assertThat(converter.bmpOnly).isFalse();
+        assertThat(converter.convert('a')).isEqualTo('A');
+        assertThat(converter.convert(0x20B9F)).isEqualTo('叱');
+        assertThat(converter.convert('b')).isEqualTo(0x20B9F);
+        assertThat(converter.convert('\uFFFF')).isEqualTo('x');
+        assertThat(converter.convert('c')).isEqualTo('c');
+        assertThat(converter.convert('d')).isEqualTo('d');
+        assertThat(converter.convert(0x20B9E)).isEqualTo(0x20B9E);
+        assertThat(converter.convert(-1)).isEqualTo(-1);
+        assertThat(converter.convert("xa\uD842\uDF9Fb\uD842")).isEqualTo("xA叱\uD842\uDF9F\uD842");
+
+        CodePointConverter bmp = CodePointConverters.TO_HALFWIDTH_ASCII;
+        assertThat(bmp.bmpOnly).isTrue();
+        assertThat(bmp.convert("ａｂ\uD842\uDF9Fｃ")).isEqualTo("ab\uD842\uDF9Fc");
+        assertThat(CodePointConverters.TO_JIS_1990.convert("\uD842\uDF9F")).isEqualTo("叱");
+    }
+
+    @Test
+    @DisplayName("変換対象の文字がなければ、元の文字列をそのまま返すこと。")
+    void testConvertUnchanged() {
+        String s = "abc\uD842\uDF9F";
+        assertThat(CodePointConverters.TO_HALFWIDTH_ASCII.convert(s)).isSameAs(s);
+        assertThat(CodePointConverters.TO_JIS_1990.convert("abc")).isEqualTo("abc");
+        assertThat(CodePointConverters.TO_JIS_1990.convert(new StringBuilder("abc"))).isEqualTo("abc");
+        assertThat(CodePointConverters.TO_HALFWIDTH_ASCII.convert((CharSequence) null)).isNull();
+        assertThat(CodePointConverters.TO_HALFWIDTH_ASCII.convert("")).isEmpty();
+    }
+
 }
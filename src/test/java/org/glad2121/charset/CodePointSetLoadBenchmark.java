@@ -0,0 +1,105 @@
+package org.glad2121.charset;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * {@link CodePointSet} の読み込み時間を比較するベンチマーク。
+ * <p>
+ * 起動直後の初回呼び出しを計測するため、読み込み方法ごとに新しい JVM を起動して計測する。
+ * <pre>
+ * mvn test-compile
+ * java -cp target/classes:target/test-classes:(依存ライブラリ) \
+ *     org.glad2121.charset.CodePointSetLoadBenchmark [回数]
+ * </pre>
+ *
+ * @author glad2121
+ */
+class CodePointSetLoadBenchmark {
+
+    /**
+     * 設定ファイルを正規表現で解析する読み込み方法。
+     */
+    static final String TEXT = "text";
+
+    /**
+     * バイナリファイルを一括で読み込む読み込み方法。
+     */
+    static final String BINARY = "binary";
+
+    /**
+     * メインルーチン。
+     *
+     * @param args 計測回数、または子プロセスで計測する読み込み方法
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && (TEXT.equals(args[0]) || BINARY.equals(args[0]))) {
+            // 子プロセス: 1回だけ読み込んで、経過時間 (ナノ秒) を出力する。
+            System.out.println(measure(args[0]));
+            return;
+        }
+        int count = (args.length > 0) ? Integer.parseInt(args[0]) : 10;
+        for (String method : new String[] {TEXT, BINARY}) {
+            List<Long> times = new ArrayList<>();
+            for (int i = 0; i < count; ++i) {
+                times.add(fork(method));
+            }
+            Collections.sort(times);
+            System.out.printf("%-6s: median %6.2f ms, min %6.2f ms, max %6.2f ms (%d runs)%n",
+                    method,
+                    times.get(times.size() / 2) / 1e6,
+                    times.get(0) / 1e6,
+                    times.get(times.size() - 1) / 1e6,
+                    count);
+        }
+    }
+
+    /**
+     * 指定された読み込み方法で読み込んで、経過時間を返します。
+     *
+     * @param method 読み込み方法
+     * @return 経過時間 (ナノ秒)
+     */
+    static long measure(String method) {
+        Supplier<CodePointSet> loader = TEXT.equals(method)
+                ? () -> CodePointSet.loadFromCharsetCompactText(CodePointSet.SOURCE_NAME)
+                : () -> CodePointSet.loadFromBinary(CodePointSet.BINARY_NAME);
+        long start = System.nanoTime();
+        CodePointSet set = loader.get();
+        long time = System.nanoTime() - start;
+        if (!set.contains('あ')) {
+            throw new IllegalStateException();
+        }
+        return time;
+    }
+
+    /**
+     * 新しい JVM を起動して計測します。
+     *
+     * @param method 読み込み方法
+     * @return 経過時間 (ナノ秒)
+     */
+    static long fork(String method) throws IOException, InterruptedException {
+        String java = ProcessHandle.current().info().command().orElse("java");
+        Process process = new ProcessBuilder(java,
+                "-cp", System.getProperty("java.class.path"),
+                CodePointSetLoadBenchmark.class.getName(), method)
+            .redirectError(ProcessBuilder.Redirect.INHERIT)
+            .start();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line = reader.readLine();
+            if (process.waitFor() != 0 || line == null) {
+                throw new IllegalStateException("Failed: " + method);
+            }
+            return Long.parseLong(line.trim());
+        }
+    }
+
+}
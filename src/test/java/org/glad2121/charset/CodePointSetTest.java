@@ -4,6 +4,7 @@ import static org.assertj.core.api.Assertions.*;
 
 import java.util.Map;
 import java.util.TreeMap;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 import org.junit.jupiter.api.AfterEach;
@@ -48,9 +49,10 @@ class CodePointSetTest {
     void testEqualToOriginal() {
         CodePointSet source = new CharsetFileConverter()
                 .loadFromCharsetText(CharsetFileConverter.SOURCE_NAME);
-        CodePointSet target = CodePointSet.INSTANCE;
-        Map<Integer, CharType> diff = source.map.entrySet().stream()
-                .filter(entry -> !entry.getValue().equals(target.map.get(entry.getKey())))
+        Map<Integer, CharType> target = CodePointSet.INSTANCE.toMap();
+        assertThat(target).hasSameSizeAs(source.toMap());
+        Map<Integer, CharType> diff = source.toMap().entrySet().stream()
+                .filter(entry -> !entry.getValue().equals(target.get(entry.getKey())))
                 .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
         if (!diff.isEmpty()) {
             int count = 0;
@@ -62,4 +64,55 @@ class CodePointSetTest {
         }
     }
 
+    @Test
+    @DisplayName("バイナリファイルから読み込んだ結果が、設定ファイルから読み込んだ結果と同じになることを確認。")
+    void testLoadFromBinary() {
+        CodePointSet binary = CodePointSet.loadFromBinary(CodePointSet.BINARY_NAME);
+        CodePointSet text = CodePointSet.loadFromCharsetCompactText(CodePointSet.SOURCE_NAME);
+        assertThat(binary).as("ビルド時に生成されていること").isNotNull();
+        assertThat(binary.index).isEqualTo(text.index);
+        assertThat(binary.blocks).isEqualTo(text.blocks);
+        assertThat(binary.extraKeys).isEqualTo(text.extraKeys);
+        assertThat(binary.extraValues).isEqualTo(text.extraValues);
+        assertThat(binary.toMap()).isEqualTo(text.toMap());
+        assertThat(CodePointSet.loadFromBinary("not-found.bin")).isNull();
+    }
+
+    @Test
+    @DisplayName("ビットマスクによる判定が、文字区分のメソッドによる判定と一致すること。")
+    void testMatchesMask() {
+        checkMatchesMask(CharType.MASK_ASCII, CharType::isAscii);
+        checkMatchesMask(CharType.MASK_JIS_X_0201, CharType::isJisX0201);
+        checkMatchesMask(CharType.MASK_JIS_1990, CharType::isJis1990);
+        checkMatchesMask(CharType.MASK_JIS_2004, CharType::isJis2004);
+        checkMatchesMask(CharType.MASK_BASIC_J, CharType::isBasicJ);
+        checkMatchesMask(CharType.MASK_COMMON_J, CharType::isCommonJ);
+        checkMatchesMask(CharType.MASK_DEFINED, type -> !CharType.UNDEFINED.equals(type));
+    }
+
+    void checkMatchesMask(int mask, Predicate<CharType> pred) {
+        CodePointSet set = CodePointSet.INSTANCE;
+        for (int cp = 0; cp <= Character.MAX_CODE_POINT; ++cp) {
+            if (set.matches(cp, mask) != set.matches(cp, pred)) {
+                fail(String.format("%04X: %s", cp, set.charType(cp)));
+            }
+        }
+        assertThat(set.matches(-1, mask)).isFalse();
+        assertThat(set.matches(Character.MAX_CODE_POINT + 1, mask)).isFalse();
+    }
+
+    @Test
+    @DisplayName("文字列の判定で、条件を満たさない最初の位置を返すこと。")
+    void testIndexOfMismatch() {
+        CodePointSet set = CodePointSet.INSTANCE;
+        assertThat(set.indexOfMismatch(null, CharType.MASK_JIS_1990)).isEqualTo(-1);
+        assertThat(set.indexOfMismatch("", CharType.MASK_JIS_1990)).isEqualTo(-1);
+        assertThat(set.indexOfMismatch("aｱ亜", CharType.MASK_JIS_1990)).isEqualTo(-1);
+        assertThat(set.indexOfMismatch("aｱ亜\uD842\uDF9F", CharType.MASK_JIS_1990)).isEqualTo(3);
+        assertThat(set.indexOfMismatch("aｱ亜\uD842\uDF9F", CharType.MASK_JIS_2004)).isEqualTo(-1);
+        assertThat(set.indexOfMismatch("a\uD842", CharType.MASK_JIS_2004)).isEqualTo(1);
+        assertThat(set.matchesAll("aｱ亜", CharType.MASK_JIS_1990)).isTrue();
+        assertThat(set.matchesAll("aｱ亜\uD842\uDF9F", CharType.MASK_JIS_1990)).isFalse();
+    }
+
 }
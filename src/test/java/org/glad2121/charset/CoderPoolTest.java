@@ -0,0 +1,101 @@
+package org.glad2121.charset;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CharsetEncoder;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * {@link CoderPool} の単体テスト。
+ */
+class CoderPoolTest {
+
+    @BeforeEach
+    void setUp() throws Exception {
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+    }
+
+    @Test
+    @DisplayName("組み合わせごとにエンコーダ・デコーダが再利用され、回数が数えられること。")
+    void testReuse() throws Exception {
+        CoderPool pool = new CoderPool(1);
+        CoderPool.Key report = CoderPool.Key.report(CharsetUtils.WINDOWS_31J_2004_G);
+        CoderPool.Key replace = CoderPool.Key.replace(CharsetUtils.WINDOWS_31J_2004_G, "〓");
+
+        CharsetEncoder encoder = pool.encoder(report);
+        assertThat(pool.hitCount()).isEqualTo(0);
+        assertThat(pool.missCount()).isEqualTo(1);
+        pool.release(report, encoder);
+        assertThat(pool.encoder(CoderPool.Key.report(CharsetUtils.WINDOWS_31J_2004_G)))
+            .isSameAs(encoder);
+        assertThat(pool.hitCount()).isEqualTo(1);
+
+        // 置換文字列の異なる組み合わせは共有しない。
+        CharsetEncoder replacing = pool.encoder(replace);
+        assertThat(replacing).isNotSameAs(encoder);
+        assertThat(replacing.replacement()).isEqualTo(new byte[] { (byte) 0x81, (byte) 0xAC });
+        assertThat(pool.missCount()).isEqualTo(2);
+
+        // 上限を超えて返却されたものは破棄する。
+        CharsetEncoder other = pool.encoder(report);
+        pool.release(report, encoder);
+        pool.release(report, other);
+        assertThat(pool.encoder(report)).isSameAs(encoder);
+
+        // 途中の状態はリセットされる。
+        CharsetDecoder decoder = pool.decoder(replace);
+        decoder.decode(ByteBuffer.wrap(new byte[] { (byte) 0x82 }), CharBuffer.allocate(4), false);
+        pool.release(replace, decoder);
+        assertThat(pool.decoder(replace).decode(ByteBuffer.wrap(new byte[] { 0x41 })).toString())
+            .isEqualTo("A");
+    }
+
+    @Test
+    @DisplayName("既定の組み合わせは文字集合ごとに共有され、任意の置換文字列の組み合わせは上限までしか保持しないこと。")
+    void testKeys() throws Exception {
+        assertThat(CoderPool.Key.report(CharsetUtils.WINDOWS_31J))
+            .isSameAs(CoderPool.Key.report(CharsetUtils.WINDOWS_31J));
+        assertThat(CoderPool.Key.replace(CharsetUtils.WINDOWS_31J, null))
+            .isSameAs(CoderPool.Key.replace(CharsetUtils.WINDOWS_31J, ""))
+            .isNotEqualTo(CoderPool.Key.report(CharsetUtils.WINDOWS_31J));
+        assertThat(CoderPool.Key.replace(CharsetUtils.WINDOWS_31J, "〓"))
+            .isEqualTo(CoderPool.Key.replace(CharsetUtils.WINDOWS_31J, "〓"))
+            .hasSameHashCodeAs(CoderPool.Key.replace(CharsetUtils.WINDOWS_31J, "〓"));
+
+        CoderPool pool = new CoderPool(1);
+        for (int i = 0; i < CoderPool.MAX_KEYS * 2; ++i) {
+            CoderPool.Key key = CoderPool.Key.replace(CharsetUtils.WINDOWS_31J, String.valueOf((char) (0x4E00 + i)));
+            pool.release(key, pool.encoder(key));
+            pool.release(key, pool.decoder(key));
+        }
+        assertThat(pool.encoders).hasSize(CoderPool.MAX_KEYS);
+        assertThat(pool.decoders).hasSize(CoderPool.MAX_KEYS);
+        assertThat(pool.missCount()).isEqualTo(CoderPool.MAX_KEYS * 4);
+
+        // 上限を超えた組み合わせも、毎回生成して使用できる。
+        CoderPool.Key key = CoderPool.Key.replace(CharsetUtils.WINDOWS_31J, "??");
+        assertThat(pool.encoder(key).replacement()).isEqualTo(new byte[] { '?', '?' });
+    }
+
+    @Test
+    @DisplayName("CharsetUtils のエンコード・デコードでプールが使用されること。")
+    void testCharsetUtils() throws Exception {
+        CharsetUtils.encode("あ", CharsetUtils.WINDOWS_31J_2004_G);
+        long hits = CharsetUtils.getCoderPoolHitCount();
+        assertThat(CharsetUtils.encode("あ", CharsetUtils.WINDOWS_31J_2004_G))
+            .isEqualTo(new byte[] { (byte) 0x82, (byte) 0xA0 });
+        assertThat(CharsetUtils.getCoderPoolHitCount()).isGreaterThan(hits);
+        assertThat(CharsetUtils.getCoderPoolMissCount()).isPositive();
+    }
+
+}
@@ -0,0 +1,117 @@
+package org.glad2121.charset;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.util.Random;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * {@link ConverterEncoder} の単体テスト。
+ */
+class ConverterEncoderTest {
+
+    @BeforeEach
+    void setUp() throws Exception {
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+    }
+
+    @Test
+    @DisplayName("エンコード表による結果が、移譲先のエンコーダによる結果と一致すること。")
+    void testSameAsDelegate() throws Exception {
+        checkSameAsDelegate(CharsetUtils.SHIFT_JIS_G,
+                new ConverterEncoder(Charset.forName("Shift_JIS").newEncoder(),
+                        CodePointConverters.TO_JIS_1990));
+        checkSameAsDelegate(CharsetUtils.SHIFT_JIS_2004_G,
+                new ConverterEncoder(Charset.forName("x-SJIS_0213").newEncoder(),
+                        CodePointConverters.TO_JIS_2004));
+        checkSameAsDelegate(CharsetUtils.WINDOWS_31J_G,
+                new ConverterEncoder(Charset.forName("Windows-31J").newEncoder(),
+                        CodePointConverters.TO_WINDOWS_31J));
+        checkSameAsDelegate(CharsetUtils.WINDOWS_31J_2004_G,
+                new Windows31J2004g.Encoder(Charset.forName("Windows-31J").newEncoder(),
+                        Charset.forName("x-SJIS_0213").newEncoder(),
+                        CodePointConverters.TO_WINDOWS_31J_2004, null));
+    }
+
+    void checkSameAsDelegate(Charset charset, ConverterEncoder reference) throws Exception {
+        // 基本多言語面のすべての文字。
+        StringBuilder sb = new StringBuilder();
+        for (int c = 0; c < 0x10000; ++c) {
+            if (!Character.isSurrogate((char) c)) {
+                sb.append((char) c).append('a');
+            }
+        }
+        String all = sb.toString();
+        assertThat(encode(charset.newEncoder(), CharBuffer.wrap(all), 8192))
+            .isEqualTo(encode(reference, CharBuffer.wrap(all), 8192));
+
+        // 合成用文字、サロゲートを含むランダムな文字列を、小さなバッファや直接バッファで分割してエンコード。
+        String samples = "あかかきカキｶせゼ゚ゔｳæɔʌəɚ˩˥"
+                + "̀́𠮟𪚲𠠀𐀀a1 。㈱①―−～";
+        Random random = new Random(0L);
+        sb.setLength(0);
+        for (int i = 0; i < 50_000; ++i) {
+            int cp = samples.codePointAt(random.nextInt(samples.length()));
+            if (random.nextInt(100) == 0) {
+                sb.append(Character.highSurrogate(0x20B9F));
+            } else {
+                sb.appendCodePoint(cp);
+            }
+        }
+        String text = sb.toString();
+        byte[] expected = encode(reference, CharBuffer.wrap(text), 8192);
+        CharBuffer readOnly = CharBuffer.wrap(text).asReadOnlyBuffer();
+        assertThat(encode(charset.newEncoder(), readOnly, 5)).isEqualTo(expected);
+        assertThat(encode(charset.newEncoder(), CharBuffer.wrap(text.toCharArray()), 4)).isEqualTo(expected);
+    }
+
+    byte[] encode(CharsetEncoder encoder, CharBuffer in, int outSize) {
+        encoder.reset()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        ByteBuffer out = (outSize < 8192)
+                ? ByteBuffer.allocateDirect(Math.max(outSize, 4))
+                : ByteBuffer.allocate(outSize);
+        // 合成用文字の扱いが分割位置に依存するため、出力バッファの大きさによらず同じ位置で分割する。
+        CharBuffer part = in.duplicate();
+        int chunk = 7;
+        for (int limit = in.position() + chunk; ; limit += chunk) {
+            part.limit(Math.min(in.limit(), limit));
+            boolean endOfInput = (part.limit() == in.limit());
+            while (encoder.encode(part, out, endOfInput).isOverflow()) {
+                drain(out, baos);
+            }
+            if (endOfInput) {
+                break;
+            }
+        }
+        while (encoder.flush(out).isOverflow()) {
+            drain(out, baos);
+        }
+        drain(out, baos);
+        return baos.toByteArray();
+    }
+
+    void drain(ByteBuffer out, ByteArrayOutputStream baos) {
+        out.flip();
+        while (out.hasRemaining()) {
+            baos.write(out.get());
+        }
+        out.clear();
+    }
+
+}
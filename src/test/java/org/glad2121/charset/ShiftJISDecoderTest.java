@@ -0,0 +1,99 @@
+package org.glad2121.charset;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.util.Random;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * {@link ShiftJISDecoder} の単体テスト。
+ */
+class ShiftJISDecoderTest {
+
+    @BeforeEach
+    void setUp() throws Exception {
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+    }
+
+    @Test
+    @DisplayName("デコード表による結果が、移譲先のデコーダによる結果と一致すること。")
+    void testSameAsDelegate() throws Exception {
+        checkSameAsDelegate(CharsetUtils.SHIFT_JIS_G,
+                new ShiftJISDecoder(Charset.forName("Shift_JIS").newDecoder()));
+        checkSameAsDelegate(CharsetUtils.SHIFT_JIS_2004_G,
+                new ShiftJISDecoder(Charset.forName("x-SJIS_0213").newDecoder()));
+        checkSameAsDelegate(CharsetUtils.WINDOWS_31J_G,
+                new ShiftJISDecoder(Charset.forName("Windows-31J").newDecoder()));
+        checkSameAsDelegate(CharsetUtils.WINDOWS_31J_2004_G,
+                new Windows31J2004g.Decoder(Charset.forName("Windows-31J").newDecoder(),
+                        Charset.forName("x-SJIS_0213").newDecoder()));
+    }
+
+    void checkSameAsDelegate(Charset charset, ShiftJISDecoder reference) throws Exception {
+        // すべての1バイト文字・2バイト文字。
+        ByteBuffer all = ByteBuffer.allocate(256 + 256 * 256 * 2);
+        for (int n1 = 0; n1 < 256; ++n1) {
+            all.put((byte) n1);
+            for (int n2 = 0; n2 < 256; ++n2) {
+                all.put((byte) n1).put((byte) n2);
+            }
+        }
+        byte[] bytes = all.array();
+        assertThat(decode(charset.newDecoder(), ByteBuffer.wrap(bytes), 8192))
+            .isEqualTo(decode(reference, ByteBuffer.wrap(bytes), 8192));
+
+        // ランダムなバイト列を、小さなバッファや直接バッファで分割してデコード。
+        Random random = new Random(0L);
+        byte[] randomBytes = new byte[100_000];
+        random.nextBytes(randomBytes);
+        String expected = decode(reference, ByteBuffer.wrap(randomBytes), 8192);
+        ByteBuffer direct = ByteBuffer.allocateDirect(randomBytes.length);
+        direct.put(randomBytes).flip();
+        assertThat(decode(charset.newDecoder(), direct, 3)).isEqualTo(expected);
+        assertThat(decode(charset.newDecoder(), ByteBuffer.wrap(randomBytes), 1)).isEqualTo(expected);
+    }
+
+    String decode(CharsetDecoder decoder, ByteBuffer in, int outSize) {
+        decoder.reset()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE)
+            .replaceWith("?");
+        StringBuilder sb = new StringBuilder();
+        CharBuffer out = CharBuffer.allocate(Math.max(outSize, 2));
+        ByteBuffer part = in.duplicate();
+        int chunk = 7;
+        while (true) {
+            int limit = Math.min(in.limit(), part.position() + chunk);
+            part.limit(limit);
+            boolean endOfInput = (limit == in.limit());
+            CoderResult result = decoder.decode(part, out, endOfInput);
+            if (result.isOverflow()) {
+                sb.append(out.flip());
+                out.clear();
+                continue;
+            }
+            if (endOfInput) {
+                break;
+            }
+        }
+        while (decoder.flush(out).isOverflow()) {
+            sb.append(out.flip());
+            out.clear();
+        }
+        return sb.append(out.flip()).toString();
+    }
+
+}
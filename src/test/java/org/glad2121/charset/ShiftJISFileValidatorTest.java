@@ -0,0 +1,118 @@
+package org.glad2121.charset;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.glad2121.util.ArrayUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * {@link ShiftJISFileValidator} の単体テスト。
+ */
+class ShiftJISFileValidatorTest {
+
+    @BeforeEach
+    void setUp() throws Exception {
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+    }
+
+    @Test
+    @DisplayName("条件を満たさない文字の位置と、文字区分ごとの文字数が集計されること。")
+    void testValidate(@TempDir Path dir) throws Exception {
+        // A あ 髙 (IBM拡張文字) ① (NEC特殊文字) 0x80 (不正) 漢
+        byte[] bytes = ArrayUtils.bytes(
+                0x41, 0x82, 0xA0, 0xFB, 0xFC, 0x87, 0x40, 0x80, 0x8A, 0xBF);
+        Path path = Files.write(dir.resolve("test.txt"), bytes);
+
+        ShiftJISFileValidator validator = new ShiftJISFileValidator(
+                CharsetUtils.WINDOWS_31J, t -> t.isJis1990() || t.isIbmExt());
+        ShiftJISFileValidator.Result result = validator.validate(path);
+        assertThat(result.getLength()).isEqualTo(bytes.length);
+        assertThat(result.isValid()).isFalse();
+        assertThat(result.getInvalidCount()).isEqualTo(2);
+        assertThat(result.getErrorCount()).isEqualTo(1);
+        assertThat(result.getInvalidOffsets()).containsExactly(5L, 7L);
+        assertThat(result.getCounts().values().stream().mapToLong(Long::longValue).sum())
+            .isEqualTo(5);
+        assertThat(result.getCounts()).containsEntry(
+                CodePointSet.INSTANCE.charType('①'), 1L);
+
+        ShiftJISFileValidator jis1990 = new ShiftJISFileValidator(
+                CharsetUtils.WINDOWS_31J, CharType.MASK_JIS_1990);
+        assertThat(jis1990.validate(path).getInvalidOffsets()).containsExactly(3L, 5L, 7L);
+    }
+
+    @Test
+    @DisplayName("Shift_JIS の派生文字集合以外は、例外になること。")
+    void testCharset() throws Exception {
+        assertThatThrownBy(() -> new ShiftJISFileValidator(CharsetUtils.UTF_8, CharType.MASK_JIS_1990))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new ShiftJISFileValidator(CharsetUtils.EUC_JP, CharType.MASK_JIS_1990))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new ShiftJISFileValidator(CharsetUtils.IBM_930, CharType.MASK_JIS_1990))
+            .isInstanceOf(IllegalArgumentException.class);
+
+        for (Charset charset : Arrays.asList(CharsetUtils.SHIFT_JIS, CharsetUtils.SHIFT_JIS_G,
+                CharsetUtils.WINDOWS_31J, CharsetUtils.WINDOWS_31J_2004_G, CharsetUtils.IBM_943)) {
+            assertThat(new ShiftJISFileValidator(charset, CharType.MASK_JIS_1990).table).isNotNull();
+        }
+    }
+
+    @Test
+    @DisplayName("チャンクの分割位置にかかわらず、同じ結果になること。")
+    void testChunkBoundaries(@TempDir Path dir) throws Exception {
+        // 上位バイトの範囲の値が連続しやすいバイト列。
+        Random random = new Random(0L);
+        byte[] bytes = new byte[10_000];
+        for (int i = 0; i < bytes.length; ++i) {
+            int n = random.nextInt(16);
+            bytes[i] = (byte) ((n == 0) ? random.nextInt(0x100)
+                    : (n < 12) ? 0x81 + random.nextInt(0x1F) : 0x41 + random.nextInt(0x1A));
+        }
+        Path path = Files.write(dir.resolve("random.txt"), bytes);
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            checkChunkBoundaries(path, bytes.length, pool);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    void checkChunkBoundaries(Path path, int length, ForkJoinPool pool) throws Exception {
+        for (Charset charset : new Charset[] {
+                CharsetUtils.SHIFT_JIS, CharsetUtils.WINDOWS_31J_G }) {
+            ShiftJISFileValidator.Result expected = new ShiftJISFileValidator(
+                    charset, t -> t.isJis1990(), Integer.MAX_VALUE - 1, 100_000).validate(path);
+            assertThat(expected.getLength()).isEqualTo(length);
+            for (int chunkSize : new int[] { 1, 2, 3, 7, 64, 4096 }) {
+                ShiftJISFileValidator.Result actual = new ShiftJISFileValidator(
+                        charset, t -> t.isJis1990(), chunkSize, 100_000)
+                    .validate(path, pool);
+                assertThat(actual.getLength()).isEqualTo(expected.getLength());
+                assertThat(actual.getInvalidOffsets()).isEqualTo(expected.getInvalidOffsets());
+                assertThat(actual.getCounts()).isEqualTo(expected.getCounts());
+                assertThat(actual.getErrorCount()).isEqualTo(expected.getErrorCount());
+            }
+            ShiftJISFileValidator.Result limited = new ShiftJISFileValidator(
+                    charset, t -> t.isJis1990(), 64, 10).validate(path);
+            assertThat(limited.getInvalidCount()).isEqualTo(expected.getInvalidCount());
+            assertThat(limited.getInvalidOffsets())
+                .containsExactly(Arrays.copyOf(expected.getInvalidOffsets(), 10));
+        }
+    }
+
+}
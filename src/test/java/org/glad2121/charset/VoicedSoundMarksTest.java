@@ -0,0 +1,101 @@
+package org.glad2121.charset;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.text.Normalizer;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import org.glad2121.util.StringUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * {@link VoicedSoundMarks} の単体テスト。
+ */
+class VoicedSoundMarksTest {
+
+    /**
+     * 全角ひらがな・カタカナのパターン。
+     */
+    static final Pattern FULLWIDTH_KANA_PATTERN =
+            Pattern.compile("[　、。「」ぁ-ゖ゙-ゞ゠-ヾ]+");
+
+    /**
+     * 半角カナと互換性のある、全角ひらがな・カタカナのパターン。
+     */
+    static final Pattern FULLWIDTH_COMPATIBLE_KANA_PATTERN =
+            Pattern.compile("[　、。「」ぁ-ゖ゙-゚゠-ヷヺ-ー]+");
+
+    @BeforeEach
+    void setUp() throws Exception {
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+    }
+
+    @Test
+    @DisplayName("すべての全角かなと濁点・半濁点の組み合わせが、正規表現と Normalizer による結果と一致すること。")
+    void testSameAsNormalizer() throws Exception {
+        for (char base = VoicedSoundMarks.MIN; base <= VoicedSoundMarks.MAX; ++base) {
+            for (char mark : new char[] { VoicedSoundMarks.VOICED, VoicedSoundMarks.SEMI_VOICED }) {
+                String s = new String(new char[] { base, mark });
+                assertThat(VoicedSoundMarks.compose(s)).isEqualTo(nfc(s));
+            }
+            String s = String.valueOf(base);
+            assertThat(VoicedSoundMarks.decompose(s))
+                .isEqualTo(StringUtils.replaceAll(s, FULLWIDTH_COMPATIBLE_KANA_PATTERN, g -> nfd(g)));
+        }
+    }
+
+    @Test
+    @DisplayName("ランダムな文字列の変換結果が、正規表現と Normalizer による結果と一致すること。")
+    void testRandom() throws Exception {
+        String chars = "　、。「」ｱｶﾊｳﾜｦﾞﾟ゙゚Aé"
+                + "うかはゝゞウカハワヰヱヲヽヾヸヹヷヺがぱヴ";
+        Random random = new Random(0L);
+        for (int n = 0; n < 10_000; ++n) {
+            StringBuilder sb = new StringBuilder();
+            int length = random.nextInt(8);
+            for (int i = 0; i < length; ++i) {
+                sb.append(chars.charAt(random.nextInt(chars.length())));
+            }
+            String s = sb.toString();
+            assertThat(CharsetUtils.composeVoicedSoundMark(s))
+                .isEqualTo(StringUtils.replaceAll(s, FULLWIDTH_KANA_PATTERN, g -> nfc(g)));
+            assertThat(CharsetUtils.toHalfwidthKana(s))
+                .isEqualTo(CodePointConverters.TO_HALFWIDTH_KANA.convert(
+                        StringUtils.replaceAll(s, FULLWIDTH_COMPATIBLE_KANA_PATTERN, g -> nfd(g))));
+            String hiragana = CodePointConverters.TO_FULLWIDTH_HIRAGANA.convert(s);
+            assertThat(CharsetUtils.toFullwidthHiragana(s))
+                .isEqualTo(StringUtils.replaceAll(hiragana, FULLWIDTH_KANA_PATTERN, g -> nfc(g)));
+            String katakana = CodePointConverters.TO_FULLWIDTH_KATAKANA.convert(s);
+            assertThat(CharsetUtils.toFullwidthKatakana(s))
+                .isEqualTo(StringUtils.replaceAll(katakana, FULLWIDTH_KANA_PATTERN, g -> nfc(g)));
+        }
+    }
+
+    @Test
+    @DisplayName("変換が不要な場合は、同じ内容の文字列を返すこと。")
+    void testUnchanged() throws Exception {
+        assertThat(VoicedSoundMarks.compose((CharSequence) null)).isNull();
+        assertThat(VoicedSoundMarks.compose("")).isEqualTo("");
+        String s = "かきくけこ";
+        assertThat(VoicedSoundMarks.compose(s)).isSameAs(s);
+        assertThat(VoicedSoundMarks.decompose(s)).isSameAs(s);
+        assertThat(VoicedSoundMarks.compose(new StringBuilder("が"))).isEqualTo("が");
+        assertThat(VoicedSoundMarks.decompose(new StringBuilder("ゞが"))).isEqualTo("ゞが");
+    }
+
+    static String nfc(String s) {
+        return Normalizer.normalize(s, Normalizer.Form.NFC);
+    }
+
+    static String nfd(String s) {
+        return Normalizer.normalize(s, Normalizer.Form.NFD);
+    }
+
+}
@@ -2,6 +2,8 @@ package org.glad2121.util;
 
 import static org.assertj.core.api.Assertions.*;
 
+import java.nio.charset.StandardCharsets;
+
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -224,6 +226,52 @@ class NumberUtilsTest {
             .isInstanceOf(NumberFormatException.class);
     }
 
+    @Test
+    @DisplayName("long の配列と固定桁数の32進数のバイト列を一括で相互に変換できること。")
+    void testBulkCrockford32() {
+        long[] values = { 0L, 1L, Long.MAX_VALUE, -1L, Long.MIN_VALUE, 0x0123_4567_89AB_CDEFL };
+        byte[] ascii = NumberUtils.toCrockford32(values);
+        assertThat(new String(ascii, StandardCharsets.US_ASCII)).isEqualTo(
+                "0000000000000" + "0000000000001" + "7ZZZZZZZZZZZZ"
+                + "FZZZZZZZZZZZZ" + "8000000000000" + NumberUtils.toCrockford32(values[5], 13));
+        for (long value : values) {
+            assertThat(NumberUtils.parseLong(NumberUtils.toCrockford32(value, 13), 32))
+                    .isEqualTo(value);
+        }
+        assertThat(NumberUtils.parseCrockford32(ascii, 0, values.length)).containsExactly(values);
+
+        // 途中の範囲の変換と、小文字・紛らわしい文字の読み取り。
+        byte[] buf = new byte[2 + 2 * 13];
+        assertThat(NumberUtils.toCrockford32(values, 2, 2, buf, 2)).isEqualTo(28);
+        assertThat(new String(buf, 2, 26, StandardCharsets.US_ASCII))
+                .isEqualTo("7ZZZZZZZZZZZZFZZZZZZZZZZZZ");
+        long[] parsed = new long[3];
+        byte[] lower = "0000000000oIl".getBytes(StandardCharsets.US_ASCII);
+        assertThat(NumberUtils.parseCrockford32(lower, 0, parsed, 1, 1)).isEqualTo(13);
+        assertThat(parsed).containsExactly(0L, 0x21L, 0L);
+    }
+
+    @Test
+    @DisplayName("固定桁数の32進数のバイト列の一括変換でエラーが発生する場合。")
+    void testBulkCrockford32Error() {
+        byte[] ascii = "00000000000U0".getBytes(StandardCharsets.US_ASCII);
+        assertThatThrownBy(() -> NumberUtils.parseCrockford32(ascii, 0, 1))
+            .isInstanceOf(NumberFormatException.class)
+            .hasMessageStartingWith("error at:11 ");
+        byte[] high = "G000000000000".getBytes(StandardCharsets.US_ASCII);
+        assertThatThrownBy(() -> NumberUtils.parseCrockford32(high, 0, 1))
+            .isInstanceOf(NumberFormatException.class)
+            .hasMessageContaining("exceeds range of long");
+        byte[] nonAscii = "000000000000\u00B0".getBytes(StandardCharsets.ISO_8859_1);
+        assertThatThrownBy(() -> NumberUtils.parseCrockford32(nonAscii, 0, 1))
+            .isInstanceOf(NumberFormatException.class)
+            .hasMessageStartingWith("error at:12 ");
+        assertThatThrownBy(() -> NumberUtils.parseCrockford32(ascii, 0, 2))
+            .isInstanceOf(IndexOutOfBoundsException.class);
+        assertThatThrownBy(() -> NumberUtils.toCrockford32(new long[2], 0, 2, new byte[25], 0))
+            .isInstanceOf(IndexOutOfBoundsException.class);
+    }
+
     @Test
     @DisplayName("文字から数字へ正しく変換できること。")
     void testCharToNum() {
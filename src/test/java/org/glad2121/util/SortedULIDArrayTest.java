@@ -0,0 +1,98 @@
+package org.glad2121.util;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * {@link SortedULIDArray} の単体テスト。
+ */
+class SortedULIDArrayTest {
+
+    @BeforeEach
+    void setUp() throws Exception {
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+    }
+
+    @Test
+    @DisplayName("ULID が昇順に並び、重複が除かれること。")
+    void testSort() {
+        Random random = new Random(0L);
+        List<ULID> ulids = new ArrayList<>();
+        for (int i = 0; i < 10_000; ++i) {
+            ulids.add(new ULID(((long) random.nextInt(100) << 16) | random.nextInt(4),
+                    random.nextInt(100)));
+        }
+        SortedULIDArray sorted = SortedULIDArray.of(ULIDArray.of(ulids.toArray(new ULID[0])));
+        TreeSet<ULID> expected = new TreeSet<>(ulids);
+        assertThat(sorted.asList()).containsExactlyElementsOf(expected);
+        assertThat(sorted.size()).isEqualTo(expected.size());
+        for (ULID ulid : ulids) {
+            assertThat(sorted.get(sorted.indexOf(ulid))).isEqualTo(ulid);
+        }
+        assertThat(sorted.indexOf(new ULID(-1L, 0L))).isEqualTo(-(sorted.size() + 1));
+        assertThat(sorted.contains(new ULID(0L, 100L))).isFalse();
+
+        // 最上位ビットが立ったビット列は、文字列表現と同じく後ろに並ぶ。
+        ULID high = ULID.from("7ZZZZZZZZZZZZZZZZZZZZZZZZZ");
+        ULID low = ULID.from("01DZ86TBVBPHGD9PAH70YS7JVT");
+        assertThat(SortedULIDArray.of(ULIDArray.of(high, low)).asList()).containsExactly(low, high);
+
+        // 最下位ビット列の符号が異なる場合も、compareTo の順序と一致する。
+        ULID x = new ULID(1L << 16, Long.MAX_VALUE);
+        ULID y = new ULID(1L << 16, Long.MIN_VALUE);
+        ULID z = new ULID(1L << 16, -1L);
+        SortedULIDArray signs = SortedULIDArray.of(ULIDArray.of(z, y, x));
+        assertThat(signs.asList()).containsExactlyElementsOf(new TreeSet<>(List.of(x, y, z)));
+        assertThat(Collections.binarySearch(signs.asList(), y)).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("集合から生成できること。")
+    void testOfSet() {
+        ULIDHashSet set = new ULIDHashSet();
+        List<ULID> ulids = new ArrayList<>(ULID.DefaultGenerator.INSTANCE.nextBatch(100));
+        Collections.shuffle(ulids, new Random(0L));
+        ulids.forEach(set::add);
+        assertThat(SortedULIDArray.of(set).asList()).isSorted().hasSize(100);
+    }
+
+    @Test
+    @DisplayName("タイムスタンプの範囲で検索できること。")
+    void testRange() {
+        List<ULID> ulids = new ArrayList<>();
+        for (long t = 100; t < 200; t += 10) {
+            for (int i = 0; i < 3; ++i) {
+                ulids.add(new ULID((t << 16) | i, i));
+            }
+        }
+        Collections.shuffle(ulids, new Random(0L));
+        SortedULIDArray sorted = SortedULIDArray.of(ULIDArray.of(ulids.toArray(new ULID[0])));
+        assertThat(sorted.lowerBound(0L)).isEqualTo(0);
+        assertThat(sorted.lowerBound(100L)).isEqualTo(0);
+        assertThat(sorted.lowerBound(101L)).isEqualTo(3);
+        assertThat(sorted.lowerBound(190L)).isEqualTo(27);
+        assertThat(sorted.lowerBound(191L)).isEqualTo(30);
+        assertThat(sorted.lowerBound(1L << 48)).isEqualTo(30);
+        ULIDArray range = sorted.range(110L, 130L);
+        assertThat(range).hasSize(6).allMatch(u -> 110L <= u.timestamp() && u.timestamp() < 130L);
+        assertThat(range.timestamp(0)).isEqualTo(110L);
+        assertThat(range.subList(3, 6)).allMatch(u -> u.timestamp() == 120L);
+        assertThat(sorted.count(150L, 150L)).isZero();
+        assertThat(sorted.count(150L, 140L)).isZero();
+        assertThat(sorted.count(0L, Long.MAX_VALUE)).isEqualTo(30);
+    }
+
+}
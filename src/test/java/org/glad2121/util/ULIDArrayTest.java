@@ -0,0 +1,53 @@
+package org.glad2121.util;
+
+import static org.assertj.core.api.Assertions.*;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * {@link ULIDArray} の単体テスト。
+ */
+class ULIDArrayTest {
+
+    @BeforeEach
+    void setUp() throws Exception {
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+    }
+
+    @Test
+    @DisplayName("ULID の配列から生成し、要素とビット列を取得できること。")
+    void testOf() {
+        ULID ulid1 = ULID.from("01DZ86TBVBPHGD9PAH70YS7JVT");
+        ULID ulid2 = ULID.from("01DZ86TBVCE2ZA6BE9YS7HVW1T");
+        ULIDArray array = ULIDArray.of(ulid1, ulid2);
+        assertThat(array).containsExactly(ulid1, ulid2);
+        assertThat(array.getMostSignificantBits(1)).isEqualTo(ulid2.getMostSignificantBits());
+        assertThat(array.getLeastSignificantBits(1)).isEqualTo(ulid2.getLeastSignificantBits());
+        assertThat(array.timestamp(0)).isEqualTo(ulid1.timestamp());
+        assertThat(array.toMostSignificantBitsArray())
+            .containsExactly(ulid1.getMostSignificantBits(), ulid2.getMostSignificantBits());
+
+        byte[] buf = new byte[26];
+        assertThat(array.formatTo(1, buf, 0)).isEqualTo(26);
+        assertThat(ULID.parse(buf, 0)).isEqualTo(ulid2);
+    }
+
+    @Test
+    @DisplayName("変更できないこと。")
+    void testUnmodifiable() {
+        ULIDArray array = ULIDArray.of(ULID.nextULID());
+        assertThatThrownBy(() -> array.set(0, ULID.nextULID()))
+            .isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> array.add(ULID.nextULID()))
+            .isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> array.get(1))
+            .isInstanceOf(IndexOutOfBoundsException.class);
+    }
+
+}
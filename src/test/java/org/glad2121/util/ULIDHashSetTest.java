@@ -0,0 +1,108 @@
+package org.glad2121.util;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.time.Clock;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * {@link ULIDHashSet} の単体テスト。
+ */
+class ULIDHashSetTest {
+
+    @BeforeEach
+    void setUp() throws Exception {
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+    }
+
+    @Test
+    @DisplayName("追加・判定・削除の動作確認 (ビット列が 0 の ULID を含む)。")
+    void testAddContainsRemove() {
+        for (ULIDHashSet set : new ULIDHashSet[] {new ULIDHashSet(), ULIDHashSet.offHeap(0)}) {
+            ULID zero = new ULID(0L, 0L);
+            ULID ulid = ULID.from("01DZ86TBVBPHGD9PAH70YS7JVT");
+            assertThat(set.isEmpty()).isTrue();
+            assertThat(set.add(zero)).isTrue();
+            assertThat(set.add(zero)).isFalse();
+            assertThat(set.add(ulid)).isTrue();
+            assertThat(set.add(ulid)).isFalse();
+            assertThat(set.size()).isEqualTo(2);
+            assertThat(set.contains(zero)).isTrue();
+            assertThat(set.contains(ulid)).isTrue();
+            assertThat(set.contains(new ULID(0L, 1L))).isFalse();
+            assertThat(set.toULIDArray()).containsExactlyInAnyOrder(zero, ulid);
+            assertThat(set.remove(zero)).isTrue();
+            assertThat(set.remove(zero)).isFalse();
+            assertThat(set.contains(zero)).isFalse();
+            assertThat(set.size()).isEqualTo(1);
+            set.clear();
+            assertThat(set.isEmpty()).isTrue();
+            assertThat(set.contains(ulid)).isFalse();
+        }
+    }
+
+    @Test
+    @DisplayName("拡張や削除を繰り返しても、HashSet と同じ結果になること。")
+    void testRandomOperations() {
+        for (boolean offHeap : new boolean[] {false, true}) {
+            ULIDHashSet set = offHeap ? ULIDHashSet.offHeap(10) : new ULIDHashSet(10);
+            Set<ULID> expected = new HashSet<>();
+            Random random = new Random(0L);
+            // 単調増加のジェネレータの連番と、ランダムな ULID を混ぜる。
+            ULIDArray batch = new ULID.MonotonicGenerator(Clock.systemUTC(), random).nextBatch(5000);
+            for (int i = 0; i < 20_000; ++i) {
+                ULID ulid = (i % 2 == 0)
+                        ? batch.get(random.nextInt(batch.size()))
+                        : new ULID(random.nextInt(8), random.nextInt(2000));
+                if (random.nextInt(3) == 0) {
+                    assertThat(set.remove(ulid)).isEqualTo(expected.remove(ulid));
+                } else {
+                    assertThat(set.add(ulid)).isEqualTo(expected.add(ulid));
+                }
+                assertThat(set.size()).isEqualTo(expected.size());
+            }
+            for (ULID ulid : expected) {
+                assertThat(set.contains(ulid)).isTrue();
+            }
+            assertThat(set.toULIDArray()).containsExactlyInAnyOrderElementsOf(expected);
+        }
+    }
+
+    @Test
+    @DisplayName("スロット数は最大値で頭打ちになり、最大件数を超える想定件数は例外になること。")
+    void testMaxCapacity() {
+        assertThat(ULIDHashTable.grownCapacity(100, 1000)).isEqualTo(150);
+        assertThat(ULIDHashTable.grownCapacity(800, 1000)).isEqualTo(1000);
+        assertThat(ULIDHashTable.grownCapacity(999, 1000)).isEqualTo(1000);
+        assertThatThrownBy(() -> ULIDHashTable.grownCapacity(1000, 1000))
+            .isInstanceOf(IllegalStateException.class);
+
+        // ヒープ外はバッファのバイト数が int の範囲に収まるまで (Javadoc に記載の件数)。
+        assertThat(ULIDHashTable.maxSize(false, true)).isEqualTo(100_663_295);
+        assertThat(ULIDHashTable.maxSize(true, true)).isEqualTo(67_108_863);
+        assertThat(ULIDHashTable.maxSize(false, false)).isEqualTo(805_306_364);
+        assertThat(ULIDHashTable.maxSize(true, false)).isEqualTo(805_306_364);
+        assertThat(ULIDHashTable.capacityFor(ULIDHashTable.maxSize(false, true)))
+            .isGreaterThanOrEqualTo(ULIDSlots.maxCapacity(false, true));
+
+        assertThatThrownBy(() -> ULIDHashSet.offHeap(100_663_296))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> ULIDLongHashMap.offHeap(67_108_864))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new ULIDHashSet(Integer.MAX_VALUE))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new ULIDLongHashMap(-1))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+}
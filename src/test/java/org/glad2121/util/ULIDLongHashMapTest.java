@@ -0,0 +1,73 @@
+package org.glad2121.util;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * {@link ULIDLongHashMap} の単体テスト。
+ */
+class ULIDLongHashMapTest {
+
+    @BeforeEach
+    void setUp() throws Exception {
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+    }
+
+    @Test
+    @DisplayName("格納・取得・削除の動作確認 (ビット列が 0 の ULID を含む)。")
+    void testPutGetRemove() {
+        for (ULIDLongHashMap map : new ULIDLongHashMap[] {
+                new ULIDLongHashMap(), ULIDLongHashMap.offHeap(0)}) {
+            ULID zero = new ULID(0L, 0L);
+            ULID ulid = ULID.from("01DZ86TBVBPHGD9PAH70YS7JVT");
+            assertThat(map.put(zero, 10L)).isTrue();
+            assertThat(map.put(ulid, 20L)).isTrue();
+            assertThat(map.put(ulid, 21L)).isFalse();
+            assertThat(map.size()).isEqualTo(2);
+            assertThat(map.get(zero, -1L)).isEqualTo(10L);
+            assertThat(map.get(ulid, -1L)).isEqualTo(21L);
+            assertThat(map.get(new ULID(0L, 1L), -1L)).isEqualTo(-1L);
+            assertThat(map.containsKey(ulid)).isTrue();
+            assertThat(map.keys()).containsExactlyInAnyOrder(zero, ulid);
+            long[] sum = new long[1];
+            map.forEach((msb, lsb, value) -> sum[0] += value);
+            assertThat(sum[0]).isEqualTo(31L);
+            assertThat(map.remove(ulid)).isTrue();
+            assertThat(map.remove(ulid)).isFalse();
+            assertThat(map.get(ulid, -1L)).isEqualTo(-1L);
+            assertThat(map.size()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    @DisplayName("拡張や削除を繰り返しても、HashMap と同じ結果になること。")
+    void testRandomOperations() {
+        for (boolean offHeap : new boolean[] {false, true}) {
+            ULIDLongHashMap map = offHeap ? ULIDLongHashMap.offHeap(10) : new ULIDLongHashMap(10);
+            Map<ULID, Long> expected = new HashMap<>();
+            Random random = new Random(0L);
+            for (int i = 0; i < 20_000; ++i) {
+                ULID ulid = new ULID(random.nextInt(4), random.nextInt(3000));
+                if (random.nextInt(3) == 0) {
+                    assertThat(map.remove(ulid)).isEqualTo(expected.remove(ulid) != null);
+                } else {
+                    assertThat(map.put(ulid, i)).isEqualTo(expected.put(ulid, (long) i) == null);
+                }
+                assertThat(map.size()).isEqualTo(expected.size());
+            }
+            expected.forEach((ulid, value) -> assertThat(map.get(ulid, -1L)).isEqualTo(value));
+        }
+    }
+
+}
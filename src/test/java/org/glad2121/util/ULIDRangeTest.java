@@ -0,0 +1,87 @@
+package org.glad2121.util;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * {@link ULIDRange} の単体テスト。
+ */
+class ULIDRangeTest {
+
+    @BeforeEach
+    void setUp() throws Exception {
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+    }
+
+    @Test
+    @DisplayName("タイムスタンプの範囲から生成し、範囲内か判定できること。")
+    void testOfTimestamps() {
+        ULIDRange range = ULIDRange.ofTimestamps(100L, 200L);
+        assertThat(range.getFrom()).isEqualTo(ULID.minFor(100L));
+        assertThat(range.getTo()).isEqualTo(ULID.minFor(200L));
+        assertThat(range.contains(ULID.minFor(100L))).isTrue();
+        assertThat(range.contains(ULID.maxFor(199L))).isTrue();
+        assertThat(range.contains(ULID.maxFor(99L))).isFalse();
+        assertThat(range.contains(ULID.minFor(200L))).isFalse();
+        assertThat(range.isEmpty()).isFalse();
+        assertThat(ULIDRange.ofTimestamps(100L, 100L).isEmpty()).isTrue();
+        assertThat(range).hasToString(
+                "[00000000340000000000000000, 00000000680000000000000000)");
+        assertThatThrownBy(() -> ULIDRange.ofTimestamps(200L, 100L))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("範囲を均等に分割できること。")
+    void testSplit() {
+        ULIDRange range = ULIDRange.ofTimestamps(100L, 104L);
+        List<ULIDRange> ranges = range.split(4);
+        assertThat(ranges).containsExactly(
+                ULIDRange.ofTimestamps(100L, 101L),
+                ULIDRange.ofTimestamps(101L, 102L),
+                ULIDRange.ofTimestamps(102L, 103L),
+                ULIDRange.ofTimestamps(103L, 104L));
+
+        // 1ミリ秒を3分割すると、ランダム部の途中で分かれる。
+        ranges = ULIDRange.ofTimestamps(100L, 101L).split(3);
+        assertThat(ranges).hasSize(3);
+        assertThat(ranges.get(0).getFrom()).isEqualTo(ULID.minFor(100L));
+        assertThat(ranges.get(2).getTo()).isEqualTo(ULID.minFor(101L));
+        for (int i = 1; i < 3; ++i) {
+            assertThat(ranges.get(i).getFrom()).isEqualTo(ranges.get(i - 1).getTo());
+            assertThat(ranges.get(i).getFrom().timestamp()).isEqualTo(100L);
+        }
+        assertThat(ranges.get(1).getFrom()).isEqualTo(new ULID((100L << 16) | 0x5555, 0x5555_5555_5555_5555L));
+
+        // 幅が分割数より小さい場合は、空の範囲を含む。
+        ranges = ULIDRange.of(new ULID(0L, 0L), new ULID(0L, 2L)).split(4);
+        assertThat(ranges).extracting(ULIDRange::isEmpty).containsExactly(true, false, true, false);
+
+        // 符号なしの順序で、最上位ビットが立った ULID も分割できること。
+        ULIDRange all = ULIDRange.of(new ULID(0L, 0L), new ULID(-1L, -1L));
+        assertThat(all.split(2).get(0).getTo()).isEqualTo(new ULID(Long.MIN_VALUE - 1, -1L));
+        assertThatThrownBy(() -> range.split(0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("タイムスタンプごとの最小・最大の ULID の動作確認。")
+    void testMinMaxFor() {
+        assertThat(ULID.minFor(0L)).hasToString("00000000000000000000000000");
+        assertThat(ULID.maxFor(0L)).hasToString("0000000000ZZZZZZZZZZZZZZZZ");
+        assertThat(ULID.maxFor(0xFFFF_FFFF_FFFFL)).hasToString("7ZZZZZZZZZZZZZZZZZZZZZZZZZ");
+        assertThatThrownBy(() -> ULID.minFor(1L << 48))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> ULID.maxFor(-1L))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+}
@@ -2,13 +2,32 @@ package org.glad2121.util;
 
 import static org.assertj.core.api.Assertions.*;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
 import java.security.SecureRandom;
 import java.time.Clock;
 import java.time.Instant;
 import java.time.OffsetDateTime;
+import java.time.ZoneId;
 import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Random;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.glad2121.test.GradualClock;
 import org.glad2121.util.ULID.Generator;
@@ -51,6 +70,352 @@ class ULIDTest {
         //System.out.println(ULID.nextULID(gen));
     }
 
+    @Test
+    @DisplayName("同じミリ秒内は、前回のランダム部に1を加えること。")
+    void testMonotonicSameMillis() {
+        ULID.Generator gen = new ULID.MonotonicGenerator(
+                Clock.fixed(START_TIME, ZoneOffset.UTC), new Random(0L));
+        assertThat(ULID.nextULID(gen)).hasToString("01DZ86TBVBPHGD9PAH70YS7JVT");
+        assertThat(ULID.nextULID(gen)).hasToString("01DZ86TBVBPHGD9PAH70YS7JVV");
+        assertThat(ULID.nextULID(gen)).hasToString("01DZ86TBVBPHGD9PAH70YS7JVW");
+        ULID prev = ULID.nextULID(gen);
+        for (int i = 0; i < 1000; ++i) {
+            ULID ulid = ULID.nextULID(gen);
+            assertThat(ulid.timestamp()).isEqualTo(START_TIME.toEpochMilli());
+            assertThat(ulid.getMostSignificantBits()).isEqualTo(prev.getMostSignificantBits());
+            assertThat(ulid.getLeastSignificantBits()).isEqualTo(prev.getLeastSignificantBits() + 1);
+            prev = ulid;
+        }
+    }
+
+    @Test
+    @DisplayName("最下位ビット列の符号ビットに繰り上がっても、比較・文字列の順序で単調増加すること。")
+    void testMonotonicSignBoundary() {
+        ULID.MonotonicGenerator gen = new ULID.MonotonicGenerator(
+                Clock.fixed(START_TIME, ZoneOffset.UTC), new Random(0L));
+        long timestamp = START_TIME.toEpochMilli();
+        ULID prev = new ULID((timestamp << 16) | 0x1234, Long.MAX_VALUE);
+        gen.last.set(prev);
+        ULID ulid = ULID.nextULID(gen);
+        assertThat(ulid.getLeastSignificantBits()).isEqualTo(Long.MIN_VALUE);
+        assertThat(ulid).isGreaterThan(prev);
+        assertThat(ulid.toString()).isGreaterThan(prev.toString());
+
+        // バッチが境界をまたぐ場合。
+        gen.last.set(new ULID((timestamp << 16) | 0x1234, Long.MAX_VALUE - 2));
+        ULIDArray batch = gen.nextBatch(5);
+        assertThat(batch).isSorted();
+        assertThat(batch.stream().map(ULID::toString)).isSorted();
+
+        // 符号付きでは逆順になる組み合わせ、およびタイムスタンプの最上位ビットが立つ場合。
+        assertThat(new ULID(1L << 16, Long.MAX_VALUE)).isLessThan(new ULID(1L << 16, Long.MIN_VALUE));
+        assertThat(new ULID(Long.MAX_VALUE, 0L)).isLessThan(new ULID(Long.MIN_VALUE, 0L));
+        assertThat(new ULID(1L << 16, 0L)).isEqualByComparingTo(new ULID(1L << 16, 0L));
+    }
+
+    @Test
+    @DisplayName("ランダム部があふれた場合は、次のミリ秒まで待つこと。")
+    void testMonotonicOverflow() {
+        ULID.MonotonicGenerator gen = new ULID.MonotonicGenerator(new TestClock(), new Random(0L));
+        long timestamp = START_TIME.toEpochMilli() + 5;
+
+        // 下位ビット列のあふれは、上位ビット列に繰り上がる。
+        gen.last.set(new ULID((timestamp << 16) | 0x1234, -1L));
+        ULID ulid = ULID.nextULID(gen);
+        assertThat(ulid.getMostSignificantBits()).isEqualTo((timestamp << 16) | 0x1235);
+        assertThat(ulid.getLeastSignificantBits()).isEqualTo(0L);
+
+        // ランダム部全体のあふれは、次のミリ秒まで待つ。
+        gen.last.set(new ULID((timestamp << 16) | 0xFFFF, -1L));
+        ulid = ULID.nextULID(gen);
+        assertThat(ulid.timestamp()).isEqualTo(timestamp + 1);
+    }
+
+    @Test
+    @DisplayName("複数のスレッドから同時に生成しても、重複せずスレッドごとに単調増加すること。")
+    void testMonotonicConcurrent() throws Exception {
+        ULID.Generator gen = new ULID.MonotonicGenerator(Clock.systemUTC(), new Random(0L));
+        Set<ULID> all = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; ++t) {
+                futures.add(executor.submit(() -> {
+                    ULID prev = ULID.nextULID(gen);
+                    all.add(prev);
+                    for (int i = 1; i < 10_000; ++i) {
+                        ULID ulid = ULID.nextULID(gen);
+                        assertThat(ulid).isGreaterThan(prev);
+                        all.add(ulid);
+                        prev = ulid;
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertThat(all).hasSize(80_000);
+    }
+
+    @Test
+    @DisplayName("許容範囲以内の時計の戻りは、前回のタイムスタンプに揃えて計測値に数えること。")
+    void testDriftWithinTolerance() {
+        ULID.GeneratorCounters counters = new ULID.GeneratorCounters();
+        ULID.Generator gen = new ULID.DriftTolerantGenerator(
+                new ScriptedClock(1000L, 1000L, 995L), ULID.EntropySource.of(new Random(0L)),
+                ULID.ClockDriftPolicy.FAIL, 10L, counters);
+        ULID ulid1 = ULID.nextULID(gen);
+        ULID ulid2 = ULID.nextULID(gen);
+        ULID ulid3 = ULID.nextULID(gen);
+        assertThat(ulid2).isGreaterThan(ulid1);
+        assertThat(ulid3).isGreaterThan(ulid2);
+        assertThat(ulid3.timestamp()).isEqualTo(1000L);
+        assertThat(counters.getSameMillisecond()).isEqualTo(1L);
+        assertThat(counters.getRegressions()).isEqualTo(1L);
+        assertThat(counters.getMaxRegressionMillis()).isEqualTo(5L);
+
+        counters.reset();
+        assertThat(counters.getRegressions()).isEqualTo(0L);
+        assertThat(counters.getMaxRegressionMillis()).isEqualTo(0L);
+    }
+
+    @Test
+    @DisplayName("BLOCK は、許容範囲を超えて時計が戻った場合に追いつくまで待つこと。")
+    void testDriftBlock() {
+        ULID.GeneratorCounters counters = new ULID.GeneratorCounters();
+        ULID.Generator gen = new ULID.DriftTolerantGenerator(
+                new ScriptedClock(1000L, 900L, 950L, 999L), ULID.EntropySource.of(new Random(0L)),
+                ULID.ClockDriftPolicy.BLOCK, 10L, counters);
+        ULID ulid1 = ULID.nextULID(gen);
+        ULID ulid2 = ULID.nextULID(gen);
+        assertThat(ulid2).isGreaterThan(ulid1);
+        assertThat(ulid2.timestamp()).isEqualTo(1000L);
+        assertThat(counters.getRegressions()).isEqualTo(1L);
+        assertThat(counters.getMaxRegressionMillis()).isEqualTo(100L);
+        assertThat(counters.getSpinNanos()).isGreaterThan(0L);
+    }
+
+    @Test
+    @DisplayName("BORROW は、時計が戻っても生成を続け、ランダム部があふれたら次のミリ秒を先取りすること。")
+    void testDriftBorrow() {
+        ULID.GeneratorCounters counters = new ULID.GeneratorCounters();
+        ULID.DriftTolerantGenerator gen = new ULID.DriftTolerantGenerator(
+                new ScriptedClock(1000L, 900L, 901L), ULID.EntropySource.of(new Random(0L)),
+                ULID.ClockDriftPolicy.BORROW, 10L, counters);
+        ULID ulid1 = ULID.nextULID(gen);
+        ULID ulid2 = ULID.nextULID(gen);
+        assertThat(ulid2).isGreaterThan(ulid1);
+        assertThat(ulid2.timestamp()).isEqualTo(1000L);
+
+        gen.last.set(new ULID((1000L << 16) | 0xFFFF, -1L));
+        ULID ulid3 = ULID.nextULID(gen);
+        assertThat(ulid3.timestamp()).isEqualTo(1001L);
+        assertThat(counters.getRegressions()).isEqualTo(2L);
+        assertThat(counters.getMaxRegressionMillis()).isEqualTo(100L);
+        assertThat(counters.getSpinNanos()).isEqualTo(0L);
+    }
+
+    @Test
+    @DisplayName("FAIL は、許容範囲を超えて時計が戻った場合に例外が発生すること。")
+    void testDriftFail() {
+        ULID.GeneratorCounters counters = new ULID.GeneratorCounters();
+        ULID.Generator gen = new ULID.DriftTolerantGenerator(
+                new ScriptedClock(1000L, 900L, 1001L), ULID.EntropySource.of(new Random(0L)),
+                ULID.ClockDriftPolicy.FAIL, 10L, counters);
+        ULID ulid1 = ULID.nextULID(gen);
+        assertThatIllegalStateException()
+                .isThrownBy(() -> ULID.nextULID(gen))
+                .withMessageContaining("100 ms");
+        assertThat(counters.getRegressions()).isEqualTo(1L);
+        assertThat(ULID.nextULID(gen)).isGreaterThan(ulid1);
+
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> new ULID.DriftTolerantGenerator(
+                        ULID.ClockDriftPolicy.FAIL, -1L, counters));
+    }
+
+    @Test
+    @DisplayName("ノード ID と連番を埋め込み、ULID から取り出せること。")
+    void testSharded() {
+        ULID.ShardedGenerator gen = new ULID.ShardedGenerator(
+                new ScriptedClock(1000L, 1000L, 1000L, 1001L), ULID.EntropySource.of(new Random(0L)),
+                200, 8, 12);
+        ULID prev = null;
+        for (int i = 0; i < 3; ++i) {
+            ULID ulid = ULID.nextULID(gen);
+            assertThat(ulid.timestamp()).isEqualTo(1000L);
+            assertThat(gen.shardOf(ulid)).isEqualTo(200);
+            assertThat(ULID.ShardedGenerator.shardOf(ulid, 8)).isEqualTo(200);
+            assertThat((int) (ulid.getMostSignificantBits() >>> 8) & 0xFF).isEqualTo(200);
+            assertThat(gen.sequenceOf(ulid)).isEqualTo(i);
+            if (prev != null) {
+                assertThat(ulid).isGreaterThan(prev);
+            }
+            prev = ulid;
+        }
+        ULID ulid = ULID.nextULID(gen);
+        assertThat(ulid.timestamp()).isEqualTo(1001L);
+        assertThat(gen.shardOf(ulid)).isEqualTo(200);
+        assertThat(gen.sequenceOf(ulid)).isEqualTo(0L);
+
+        ULIDArray batch = gen.nextBatch(3);
+        assertThat(batch).isSorted().doesNotHaveDuplicates();
+        assertThat(batch).allSatisfy(x -> assertThat(gen.shardOf(x)).isEqualTo(200));
+    }
+
+    @Test
+    @DisplayName("連番があふれた場合は次のミリ秒まで待ち、異なるノードとは衝突しないこと。")
+    void testShardedOverflow() {
+        ULID.ShardedGenerator gen1 = new ULID.ShardedGenerator(
+                new ScriptedClock(1000L, 1000L, 1000L), ULID.EntropySource.of(new Random(0L)), 1, 20, 1);
+        ULID.ShardedGenerator gen2 = new ULID.ShardedGenerator(
+                new ScriptedClock(1000L, 1000L, 1000L), ULID.EntropySource.of(new Random(0L)), 0xABCDE, 20, 1);
+        ULID[] ulids = new ULID[6];
+        for (int i = 0; i < 3; ++i) {
+            ulids[i] = ULID.nextULID(gen1);
+            ulids[i + 3] = ULID.nextULID(gen2);
+        }
+        assertThat(ulids).doesNotHaveDuplicates();
+        assertThat(ulids[1].timestamp()).isEqualTo(1000L);
+        assertThat(gen1.sequenceOf(ulids[1])).isEqualTo(1L);
+        assertThat(ulids[2].timestamp()).isEqualTo(1001L);
+        assertThat(gen1.sequenceOf(ulids[2])).isEqualTo(0L);
+        // ノード ID が最上位・最下位ビット列にまたがる場合。
+        assertThat(ULID.ShardedGenerator.shardOf(ulids[0], 20)).isEqualTo(1);
+        assertThat(ULID.ShardedGenerator.shardOf(ulids[3], 20)).isEqualTo(0xABCDE);
+        assertThat(gen2.sequenceOf(ulids[4])).isEqualTo(1L);
+
+        // 最大ビット数では、int の最大値までのノード ID を扱える。
+        ULID.ShardedGenerator max = new ULID.ShardedGenerator(
+                new ScriptedClock(1000L), ULID.EntropySource.of(new Random(0L)),
+                Integer.MAX_VALUE, ULID.ShardedGenerator.MAX_NODE_BITS, 32);
+        ULID ulid = ULID.nextULID(max);
+        assertThat(max.shardOf(ulid)).isEqualTo(Integer.MAX_VALUE);
+        assertThat(ULID.ShardedGenerator.shardOf(ulid, 31)).isEqualTo(Integer.MAX_VALUE);
+    }
+
+    @Test
+    @DisplayName("ノード ID と連番のビット数が不正な場合は、例外が発生すること。")
+    void testShardedIllegalArguments() {
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> new ULID.ShardedGenerator(0, 0, 8));
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> new ULID.ShardedGenerator(0, 32, 8));
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> new ULID.ShardedGenerator(0, 8, 0));
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> new ULID.ShardedGenerator(256, 8, 8));
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> new ULID.ShardedGenerator(-1, 8, 8));
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> ULID.ShardedGenerator.shardOf(ULID.nextULID(), 0));
+    }
+
+    @Test
+    @DisplayName("nextBatch() で、先頭からランダム部に1ずつ加えた ULID が生成されること。")
+    void testNextBatch() {
+        ULID.Generator gen = new ULID.DefaultGenerator(new TestClock(), new Random(0L));
+        ULIDArray batch = gen.nextBatch(3);
+        assertThat(batch).extracting(ULID::toString).containsExactly(
+                "01DZ86TBVBPHGD9PAH70YS7JVT",
+                "01DZ86TBVBPHGD9PAH70YS7JVV",
+                "01DZ86TBVBPHGD9PAH70YS7JVW");
+        long[] msb = new long[5];
+        long[] lsb = new long[5];
+        gen.nextBatch(4, msb, lsb);
+        assertThat(new ULID(msb[0], lsb[0])).hasToString("01DZ86TBVCE2ZA6BE9YS7HVW1T");
+        for (int i = 1; i < 4; ++i) {
+            assertThat(new ULID(msb[i], lsb[i])).isGreaterThan(new ULID(msb[i - 1], lsb[i - 1]));
+        }
+        assertThat(msb[4]).isZero();
+        assertThat(gen.nextBatch(0)).isEmpty();
+        assertThatThrownBy(() -> gen.nextBatch(-1))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> gen.nextBatch(6, msb, lsb))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("単調増加のジェネレータの nextBatch() が、前後の nextULID() と単調増加すること。")
+    void testMonotonicNextBatch() {
+        ULID.MonotonicGenerator gen = new ULID.MonotonicGenerator(
+                Clock.fixed(START_TIME, ZoneOffset.UTC), new Random(0L));
+        ULID first = ULID.nextULID(gen);
+        ULIDArray batch = gen.nextBatch(1000);
+        assertThat(batch.get(0)).isEqualTo(ULID.Generator.plus(first, 1));
+        assertThat(batch.get(999)).isEqualTo(ULID.Generator.plus(first, 1000));
+        assertThat(ULID.nextULID(gen)).isEqualTo(ULID.Generator.plus(first, 1001));
+
+        // バッチの途中でランダム部があふれる場合は、次のミリ秒まで待つ。
+        ULID.MonotonicGenerator gen2 = new ULID.MonotonicGenerator(new TestClock(), new Random(0L));
+        long timestamp = START_TIME.toEpochMilli() + 5;
+        gen2.last.set(new ULID((timestamp << 16) | 0xFFFF, -10L));
+        batch = gen2.nextBatch(20);
+        assertThat(batch.timestamp(0)).isGreaterThan(timestamp);
+        assertThat(batch.timestamp(19)).isEqualTo(batch.timestamp(0));
+        assertThat(gen2.last.get()).isEqualTo(batch.get(19));
+    }
+
+    @Test
+    @DisplayName("Random を指定した場合と、Random の供給元を指定した場合で同じ結果になること。")
+    void testEntropySourceOfRandom() {
+        ULID.Generator gen1 = new ULID.DefaultGenerator(new TestClock(), new Random(0L));
+        ULID.Generator gen2 = new ULID.DefaultGenerator(
+                new TestClock(), ULID.EntropySource.of(new Random(0L)));
+        for (int i = 0; i < 10; ++i) {
+            assertThat(ULID.nextULID(gen2)).isEqualTo(ULID.nextULID(gen1));
+        }
+    }
+
+    @Test
+    @DisplayName("AES-CTR のバッファを持つ推測困難な供給元が、ストライプと補充をまたいで重複しない値を返すこと。")
+    void testSecureEntropySource() throws Exception {
+        ULID.StripedSecureEntropySource source = new ULID.StripedSecureEntropySource(3, 64);
+        assertThat(source.stripes).hasSize(4);
+        Set<Long> values = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; ++t) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 10_000; ++i) {
+                        // int と long を交互に取り出し、バッファの端の扱いも確認する。
+                        long value = ((long) source.nextInt() << 32) ^ source.nextLong();
+                        assertThat(values.add(value)).isTrue();
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertThat(values).hasSize(40_000);
+
+        // ランダム部をまとめて取り出しても、タイムスタンプを保ち、補充をまたいで重複しない。
+        Set<ULID> ulids = new HashSet<>();
+        for (int i = 0; i < 1_000; ++i) {
+            ULID ulid = source.nextULID(0x0123_4567_89ABL);
+            assertThat(ulid.timestamp()).isEqualTo(0x0123_4567_89ABL);
+            assertThat(ulids.add(ulid)).isTrue();
+        }
+
+        ULID.Generator gen = new ULID.MonotonicGenerator(Clock.systemUTC(), ULID.EntropySource.fast());
+        assertThat(ULID.nextULID(gen)).isLessThan(ULID.nextULID(gen));
+
+        // 引数なしのコンストラクタは、共有の供給元を使い、Random も共有の SecureRandom になる。
+        ULID.Generator gen1 = new ULID.MonotonicGenerator();
+        ULID.Generator gen2 = new ULID.ShardedGenerator(1, 8, 8);
+        assertThat(ULID.EntropySource.secure()).isSameAs(ULID.EntropySource.secure());
+        assertThat(gen1.entropy).isSameAs(ULID.EntropySource.secure()).isSameAs(gen2.entropy);
+        assertThat(gen1.random).isInstanceOf(SecureRandom.class).isSameAs(gen2.random).isSameAs(gen.random);
+        assertThat(ULID.nextULID(gen1)).isLessThan(ULID.nextULID(gen1));
+    }
+
     @Test
     @DisplayName("上位ビット・下位ビットによる生成と取得のテスト。")
     void testFromAndGetSigBits() {
@@ -104,6 +469,73 @@ class ULIDTest {
         assertThat(ULID.from(text)).isEqualTo(ulid);
     }
 
+    @Test
+    @DisplayName("文字列・バイト列の途中から ULID を読み取れること。")
+    void testParse() {
+        String text = "0123456789ABCDEFGHJKMNPQRS";
+        ULID ulid = ULID.from(text);
+        assertThat(ULID.parse("id=" + text + ";", 3)).isEqualTo(ulid);
+        assertThat(ULID.parse(new StringBuilder("01").append(text), 2)).isEqualTo(ulid);
+        assertThat(ULID.parse(("id=" + text).getBytes(StandardCharsets.US_ASCII), 3))
+            .isEqualTo(ulid);
+        // 小文字と、紛らわしい文字 (I, L, O) も読み取れること。
+        assertThat(ULID.parse("o123456789abcdefghjkmnpqrs", 0)).isEqualTo(ulid);
+        assertThat(ULID.from("0I23456789ABCDEFGHJKMNPQRS")).isEqualTo(ulid);
+        assertThat(ULID.from("0l23456789ABCDEFGHJKMNPQRS")).isEqualTo(ulid);
+        assertThat(ULID.from("7ZZZZZZZZZZZZZZZZZZZZZZZZZ")).isEqualTo(new ULID(-1L, -1L));
+        assertThat(ULID.from("00000000000000000000000000")).isEqualTo(new ULID(0L, 0L));
+    }
+
+    @Test
+    @DisplayName("不正な ULID 表現を読み取ると、例外が発生すること。")
+    void testParseError() {
+        assertThatThrownBy(() -> ULID.from("0123456789ABCDEFGHJKMNPQRU"))
+            .isInstanceOf(NumberFormatException.class)
+            .hasMessageContaining("error at:25");
+        assertThatThrownBy(() -> ULID.from("0123456789ABCDEFGHJKMNPQR_"))
+            .isInstanceOf(NumberFormatException.class);
+        assertThatThrownBy(() -> ULID.from("０123456789ABCDEFGHJKMNPQRS"))
+            .isInstanceOf(NumberFormatException.class)
+            .hasMessageContaining("error at:0");
+        assertThatThrownBy(() -> ULID.from("80000000000000000000000000"))
+            .isInstanceOf(NumberFormatException.class)
+            .hasMessageContaining("exceeds range of ULID");
+        byte[] bytes = "0123456789ABCDEFGHJKMNPQRS".getBytes(StandardCharsets.US_ASCII);
+        bytes[5] = (byte) 0xB5;
+        assertThatThrownBy(() -> ULID.parse(bytes, 0))
+            .isInstanceOf(NumberFormatException.class)
+            .hasMessageContaining("error at:5");
+        assertThatThrownBy(() -> ULID.parse(bytes, 1))
+            .isInstanceOf(IndexOutOfBoundsException.class);
+        assertThatThrownBy(() -> ULID.from("0123456789ABCDEFGHJKMNPQR"))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("ULID の文字列表現を、文字の配列・バイト列・バッファへ書き込めること。")
+    void testFormatTo() {
+        String text = "0123456789ABCDEFGHJKMNPQRS";
+        ULID ulid = ULID.from(text);
+        char[] chars = new char[30];
+        assertThat(ulid.formatTo(chars, 2)).isEqualTo(28);
+        assertThat(new String(chars, 2, 26)).isEqualTo(text);
+        byte[] bytes = new byte[30];
+        assertThat(ulid.formatTo(bytes, 3)).isEqualTo(29);
+        assertThat(new String(bytes, 3, 26, StandardCharsets.US_ASCII)).isEqualTo(text);
+        for (ByteBuffer buf : new ByteBuffer[] {
+                ByteBuffer.allocate(40).position(5).slice(), ByteBuffer.allocateDirect(30)}) {
+            assertThat(ulid.formatTo(buf, 4)).isEqualTo(30);
+            assertThat(buf.position()).isEqualTo(0);
+            byte[] dst = new byte[26];
+            for (int i = 0; i < dst.length; ++i) {
+                dst[i] = buf.get(4 + i);
+            }
+            assertThat(new String(dst, StandardCharsets.US_ASCII)).isEqualTo(text);
+        }
+        assertThatThrownBy(() -> ulid.formatTo(new char[25], 0))
+            .isInstanceOf(IndexOutOfBoundsException.class);
+    }
+
     @Test
     @DisplayName("バイト列から ULID を生成し、元のバイト列に変換できること。")
     void testFromAndToBytes() {
@@ -126,6 +558,97 @@ class ULIDTest {
         assertThat(ULID.from(data)).isEqualTo(ulid);
     }
 
+    @Test
+    @DisplayName("ビット列をバイト列・バッファの指定された位置へ読み書きできること。")
+    void testReadWriteBinary() {
+        ULID ulid = ULID.from("0123456789ABCDEFGHJKMNPQRS");
+        byte[] data = ulid.toBytes();
+        byte[] buf = new byte[20];
+        assertThat(ulid.writeTo(buf, 3)).isEqualTo(19);
+        assertThat(Arrays.copyOfRange(buf, 3, 19)).isEqualTo(data);
+        assertThat(ULID.readFrom(buf, 3)).isEqualTo(ulid);
+        assertThatThrownBy(() -> ulid.writeTo(buf, 5))
+            .isInstanceOf(IndexOutOfBoundsException.class);
+
+        // バッファのバイト順序にかかわらず big-endian で読み書きすること。
+        for (ByteBuffer bb : new ByteBuffer[] {
+                ByteBuffer.allocate(64), ByteBuffer.allocateDirect(64),
+                ByteBuffer.allocate(64).order(ByteOrder.LITTLE_ENDIAN)}) {
+            ULID other = ULID.nextULID();
+            ulid.writeTo(bb.position(1));
+            other.writeTo(bb);
+            assertThat(bb.position()).isEqualTo(33);
+            assertThat(ulid.writeTo(bb, 40)).isEqualTo(56);
+            byte[] dst = new byte[16];
+            bb.position(1);
+            bb.get(dst);
+            assertThat(dst).isEqualTo(data);
+            assertThat(ULID.readFrom(bb)).isEqualTo(other);
+            assertThat(ULID.readFrom(bb, 40)).isEqualTo(ulid);
+            assertThat(bb.position()).isEqualTo(33);
+
+            // 残りが16バイト未満ならば、位置を変更せずに例外をスローする。
+            bb.position(bb.capacity() - 12);
+            assertThatThrownBy(() -> ULID.readFrom(bb))
+                .isInstanceOf(BufferUnderflowException.class);
+            assertThatThrownBy(() -> ulid.writeTo(bb))
+                .isInstanceOf(BufferOverflowException.class);
+            assertThat(bb.position()).isEqualTo(bb.capacity() - 12);
+            assertThat(bb.getLong(bb.capacity() - 8)).isEqualTo(0L);
+
+            // 絶対位置の読み書きも、限界を超える場合は何も書き込まずに例外になる。
+            assertThatThrownBy(() -> ULID.readFrom(bb, bb.capacity() - 8))
+                .isInstanceOf(IndexOutOfBoundsException.class);
+            assertThatThrownBy(() -> ulid.writeTo(bb, bb.capacity() - 8))
+                .isInstanceOf(IndexOutOfBoundsException.class);
+            assertThatThrownBy(() -> ulid.writeTo(bb, -1))
+                .isInstanceOf(IndexOutOfBoundsException.class);
+            assertThat(bb.getLong(bb.capacity() - 8)).isEqualTo(0L);
+            assertThat(bb.get(0)).isEqualTo((byte) 0);
+        }
+    }
+
+    @Test
+    @DisplayName("ビット列をストリームへ読み書きできること。")
+    void testReadWriteStream() throws Exception {
+        ULID ulid = ULID.nextULID();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            ulid.writeTo(out);
+        }
+        assertThat(bytes.toByteArray()).isEqualTo(ulid.toBytes());
+        try (DataInputStream in = new DataInputStream(
+                new ByteArrayInputStream(bytes.toByteArray()))) {
+            assertThat(ULID.readFrom(in)).isEqualTo(ulid);
+        }
+    }
+
+    @Test
+    @DisplayName("ULID の配列をまとめて読み書きできること。")
+    void testReadWriteAll() {
+        ULID[] ulids = ULID.DefaultGenerator.INSTANCE.nextBatch(5).toArray(new ULID[0]);
+        byte[] buf = new byte[90];
+        assertThat(ULID.writeAll(ulids, buf, 10)).isEqualTo(90);
+        assertThat(ULID.readAll(buf, 10, 5)).containsExactly(ulids);
+        assertThat(ULIDArray.readFrom(buf, 10, 5)).containsExactly(ulids);
+
+        ByteBuffer bb = ByteBuffer.allocateDirect(80);
+        ULID.writeAll(ulids, bb).flip();
+        assertThat(ULID.readAll(bb, 5)).containsExactly(ulids);
+        bb.clear();
+        ULIDArray.of(ulids).subList(1, 4).writeTo(bb.order(ByteOrder.LITTLE_ENDIAN)).flip();
+        assertThat(ULIDArray.readFrom(bb, 3)).containsExactly(ulids[1], ulids[2], ulids[3]);
+        assertThat(bb.hasRemaining()).isFalse();
+
+        byte[] buf2 = new byte[48];
+        assertThat(ULIDArray.of(ulids).subList(2, 5).writeTo(buf2, 0)).isEqualTo(48);
+        assertThat(ULID.readAll(buf2, 0, 3)).containsExactly(ulids[2], ulids[3], ulids[4]);
+        assertThatThrownBy(() -> ULID.readAll(bb.clear(), 6))
+            .isInstanceOf(BufferUnderflowException.class);
+        assertThatThrownBy(() -> ULID.writeAll(ulids, ByteBuffer.allocate(79)))
+            .isInstanceOf(BufferOverflowException.class);
+    }
+
     @Test
     @DisplayName("タイムスタンプとエントロピーによる生成と取得のテスト。")
     void testFromAndGetTimestampEntropy() {
@@ -271,6 +794,44 @@ class ULIDTest {
 
     }
 
+    /**
+     * 指定された順にミリ秒を返し、その後は1ミリ秒ずつ進む時計。
+     */
+    static class ScriptedClock extends Clock {
+
+        final long[] millis;
+
+        int index;
+
+        public ScriptedClock(long... millis) {
+            this.millis = millis;
+        }
+
+        @Override
+        public synchronized long millis() {
+            if (index < millis.length) {
+                return millis[index++];
+            }
+            return millis[millis.length - 1] + (++index - millis.length);
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis());
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+    }
+
     /**
      * Huxi の {@code nextValue} と同等ロジックのジェネレータ。
      *